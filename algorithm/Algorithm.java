@@ -1,8 +1,12 @@
 package algorithm;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import models.Block;
 import models.Container;
+import models.Glue;
 import models.Resource;
 import models.Stopwatch;
 
@@ -13,10 +17,31 @@ import models.Stopwatch;
  * after call to run() the object will be in state 2)
  * after call to setAlgoDone() the object will be in state 3)
  * the only way to go back to state 1) from state 2) and 3) is to call init()
+ * in state 2) the algorithm can be cancelled from any thread and the best load it published so far can be read
  * @author martin
  */
 public abstract class Algorithm implements Runnable
 {
+	/**
+	 * load published by an algorithm: copies of blocks glued at their positions in a container without blocks
+	 * snapshots are not modified once published
+	 */
+	private static class Snapshot
+	{
+		/**
+		 * @param sources blocks of the container the first blocks were copied from
+		 */
+		public Snapshot (Container empty, ArrayList<Block> blocks, ArrayList<Block> sources)
+		{
+			mEmpty = empty;
+			mBlocks = blocks;
+			mSources = sources;
+		}
+		
+		private final Container mEmpty;
+		private final ArrayList<Block> mBlocks, mSources;
+	}
+	
 	@SuppressWarnings("serial")
 	public static class AlgorithmNotInitializedException extends IllegalStateException
 	{
@@ -70,6 +95,44 @@ public abstract class Algorithm implements Runnable
 		return mContainer.clone();
 	}
 	
+	/**
+	 * @return a new container holding the best load published so far: the blocks the container held when the algorithm
+	 * was started and the blocks of the best solution the algorithm published. Algorithms publishing nothing
+	 * while running return the initial load until they terminate, afterwards the filled container is returned.
+	 * Placing the blocks costs as much as filling the container, getBestBlocksSoFar is cheap.
+	 * May be called from any thread while the algorithm is running
+	 * Precondition: algorithm was started
+	 */
+	public Container getBestSoFar()
+	{
+		Container c = getSnapshot().mEmpty.clone();
+		for (Block b : getBestBlocksSoFar())
+			c.placeBlock (b, b.getGlue());
+		return c;
+	}
+	
+	/**
+	 * @return blocks of the load getBestSoFar returns, glued at their positions.
+	 * The blocks are shared by all calls and must not be modified.
+	 * May be called from any thread while the algorithm is running
+	 * Precondition: algorithm was started
+	 */
+	public List<Block> getBestBlocksSoFar()
+	{
+		return Collections.unmodifiableList (getSnapshot().mBlocks);
+	}
+	
+	/**
+	 * @return load published last
+	 */
+	private Snapshot getSnapshot()
+	{
+		Snapshot best = mSolution;
+		if (best == null)
+			throw new AlgorithmNotStartedException ("tried to access best load before algorithm started");
+		return best;
+	}
+	
 	/**
 	 * @return remaining increase to progress
 	 * Precondition: algorithm is started but did not terminate
@@ -119,9 +182,64 @@ public abstract class Algorithm implements Runnable
 		
 		mContainer = container;
 		mPieces = pieces;
+		mCancelled = false;
+		mStart = null;
+		mSolution = null;
 		mRunningTime.reset();
 	}
 	
+	/**
+	 * requests the algorithm to stop, it terminates with the best solution found so far
+	 * as soon as it checks for cancellation. May be called from any thread
+	 */
+	public void cancel()
+	{
+		mCancelled = true;
+	}
+	
+	/**
+	 * @return true if the algorithm was requested to stop or its deadline passed since the last initialization.
+	 * Cheap enough to be checked in every iteration of a search
+	 */
+	public boolean isCancelled()
+	{
+		if (!mCancelled && mHasDeadline && System.nanoTime() - mDeadline >= 0)
+			mCancelled = true;
+		return mCancelled;
+	}
+	
+	/**
+	 * @param millis time in milliseconds from the start of the run after which the algorithm is cancelled,
+	 * 0 to run without deadline, which is the default
+	 */
+	public void setDeadline (long millis)
+	{
+		if (isAlgoStarted())
+			throw new AlgorithmRunningException ("cannot set deadline while algorithm is running");
+		if (millis < 0)
+			throw new IllegalArgumentException ("deadline cannot be negative");
+		mDeadlineMillis = millis;
+	}
+	
+	/**
+	 * @param incumbent best solution shared among algorithms running concurrently, null to run alone.
+	 * every load the algorithm publishes is offered to the incumbent, the last one once the algorithm terminates
+	 */
+	public void setIncumbent (Incumbent incumbent)
+	{
+		if (isAlgoStarted())
+			throw new AlgorithmRunningException ("cannot set incumbent while algorithm is running");
+		mIncumbent = incumbent;
+	}
+	
+	/**
+	 * @return best solution shared among algorithms running concurrently or null if the algorithm runs alone
+	 */
+	public Incumbent getIncumbent()
+	{
+		return mIncumbent;
+	}
+	
 	/**
 	 * @param endAction action to be performed once the algorithm finishes
 	 */
@@ -135,7 +253,6 @@ public abstract class Algorithm implements Runnable
 	 */
 	public void run()
 	{
-		System.out.println ("algo runs");
 		if (mContainer == null || mPieces == null)
 			throw new AlgorithmNotInitializedException ("Missing init parameters to run the algorithm");
 		if (isAlgoStarted())
@@ -143,6 +260,13 @@ public abstract class Algorithm implements Runnable
 		if (isAlgoDone())
 			throw new AlgorithmTerminatedException ("tried to run already terminated algorithm");
 		
+		//isCancelled reads the deadline once it sees mHasDeadline set
+		mDeadline = System.nanoTime() + mDeadlineMillis * 1000000;
+		mHasDeadline = (mDeadlineMillis > 0);
+		mStart = new Snapshot (mContainer.cloneEmpty(), new ArrayList<Block>(), new ArrayList<Block>());
+		mSolution = mStart;
+		publishSolution();
+		mStart = mSolution;
 		mRunningTime.start();
 	}
 	
@@ -172,23 +296,73 @@ public abstract class Algorithm implements Runnable
 		return mPieces;
 	}
 	
+	/**
+	 * publishes copies of the blocks currently placed in the container as best load so far,
+	 * blocks published before are copied again only if the container moved them
+	 * Precondition: algorithm is running, the container is not modified while publishing
+	 */
+	protected void publishSolution()
+	{
+		Snapshot prev = mSolution;
+		ArrayList<Block> blocks = new ArrayList<>(), sources = new ArrayList<>();
+		for (int cBlock = 0; cBlock < mContainer.getAmountOfBlocks(); ++cBlock)
+		{
+			Block placed = mContainer.getBlock (cBlock);
+			if (cBlock < prev.mSources.size() && prev.mSources.get (cBlock) == placed && prev.mBlocks.get (cBlock).getGlue().equals (placed.getGlue()))
+				blocks.add (prev.mBlocks.get (cBlock));
+			else
+				blocks.add (placed.clone());
+			sources.add (placed);
+		}
+		setSolution (new Snapshot (mStart.mEmpty, blocks, sources));
+	}
+	
+	/**
+	 * publishes the blocks of the initial load and blocks placed at positions as best load so far
+	 * @param blocks blocks of a solution, which are copied
+	 * @param positions position of every block
+	 * Precondition: algorithm is running
+	 */
+	protected void publishSolution (List<Block> blocks, List<Glue> positions)
+	{
+		ArrayList<Block> glued = new ArrayList<> (mStart.mBlocks);
+		for (int cBlock = 0; cBlock < blocks.size(); ++cBlock)
+		{
+			Block b = blocks.get (cBlock).clone();
+			b.glue (positions.get (cBlock));
+			glued.add (b);
+		}
+		setSolution (new Snapshot (mStart.mEmpty, glued, mStart.mSources));
+	}
+	
+	/**
+	 * publishes solution and offers it to the incumbent
+	 */
+	private void setSolution (Snapshot solution)
+	{
+		mSolution = solution;
+		if (mIncumbent != null)
+			mIncumbent.offer (Collections.unmodifiableList (solution.mBlocks), this);
+	}
+	
 	/**
 	 * set algorithm to done making getContainer and getPieces inaccessible
 	 * Precondition: algorithm needs to be started but not terminated
 	 */
 	protected void setAlgoDone()
 	{
-		System.out.println ("algo done");
 		if (!isAlgoStarted())
 			throw new AlgorithmNotStartedException ("algorithm is not started, cannot set done");
+		//the deadline passing after termination does not cancel the run
+		mHasDeadline = false;
 		
-		getProgress().increase (getProgress().getRemainingIncrease());
+		getProgress().getRemainingShare().complete();
+		getProgress().report();
+		//the final load is the last one offered to the incumbent
+		publishSolution();
 		mRunningTime.stop();
 		if (mEndAction != null)
-		{
 			mEndAction.run();
-			System.out.println ("mEndAction" + mEndAction);
-		}
 	}
 	
 	private Container mContainer;
@@ -196,6 +370,13 @@ public abstract class Algorithm implements Runnable
 	
 	private Progress mProgress;
 	private Runnable mEndAction;
+	private Incumbent mIncumbent;
+	private volatile boolean mCancelled;
+	//read by isCancelled on other threads
+	private volatile long mDeadlineMillis, mDeadline;
+	private volatile boolean mHasDeadline;
+	private Snapshot mStart;
+	private volatile Snapshot mSolution;
 	
 	private Stopwatch mRunningTime;
 }
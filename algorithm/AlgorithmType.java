@@ -2,5 +2,5 @@ package algorithm;
 
 public enum AlgorithmType 
 {
-	RANDOM, GREEDY, HILLCLMBER, DYNAMIC
+	RANDOM, GREEDY, HILLCLMBER, DYNAMIC, EXACT_COVER, BRANCH_AND_BOUND, BEAM_SEARCH, SIMULATED_ANNEALING, GENETIC, PORTFOLIO
 }
@@ -0,0 +1,430 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import models.Block;
+import models.Container;
+import models.OccupancyGrid;
+import models.OrientationCache;
+import models.Position;
+import models.Resource;
+import models.Resource.BlockType;
+
+/**
+ * beam search over the placement states of the greedy algorithm
+ * like the greedy algorithm, every step places a block at the first free position reported by the evaluation heuristic
+ * or skips the position if no block fits. Instead of committing to the best candidate, the states up to the beam width
+ * ranked highest by a performance measure are kept and expanded in the next step.
+ * States having the same cells occupied and skipped are merged.
+ * The evaluation heuristic is stateful, so every state replays its placements on a heuristic of its own before it is expanded
+ */
+public class BeamSearchAlgo extends Algorithm
+{
+	/**
+	 * default number of states kept per step
+	 */
+	public static final int DEFAULT_BEAM_WIDTH = 8;
+
+	/**
+	 * @param type type of evaluation heuristic generating free positions and checking candidates
+	 */
+	public BeamSearchAlgo (EvaluationHeuristicType type)
+	{
+		if (new EvaluationHeuristicFactory().getHeuristicEval (type) == null)
+			throw new IllegalArgumentException ("no evaluation heuristic of type " + type);
+		mHeuristicType = type;
+		mOptimize = new MaxValuePerformance();
+		mBeamWidth = DEFAULT_BEAM_WIDTH;
+		mParallelism = 1;
+	}
+
+	/**
+	 * @param width number of states kept per step, 1 commits to a single state like the greedy algorithm
+	 * default is DEFAULT_BEAM_WIDTH
+	 */
+	public void setBeamWidth (int width)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set beam width while algorithm is running");
+		if (width < 1)
+			throw new IllegalArgumentException ("beam width has to be positive");
+		mBeamWidth = width;
+	}
+
+	/**
+	 * @param p performance measure ranking states, default is value
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure p)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set performance measure while algorithm is running");
+		mOptimize = p;
+	}
+
+	/**
+	 * @param threads number of threads expanding states in parallel, 1 expands sequentially
+	 * default is 1
+	 */
+	public void setParallelism (int threads)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set parallelism while algorithm is running");
+		if (threads < 1)
+			throw new IllegalArgumentException ("at least one thread is required");
+		mParallelism = threads;
+	}
+
+	/**
+	 * @return number of steps performed
+	 */
+	public int getStepCount() { return mSteps; }
+
+	/**
+	 * @return number of states merged into a state having the same occupancy
+	 */
+	public long getMergeCount() { return mMerged; }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		mTruck = getContainer();
+		initPieces();
+
+		State root = new State (mTruck);
+		mBest = root;
+		mSteps = 0;
+		mMerged = 0;
+		ArrayList<State> beam = new ArrayList<>();
+		beam.add (root);
+
+		//every step decides at least the free position of every state
+		int free = mTruck.getDimensions (0) * mTruck.getDimensions (1) * mTruck.getDimensions (2) - root.mGrid.getOccupiedCount();
+		Progress.Share[] shares = getProgress().getRemainingShare().split (Math.max (1, free));
+		if (mParallelism > 1)
+			mPool = new ForkJoinPool (mParallelism);
+		try
+		{
+			while (!beam.isEmpty() && !isCancelled())
+			{
+				beam = step (beam);
+				if (mSteps < shares.length)
+					shares[mSteps].complete();
+				++mSteps;
+			}
+		}
+		finally
+		{
+			if (mPool != null)
+				mPool.shutdown();
+			mPool = null;
+		}
+
+		for (State placed : mBest.getHistory())
+		{
+			if (placed.mResource >= 0)
+			{
+				mTruck.placeBlock (mPieces.get (placed.mResource).getRot().get (placed.mRotation), placed.mPosition);
+				getPieces().get (placed.mResource).deduct();
+			}
+		}
+		mTruck = null;
+		mPieces = null;
+		setAlgoDone();
+	}
+
+	/**
+	 * state of the search: the blocks placed and the positions skipped so far
+	 * every state but the root stores the event leading to it and refers to its parent
+	 * two states are equal if they have the same cells occupied and the same positions skipped
+	 */
+	private class State
+	{
+		/**
+		 * constructs root state of c
+		 */
+		public State (Container c)
+		{
+			mParent = null;
+			mResource = -1;
+			mGrid = c.copyOccupancy();
+			mSkipped = new int[0];
+			mUsed = new int[mPieces.size()];
+			mPerformance = mOptimize.getPerformance (c);
+		}
+
+		/**
+		 * constructs child of parent skipping pos
+		 */
+		public State (State parent, Position pos)
+		{
+			mParent = parent;
+			mResource = -1;
+			mGrid = parent.mGrid;
+			mSkipped = Arrays.copyOf (parent.mSkipped, parent.mSkipped.length + 1);
+			mSkipped[mSkipped.length - 1] = getIndex (pos);
+			mUsed = parent.mUsed;
+			mPerformance = parent.mPerformance;
+		}
+
+		/**
+		 * constructs child of parent placing orientation rotation of resource at pos
+		 * @param scoredPos position passed to the evaluation heuristic
+		 * @param score score assigned by the evaluation heuristic
+		 */
+		public State (State parent, int resource, int rotation, Position pos, Position scoredPos, double score)
+		{
+			Block placed = mPieces.get (resource).getRot().get (rotation);
+			mParent = parent;
+			mResource = resource;
+			mRotation = rotation;
+			mPosition = pos;
+			mScoredPosition = scoredPos;
+			mScore = score;
+			mGrid = parent.mGrid.clone();
+			mGrid.occupy (placed.getCells(), pos.getPosition (0), pos.getPosition (1), pos.getPosition (2));
+			mSkipped = parent.mSkipped;
+			mUsed = parent.mUsed.clone();
+			++mUsed[resource];
+			mPerformance = parent.mPerformance + mOptimize.getPerformance (placed);
+		}
+
+		/**
+		 * @return states from the first child of the root to this state
+		 */
+		public ArrayList<State> getHistory()
+		{
+			ArrayList<State> history = new ArrayList<>();
+			for (State s = this; s.mParent != null; s = s.mParent)
+				history.add (s);
+			Collections.reverse (history);
+			return history;
+		}
+
+		/**
+		 * @param h evaluation heuristic not updated yet
+		 * updates h by the placements and skips leading to this state in the order the greedy algorithm would
+		 */
+		public void replay (EvaluationHeuristic h)
+		{
+			for (State s : getHistory())
+			{
+				h.freePos (mTruck);
+				if (s.mResource < 0)
+					h.nextPos();
+				else
+				{
+					Resource piece = mPieces.get (s.mResource);
+					h.update (piece, s.mScoredPosition, piece.getType(), s.mRotation);
+				}
+			}
+		}
+
+		/**
+		 * @param resource index of resource
+		 * @return true if another block of resource is available in this state
+		 */
+		public boolean isAvailable (int resource)
+		{
+			Resource res = mPieces.get (resource);
+			return (res.isInfinite() || mUsed[resource] < res.getInventory());
+		}
+
+		@Override
+		public boolean equals (Object obj)
+		{
+			if (!(obj instanceof State))
+				return false;
+			State s = (State) obj;
+			return (mGrid.equals (s.mGrid) && Arrays.equals (mSkipped, s.mSkipped));
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return mGrid.hashCode() * 31 + Arrays.hashCode (mSkipped);
+		}
+
+		private final State mParent;
+		private final int mResource;
+		private int mRotation, mOrder;
+		private Position mPosition, mScoredPosition;
+		private double mScore;
+		private final OccupancyGrid mGrid;
+		private final int[] mSkipped, mUsed;
+		private final double mPerformance;
+	}
+
+	/**
+	 * generates the children of a state
+	 */
+	@SuppressWarnings("serial")
+	private class ExpandTask extends RecursiveAction
+	{
+		public ExpandTask (State s)
+		{
+			mState = s;
+			mChildren = new ArrayList<>();
+		}
+
+		/**
+		 * scores every rotation of every available resource at the first free position like the greedy algorithm,
+		 * the child skipping the position is generated if no candidate fits
+		 */
+		public void expand()
+		{
+			EvaluationHeuristic h = new EvaluationHeuristicFactory().getHeuristicEval (mHeuristicType);
+			mState.replay (h);
+			Position freePos = h.freePos (mTruck);
+			if (freePos == null)
+				return;
+
+			for (int k = 0; k < mPieces.size(); ++k)
+			{
+				if (!mState.isAvailable (k))
+					continue;
+				Resource res = mPieces.get (k);
+				for (int l = 0; l < res.getRot().size(); ++l)
+				{
+					Block currentBlock = res.getRot().get (l);
+					if (res.getType() == BlockType.PARCEL && h.checkPos (freePos, currentBlock, mTruck))
+						mChildren.add (new State (mState, k, l, freePos, freePos, h.getScore (res, freePos, l)));
+					if (res.getType() == BlockType.PENT && h.pentCheckPos (res, l, freePos, mTruck))
+					{
+						//adjust position for pents only
+						ArrayList<Integer> pos = new ArrayList<>();
+						for (int cDim = 0; cDim < 3; ++cDim)
+							pos.add (res.rotatedPos().get (l).getPosition (cDim) + freePos.getPosition (cDim));
+						mChildren.add (new State (mState, k, l, new Position (pos), freePos, h.getScore (res, freePos, l)));
+					}
+				}
+			}
+			if (mChildren.isEmpty())
+				mChildren.add (new State (mState, freePos));
+		}
+
+		/**
+		 * @return children generated
+		 */
+		public ArrayList<State> getChildren() { return mChildren; }
+
+		@Override
+		protected void compute()
+		{
+			expand();
+		}
+
+		private State mState;
+		private ArrayList<State> mChildren;
+	}
+
+	/**
+	 * expands every state of beam, in parallel if a pool is running
+	 * @return states of the next step ordered by rank
+	 */
+	private ArrayList<State> step (ArrayList<State> beam)
+	{
+		final ArrayList<ExpandTask> tasks = new ArrayList<>();
+		for (State s : beam)
+			tasks.add (new ExpandTask (s));
+		if (mPool != null)
+		{
+			mPool.invoke (new RecursiveAction()
+			{
+				protected void compute() { invokeAll (tasks); }
+			});
+		}
+		else
+		{
+			for (ExpandTask task : tasks)
+				task.expand();
+		}
+
+		//merge in order of beam and candidates to be independent of scheduling
+		LinkedHashMap<State, State> children = new LinkedHashMap<>();
+		int order = 0;
+		for (ExpandTask task : tasks)
+		{
+			for (State child : task.getChildren())
+			{
+				child.mOrder = order++;
+				if (child.mPerformance > mBest.mPerformance)
+					mBest = child;
+				State exist = children.get (child);
+				if (exist == null)
+					children.put (child, child);
+				else
+				{
+					++mMerged;
+					if (child.mPerformance > exist.mPerformance)
+						children.put (child, child);
+				}
+			}
+		}
+
+		ArrayList<State> ranked = new ArrayList<> (children.values());
+		Collections.sort (ranked, RANKING);
+		return new ArrayList<> (ranked.subList (0, Math.min (mBeamWidth, ranked.size())));
+	}
+
+	/**
+	 * prepares resources for the evaluation heuristic, resources without rotations are treated as parcels
+	 * whose rotations are taken from the orientation cache
+	 */
+	private void initPieces()
+	{
+		mPieces = new ArrayList<>();
+		for (Resource res : getPieces())
+		{
+			if (res.getRot() != null && res.getType() != null)
+				mPieces.add (res);
+			else
+			{
+				Block b = res.getBlock();
+				ArrayList<Block> rotations = new ArrayList<> (OrientationCache.getRotations (b));
+				mPieces.add (new Resource (b, res.getInventory(), res.getVolume(), res.isInfinite(), rotations, BlockType.PARCEL));
+			}
+		}
+	}
+
+	/**
+	 * @return linear index of pos in the container
+	 */
+	private int getIndex (Position pos)
+	{
+		return (pos.getPosition (0) * mTruck.getDimensions (1) + pos.getPosition (1)) * mTruck.getDimensions (2) + pos.getPosition (2);
+	}
+
+	/**
+	 * orders states by descending performance, then by descending score of the evaluation heuristic,
+	 * states generated earlier come first on ties
+	 */
+	private static final Comparator<State> RANKING = new Comparator<State>()
+	{
+		public int compare (State s1, State s2)
+		{
+			if (s1.mPerformance != s2.mPerformance)
+				return Double.compare (s2.mPerformance, s1.mPerformance);
+			if (s1.mScore != s2.mScore)
+				return Double.compare (s2.mScore, s1.mScore);
+			return Integer.compare (s1.mOrder, s2.mOrder);
+		}
+	};
+
+	private EvaluationHeuristicType mHeuristicType;
+	private PerformanceMeasure mOptimize;
+	private int mBeamWidth, mParallelism;
+
+	private Container mTruck;
+	private ArrayList<Resource> mPieces;
+	private ForkJoinPool mPool;
+	private State mBest;
+	private int mSteps;
+	private long mMerged;
+}
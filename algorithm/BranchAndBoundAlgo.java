@@ -0,0 +1,384 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.OccupancyGrid;
+import models.OrientationCache;
+import models.Resource;
+
+/**
+ * depth first branch and bound algorithm over placements
+ * every node of the search tree decides the first free cell not decided yet: either one of the orientations
+ * of an available piece is placed such that its first cell covers the cell, or the cell is left empty.
+ * A node is pruned if the performance of the pieces placed plus an upper bound for the remaining cells
+ * does not exceed the best performance found. The bound is the fractional knapsack of the remaining cells
+ * filled by the remaining inventory in order of decreasing performance per cell.
+ * The search is exhaustive unless the node limit is exceeded, so the result is optimal.
+ * Node count, prune count and gap between best bound and best performance are published as statistics of the progress
+ */
+public class BranchAndBoundAlgo extends Algorithm
+{
+	/**
+	 * name of progress statistic counting search nodes
+	 */
+	public static final String NODES_STATISTIC = "nodes";
+
+	/**
+	 * name of progress statistic counting pruned search nodes
+	 */
+	public static final String PRUNED_STATISTIC = "pruned";
+
+	/**
+	 * name of progress statistic storing the difference between the best bound and the best performance
+	 */
+	public static final String GAP_STATISTIC = "gap";
+
+	/**
+	 * default maximum number of search nodes, unlimited
+	 */
+	public static final long DEFAULT_NODE_LIMIT = Long.MAX_VALUE;
+
+	/**
+	 * number of search nodes between two updates of the statistics
+	 */
+	public static final int STATISTIC_INTERVAL = 1000;
+
+	/**
+	 * depth of search tree up to which progress is reported
+	 */
+	public static final int PROGRESS_DEPTH = 3;
+
+	public BranchAndBoundAlgo()
+	{
+		mOptimize = new MaxValuePerformance();
+		mNodeLimit = DEFAULT_NODE_LIMIT;
+	}
+
+	/**
+	 * @param p performance measure to maximize, default is value
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure p)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set performance measure while algorithm is running");
+		mOptimize = p;
+	}
+
+	/**
+	 * @param limit maximum number of search nodes to visit. Once it is exceeded, the best placement found so far is used
+	 */
+	public void setNodeLimit (long limit)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot change node limit while algorithm is running");
+		if (limit < 1)
+			throw new IllegalArgumentException ("node limit has to be positive");
+		mNodeLimit = limit;
+	}
+
+	/**
+	 * @return number of search nodes visited
+	 */
+	public long getNodeCount() { return mNodes; }
+
+	/**
+	 * @return number of search nodes pruned by the bound
+	 */
+	public long getPruneCount() { return mPruned; }
+
+	/**
+	 * @return difference between the best bound of unexplored nodes and the best performance found,
+	 * 0 once the search finished exhaustively
+	 */
+	public double getGap() { return Math.max (0.0, getBestBound() - mBestPerformance); }
+
+	/**
+	 * @return true if the search was exhaustive, i.e. the node limit was not exceeded
+	 */
+	public boolean isExhaustive() { return (mNodes <= mNodeLimit && !isCancelled()); }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		Container c = getContainer();
+		mD = c.getDimensions (0);
+		mW = c.getDimensions (1);
+		mH = c.getDimensions (2);
+		mGrid = c.copyOccupancy();
+		initPieces();
+
+		mNodes = 0;
+		mPruned = 0;
+		mRootBounds = null;
+		mChosen = new ArrayList<>();
+		mBest = new ArrayList<>();
+		double start = mOptimize.getPerformance (c);
+		mBestPerformance = start;
+		search (0, 0, start, mD * mW * mH - mGrid.getOccupiedCount(), getProgress().getRemainingShare());
+		publishStatistics();
+
+		for (Placement p : mBest)
+		{
+			c.placeBlock (p.mBlock, c.getCellPosition (p.mX, p.mY, p.mZ));
+			getPieces().get (p.mPiece).deduct();
+		}
+		setAlgoDone();
+	}
+
+	/**
+	 * placement of an orientation of a piece relative to the minimum corner of the container
+	 */
+	private static class Placement
+	{
+		public Placement (int piece, Block block, int x, int y, int z)
+		{
+			mPiece = piece;
+			mBlock = block;
+			mX = x;
+			mY = y;
+			mZ = z;
+		}
+
+		private final int mPiece;
+		private final Block mBlock;
+		private final int mX, mY, mZ;
+	}
+
+	/**
+	 * loads orientations, cells, performance and inventory of every piece,
+	 * orders pieces by decreasing performance per cell for the bound
+	 */
+	private void initPieces()
+	{
+		ArrayList<Resource> pieces = getPieces();
+		mRotations = new ArrayList<>();
+		mCells = new ArrayList<>();
+		mPerformance = new double[pieces.size()];
+		mVolume = new int[pieces.size()];
+		mRemaining = new int[pieces.size()];
+		ArrayList<Integer> order = new ArrayList<>();
+		for (int cPiece = 0; cPiece < pieces.size(); ++cPiece)
+		{
+			Resource res = pieces.get (cPiece);
+			List<Block> rotations = OrientationCache.getRotations (res.getBlock());
+			ArrayList<int[]> cells = new ArrayList<>();
+			for (Block rotated : rotations)
+				cells.add (rotated.getCells());
+			mRotations.add (rotations);
+			mCells.add (cells);
+			mPerformance[cPiece] = mOptimize.getPerformance (res.getBlock());
+			mVolume[cPiece] = cells.get (0).length / 3;
+			mRemaining[cPiece] = (res.isInfinite() ? Integer.MAX_VALUE : Math.max (0, res.getInventory()));
+			order.add (cPiece);
+		}
+		Collections.sort (order, new Comparator<Integer>()
+		{
+			public int compare (Integer p1, Integer p2)
+			{
+				return Double.compare (mPerformance[p2] / mVolume[p2], mPerformance[p1] / mVolume[p1]);
+			}
+		});
+		mDensityOrder = new int[order.size()];
+		for (int cPiece = 0; cPiece < order.size(); ++cPiece)
+			mDensityOrder[cPiece] = order.get (cPiece);
+	}
+
+	/**
+	 * @param depth number of cells decided before
+	 * @param index linear index of first cell which might be free and undecided
+	 * @param performance performance of container including pieces chosen
+	 * @param undecided number of free cells not decided yet
+	 * @param share share of progress of this subtree or null if it is not reported
+	 * @return true if the search is to be stopped
+	 */
+	private boolean search (int depth, int index, double performance, int undecided, Progress.Share share)
+	{
+		++mNodes;
+		if (mNodes % STATISTIC_INTERVAL == 0)
+			publishStatistics();
+		boolean stop = (mNodes > mNodeLimit || isCancelled());
+
+		if (performance > mBestPerformance)
+		{
+			mBestPerformance = performance;
+			mBest = new ArrayList<> (mChosen);
+			publishBest();
+		}
+
+		//first free cell
+		int cell = index;
+		while (cell < mD * mW * mH && mGrid.isOccupied (cell / (mW * mH), (cell / mH) % mW, cell % mH))
+			++cell;
+
+		if (!stop && cell < mD * mW * mH)
+		{
+			if (performance + getBound (undecided) <= mBestPerformance || isBeatenByIncumbent (performance + getBound (undecided)))
+				++mPruned;
+			else
+			{
+				int x = cell / (mW * mH), y = (cell / mH) % mW, z = cell % mH;
+				ArrayList<Placement> branches = getPlacements (x, y, z);
+				Progress.Share[] shares = (share != null && depth < PROGRESS_DEPTH ? share.split (branches.size() + 1) : null);
+				if (depth == 0)
+					initRootBounds (branches, performance, undecided);
+
+				for (int cBranch = 0; cBranch < branches.size() && !stop; ++cBranch)
+				{
+					Placement p = branches.get (cBranch);
+					int[] cells = p.mBlock.getCells();
+					mGrid.occupy (cells, p.mX, p.mY, p.mZ);
+					--mRemaining[p.mPiece];
+					mChosen.add (p);
+					stop = search (depth + 1, cell + 1, performance + mPerformance[p.mPiece], undecided - mVolume[p.mPiece], (shares != null ? shares[cBranch] : null));
+					mChosen.remove (mChosen.size() - 1);
+					++mRemaining[p.mPiece];
+					mGrid.release (cells, p.mX, p.mY, p.mZ);
+					if (depth == 0 && !stop)
+						mRootBounds[cBranch] = Double.NEGATIVE_INFINITY;
+				}
+				if (!stop)
+				{
+					//leave cell empty
+					mGrid.set (x, y, z, true);
+					stop = search (depth + 1, cell + 1, performance, undecided - 1, (shares != null ? shares[branches.size()] : null));
+					mGrid.set (x, y, z, false);
+					if (depth == 0 && !stop)
+						mRootBounds[branches.size()] = Double.NEGATIVE_INFINITY;
+				}
+			}
+		}
+		if (share != null)
+			share.complete();
+		return stop;
+	}
+
+	/**
+	 * @return placements of available pieces whose first cell covers x, y, z and which fit into free cells
+	 */
+	private ArrayList<Placement> getPlacements (int x, int y, int z)
+	{
+		ArrayList<Placement> placements = new ArrayList<>();
+		for (int cPiece = 0; cPiece < mRotations.size(); ++cPiece)
+		{
+			if (mRemaining[cPiece] <= 0)
+				continue;
+			for (int cRot = 0; cRot < mRotations.get (cPiece).size(); ++cRot)
+			{
+				//cells are ordered, the first one is the lowest cell in search order
+				int[] cells = mCells.get (cPiece).get (cRot);
+				int pX = x - cells[0], pY = y - cells[1], pZ = z - cells[2];
+				if (mGrid.fits (cells, pX, pY, pZ))
+					placements.add (new Placement (cPiece, mRotations.get (cPiece).get (cRot), pX, pY, pZ));
+			}
+		}
+		return placements;
+	}
+
+	/**
+	 * @param cells number of cells to fill
+	 * @return fractional knapsack of cells filled by remaining pieces in order of decreasing performance per cell
+	 */
+	private double getBound (int cells)
+	{
+		double bound = 0.0;
+		for (int cOrder = 0; cOrder < mDensityOrder.length && cells > 0; ++cOrder)
+		{
+			int piece = mDensityOrder[cOrder];
+			if (mRemaining[piece] <= 0 || mPerformance[piece] <= 0)
+				continue;
+			long available = (long) mRemaining[piece] * mVolume[piece];
+			int used = (int) Math.min (available, cells);
+			bound += mPerformance[piece] * used / mVolume[piece];
+			cells -= used;
+		}
+		return bound;
+	}
+
+	/**
+	 * stores bounds of the branches of the root, the best bound is the highest one of branches not searched completely
+	 */
+	private void initRootBounds (ArrayList<Placement> branches, double performance, int undecided)
+	{
+		mRootBounds = new double[branches.size() + 1];
+		for (int cBranch = 0; cBranch < branches.size(); ++cBranch)
+		{
+			Placement p = branches.get (cBranch);
+			--mRemaining[p.mPiece];
+			mRootBounds[cBranch] = performance + mPerformance[p.mPiece] + getBound (undecided - mVolume[p.mPiece]);
+			++mRemaining[p.mPiece];
+		}
+		mRootBounds[branches.size()] = performance + getBound (undecided - 1);
+	}
+
+	/**
+	 * @return highest bound of root branches not searched completely
+	 */
+	private double getBestBound()
+	{
+		double bound = mBestPerformance;
+		if (mRootBounds != null)
+		{
+			for (double rootBound : mRootBounds)
+				bound = Math.max (bound, rootBound);
+		}
+		return bound;
+	}
+
+	/**
+	 * publishes node count, prune count and gap as statistics of the progress
+	 */
+	private void publishStatistics()
+	{
+		Progress prog = getProgress();
+		prog.setStatistic (NODES_STATISTIC, mNodes);
+		prog.setStatistic (PRUNED_STATISTIC, mPruned);
+		prog.setStatistic (GAP_STATISTIC, getGap());
+	}
+
+	/**
+	 * @param bound upper bound on the performance of a subtree
+	 * @return true if the incumbent has the same performance measure and its performance, which is rounded, is at least bound
+	 */
+	private boolean isBeatenByIncumbent (double bound)
+	{
+		Incumbent best = getIncumbent();
+		return (best != null && bound + 0.5 <= best.getPerformance (mOptimize));
+	}
+
+	/**
+	 * publishes the best placements found as best load so far
+	 */
+	private void publishBest()
+	{
+		Container c = getContainer();
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		for (Placement p : mBest)
+		{
+			blocks.add (p.mBlock);
+			positions.add (c.getCellPosition (p.mX, p.mY, p.mZ));
+		}
+		publishSolution (blocks, positions);
+	}
+
+	private PerformanceMeasure mOptimize;
+	private long mNodeLimit, mNodes, mPruned;
+
+	private int mD, mW, mH;
+	private OccupancyGrid mGrid;
+	private ArrayList<List<Block>> mRotations;
+	private ArrayList<ArrayList<int[]>> mCells;
+	private double[] mPerformance;
+	private int[] mVolume, mRemaining, mDensityOrder;
+
+	private double[] mRootBounds;
+	private ArrayList<Placement> mChosen, mBest;
+	private double mBestPerformance;
+}
@@ -0,0 +1,228 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * sparse 0-1 matrix of an exact cover problem stored as toroidal doubly linked lists (dancing links)
+ * nodes are referred to by index: node 0 is the root, nodes 1 to the number of columns are the column headers
+ * and every further node is a 1 in the matrix.
+ * covering a column unlinks it from the header list and unlinks all rows having a 1 in the column from the other columns,
+ * uncovering in reverse order restores the matrix exactly
+ */
+public class DancingLinks
+{
+	/**
+	 * constructs matrix without rows
+	 * @param columns number of columns
+	 */
+	public DancingLinks (int columns)
+	{
+		mColumns = columns;
+		mCapacity = Math.max (16, 4 * (columns + 1));
+		mLeft = new int[mCapacity];
+		mRight = new int[mCapacity];
+		mUp = new int[mCapacity];
+		mDown = new int[mCapacity];
+		mColumn = new int[mCapacity];
+		mRow = new int[mCapacity];
+		mSize = new int[columns + 1];
+		for (int cNode = 0; cNode <= columns; ++cNode)
+		{
+			mLeft[cNode] = (cNode == 0 ? columns : cNode - 1);
+			mRight[cNode] = (cNode == columns ? 0 : cNode + 1);
+			mUp[cNode] = cNode;
+			mDown[cNode] = cNode;
+			mColumn[cNode] = cNode;
+			mRow[cNode] = -1;
+		}
+		mNodes = columns + 1;
+		mRows = 0;
+		mUncovered = columns;
+	}
+
+	/**
+	 * @param columns 0-based indices of the columns the row has a 1 in, each column at most once
+	 * @return index of the row added
+	 */
+	public int addRow (int[] columns)
+	{
+		if (columns.length == 0)
+			throw new IllegalArgumentException ("row needs at least one column");
+		ensureCapacity (mNodes + columns.length);
+		int first = mNodes;
+		for (int cCol = 0; cCol < columns.length; ++cCol)
+		{
+			int node = mNodes++;
+			int header = columns[cCol] + 1;
+			mColumn[node] = header;
+			mRow[node] = mRows;
+			//append at bottom of column
+			mUp[node] = mUp[header];
+			mDown[node] = header;
+			mDown[mUp[header]] = node;
+			mUp[header] = node;
+			++mSize[header];
+			//append at end of row
+			mLeft[node] = (cCol == 0 ? node : node - 1);
+			mRight[node] = first;
+			mRight[mLeft[node]] = node;
+			mLeft[first] = node;
+		}
+		return mRows++;
+	}
+
+	/**
+	 * @return number of columns
+	 */
+	public int getColumns() { return mColumns; }
+
+	/**
+	 * @return number of rows
+	 */
+	public int getRows() { return mRows; }
+
+	/**
+	 * @return number of columns not covered
+	 */
+	public int getUncoveredColumns() { return mUncovered; }
+
+	/**
+	 * @return 0-based index of the uncovered column with the fewest rows, the first of these on ties,
+	 * -1 if every column is covered
+	 */
+	public int chooseColumn()
+	{
+		int best = -1, bestSize = Integer.MAX_VALUE;
+		for (int header = mRight[0]; header != 0 && bestSize > 0; header = mRight[header])
+		{
+			if (mSize[header] < bestSize)
+			{
+				best = header;
+				bestSize = mSize[header];
+			}
+		}
+		return best - 1;
+	}
+
+	/**
+	 * @param column 0-based index of column
+	 * @return number of rows having a 1 in column which are not removed by covering
+	 */
+	public int getColumnSize (int column) { return mSize[column + 1]; }
+
+	/**
+	 * @param column 0-based index of column
+	 * @return first node of column or -1 if column is empty
+	 */
+	public int getFirstNode (int column)
+	{
+		int node = mDown[column + 1];
+		return (node == column + 1 ? -1 : node);
+	}
+
+	/**
+	 * @param node a node in a column
+	 * @return next node in the same column or -1 if node was the last one
+	 */
+	public int getNextNode (int node)
+	{
+		int next = mDown[node];
+		return (next == mColumn[node] ? -1 : next);
+	}
+
+	/**
+	 * @param node a node
+	 * @return index of row of node
+	 */
+	public int getRow (int node) { return mRow[node]; }
+
+	/**
+	 * removes column and every row having a 1 in it
+	 * @param column 0-based index of column
+	 */
+	public void cover (int column)
+	{
+		coverHeader (column + 1);
+	}
+
+	/**
+	 * reverts cover of column
+	 * Precondition: column is the column covered last
+	 * @param column 0-based index of column
+	 */
+	public void uncover (int column)
+	{
+		uncoverHeader (column + 1);
+	}
+
+	/**
+	 * chooses row of node for the cover: covers every other column of the row
+	 * Precondition: the column of node is covered
+	 * @param node a node of the row
+	 */
+	public void select (int node)
+	{
+		for (int right = mRight[node]; right != node; right = mRight[right])
+			coverHeader (mColumn[right]);
+	}
+
+	/**
+	 * reverts select of node
+	 * Precondition: node is the node selected last
+	 * @param node a node of the row
+	 */
+	public void deselect (int node)
+	{
+		for (int left = mLeft[node]; left != node; left = mLeft[left])
+			uncoverHeader (mColumn[left]);
+	}
+
+	private void coverHeader (int header)
+	{
+		mRight[mLeft[header]] = mRight[header];
+		mLeft[mRight[header]] = mLeft[header];
+		--mUncovered;
+		for (int down = mDown[header]; down != header; down = mDown[down])
+		{
+			for (int right = mRight[down]; right != down; right = mRight[right])
+			{
+				mDown[mUp[right]] = mDown[right];
+				mUp[mDown[right]] = mUp[right];
+				--mSize[mColumn[right]];
+			}
+		}
+	}
+
+	private void uncoverHeader (int header)
+	{
+		for (int up = mUp[header]; up != header; up = mUp[up])
+		{
+			for (int left = mLeft[up]; left != up; left = mLeft[left])
+			{
+				++mSize[mColumn[left]];
+				mDown[mUp[left]] = left;
+				mUp[mDown[left]] = left;
+			}
+		}
+		++mUncovered;
+		mRight[mLeft[header]] = header;
+		mLeft[mRight[header]] = header;
+	}
+
+	private void ensureCapacity (int nodes)
+	{
+		if (nodes <= mCapacity)
+			return;
+		mCapacity = Math.max (nodes, 2 * mCapacity);
+		mLeft = Arrays.copyOf (mLeft, mCapacity);
+		mRight = Arrays.copyOf (mRight, mCapacity);
+		mUp = Arrays.copyOf (mUp, mCapacity);
+		mDown = Arrays.copyOf (mDown, mCapacity);
+		mColumn = Arrays.copyOf (mColumn, mCapacity);
+		mRow = Arrays.copyOf (mRow, mCapacity);
+	}
+
+	private int mColumns, mNodes, mRows, mCapacity, mUncovered;
+	private int[] mLeft, mRight, mUp, mDown, mColumn, mRow;
+	private int[] mSize;
+}
@@ -9,7 +9,12 @@ import gui.PieceRenderPanel.ZoomListener;
 import java.awt.BorderLayout;
 import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 import javax.swing.JFrame;
 
@@ -21,6 +26,8 @@ import models.Block;
 import models.Container;
 import models.Glue;
 import models.Matrix;
+import models.Orientation;
+import models.OrientationCache;
 import models.Matrix.*;
 
 import algorithm.LookupTable.Entry;
@@ -45,6 +52,8 @@ public class DynamicAlgo extends Algorithm
 		public Resource (Block b, int capacity)
 		{
 			super (b, capacity, b.getVolume(), false);
+			mVertices = b.getNumberOfVertices();
+			mValue = b.getValue();
 		}
 		
 		
@@ -68,17 +77,30 @@ public class DynamicAlgo extends Algorithm
 				return -1;
 			else if (this.getInventory() > comp.getInventory())
 				return 1;
-			else if (this.getBlock().getNumberOfVertices() < comp.getBlock().getNumberOfVertices())
+			else if (mVertices < comp.mVertices)
 				return -1;
-			else if (this.getBlock().getNumberOfVertices() > comp.getBlock().getNumberOfVertices())
+			else if (mVertices > comp.mVertices)
 				return 1;
-			else if (this.getBlock().getValue() < comp.getBlock().getValue())
+			else if (mValue < comp.mValue)
 				return -1;
-			else if (this.getBlock().getValue() > comp.getBlock().getValue())
+			else if (mValue > comp.mValue)
 				return 1;
 			else 
 				return 0;
 		}
+		
+		/**
+		 * @return number of vertices of block stored, without cloning the block
+		 */
+		public int getNumberOfVertices() { return mVertices; }
+		
+		/**
+		 * @return value of block stored, without cloning the block
+		 */
+		public double getValue() { return mValue; }
+		
+		private final int mVertices;
+		private final double mValue;
 	}
 	
 	/**
@@ -156,6 +178,24 @@ public class DynamicAlgo extends Algorithm
 			return clone;
 		}
 		
+		/**
+		 * @param used resource of this subset to deduct one block of
+		 * @return deep clone of this subset holding one block of used less.
+		 * Resources are ordered by inventory, so the deducted resource is inserted instead of altered in place
+		 */
+		public Subset deepCloneDeducting (Resource used)
+		{
+			Subset clone = new Subset();
+			for (Resource r : getOrderedElements())
+			{
+				if (r.compareTo (used) != 0)
+					clone.add (r.clone());
+				else if (r.getInventory() > 1)
+					clone.add (new Resource (r.getBlock(), r.getInventory() - 1));
+			}
+			return clone;
+		}
+		
 		public LinkedList <Resource> getResources()
 		{
 			return new LinkedList<Resource> (getOrderedElements());
@@ -244,6 +284,114 @@ public class DynamicAlgo extends Algorithm
 		private int mIndex;
 	}
 	
+	/**
+	 * task solving the sub problem of one container and subset
+	 */
+	@SuppressWarnings("serial")
+	private class SolveTask extends RecursiveTask<Entry>
+	{
+		public SolveTask (int d, int w, int h, Subset s, Progress.Share share)
+		{
+			mD = d;
+			mW = w;
+			mH = h;
+			mSet = s;
+			mShare = share;
+		}
+		
+		protected Entry compute()
+		{
+			return solve (new Container (mD, mW, mH), mSet, mShare);
+		}
+		
+		private int mD, mW, mH;
+		private Subset mSet;
+		private Progress.Share mShare;
+	}
+	
+	/**
+	 * task placing one orientation of one resource into an empty container
+	 * and filling the remaining free cuboids
+	 */
+	@SuppressWarnings("serial")
+	private class BranchTask extends RecursiveAction
+	{
+		/**
+		 * @param dims sorted dimensions of container
+		 * @param s subset available
+		 * @param piece resource to place
+		 * @param rotatedPiece orientation of block of piece to place
+		 * @param share progress share of branch, completed once placed
+		 */
+		public BranchTask (ArrayList<Integer> dims, Subset s, Resource piece, Block rotatedPiece, Progress.Share share)
+		{
+			mDims = dims;
+			mSet = s;
+			mPiece = piece;
+			mRotatedPiece = rotatedPiece;
+			mShare = share;
+		}
+		
+		/**
+		 * places piece and fills the remainder of the container
+		 * no result is stored if the algorithm is cancelled, solve discards the results then
+		 */
+		public void place()
+		{
+			final int MAXDIM = 3;
+			if (isCancelled())
+			{
+				mShare.complete();
+				return;
+			}
+			
+			//clone and deduct subset
+			Subset sClone = mSet.deepCloneDeducting (mPiece);
+			
+			//construct new empty container of sorted dimension's size and place
+			Container cloneC = new Container (mDims.get (0), mDims.get (1), mDims.get (2));
+			cloneC.placeBlock (mRotatedPiece, new Glue (new IntegerMatrix (MAXDIM, 1)));
+			
+			//cut remainder, fill remainder, assemble remainder
+			ArrayList<Cuboid> freeRemain = cloneC.getFreeCuboids();
+			if (!freeRemain.isEmpty())	
+			{
+				if (mFuseUse)
+					freeRemain = fuseAdjacentCuboids (freeRemain);
+				fillFreeCuboids (cloneC, freeRemain, sClone, mShare);
+			}
+			mShare.complete();
+			if (isCancelled())
+				return;
+			
+			mResult = mLookupTable.new Entry (cloneC, mSet);
+			mScore = mOptimize.getPerformance (mResult.getContainer());
+		}
+		
+		/**
+		 * @return entry of filled container
+		 */
+		public Entry getResult() { return mResult; }
+		
+		/**
+		 * @return performance of filled container
+		 */
+		public int getScore() { return mScore; }
+		
+		protected void compute()
+		{
+			place();
+		}
+		
+		private ArrayList<Integer> mDims;
+		private Subset mSet;
+		private Resource mPiece;
+		private Block mRotatedPiece;
+		private Progress.Share mShare;
+		private Entry mResult;
+		private int mScore;
+	}
+	
 	/**
 	 * @param list list to perform swap on
 	 * @param i1 index of first element
@@ -278,18 +426,24 @@ public class DynamicAlgo extends Algorithm
 		
 		mOptimize = new MaxValuePerformance();
 		mFuseUse = false;
+		mMemoryBudget = LookupTable.UNBOUNDED;
+		mEvictionPolicy = LookupTable.EvictionPolicy.LRU;
+		mParallelism = 1;
 	}
 	
 	
 	/**
-	 * @param freeCuboids free cuboids obtained from container
-	 * @param subsetIndex index of subset available
-	 * @return optimal order in which the free cuboids should be filled to the full extent
+	 * @param stump partially filled container
+	 * @param freeCuboids free cuboids obtained from stump
+	 * @param available subset available
+	 * @param share progress share of filling, completed by the caller
+	 * fills the free cuboids of stump in the optimal order to the full extent,
+	 * orders are not completed if the algorithm is cancelled
 	 */
-	public ArrayList <Container> fillFreeCuboids (ArrayList <Cuboid> freeCuboids, Subset available)
+	public void fillFreeCuboids (Container stump, ArrayList <Cuboid> freeCuboids, Subset available, Progress.Share share)
 	{
 		/**
-		 * class used to compute and store list of containers
+		 * class used to compute and store list of entries
 		 * corresponding to a given list of cuboids and a given
 		 * subset
 		 * @author martin
@@ -297,16 +451,13 @@ public class DynamicAlgo extends Algorithm
 		
 		class Order
 		{
-			public Order (LinkedList <Cuboid> cubes, Subset s)
+			public Order (LinkedList <Cuboid> cubes, Subset s, Progress.Share share)
 			{
 				mCubes = cubes;
-				mConts = new ArrayList <>();
-				
-				//entry having no resources used
-				Entry e = mLookupTable.new Entry (s);
+				mEntries = new ArrayList <>();
 				
-				if (mCubes.size() > 0)
-					mCurrentIncrease.split (mCubes.size());
+				Progress.Share[] cubeShares = share.split (mCubes.size());
+				int cCube = 0;
 				for (Cuboid free : mCubes)
 				{
 					ArrayList <Integer> cubeDims = free.getDimensions();
@@ -340,32 +491,31 @@ public class DynamicAlgo extends Algorithm
 						e = mLookupTable.get (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2), e);
 					*/
 					
-					if (!mLookupTable.isSet (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2), e))
-					{
-						Container x = new Container (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2));
-						explore (x, s.clone());
-						assert (mLookupTable.isSet (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2), e));
-						
-					}
-					//get optimal for parameters
-					e = mLookupTable.get (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2), e);
-					
+					//get optimal for parameters, explore if entry needed is not set
+					Entry e = explore (cubeDims.get (0), cubeDims.get (1), cubeDims.get (2), s, cubeShares[cCube]);
+					++cCube;
 					
-					//get container, set to fit current cuboid
-					Container lookedUp = e.getContainer().clone(); 
-					rotateToFit (lookedUp, free);
-					Glue gluePos = new Glue (new IntegerMatrix (3, 1)).getClosest (free.getVertices());
-					lookedUp.glue (gluePos);
-					mConts.add (lookedUp);
+					mEntries.add (e);
 					mVal += e.getValue();
 				}
-				if (mCubes.size() > 0)
-					mCurrentIncrease.unite();
 			}
 			
-			public ArrayList<Container> getOrderedContainers()
+			/**
+			 * @param stump container to place the blocks of the entries in
+			 * places the blocks of each entry rotated to fit its cuboid
+			 */
+			public void placeInto (Container stump)
 			{
-				return mConts;
+				for (int cCube = 0; cCube < mCubes.size(); ++cCube)
+				{
+					Cuboid free = mCubes.get (cCube);
+					Entry e = mEntries.get (cCube);
+					Orientation fit = Orientation.fromPermutation (getFitPermutation (e.getDimensions(), free.getDimensions()));
+					if (fit == null)
+						fit = Orientation.getIdentity();
+					Glue gluePos = new Glue (new IntegerMatrix (3, 1)).getClosest (free.getVertices());
+					e.placeInto (stump, fit, gluePos);
+				}
 			}
 			
 			public LinkedList <Cuboid> getOrderedCuboids() { return mCubes; }
@@ -373,7 +523,7 @@ public class DynamicAlgo extends Algorithm
 			public double getValue() { return mVal; }
 			
 			private LinkedList <Cuboid> mCubes;
-			private ArrayList <Container> mConts;
+			private ArrayList <Entry> mEntries;
 			private double mVal;
 		}
 		
@@ -383,9 +533,10 @@ public class DynamicAlgo extends Algorithm
 		//do dynamic algo for cuboids and elements of subset:
 		//iterate through cuboids
 		
-		mCurrentIncrease.split (2 * freeCuboids.size());
-		for (int cFree = 0; cFree < freeCuboids.size(); ++cFree)
+		Progress.Share[] freeShares = share.split (freeCuboids.size());
+		for (int cFree = 0; cFree < freeCuboids.size() && !isCancelled(); ++cFree)
 		{
+			Progress.Share[] orderShares = freeShares[cFree].split (cFree + 1);
 			//set best to last
 			LinkedList<Cuboid> prev;
 			if (cFree > 0)
@@ -393,13 +544,11 @@ public class DynamicAlgo extends Algorithm
 			else
 				prev = new LinkedList<Cuboid>();
 			prev.add (freeCuboids.get (cFree));
-			memo.add (new Order (prev, available));
+			memo.add (new Order (prev, available, orderShares[0]));
 			
 			//current cuboid needs to be added to a sequence of cuboids. Position? => determine
 			//iterate through [0, n] such that current value is index to place current cuboid
-			if (cFree > 0)
-				mCurrentIncrease.split (cFree);
-			for (int cInsert = 0; cInsert < cFree; ++cInsert)
+			for (int cInsert = 0; cInsert < cFree && !isCancelled(); ++cInsert)
 			{
 				//decision: keep current order with element inserted
 				//or: new order left and right of current index
@@ -408,16 +557,14 @@ public class DynamicAlgo extends Algorithm
 				newOrderList.add (cInsert, freeCuboids.get (cFree));
 				//does subsetIndex refer to the correct subset
 				//=> did subset change? (i think so)
-				Order newOrder = new Order (newOrderList, available);
+				Order newOrder = new Order (newOrderList, available, orderShares[cInsert + 1]);
 				if (newOrder.getValue() > memo.get (cFree).getValue())
 					memo.set (cFree, newOrder);
 			}
-			if (cFree > 0)
-				mCurrentIncrease.unite();
 		}
-		mCurrentIncrease.unite();
 		
-		return memo.get (memo.size() - 1).getOrderedContainers();
+		if (!memo.isEmpty() && !isCancelled())
+			memo.get (memo.size() - 1).placeInto (stump);
 	}
 	
 	/**
@@ -524,6 +671,32 @@ public class DynamicAlgo extends Algorithm
 		return max;
 	}*/
 	
+	/**
+	 * @param obtainedDims dimensions of a container
+	 * @param fitDim dimensions the container should have
+	 * @return perm[i] is the dimension of obtainedDims matching fitDim[i], -1 if there is none
+	 */
+	public static int[] getFitPermutation (ArrayList<Integer> obtainedDims, ArrayList<Integer> fitDim)
+	{
+		int[] perm = new int[obtainedDims.size()];
+		boolean[] used = new boolean[obtainedDims.size()];
+		//iterate through dimensions
+		for (int cFit = 0; cFit < obtainedDims.size(); ++cFit)
+		{
+			//find unused matching dimension in obtained
+			perm[cFit] = -1;
+			for (int cObt = 0; cObt < obtainedDims.size() && perm[cFit] < 0; ++cObt)
+			{
+				if (!used[cObt] && fitDim.get (cFit).equals (obtainedDims.get (cObt)))
+				{
+					perm[cFit] = cObt;
+					used[cObt] = true;
+				}
+			}
+		}
+		return perm;
+	}
+	
 	/**
 	 * @param obtained a given container
 	 * @param fit the cuboid obtained should fit
@@ -534,10 +707,8 @@ public class DynamicAlgo extends Algorithm
 		Glue offset = obtained.getGlue();
 		ArrayList<Integer> fitDim = fit.getDimensions();
 		
-		Matrix<Double> manipulation = new DoubleMatrix (3, 3);
-		//manipulation = manipulation.getScalarMatrix (1.0, manipulation);
-		
 		ArrayList<Integer> obtainedDims = obtained.getDimensions();
+		int[] perm = getFitPermutation (obtainedDims, fitDim);
 		
 		
 		/*Container clone = obtained.clone();
@@ -549,30 +720,6 @@ public class DynamicAlgo extends Algorithm
 			x += 3;
 		}*/
 		
-		//iterate through dimensions
-		for (int cFit = 0; cFit < obtainedDims.size(); ++cFit)
-		{
-			//find matching dimension in fit
-			int cObt = 0;
-			boolean found = false;;
-			while (cObt < obtainedDims.size() && !found)
-			{
-				if (fitDim.get (cFit).equals (obtainedDims.get (cObt)))
-				{
-					//search whether fit dimension is already used
-					int cPrev = 0;
-					while (cPrev < cFit && manipulation.getCell (cPrev, cObt).equals (0.0))
-						++cPrev;
-					if (cPrev >= cFit)
-					{
-						manipulation.setCell (cFit, cObt, 1.0);
-						found = true;
-						found = true;
-					}
-				}
-				++cObt;
-			}	
-		}
 		
 		/*
 		//manipulate x1
@@ -612,7 +759,9 @@ public class DynamicAlgo extends Algorithm
 			//no swapping in dimensions list required
 		}*/
 		
-		obtained.rotate (manipulation);
+		Orientation manipulation = Orientation.fromPermutation (perm);
+		if (manipulation != null)
+			obtained.rotate (manipulation);
 		obtained.glue (offset);
 		
 		assert (obtained.getDimensions().equals (fitDim));
@@ -625,37 +774,13 @@ public class DynamicAlgo extends Algorithm
 		Glue offset = obtained.getGlue();
 		ArrayList<Integer> fitDim = fit.getDimensions();
 		
-		Matrix<Double> manipulation = new DoubleMatrix (3, 3);
-		//manipulation = manipulation.getScalarMatrix (1.0, manipulation);
-		
 		ArrayList<Integer> obtainedDims = obtained.getDimensions();
+		int[] perm = getFitPermutation (obtainedDims, fitDim);
 		
-		//iterate through dimensions
-		for (int cFit = 0; cFit < obtainedDims.size(); ++cFit)
-		{
-			//find matching dimension in fit
-			int cObt = 0;
-			boolean found = false;;
-			while (cObt < obtainedDims.size() && !found)
-			{
-				if (fitDim.get (cFit).equals (obtainedDims.get (cObt)))
-				{
-					//search whether fit dimension is already used
-					int cPrev = 0;
-					while (cPrev < cFit && manipulation.getCell (cPrev, cObt).equals (0.0))
-						++cPrev;
-					if (cPrev >= cFit)
-					{
-						manipulation.setCell (cFit, cObt, 1.0);
-						found = true;
-						found = true;
-					}
-				}
-				++cObt;
-			}	
-		}
 		
-		obtained.rotate (manipulation);
+		Orientation manipulation = Orientation.fromPermutation (perm);
+		if (manipulation != null)
+			obtained.rotate (manipulation);
 		obtained.glue (offset);
 		
 		//assert (obtained.getDimensions().equals (fitDim));
@@ -710,6 +835,41 @@ public class DynamicAlgo extends Algorithm
 		mFuseUse = fuseUse;
 	}
 	
+	/**
+	 * @param bytes estimated number of bytes the look up table may occupy
+	 * default is LookupTable.UNBOUNDED
+	 */
+	public void setMemoryBudget (long bytes)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set memory budget while algorithm is running");
+		mMemoryBudget = bytes;
+	}
+	
+	/**
+	 * @param policy strategy to choose entries of the look up table to evict once the memory budget is exceeded
+	 * default is LRU
+	 */
+	public void setEvictionPolicy (LookupTable.EvictionPolicy policy)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set eviction policy while algorithm is running");
+		mEvictionPolicy = policy;
+	}
+	
+	/**
+	 * @param threads number of threads exploring in parallel, 1 explores sequentially
+	 * default is 1
+	 */
+	public void setParallelism (int threads)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set parallelism while algorithm is running");
+		if (threads < 1)
+			throw new IllegalArgumentException ("at least one thread is required");
+		mParallelism = threads;
+	}
+	
 	public void run()
 	{
 		super.run();
@@ -719,29 +879,72 @@ public class DynamicAlgo extends Algorithm
 		generateStartSet();
 		eraseZeroResources (mLargestSubset);
 		
-		int dep = getContainer().getDimensions(0);
-		int wid = getContainer().getDimensions(1);
-		int hig = getContainer().getDimensions(2);
+		final int dep = getContainer().getDimensions(0);
+		final int wid = getContainer().getDimensions(1);
+		final int hig = getContainer().getDimensions(2);
 		ArrayList<Integer> tDims = LookupTable.sortIndices (dep, wid, hig);
 		mLookupTable = new LookupTable (tDims.get(0) + 1, tDims.get(1) + 1, tDims.get(2) + 1);
+		mLookupTable.setEvictionPolicy (mEvictionPolicy);
+		mLookupTable.setMemoryBudget (mMemoryBudget);
 		
-		mCurrentIncrease = getProgress().getRemainingIncrease();
+		final Progress.Share share = getProgress().getRemainingShare();
 		
-		explore (getContainer(), mLargestSubset);
+		Entry solved;
+		if (mParallelism > 1)
+		{
+			mPool = new ForkJoinPool (mParallelism);
+			try
+			{
+				solved = mPool.invoke (new RecursiveTask<Entry>()
+				{
+					protected Entry compute() { return explore (dep, wid, hig, mLargestSubset, share); }
+				});
+			}
+			finally
+			{
+				mPool.shutdown();
+				mPool = null;
+			}
+		}
+		else
+			solved = explore (dep, wid, hig, mLargestSubset, share);
 		
-		setSolution (mLookupTable.get (dep, wid, hig, mLookupTable.new Entry (mLargestSubset)).getContainer());
+		setSolution (solved.getContainer());
 		setAlgoDone();
 	}
 	
+	/**
+	 * @param d depth of container
+	 * @param w width of container
+	 * @param h height of container
+	 * @param s a given subset
+	 * @param share progress share of exploration, completed before returning
+	 * @return entry of optimal filling for container of size d x w x h using s
+	 * looked up in the table or computed and stored if not yet present,
+	 * an empty entry which is not stored if the algorithm is cancelled
+	 */
+	public Entry explore (int d, int w, int h, Subset s, Progress.Share share)
+	{
+		Entry solved = null;
+		if (!isCancelled())
+			solved = mLookupTable.computeIfAbsent (d, w, h, s, new SolveTask (d, w, h, s, share));
+		if (solved == null)
+			solved = mLookupTable.new Entry (new Container (d, w, h), s);
+		share.complete();
+		return solved;
+	}
+	
 	/**
 	 * @param c a given empty container
 	 * @param s a given subset
-	 * computes optimal filling for c using s
+	 * @param share progress share of solving, completed by the caller
+	 * @return entry of optimal filling for c using s, null if the algorithm was cancelled while solving
+	 * tries every orientation of every resource, in parallel if a pool is running
 	 */
-	public void explore (Container c, Subset s)
+	public Entry solve (Container c, Subset s, Progress.Share share)
 	{
-		final int MAXDIM = 3;
-		
+		if (isCancelled())
+			return null;
 		Entry best = mLookupTable.new Entry (c, s);
 		int bestScore = mOptimize.getPerformance (best.getContainer());
 		//int iSub = getSubsetIndex (s);
@@ -749,73 +952,48 @@ public class DynamicAlgo extends Algorithm
 		ArrayList<Integer> sortContDims;
 		sortContDims = LookupTable.sortIndices (c.getDimensions (0), c.getDimensions (1), c.getDimensions (2));
 		
-		if (s.getSize() > 0)
-			mCurrentIncrease.split (s.getResources().size());
-		
-		for (Resource piece : s.getResources())
+		ArrayList<BranchTask> branches = new ArrayList<>();
+		LinkedList<Resource> resources = s.getResources();
+		Progress.Share[] resourceShares = share.split (resources.size());
+		for (int cRes = 0; cRes < resources.size(); ++cRes)
 		{
-			Block bRef = piece.getBlock();
-			ArrayList<Block> rotatedBlocks = new ArrayList<>();
-			for (BasicShape rotation : new ShapeRotator (bRef).getRotations())
-				rotatedBlocks.add (new Block (rotation, bRef.getValue(), bRef.getName()));
+			Resource piece = resources.get (cRes);
+			List<Block> rotatedBlocks = OrientationCache.getRotations (piece.getBlock());
 			
-			mCurrentIncrease.split (rotatedBlocks.size());
-			for (Block rotatedPiece : rotatedBlocks)
+			Progress.Share[] rotationShares = resourceShares[cRes].split (rotatedBlocks.size());
+			for (int cRot = 0; cRot < rotatedBlocks.size(); ++cRot)
 			{
+				Block rotatedPiece = rotatedBlocks.get (cRot);
 				//if piece fits
 				if (sortContDims.get (0) >= rotatedPiece.getDimensions(0) && 
 					sortContDims.get (1) >= rotatedPiece.getDimensions(1) &&
 					sortContDims.get (2) >= rotatedPiece.getDimensions(2))
-				{
-					//clone and deduct subset
-					//maybe only clone?
-					Subset sClone = s.deepClone();
-					Resource use = sClone.getElement (piece);
-					use.deduct();
-					if (use.getInventory() <= 0)
-						sClone.remove (use);
-					
-					//construct new empty container of sorted dimension's size and place
-					Container cloneC = new Container (sortContDims.get (0), sortContDims.get (1), sortContDims.get (2));
-					cloneC.placeBlock (rotatedPiece, new Glue (new IntegerMatrix (MAXDIM, 1)));
-					
-					//cut remainder, fill remainder, assemble remainder
-					ArrayList<Cuboid> freeRemain = cloneC.getFreeCuboids();
-					if (!freeRemain.isEmpty())	
-					{
-						if (mFuseUse)
-							freeRemain = fuseAdjacentCuboids (freeRemain);
-						mCurrentIncrease.split (freeRemain.size() + 1);
-						
-						ArrayList <Container> filled = fillFreeCuboids (freeRemain, sClone);
-						
-						if (!filled.isEmpty())
-							putPiecesTogether (cloneC, filled);
-						
-						getProgress().increase (mCurrentIncrease);
-						mCurrentIncrease.unite();
-					}
-					
-					//check for new max
-					Entry current = mLookupTable.new Entry (cloneC, s);
-					
-					int currScore = mOptimize.getPerformance (current.getContainer());
-					
-					if (best == null || currScore > bestScore)
-					{
-						best = current;
-						bestScore = currScore;
-					}
-				}
+					branches.add (new BranchTask (sortContDims, s, piece, rotatedPiece, rotationShares[cRot]));
 			}
-			mCurrentIncrease.unite();
 		}
 		
-		if (s.getSize() > 0)
-			mCurrentIncrease.unite();
+		if (mPool != null)
+			ForkJoinTask.invokeAll (branches);
+		else
+		{
+			for (BranchTask branch : branches)
+				branch.place();
+		}
+		
+		//branches filled while cancelled are incomplete and must not be stored
+		if (isCancelled())
+			return null;
 		
-		//set max value to current cell
-		mLookupTable.addEntry (c.getDimensions (0), c.getDimensions (1), c.getDimensions (2), best);
+		//check for new max in order of resources and orientations
+		for (BranchTask branch : branches)
+		{
+			if (best == null || branch.getScore() > bestScore)
+			{
+				best = branch.getResult();
+				bestScore = branch.getScore();
+			}
+		}
+		return best;
 	}
 	
 	/**
@@ -885,8 +1063,11 @@ public class DynamicAlgo extends Algorithm
 	private Subset mLargestSubset;
 	private LookupTable mLookupTable;
 	
-	private Progress.Increase mCurrentIncrease;
+	private ForkJoinPool mPool;
+	private int mParallelism;
 	
 	private PerformanceMeasure mOptimize;
 	private boolean mFuseUse;
+	private long mMemoryBudget;
+	private LookupTable.EvictionPolicy mEvictionPolicy;
 }
@@ -0,0 +1,301 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.OrientationCache;
+import models.Resource;
+
+/**
+ * algorithm filling the container by solving an exact cover problem with dancing links (Knuth's algorithm X)
+ * every free cell of the container is a column, every placement of a piece in one of its orientations
+ * at an offset where it fits into free cells is a row.
+ * By default the algorithm searches for a placement filling every free cell.
+ * If maximizing is enabled, cells may remain empty and a branch and bound search
+ * finds the placement of the highest value instead.
+ * Finite inventories of resources are respected during the search
+ */
+public class ExactCoverAlgo extends Algorithm
+{
+	/**
+	 * default maximum number of search nodes, unlimited
+	 */
+	public static final long DEFAULT_NODE_LIMIT = Long.MAX_VALUE;
+
+	/**
+	 * depth of search tree up to which progress is reported
+	 */
+	public static final int PROGRESS_DEPTH = 3;
+
+	/**
+	 * measure of value to compare with the incumbent
+	 */
+	private static final PerformanceMeasure VALUE = new MaxValuePerformance();
+
+	public ExactCoverAlgo()
+	{
+		mMaximize = false;
+		mNodeLimit = DEFAULT_NODE_LIMIT;
+	}
+
+	/**
+	 * @param maximize true to search for the placement of maximum value leaving cells empty if necessary,
+	 * false to search for a placement filling the container completely (default)
+	 */
+	public void setMaximize (boolean maximize)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot change objective while algorithm is running");
+		mMaximize = maximize;
+	}
+
+	/**
+	 * @param limit maximum number of search nodes to visit. Once it is exceeded, the best placement found so far is used
+	 */
+	public void setNodeLimit (long limit)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot change node limit while algorithm is running");
+		if (limit < 1)
+			throw new IllegalArgumentException ("node limit has to be positive");
+		mNodeLimit = limit;
+	}
+
+	/**
+	 * @return true if the placement found fills every free cell of the container
+	 * Precondition: algorithm terminated
+	 */
+	public boolean isFilledCompletely()
+	{
+		if (!isAlgoDone())
+			throw new Algorithm.AlgorithmNotStartedException ("algorithm did not terminate yet");
+		return mCompleteFill;
+	}
+
+	/**
+	 * @return true if the search was exhaustive, i.e. the node limit was not exceeded
+	 * Precondition: algorithm terminated
+	 */
+	public boolean isExhaustive()
+	{
+		if (!isAlgoDone())
+			throw new Algorithm.AlgorithmNotStartedException ("algorithm did not terminate yet");
+		return (mNodes <= mNodeLimit && !isCancelled());
+	}
+
+	/**
+	 * @return number of search nodes visited
+	 */
+	public long getNodeCount() { return mNodes; }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		buildMatrix();
+
+		mChosen = new int[mLinks.getColumns() + 1];
+		mBest = new int[0];
+		mBestValue = -1.0;
+		mCompleteFill = false;
+		mEmptyCells = 0;
+		mNodes = 0;
+		mStartValue = getContainer().getValue();
+		search (0, 0.0, getProgress().getRemainingShare());
+
+		Container c = getContainer();
+		for (int row : mBest)
+		{
+			c.placeBlock (mRowBlocks.get (row), mRowPositions.get (row));
+			getPieces().get (mRowResources.get (row)).deduct();
+		}
+		setAlgoDone();
+	}
+
+	/**
+	 * creates a column for every free cell and a row for every placement fitting into free cells
+	 */
+	private void buildMatrix()
+	{
+		Container c = getContainer();
+		int d = c.getDimensions (0), w = c.getDimensions (1), h = c.getDimensions (2);
+		int[] column = new int[d * w * h];
+		int columns = 0;
+		for (int cX = 0; cX < d; ++cX)
+		{
+			for (int cY = 0; cY < w; ++cY)
+			{
+				for (int cZ = 0; cZ < h; ++cZ)
+					column[(cX * w + cY) * h + cZ] = (c.isCellOccupied (cX, cY, cZ) ? -1 : columns++);
+			}
+		}
+
+		mLinks = new DancingLinks (columns);
+		mRowResources = new ArrayList<>();
+		mRowBlocks = new ArrayList<>();
+		mRowPositions = new ArrayList<>();
+		ArrayList<Resource> pieces = getPieces();
+		mUsed = new int[pieces.size()];
+		mDensities = new double[pieces.size()];
+		for (int cRes = 0; cRes < pieces.size(); ++cRes)
+		{
+			Resource res = pieces.get (cRes);
+			if (!res.isInfinite() && res.getInventory() <= 0)
+				continue;
+			List<Block> rotations = OrientationCache.getRotations (res.getBlock());
+			mDensities[cRes] = res.getBlock().getValue() / (res.getBlock().getCells().length / 3);
+			for (Block rotated : rotations)
+			{
+				int[] cells = rotated.getCells();
+				int[] rowColumns = new int[cells.length / 3];
+				for (int cX = 0; cX + rotated.getDimensions (0) <= d; ++cX)
+				{
+					for (int cY = 0; cY + rotated.getDimensions (1) <= w; ++cY)
+					{
+						for (int cZ = 0; cZ + rotated.getDimensions (2) <= h; ++cZ)
+						{
+							boolean fits = true;
+							for (int cCell = 0; cCell < cells.length && fits; cCell += 3)
+							{
+								int col = column[((cX + cells[cCell]) * w + cY + cells[cCell + 1]) * h + cZ + cells[cCell + 2]];
+								rowColumns[cCell / 3] = col;
+								fits = (col >= 0);
+							}
+							if (fits)
+							{
+								mLinks.addRow (rowColumns);
+								mRowResources.add (cRes);
+								mRowBlocks.add (rotated);
+								mRowPositions.add (c.getCellPosition (cX, cY, cZ));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * algorithm X: covers the column having the fewest rows by every row in turn,
+	 * when maximizing the column may also be left empty
+	 * @param depth number of rows chosen
+	 * @param value value of rows chosen
+	 * @param share share of progress of this subtree or null if it is not reported
+	 * @return true if the search is to be stopped
+	 */
+	private boolean search (int depth, double value, Progress.Share share)
+	{
+		++mNodes;
+		boolean stop = (mNodes > mNodeLimit || isCancelled());
+		int column = mLinks.chooseColumn();
+		if (column < 0)
+		{
+			if (value > mBestValue)
+			{
+				mBestValue = value;
+				mBest = Arrays.copyOf (mChosen, depth);
+				mCompleteFill = (mEmptyCells == 0);
+				publishBest();
+			}
+			stop |= !mMaximize;
+		}
+		else if (!stop && (!mMaximize || (value + getBound() > mBestValue && !isBeatenByIncumbent (value + getBound()))))
+		{
+			int branches = mLinks.getColumnSize (column) + (mMaximize ? 1 : 0);
+			Progress.Share[] shares = (share != null && depth < PROGRESS_DEPTH && branches > 0 ? share.split (branches) : null);
+			int cBranch = 0;
+
+			mLinks.cover (column);
+			for (int node = mLinks.getFirstNode (column); node >= 0 && !stop; node = mLinks.getNextNode (node))
+			{
+				int row = mLinks.getRow (node);
+				int res = mRowResources.get (row);
+				Resource piece = getPieces().get (res);
+				Progress.Share branchShare = (shares != null ? shares[cBranch++] : null);
+				if (piece.isInfinite() || mUsed[res] < piece.getInventory())
+				{
+					++mUsed[res];
+					mChosen[depth] = row;
+					mLinks.select (node);
+					stop = search (depth + 1, value + mRowBlocks.get (row).getValue(), branchShare);
+					mLinks.deselect (node);
+					--mUsed[res];
+				}
+				else if (branchShare != null)
+					branchShare.complete();
+			}
+			if (mMaximize && !stop)
+			{
+				//leave cell of column empty
+				++mEmptyCells;
+				stop = search (depth, value, (shares != null ? shares[cBranch] : null));
+				--mEmptyCells;
+			}
+			mLinks.uncover (column);
+		}
+		if (share != null)
+			share.complete();
+		return stop;
+	}
+
+	/**
+	 * @return upper bound on the value the uncovered cells can add:
+	 * number of uncovered cells times the highest value per cell of resources available
+	 */
+	private double getBound()
+	{
+		double density = 0.0;
+		ArrayList<Resource> pieces = getPieces();
+		for (int cRes = 0; cRes < pieces.size(); ++cRes)
+		{
+			Resource res = pieces.get (cRes);
+			if (res.isInfinite() || mUsed[cRes] < res.getInventory())
+				density = Math.max (density, mDensities[cRes]);
+		}
+		return density * mLinks.getUncoveredColumns();
+	}
+
+	/**
+	 * @param bound upper bound on the value of the blocks placed by the algorithm
+	 * @return true if the incumbent, whose performance is rounded, has a value of at least bound plus the value of blocks placed before
+	 */
+	private boolean isBeatenByIncumbent (double bound)
+	{
+		Incumbent best = getIncumbent();
+		return (best != null && mStartValue + bound + 0.5 <= best.getPerformance (VALUE));
+	}
+
+	/**
+	 * publishes the best rows found as best load so far
+	 */
+	private void publishBest()
+	{
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		for (int row : mBest)
+		{
+			blocks.add (mRowBlocks.get (row));
+			positions.add (mRowPositions.get (row));
+		}
+		publishSolution (blocks, positions);
+	}
+
+	private boolean mMaximize;
+	private long mNodeLimit, mNodes;
+
+	private DancingLinks mLinks;
+	private ArrayList<Integer> mRowResources;
+	private ArrayList<Block> mRowBlocks;
+	private ArrayList<Glue> mRowPositions;
+
+	private int[] mUsed;
+	private double[] mDensities;
+	private int[] mChosen, mBest;
+	private double mBestValue, mStartValue;
+	private int mEmptyCells;
+	private boolean mCompleteFill;
+}
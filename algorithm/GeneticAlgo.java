@@ -0,0 +1,550 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+
+/**
+ * genetic algorithm over sequences of pieces
+ * a chromosome is an order of the items of a sequence decoder and an orientation for every item.
+ * The population is split into islands evolving independently: the elites of an island survive,
+ * the other chromosomes are bred from parents chosen by tournament using order crossover for the order,
+ * uniform crossover for the orientations and random swaps and rotations as mutations.
+ * Every few generations the best chromosome of an island replaces the worst chromosome of the next island.
+ * Chromosomes are evaluated in parallel, every thread decodes with a decoder of its own.
+ * Random choices depend on the seed only, so the result does not depend on the number of threads
+ */
+public class GeneticAlgo extends Algorithm
+{
+	public static final int DEFAULT_POPULATION_SIZE = 50;
+	public static final int DEFAULT_ISLANDS = 4;
+	public static final int DEFAULT_ELITES = 2;
+	public static final int DEFAULT_TOURNAMENT_SIZE = 3;
+	public static final double DEFAULT_MUTATION_RATE = 0.2;
+	public static final int DEFAULT_MIGRATION_INTERVAL = 10;
+	public static final int DEFAULT_GENERATION_LIMIT = 200;
+	public static final long DEFAULT_TIME_LIMIT = 10000;
+
+	public GeneticAlgo()
+	{
+		mOptimize = new MaxValuePerformance();
+		mPopulationSize = DEFAULT_POPULATION_SIZE;
+		mIslands = DEFAULT_ISLANDS;
+		mElites = DEFAULT_ELITES;
+		mTournamentSize = DEFAULT_TOURNAMENT_SIZE;
+		mMutationRate = DEFAULT_MUTATION_RATE;
+		mMigrationInterval = DEFAULT_MIGRATION_INTERVAL;
+		mGenerationLimit = DEFAULT_GENERATION_LIMIT;
+		mTimeLimit = DEFAULT_TIME_LIMIT;
+		mParallelism = 1;
+		mSeed = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param p performance measure to maximize, default is value
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure p)
+	{
+		checkNotRunning();
+		mOptimize = p;
+	}
+
+	/**
+	 * @param size number of chromosomes of every island, default is DEFAULT_POPULATION_SIZE
+	 */
+	public void setPopulationSize (int size)
+	{
+		checkNotRunning();
+		if (size < 2)
+			throw new IllegalArgumentException ("population needs at least two chromosomes");
+		mPopulationSize = size;
+	}
+
+	/**
+	 * @param islands number of islands, default is DEFAULT_ISLANDS
+	 */
+	public void setIslands (int islands)
+	{
+		checkNotRunning();
+		if (islands < 1)
+			throw new IllegalArgumentException ("at least one island is required");
+		mIslands = islands;
+	}
+
+	/**
+	 * @param elites number of best chromosomes of an island surviving unchanged, default is DEFAULT_ELITES
+	 */
+	public void setElites (int elites)
+	{
+		checkNotRunning();
+		if (elites < 0)
+			throw new IllegalArgumentException ("number of elites cannot be negative");
+		mElites = elites;
+	}
+
+	/**
+	 * @param size number of chromosomes competing for being a parent, default is DEFAULT_TOURNAMENT_SIZE
+	 */
+	public void setTournamentSize (int size)
+	{
+		checkNotRunning();
+		if (size < 1)
+			throw new IllegalArgumentException ("tournament needs at least one chromosome");
+		mTournamentSize = size;
+	}
+
+	/**
+	 * @param rate probability of a child to have two items swapped and, independently, one item rotated,
+	 * default is DEFAULT_MUTATION_RATE
+	 */
+	public void setMutationRate (double rate)
+	{
+		checkNotRunning();
+		if (rate < 0 || rate > 1)
+			throw new IllegalArgumentException ("mutation rate has to be a probability");
+		mMutationRate = rate;
+	}
+
+	/**
+	 * @param generations number of generations between migrations among islands, default is DEFAULT_MIGRATION_INTERVAL
+	 */
+	public void setMigrationInterval (int generations)
+	{
+		checkNotRunning();
+		if (generations < 1)
+			throw new IllegalArgumentException ("migration interval has to be positive");
+		mMigrationInterval = generations;
+	}
+
+	/**
+	 * @param generations number of generations to breed, default is DEFAULT_GENERATION_LIMIT
+	 * the search stops at whichever limit is reached first
+	 */
+	public void setGenerationLimit (int generations)
+	{
+		checkNotRunning();
+		if (generations < 1)
+			throw new IllegalArgumentException ("generation limit has to be positive");
+		mGenerationLimit = generations;
+	}
+
+	/**
+	 * @param millis time to search in milliseconds, default is DEFAULT_TIME_LIMIT
+	 */
+	public void setTimeLimit (long millis)
+	{
+		checkNotRunning();
+		if (millis < 1)
+			throw new IllegalArgumentException ("time limit has to be positive");
+		mTimeLimit = millis;
+	}
+
+	/**
+	 * @param threads number of threads evaluating chromosomes in parallel, 1 evaluates sequentially
+	 * default is 1
+	 */
+	public void setParallelism (int threads)
+	{
+		checkNotRunning();
+		if (threads < 1)
+			throw new IllegalArgumentException ("at least one thread is required");
+		mParallelism = threads;
+	}
+
+	/**
+	 * @param seed seed of random choices, the current time by default
+	 */
+	public void setSeed (long seed)
+	{
+		checkNotRunning();
+		mSeed = seed;
+	}
+
+	/**
+	 * @return number of generations bred
+	 */
+	public int getGenerationCount() { return mGenerations; }
+
+	/**
+	 * @return number of chromosomes evaluated
+	 */
+	public long getEvaluationCount() { return mEvaluations; }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		Container c = getContainer();
+		mDecoder = new SequenceDecoder (c, getPieces(), mOptimize);
+		mWorkers = new ThreadLocal<Worker>()
+		{
+			protected Worker initialValue() { return new Worker(); }
+		};
+		mGenerations = 0;
+		mEvaluations = 0;
+		if (mParallelism > 1)
+			mPool = new ForkJoinPool (mParallelism);
+
+		Chromosome best = null;
+		try
+		{
+			Random seeds = new Random (mSeed);
+			ArrayList<ArrayList<Chromosome>> islands = new ArrayList<>();
+			Random[] rands = new Random[mIslands];
+			ArrayList<Chromosome> pending = new ArrayList<>();
+			for (int cIsland = 0; cIsland < mIslands; ++cIsland)
+			{
+				rands[cIsland] = new Random (seeds.nextLong());
+				ArrayList<Chromosome> population = new ArrayList<>();
+				for (int cChrom = 0; cChrom < mPopulationSize; ++cChrom)
+					population.add (new Chromosome (rands[cIsland]));
+				islands.add (population);
+				pending.addAll (population);
+			}
+			evaluate (pending);
+			best = getBest (islands, best);
+			publish (c, best);
+
+			Progress.Share[] shares = getProgress().getRemainingShare().split (mGenerationLimit);
+			long start = System.currentTimeMillis();
+			while (mGenerations < mGenerationLimit && System.currentTimeMillis() - start < mTimeLimit && mDecoder.getLength() > 0 && !isCancelled())
+			{
+				pending.clear();
+				for (int cIsland = 0; cIsland < mIslands; ++cIsland)
+				{
+					ArrayList<Chromosome> next = breed (islands.get (cIsland), rands[cIsland]);
+					islands.set (cIsland, next);
+					for (Chromosome child : next)
+					{
+						if (!child.mEvaluated)
+							pending.add (child);
+					}
+				}
+				evaluate (pending);
+				++mGenerations;
+				if (mIslands > 1 && mGenerations % mMigrationInterval == 0)
+					migrate (islands);
+				Chromosome previous = best;
+				best = getBest (islands, best);
+				if (best != previous)
+					publish (c, best);
+				shares[mGenerations - 1].complete();
+			}
+		}
+		finally
+		{
+			if (mPool != null)
+				mPool.shutdown();
+			mPool = null;
+		}
+
+		Worker w = mWorkers.get();
+		w.decode (best);
+		int[] placed = w.mDecoder.placeDecoded (c, w.mPieces, w.mRotations);
+		for (int cPiece = 0; cPiece < placed.length; ++cPiece)
+		{
+			for (int cBlock = 0; cBlock < placed[cPiece]; ++cBlock)
+				getPieces().get (cPiece).deduct();
+		}
+		mWorkers = null;
+		setAlgoDone();
+	}
+
+	/**
+	 * order of items and orientation of every item
+	 */
+	private class Chromosome
+	{
+		/**
+		 * constructs chromosome having a random order and random orientations
+		 */
+		public Chromosome (Random rand)
+		{
+			this();
+			for (int cItem = 0; cItem < mOrder.length; ++cItem)
+			{
+				int swap = rand.nextInt (cItem + 1);
+				mOrder[cItem] = mOrder[swap];
+				mOrder[swap] = cItem;
+				mRotations[cItem] = rand.nextInt (mDecoder.getRotationCount (mDecoder.getItemPiece (cItem)));
+			}
+		}
+
+		/**
+		 * constructs chromosome whose genes are set by the caller
+		 */
+		public Chromosome()
+		{
+			mOrder = new int[mDecoder.getLength()];
+			mRotations = new int[mDecoder.getLength()];
+			mEvaluated = false;
+		}
+
+		private final int[] mOrder, mRotations;
+		private double mFitness;
+		private boolean mEvaluated;
+	}
+
+	/**
+	 * decoder and sequence buffers of a thread
+	 */
+	private class Worker
+	{
+		public Worker()
+		{
+			mDecoder = new SequenceDecoder (GeneticAlgo.this.mDecoder);
+			mPieces = new int[mDecoder.getLength()];
+			mRotations = new int[mDecoder.getLength()];
+		}
+
+		/**
+		 * decodes chrom, the first index differing from the chromosome decoded before is decoded first
+		 * @return performance of the load
+		 */
+		public double decode (Chromosome chrom)
+		{
+			int from = mPieces.length;
+			for (int cItem = 0; cItem < mPieces.length; ++cItem)
+			{
+				int item = chrom.mOrder[cItem];
+				int piece = mDecoder.getItemPiece (item);
+				if (from == mPieces.length && (mPieces[cItem] != piece || mRotations[cItem] != chrom.mRotations[item] || !mDecoded))
+					from = cItem;
+				mPieces[cItem] = piece;
+				mRotations[cItem] = chrom.mRotations[item];
+			}
+			mDecoded = true;
+			return mDecoder.decode (mPieces, mRotations, from);
+		}
+
+		private final SequenceDecoder mDecoder;
+		private final int[] mPieces, mRotations;
+		private boolean mDecoded;
+	}
+
+	/**
+	 * evaluates a range of chromosomes, splitting it among threads
+	 */
+	@SuppressWarnings("serial")
+	private class EvaluateTask extends RecursiveAction
+	{
+		public EvaluateTask (ArrayList<Chromosome> chroms, int from, int to)
+		{
+			mChroms = chroms;
+			mFrom = from;
+			mTo = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (mTo - mFrom <= EVALUATION_GRAIN)
+			{
+				Worker w = mWorkers.get();
+				for (int cChrom = mFrom; cChrom < mTo; ++cChrom)
+				{
+					Chromosome chrom = mChroms.get (cChrom);
+					chrom.mFitness = w.decode (chrom);
+					chrom.mEvaluated = true;
+				}
+			}
+			else
+			{
+				int mid = (mFrom + mTo) / 2;
+				invokeAll (new EvaluateTask (mChroms, mFrom, mid), new EvaluateTask (mChroms, mid, mTo));
+			}
+		}
+
+		private ArrayList<Chromosome> mChroms;
+		private int mFrom, mTo;
+	}
+
+	/**
+	 * evaluates every chromosome of chroms, in parallel if a pool is running
+	 */
+	private void evaluate (ArrayList<Chromosome> chroms)
+	{
+		EvaluateTask task = new EvaluateTask (chroms, 0, chroms.size());
+		if (mPool != null)
+			mPool.invoke (task);
+		else
+			task.compute();
+		mEvaluations += chroms.size();
+	}
+
+	/**
+	 * @return next generation of population: its elites and children of parents chosen by tournament
+	 */
+	private ArrayList<Chromosome> breed (ArrayList<Chromosome> population, Random rand)
+	{
+		ArrayList<Chromosome> ranked = new ArrayList<> (population);
+		Collections.sort (ranked, RANKING);
+		ArrayList<Chromosome> next = new ArrayList<>();
+		for (int cElite = 0; cElite < Math.min (mElites, mPopulationSize); ++cElite)
+			next.add (ranked.get (cElite));
+		while (next.size() < mPopulationSize)
+		{
+			Chromosome child = crossover (select (population, rand), select (population, rand), rand);
+			mutate (child, rand);
+			next.add (child);
+		}
+		return next;
+	}
+
+	/**
+	 * @return fittest of mTournamentSize chromosomes drawn from population
+	 */
+	private Chromosome select (ArrayList<Chromosome> population, Random rand)
+	{
+		Chromosome winner = null;
+		for (int cDraw = 0; cDraw < mTournamentSize; ++cDraw)
+		{
+			Chromosome drawn = population.get (rand.nextInt (population.size()));
+			if (winner == null || drawn.mFitness > winner.mFitness)
+				winner = drawn;
+		}
+		return winner;
+	}
+
+	/**
+	 * order crossover: the child takes a slice of the order of p1, the other items follow in the order of p2 after the slice.
+	 * the orientation of every item is taken from either parent
+	 */
+	private Chromosome crossover (Chromosome p1, Chromosome p2, Random rand)
+	{
+		Chromosome child = new Chromosome();
+		int length = child.mOrder.length;
+		if (length == 0)
+			return child;
+		int first = rand.nextInt (length), last = rand.nextInt (length);
+		if (first > last)
+		{
+			int swap = first;
+			first = last;
+			last = swap;
+		}
+		boolean[] used = new boolean[length];
+		for (int cItem = first; cItem <= last; ++cItem)
+		{
+			child.mOrder[cItem] = p1.mOrder[cItem];
+			used[p1.mOrder[cItem]] = true;
+		}
+		int fill = (last + 1) % length;
+		for (int cItem = 0; cItem < length; ++cItem)
+		{
+			int item = p2.mOrder[(last + 1 + cItem) % length];
+			if (!used[item])
+			{
+				child.mOrder[fill] = item;
+				fill = (fill + 1) % length;
+			}
+		}
+		for (int cItem = 0; cItem < length; ++cItem)
+			child.mRotations[cItem] = (rand.nextBoolean() ? p1 : p2).mRotations[cItem];
+		return child;
+	}
+
+	/**
+	 * swaps two items and rotates one item, each with probability mMutationRate
+	 */
+	private void mutate (Chromosome chrom, Random rand)
+	{
+		int length = chrom.mOrder.length;
+		if (length > 1 && rand.nextDouble() < mMutationRate)
+		{
+			int i = rand.nextInt (length), j = rand.nextInt (length);
+			int swap = chrom.mOrder[i];
+			chrom.mOrder[i] = chrom.mOrder[j];
+			chrom.mOrder[j] = swap;
+		}
+		if (length > 0 && rand.nextDouble() < mMutationRate)
+		{
+			int item = rand.nextInt (length);
+			chrom.mRotations[item] = rand.nextInt (mDecoder.getRotationCount (mDecoder.getItemPiece (item)));
+		}
+	}
+
+	/**
+	 * the best chromosome of every island replaces the worst chromosome of the next island
+	 */
+	private void migrate (ArrayList<ArrayList<Chromosome>> islands)
+	{
+		ArrayList<Chromosome> migrants = new ArrayList<>();
+		for (ArrayList<Chromosome> population : islands)
+			migrants.add (Collections.min (population, RANKING));
+		for (int cIsland = 0; cIsland < islands.size(); ++cIsland)
+		{
+			ArrayList<Chromosome> target = islands.get ((cIsland + 1) % islands.size());
+			target.set (target.indexOf (Collections.max (target, RANKING)), migrants.get (cIsland));
+		}
+	}
+
+	/**
+	 * publishes the load of chrom as best load so far
+	 */
+	private void publish (Container c, Chromosome chrom)
+	{
+		Worker w = mWorkers.get();
+		w.decode (chrom);
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		w.mDecoder.getDecoded (c, w.mPieces, w.mRotations, blocks, positions);
+		publishSolution (blocks, positions);
+	}
+
+	/**
+	 * @return fittest chromosome of islands or best if it is at least as fit
+	 */
+	private Chromosome getBest (ArrayList<ArrayList<Chromosome>> islands, Chromosome best)
+	{
+		for (ArrayList<Chromosome> population : islands)
+		{
+			for (Chromosome chrom : population)
+			{
+				if (best == null || chrom.mFitness > best.mFitness)
+					best = chrom;
+			}
+		}
+		return best;
+	}
+
+	private void checkNotRunning()
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot change parameters while algorithm is running");
+	}
+
+	/**
+	 * number of chromosomes evaluated by a task without splitting
+	 */
+	private static final int EVALUATION_GRAIN = 4;
+
+	/**
+	 * orders chromosomes by descending fitness
+	 */
+	private static final Comparator<Chromosome> RANKING = new Comparator<Chromosome>()
+	{
+		public int compare (Chromosome c1, Chromosome c2)
+		{
+			return Double.compare (c2.mFitness, c1.mFitness);
+		}
+	};
+
+	private PerformanceMeasure mOptimize;
+	private int mPopulationSize, mIslands, mElites, mTournamentSize, mMigrationInterval, mGenerationLimit, mParallelism;
+	private double mMutationRate;
+	private long mTimeLimit, mSeed;
+
+	private SequenceDecoder mDecoder;
+	private ThreadLocal<Worker> mWorkers;
+	private ForkJoinPool mPool;
+	private int mGenerations;
+	private long mEvaluations;
+}
@@ -1,121 +1,172 @@
 package algorithm;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 import models.BasicShape;
 import models.Block;
 import models.Container;
 import models.Matrix;
+import models.OrientationCache;
 import models.Position;
 import models.Resource;
 import models.Resource.BlockType;
 import algorithm.*;
 
 public class GreedyAlgorithm extends Algorithm {
-	
-	public GreedyAlgorithm(EvaluationHeuristic e, ArrayList<Resource> list){
+
+	/**
+	 * placement considered in one step of the greedy algorithm
+	 * candidates are owned by the algorithm and reused in the next step
+	 */
+	public static class Candidate
+	{
+		/**
+		 * @return index of resource in the list of resources
+		 */
+		public int getResourceIndex() { return mResource; }
+
+		/**
+		 * @return index of rotation in the rotations of the resource
+		 */
+		public int getRotation() { return mRotation; }
+
+		/**
+		 * @return position the block would be placed at
+		 */
+		public Position getPosition() { return mPosition; }
+
+		/**
+		 * @return position passed to the evaluation heuristic
+		 */
+		public Position getScoredPosition() { return mScoredPosition; }
+
+		/**
+		 * @return score assigned by the evaluation heuristic
+		 */
+		public double getScore() { return mScore; }
+
+		private void set (int resource, int rotation, Position pos, Position scoredPos, double score, int order)
+		{
+			mResource = resource;
+			mRotation = rotation;
+			mPosition = pos;
+			mScoredPosition = scoredPos;
+			mScore = score;
+			mOrder = order;
+		}
+
+		private int mResource, mRotation, mOrder;
+		private Position mPosition, mScoredPosition;
+		private double mScore;
+	}
+
+	/**
+	 * @param e evaluation heuristic scoring candidates
+	 */
+	public GreedyAlgorithm(EvaluationHeuristic e){
 		this.currentE = e;
-		Resources = list;
+		mCandidates = new ArrayList<Candidate>();
 	}
-	
+
+	/**
+	 * @param e evaluation heuristic scoring candidates
+	 * @param list ignored, the pieces passed to init are placed
+	 */
+	public GreedyAlgorithm(EvaluationHeuristic e, ArrayList<Resource> list){
+		this(e);
+	}
+
 	@Override
-		public void run() 
+		public void run()
 	{
 		super.run();
+		initPieces();
 		while (!isAlgoDone())
 		{
-			placeBlock();
+			if (isCancelled())
+				setAlgoDone();
+			else
+				placeBlock();
 		}
 	}
+
+	/**
+	 * performs one step: places the best ranked candidate at the first free position
+	 * and terminates the algorithm once resources or free positions are exhausted
+	 */
 	public void placeBlock()
 	{
 		//get left top back position
 		Position currentPos = currentE.freePos(this.getContainer());
-		pentPos = currentPos;
 		if (currentPos!=null)
 		{
-			//Select Resource
-			for (int k=0; k<Resources.size(); k++)
-			{
-				//Select Block
-				if (Resources.get(k).isInfinite()==true||Resources.get(k).getInventory()>0)
-				{
-					//Select Rotation
-					for (int l=0;l<Resources.get(k).getRot().size();l++)
-					{
-						Container cloneTruck = getContainer().clone();
-						Block currentBlock = Resources.get(k).getRot().get(l);	
-						//Adjust Position for PENT only
-						if (Resources.get(k).getType()==Resource.BlockType.PENT)
-						{
-							ArrayList <Integer> Pos = new ArrayList <Integer> ();
-							int X = Resources.get(k).rotatedPos().get(l).getPosition(0)+pentPos.getPosition(0);
-							int Y = Resources.get(k).rotatedPos().get(l).getPosition(1)+pentPos.getPosition(1);
-							int Z = Resources.get(k).rotatedPos().get(l).getPosition(2)+pentPos.getPosition(2);
-							Pos.add(X); Pos.add(Y); Pos.add(Z); 
-							Position pos = new Position(Pos);
-							currentPos = pos;
-						}
-						if (Resources.get(k).getType()==Resource.BlockType.PARCEL&&currentE.checkPos(currentPos, currentBlock, cloneTruck))
-						{
-							cloneTruck.placeBlock(currentBlock, currentPos); //place
-							if (currentE.getScore(Resources.get(k), currentPos, l)>=score)//higher than score
-							{
-								score = currentE.getScore(Resources.get(k), currentPos, l);//update score
-								bestBlock = currentBlock;
-								state=l;
-								bool=false;
-								bestResource = Resources.get(k);
-								index=k;
-							}	
-						}	
-						if (Resources.get(k).getType()==Resource.BlockType.PENT&&currentE.pentCheckPos(Resources.get(k), l, pentPos, cloneTruck))
-						{
-							cloneTruck.placeBlock(currentBlock, currentPos); //place
-							if (currentE.getScore(Resources.get(k), pentPos, l)>=score)//higher than score
-							{
-								score = currentE.getScore(Resources.get(k), pentPos, l);//update score
-								bestBlock = currentBlock;
-								state=l;
-								bool=false;
-								pentAdjPos = currentPos;
-								bestResource = Resources.get(k);
-								index=k;
-							}	
-						}	
-					}
-				}
-			}
-			if (bool)
+			List<Candidate> ranked = rankCandidates(currentPos);
+			//the best candidate has to reach the best score seen so far
+			if (ranked.isEmpty() || ranked.get(0).getScore() < score)
 			{
 				currentE.nextPos();
 			}
-			if (bestBlock!=null)
+			else
 			{
-				if (bestResource.getType()==Resource.BlockType.PENT)
-				{
-					getContainer().placeBlock(bestBlock, pentAdjPos);
-					currentE.update(bestResource, pentPos, bestResource.getType(),state);
-				}
-				if (bestResource.getType()==Resource.BlockType.PARCEL)
-				{
-					getContainer().placeBlock(bestBlock, currentPos);
-					currentE.update(bestResource, currentPos, bestResource.getType(),state);
-				}
-				Resources.get(index).deduct(); 
-				bestBlock = null;
-				bool=true;
-			}	
+				Candidate best = ranked.get(0);
+				Resource bestResource = Resources.get(best.getResourceIndex());
+				score = best.getScore();
+				getContainer().placeBlock(bestResource.getRot().get(best.getRotation()), best.getPosition());
+				currentE.update(bestResource, best.getScoredPosition(), bestResource.getType(), best.getRotation());
+				bestResource.deduct();
+				if (bestResource != getPieces().get(best.getResourceIndex()))
+					getPieces().get(best.getResourceIndex()).deduct();
+				publishSolution();
+			}
 		}
 		if(resourceEmpty()||currentPos==null)
 		{
 			setAlgoDone();
 		}
-		else if(currentPos!=null)
+	}
+
+	/**
+	 * scores every rotation of every available resource at freePos with the evaluation heuristic
+	 * candidates are scored in the order of resources and rotations
+	 * @param freePos first free position of the container
+	 * @return candidates which fit, ordered by descending score, candidates scored later come first on equal scores.
+	 * the list and its candidates are reused by the next call
+	 */
+	public List<Candidate> rankCandidates(Position freePos)
+	{
+		Container truck = getContainer();
+		mCandidateCount = 0;
+		int order = 0;
+		for (int k=0; k<Resources.size(); k++)
 		{
-			this.placeBlock();
+			Resource res = Resources.get(k);
+			if (!(res.isInfinite()==true||res.getInventory()>0))
+				continue;
+			for (int l=0;l<res.getRot().size();l++)
+			{
+				Block currentBlock = res.getRot().get(l);
+				if (res.getType()==Resource.BlockType.PARCEL&&currentE.checkPos(freePos, currentBlock, truck))
+				{
+					addCandidate(k, l, freePos, freePos, currentE.getScore(res, freePos, l), order++);
+				}
+				if (res.getType()==Resource.BlockType.PENT&&currentE.pentCheckPos(res, l, freePos, truck))
+				{
+					//Adjust Position for PENT only
+					ArrayList <Integer> Pos = new ArrayList <Integer> ();
+					Pos.add(res.rotatedPos().get(l).getPosition(0)+freePos.getPosition(0));
+					Pos.add(res.rotatedPos().get(l).getPosition(1)+freePos.getPosition(1));
+					Pos.add(res.rotatedPos().get(l).getPosition(2)+freePos.getPosition(2));
+					addCandidate(k, l, new Position(Pos), freePos, currentE.getScore(res, freePos, l), order++);
+				}
+			}
 		}
+		List<Candidate> ranked = mCandidates.subList(0, mCandidateCount);
+		Collections.sort(ranked, RANKING);
+		return ranked;
 	}
-	
+
 	public boolean resourceEmpty()
 	{
 		boolean bool = true;
@@ -129,15 +180,50 @@ public class GreedyAlgorithm extends Algorithm {
 		return bool;
 	}
 
+	/**
+	 * prepares resources for the evaluation heuristic, resources without rotations are treated as parcels
+	 * whose rotations are taken from the orientation cache
+	 */
+	private void initPieces()
+	{
+		Resources = new ArrayList<Resource>();
+		for (Resource res : getPieces())
+		{
+			if (res.getRot() != null && res.getType() != null)
+				Resources.add(res);
+			else
+			{
+				Block b = res.getBlock();
+				ArrayList<Block> rotations = new ArrayList<Block>(OrientationCache.getRotations(b));
+				Resources.add(new Resource(b, res.getInventory(), res.getVolume(), res.isInfinite(), rotations, BlockType.PARCEL));
+			}
+		}
+	}
+
+	/**
+	 * stores candidate in the buffer, reusing a candidate of a previous step if possible
+	 */
+	private void addCandidate(int resource, int rotation, Position pos, Position scoredPos, double score, int order)
+	{
+		if (mCandidateCount == mCandidates.size())
+			mCandidates.add(new Candidate());
+		mCandidates.get(mCandidateCount++).set(resource, rotation, pos, scoredPos, score, order);
+	}
+
+	private static final Comparator<Candidate> RANKING = new Comparator<Candidate>()
+	{
+		public int compare(Candidate c1, Candidate c2)
+		{
+			if (c1.mScore != c2.mScore)
+				return Double.compare(c2.mScore, c1.mScore);
+			return Integer.compare(c2.mOrder, c1.mOrder);
+		}
+	};
+
 	private EvaluationHeuristic currentE;
 	private ArrayList<Resource> Resources;
 	private double score;
-	private Block bestBlock;
-	private int state;
-	private boolean bool;
-	private Position pentPos;
-	private Position pentAdjPos;
-	private Resource bestResource;
-	private int index;
+	private ArrayList<Candidate> mCandidates;
+	private int mCandidateCount;
 
 }
@@ -2,9 +2,12 @@ package algorithm;
 
 import java.util.ArrayList;
 
+import geometry.Cuboid;
+
 import models.Block;
 import models.Container;
 import models.Glue;
+import models.OrientationCache;
 import models.Position;
 import models.Matrix.IntegerMatrix;
 
@@ -18,18 +21,28 @@ public class HillClimber extends Algorithm
 {
 	/**
 	 * parametric constructor
-	 * @param container starting container
-	 * @param pieces pieces available
+	 * @param select heuristic selecting the piece to place next
+	 * @param eval measure scoring the container with a candidate placed
 	 */
-	public HillClimber (SelectionHeuristic select, EvaluationHeuristic eval)
+	public HillClimber (SelectionHeuristic select, PerformanceMeasure eval)
 	{
 		mSelect = select;
 		mEval = eval;
 	}
 	
+	/**
+	 * @param eval measure scoring the container with a candidate placed
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure eval)
+	{
+		if (isAlgoStarted())
+			throw new AlgorithmRunningException ("cannot change performance measure while algorithm is running");
+		mEval = eval;
+	}
+	
 	/**
 	 * Sets position where the algorithm will start placing
-	 * @param glue
+	 * @param start position, null to start at the corner of the container, which is the default
 	 */
 	public void setStartingPosition (Glue start)
 	{
@@ -42,25 +55,28 @@ public class HillClimber extends Algorithm
 	public void run()
 	{
 		super.run();
-		if (!getContainer().checkPositionInside (mStartingPosition))
+		Glue start = (mStartingPosition != null ? mStartingPosition : getContainer().getCellPosition (0, 0, 0));
+		if (!getContainer().checkPositionInside (start))
 			throw new IllegalStateException ("starting position is not within container");
 		
 		boolean init = true;
 		
 		while (!isAlgoDone())
 		{
-			Block chosen = selectPiece();
-			if (chosen != null)
-			{	
-				Glue pos = null;
-				if (!init)
-					pos = placeHeuristic (chosen);
-				else
-					pos = mStartingPosition;
+			int selected = (isCancelled() ? -1 : selectPiece());
+			if (selected >= 0)
+			{
+				Block chosen = getPieces().get (selected).getBlock();
+				Glue pos = placeHeuristic (chosen, (init ? start : null));
+				chosen = mBestRotation;
 				
-				Glue optimal = explore(pos, chosen);
+				Glue optimal = (pos != null ? explore(pos, chosen) : null);
 				if (optimal != null && getContainer().checkPositionOverlap(chosen, optimal))
+				{
 					getContainer().placeBlock (chosen, optimal);
+					getPieces().get (selected).deduct();
+					publishSolution();
+				}
 				else
 					setAlgoDone();
 			}
@@ -79,7 +95,9 @@ public class HillClimber extends Algorithm
 	private Glue explore (Glue initial, Block place)
 	{
 		Glue optimal = initial;
-		double bestScore = Double.MIN_VALUE;
+		double bestScore = -Double.MAX_VALUE;
+		if (placeAndCompare (new Position (initial.toVector()), place, bestScore))
+			bestScore = mLastScore;
 		boolean change;
 		do
 		{
@@ -92,12 +110,11 @@ public class HillClimber extends Algorithm
 					IntegerMatrix mat = optimal.toVector();
 					mat.setCell(cCoord, 0, mat.getCell(cCoord, 0) + cMove);
 					Position variant = new Position (mat);
-					Container clone = getContainer().clone();
 					
-					if (placeAndCompare (variant, place, clone, bestScore))
+					if (placeAndCompare (variant, place, bestScore))
 					{
 						optimal = variant;
-						bestScore = mEval.getScore (clone);
+						bestScore = mLastScore;
 						change = true;
 					}
 				}
@@ -107,37 +124,48 @@ public class HillClimber extends Algorithm
 	}
 	
 	/**
-	 * @return the evaluation heuristic's preferred piece
+	 * @return index of the evaluation heuristic's preferred piece, -1 if none is available
 	 */
-	private Block selectPiece()
+	private int selectPiece()
 	{
 		int selectIndex = mSelect.getBestBlock (getPieces());
-		if (selectIndex < getPieces().size())
-		{
-			getPieces().get(selectIndex).deduct();
-			return getPieces().get(selectIndex).getBlock();
-		}
-		return null;
+		//selection heuristics return the last index chosen if no piece is left
+		if (selectIndex < getPieces().size() &&
+			(getPieces().get(selectIndex).isInfinite() || getPieces().get(selectIndex).getInventory() > 0))
+			return selectIndex;
+		return -1;
 	}
 	
 	/**
+	 * tries every distinct orientation of place at start or, if start is null,
+	 * at the minimum corner of every maximal free cuboid
+	 * the orientation belonging to the position returned is stored in mBestRotation
 	 * @param place piece to place
+	 * @param start position to place at, null to place at a free cuboid
 	 * @return position where place is heuristically placed
 	 */
-	private Position placeHeuristic (Block place)
+	private Position placeHeuristic (Block place, Glue start)
 	{
 		Position maxPos = null;
-		double maxVal = Double.MIN_VALUE;
-		for (int cVertex = 0; cVertex < getContainer().getNumberOfVertices(); ++cVertex)
+		double maxVal = -Double.MAX_VALUE;
+		mBestRotation = place;
+		ArrayList <Position> corners = new ArrayList<>();
+		if (start != null)
+			corners.add (new Position (start.toVector()));
+		else
+		{
+			for (Cuboid free : getContainer().getMaximalFreeCuboids())
+				corners.add (new Position (free.getFirst()));
+		}
+		for (Block rotation : OrientationCache.getRotations (place))
 		{
-			ArrayList <Position> relatives = getContainer().getRelativePlacements(place, cVertex);
-			for (Position relative : relatives)
+			for (Position corner : corners)
 			{
-				Container clone = getContainer().clone();
-				if (placeAndCompare (relative, place, clone, maxVal))
+				if (placeAndCompare (corner, rotation, maxVal))
 				{
-					maxPos = relative;
-					maxVal = mEval.getScore (clone);
+					maxPos = corner;
+					maxVal = mLastScore;
+					mBestRotation = rotation;
 				}
 			}
 		}
@@ -145,24 +173,30 @@ public class HillClimber extends Algorithm
 	}
 	
 	/**
+	 * places block tentatively, scores the container and undoes the placement
+	 * the score is stored in mLastScore
 	 * @param pos position where to place block
 	 * @param block piece to place
-	 * @param clone clone of container to place block in
 	 * @param bestScore best score seen
 	 * @return true if block can be placed and yields a score higher than bestScore
 	 */
-	private boolean placeAndCompare (Position pos, Block block, Container clone, double bestScore)
+	private boolean placeAndCompare (Position pos, Block block, double bestScore)
 	{
-		if (clone.checkPositionInside(pos) && clone.checkPositionOverlap(block, pos))
+		Container c = getContainer();
+		if (c.checkPositionInside(pos) && c.checkPositionOverlap(block, pos))
 		{
-			clone.placeBlock(block, pos);
-			if (mEval.getScore (clone) > bestScore)
+			c.placeTentatively (block, pos);
+			mLastScore = mEval.getPerformance (c);
+			c.undoPlacement();
+			if (mLastScore > bestScore)
 				return true;
 		}
 		return false;
 	}
 	
 	private SelectionHeuristic mSelect;
-	private EvaluationHeuristic mEval;
+	private PerformanceMeasure mEval;
 	private Glue mStartingPosition;
+	private Block mBestRotation;
+	private double mLastScore;
 }
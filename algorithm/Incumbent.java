@@ -0,0 +1,91 @@
+package algorithm;
+
+import java.util.List;
+
+import models.Block;
+
+/**
+ * best solution found by any of several algorithms running concurrently
+ * algorithms offer every load they publish while running and their final load once they terminate,
+ * bounding algorithms optimizing the same performance measure may prune against the performance of the incumbent while they are running.
+ * A load is given by its blocks glued at their positions, the performance of a load is the sum of the performances of its blocks.
+ * Methods are thread safe
+ */
+public class Incumbent
+{
+	/**
+	 * @param p performance measure ranking solutions
+	 */
+	public Incumbent (PerformanceMeasure p)
+	{
+		mOptimize = p;
+		mBlocks = null;
+		mSource = null;
+		mPerformance = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * @return performance measure ranking solutions
+	 */
+	public PerformanceMeasure getPerformanceMeasure() { return mOptimize; }
+
+	/**
+	 * @param p a performance measure
+	 * @return performance of the incumbent if p measures the same as the measure of the incumbent,
+	 * negative infinity otherwise or if there is no incumbent yet
+	 */
+	public double getPerformance (PerformanceMeasure p)
+	{
+		if (p == null || p.getClass() != mOptimize.getClass())
+			return Double.NEGATIVE_INFINITY;
+		return mPerformance;
+	}
+
+	/**
+	 * @return performance of the incumbent, negative infinity if there is none yet
+	 */
+	public double getPerformance() { return mPerformance; }
+
+	/**
+	 * @return blocks of the incumbent glued at their positions or null if there is none yet
+	 */
+	public synchronized List<Block> getBlocks() { return mBlocks; }
+
+	/**
+	 * @return object which offered the incumbent or null if there is none yet
+	 */
+	public synchronized Object getSource() { return mSource; }
+
+	/**
+	 * @param blocks blocks of a load glued at their positions
+	 * @return performance of the load in the performance measure of the incumbent
+	 */
+	public double measure (List<Block> blocks)
+	{
+		double performance = 0.0;
+		for (Block b : blocks)
+			performance += mOptimize.getPerformance (b);
+		return performance;
+	}
+
+	/**
+	 * @param blocks blocks of a load glued at their positions, which must not be altered afterwards
+	 * @param source object offering the load
+	 * @return true if the load performs better than the incumbent and replaced it
+	 */
+	public synchronized boolean offer (List<Block> blocks, Object source)
+	{
+		double performance = measure (blocks);
+		if (mBlocks != null && performance <= mPerformance)
+			return false;
+		mBlocks = blocks;
+		mSource = source;
+		mPerformance = performance;
+		return true;
+	}
+
+	private final PerformanceMeasure mOptimize;
+	private List<Block> mBlocks;
+	private Object mSource;
+	private volatile double mPerformance;
+}
@@ -3,23 +3,39 @@ package algorithm;
 import generic.Set;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinTask;
 
 import models.Container;
 import models.Block;
+import models.Glue;
+import models.Orientation;
+import models.OrientationCache;
+import models.Matrix.IntegerMatrix;
 import algorithm.DynamicAlgo.Resource;
 import algorithm.DynamicAlgo.BlockResource;
 import algorithm.DynamicAlgo.Subset;
 
 import algorithm.LookupTable.Entry;
 
-@SuppressWarnings("serial")
 /**
  * class used for dynamic programming
  * to store solutions of sub problems
+ * entries are kept in an open addressing hash table keyed by the sorted
+ * container dimensions and the resources available to the entry
+ * stored entries only keep the placements of their blocks, not the container
+ * if a memory budget is set, entries are evicted once the estimated size of the table exceeds it
+ * the table may be shared between threads, computeIfAbsent makes sure an entry is computed once
  * @author martin
  */
-public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
+public class LookupTable
 {
 	/**
 	 * class containing information of one entry of table
@@ -43,27 +59,21 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 			for (Resource av : available.getOrderedElements())
 				mAvailable.add (av);
 			
+			mDims = new int[] {cont.getDimensions (0), cont.getDimensions (1), cont.getDimensions (2)};
+			mValue = cont.getValue();
 			computeUnusedResources();
 			determineOptimality();
+			computeKey();
 		}
 		
 		/**
 		 * constructor for mock objects
-		 * to be used for look ups
+		 * to be used for look ups, the look ups taking the available resources do not need one
 		 * @param resources list of available resources
 		 */
 		public Entry (Set<Resource> resources)
 		{
-			mContainer = new Container (0, 0, 0);
-			mUnused = new Subset();
-			mUsed = new Set<>();
-			mAvailable = new Subset();
-			mOptimal = true;
-			
-			for (Resource av : resources.getOrderedElements())
-				mAvailable.add (av);
-			computeUnusedResources();
-			determineOptimality();
+			this (new Container (0, 0, 0), resources);
 		}
 		
 		/**
@@ -72,9 +82,89 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 		 * Note: no block objects will be cloned
 		 * Note: only resource objects whose inventory is altered will be constructed
 		 */
-		public Subset getUnusedResources() { return mUnused; }
+		public Subset getUnusedResources()
+		{
+			if (mUnused == null)
+			{
+				mUnused = new Subset();
+				computeUnusedResources();
+			}
+			return mUnused;
+		}
 		
-		public Container getContainer() { return mContainer; }
+		/**
+		 * @return container filled like this entry
+		 * entries stored in the table rebuild a new container on every call
+		 */
+		public Container getContainer()
+		{
+			if (mContainer != null)
+				return mContainer;
+			
+			Container rebuilt = new Container (mDims[0], mDims[1], mDims[2]);
+			for (int cPlace = 0; cPlace < mPlacements.length; cPlace += PLACEMENT_INTS)
+			{
+				IntegerMatrix pos = new IntegerMatrix (3, 1);
+				for (int cDim = 0; cDim < 3; ++cDim)
+					pos.setCell (cDim, 0, rebuilt.getGlue().getPosition (cDim) + mPlacements[cPlace + 2 + cDim]);
+				rebuilt.placeBlock (getPiece (mPlacements[cPlace]).get (mPlacements[cPlace + 1]), new Glue (pos));
+			}
+			return rebuilt;
+		}
+		
+		/**
+		 * @return dimensions of the container of this entry
+		 */
+		public ArrayList<Integer> getDimensions()
+		{
+			ArrayList<Integer> dims = new ArrayList<>();
+			for (int dim : mDims)
+				dims.add (dim);
+			return dims;
+		}
+		
+		/**
+		 * @return number of blocks placed in the container of this entry
+		 */
+		public int getAmountOfBlocks()
+		{
+			if (mContainer != null)
+				return mContainer.getAmountOfBlocks();
+			return mPlacements.length / PLACEMENT_INTS;
+		}
+		
+		/**
+		 * places the blocks of this entry into stump without constructing the container of this entry
+		 * @param stump container to place blocks in
+		 * @param o orientation to rotate the container of this entry into
+		 * @param pos position the rotated container is glued to
+		 */
+		public void placeInto (Container stump, Orientation o, Glue pos)
+		{
+			compact();
+			//minimum corner of the rotated container
+			int[] contMin = o.apply (mDims, new int[3]);
+			for (int cDim = 0; cDim < 3; ++cDim)
+				contMin[cDim] = Math.min (0, contMin[cDim]);
+			
+			int[] corners = new int[6];
+			for (int cPlace = 0; cPlace < mPlacements.length; cPlace += PLACEMENT_INTS)
+			{
+				List<Block> rotations = getPiece (mPlacements[cPlace]);
+				Block placed = rotations.get (mPlacements[cPlace + 1]);
+				for (int cDim = 0; cDim < 3; ++cDim)
+				{
+					corners[cDim] = mPlacements[cPlace + 2 + cDim];
+					corners[3 + cDim] = corners[cDim] + placed.getDimensions (cDim);
+				}
+				o.apply (corners, corners);
+				
+				IntegerMatrix blockPos = new IntegerMatrix (3, 1);
+				for (int cDim = 0; cDim < 3; ++cDim)
+					blockPos.setCell (cDim, 0, pos.getPosition (cDim) + Math.min (corners[cDim], corners[3 + cDim]) - contMin[cDim]);
+				stump.placeBlock (rotations.get (getTurn (mPlacements[cPlace], mPlacements[cPlace + 1], o)), new Glue (blockPos));
+			}
+		}
 		
 		/**
 		 * @param comp entry to compare with
@@ -104,7 +194,7 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 		/**
 		 * @return value of current entry
 		 */
-		public double getValue() { return mContainer.getValue(); }
+		public double getValue() { return mValue; }
 		
 		public boolean isOptimal() { return mOptimal; }
 		
@@ -141,18 +231,19 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 		 */
 		public boolean containsAllUsed (Entry comp)
 		{
+			Set<BlockResource> tUsedSet = this.getUsed(), cUsedSet = comp.getUsed();
 			//match if no resources used in either entry
-			if (this.mUsed.getSize() == 0 && comp.mUsed.getSize() == 0)
+			if (tUsedSet.getSize() == 0 && cUsedSet.getSize() == 0)
 				return true;
 			
 			//if optimal only check if comp has at least used amount of resources
-			if (this.mUsed.getSize() <= comp.mAvailable.getSize() && comp.mUsed.getSize() <= this.mAvailable.getSize())
+			if (tUsedSet.getSize() <= comp.mAvailable.getSize() && cUsedSet.getSize() <= this.mAvailable.getSize())
 			{
 				//idea return equal (== indicate match during look up) if
 				//number of available resources in comp if the used resources are contained in the available resources
 				//of the other
 				
-				ArrayList<BlockResource> tUsed = this.mUsed.getOrderedElements();
+				ArrayList<BlockResource> tUsed = tUsedSet.getOrderedElements();
 				Set<BlockResource> compAvail = new Set<>();
 				for (Resource compRes : comp.mAvailable.getOrderedElements())
 					compAvail.add (new BlockResource (compRes));
@@ -172,12 +263,78 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 			return false;
 		}
 		
+		/**
+		 * @return estimated number of bytes this entry occupies once compacted
+		 */
+		public long getMemoryEstimate()
+		{
+			return ENTRY_BYTES + 8L * mKey.length + 4L * (mPlacements == null ? 0 : mPlacements.length)
+					+ NODE_BYTES * mAvailable.getSize();
+		}
+		
+		/**
+		 * replaces the container by the placements of its blocks
+		 * each placement consists of piece id, index of orientation of piece and offset of block
+		 * resources used and unused are recomputed on demand
+		 */
+		private void compact()
+		{
+			if (mContainer == null)
+				return;
+			
+			mPlacements = new int[PLACEMENT_INTS * mContainer.getAmountOfBlocks()];
+			for (int cBlock = 0; cBlock < mContainer.getAmountOfBlocks(); ++cBlock)
+			{
+				Block placed = mContainer.getBlock (cBlock);
+				List<Block> rotations = OrientationCache.getRotations (placed);
+				int rot = 0;
+				while (rot < rotations.size() && !Arrays.equals (rotations.get (rot).getCells(), placed.getCells()))
+					++rot;
+				if (rot == rotations.size())
+					throw new IllegalStateException ("block " + placed.getName() + " is not axis aligned");
+				
+				int cPlace = PLACEMENT_INTS * cBlock;
+				mPlacements[cPlace] = getPieceId (rotations);
+				mPlacements[cPlace + 1] = rot;
+				for (int cDim = 0; cDim < 3; ++cDim)
+					mPlacements[cPlace + 2 + cDim] = placed.getGlue().getPosition (cDim) - mContainer.getGlue().getPosition (cDim);
+			}
+			mContainer = null;
+			mUsed = null;
+			mUnused = null;
+		}
+		
+		/**
+		 * @return resources used by the blocks of this entry
+		 */
+		private Set<BlockResource> getUsed()
+		{
+			if (mUsed == null)
+			{
+				mUsed = new Set<>();
+				for (int cPlace = 0; cPlace < mPlacements.length; cPlace += PLACEMENT_INTS)
+					addUsed (getPiece (mPlacements[cPlace]).get (mPlacements[cPlace + 1]));
+			}
+			return mUsed;
+		}
+		
+		/**
+		 * @param b block used by this entry
+		 */
+		private void addUsed (Block b)
+		{
+			BlockResource currRes = new BlockResource (b, 1);
+			if (mUsed.hasElement (currRes))
+				mUsed.getElement (currRes).refill();
+			else
+				mUsed.add (currRes);
+		}
 		
 		private void determineOptimality()
 		{
 			int maxVolume = 1;
-			for (int cDim = 0; cDim < mContainer.getDimensions().size(); ++cDim)
-				maxVolume *= mContainer.getDimensions (cDim);
+			for (int cDim = 0; cDim < mDims.length; ++cDim)
+				maxVolume *= mDims[cDim];
 			
 			
 			ArrayList<Resource> listAvailable = mAvailable.getOrderedElements();
@@ -193,15 +350,13 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 		
 		private void computeUnusedResources ()
 		{
-			mUsed.clear();
-			for (int cBlock = 0; cBlock < mContainer.getAmountOfBlocks(); ++cBlock)
+			if (mContainer != null)
 			{
-				BlockResource currRes = new BlockResource (mContainer.getBlock (cBlock), 1);
-				if (mUsed.hasElement (currRes))
-					mUsed.getElement (currRes).refill();
-				else
-					mUsed.add (currRes);
+				mUsed.clear();
+				for (int cBlock = 0; cBlock < mContainer.getAmountOfBlocks(); ++cBlock)
+					addUsed (mContainer.getBlock (cBlock));
 			}
+			Set<BlockResource> used = getUsed();
 			//unused = difference + intersection deducting quantities
 			mUnused.clear();
 			
@@ -209,19 +364,113 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 			{
 				BlockResource blockAvail = new BlockResource (avail);
 				int left = avail.getInventory();
-				if (mUsed.hasElement (blockAvail))
-					left -= mUsed.getElement (blockAvail).getInventory(); 
+				if (used.hasElement (blockAvail))
+					left -= used.getElement (blockAvail).getInventory();
 				if (left > 0)
 					mUnused.add (new Resource (avail.getBlock(), left));
 			}
 		}
 		
+		private void computeKey()
+		{
+			mKey = new long[KEY_LONGS * mAvailable.getSize()];
+			mHash = encodeKey (mAvailable, mKey);
+		}
+		
 		private Container mContainer;
 		private Subset mUnused, mAvailable;
 		private Set<BlockResource> mUsed;
 		private boolean mOptimal;
+		private int[] mDims;
+		private int[] mPlacements;
+		private double mValue;
+		private long[] mKey;
+		private long mHash;
+		
+		private long mPackedDims;
+		private double mCost;
+		private Entry mOlder, mNewer;
 	}
 	
+	/**
+	 * key of the resources available to an entry, encoded without constructing the entry
+	 * every thread reuses its probe for look ups, the key is only valid until the thread looks up again
+	 */
+	private static class Probe
+	{
+		public Probe()
+		{
+			mKey = new long[0];
+		}
+		
+		/**
+		 * @param available resources available to the entry looked up
+		 */
+		public void encode (Set<Resource> available)
+		{
+			mLength = KEY_LONGS * available.getSize();
+			if (mKey.length < mLength)
+				mKey = new long[Math.max (mLength, 2 * mKey.length)];
+			mHash = encodeKey (available, mKey);
+		}
+		
+		private long[] mKey;
+		private int mLength;
+		private long mHash;
+	}
+	
+	/**
+	 * dimensions and available resources of an entry, used to find pending computations
+	 */
+	private static class Key
+	{
+		/**
+		 * @param key encoded available resources, the first length longs are copied
+		 */
+		public Key (long dims, long[] key, int length, long keyHash)
+		{
+			mPackedDims = dims;
+			mKey = Arrays.copyOf (key, length);
+			mHash = hash (dims, keyHash);
+		}
+		
+		@Override
+		public boolean equals (Object comp)
+		{
+			if (!(comp instanceof Key))
+				return false;
+			Key k = (Key) comp;
+			return (mPackedDims == k.mPackedDims && Arrays.equals (mKey, k.mKey));
+		}
+		
+		@Override
+		public int hashCode() { return mHash; }
+		
+		private final long mPackedDims;
+		private final long[] mKey;
+		private final int mHash;
+	}
+	
+	@SuppressWarnings("serial")
+	public static class EntryExistsException extends IllegalStateException
+	{
+		public EntryExistsException() {}
+		
+		public EntryExistsException (String message) { super (message); }
+	}
+	
+	/**
+	 * strategy choosing the entry to evict once the memory budget is exceeded
+	 * LRU evicts the entry least recently added or looked up
+	 * COST evicts the entry whose container volume times computation time is least
+	 */
+	public static enum EvictionPolicy {LRU, COST}
+	
+	/**
+	 * memory budget of tables which never evict entries
+	 */
+	public static final long UNBOUNDED = Long.MAX_VALUE;
+	
 	/**
 	 * @param d depth index
 	 * @param w width index
@@ -237,38 +486,91 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 		return sorted;
 	}
 	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @return indices sorted in decreasing order, packed into one long using DIM_BITS bits each
+	 */
+	public static long packIndices (int d, int w, int h)
+	{
+		int max = Math.max (d, Math.max (w, h));
+		int mid = Math.max (Math.min (d, Math.max (w, h)), Math.min (Math.max (d, w), h));
+		int min = Math.min (d, Math.min (w, h));
+		return ((long) max << (2 * DIM_BITS)) | ((long) mid << DIM_BITS) | min;
+	}
+	
 	/**
 	 * parametric constructor
-	 * initializes object to 4d matrix of size [d, w, h, sets]
-	 * each cell containing a null reference (caution!)
+	 * creates empty table for containers fitting into d x w x h
 	 * @param d number of depth increments of container
 	 * @param w number of width increments of container
 	 * @param h number of height increments of container
-	 * @param sets number of subsets
 	 */
 	public LookupTable (int d, int w, int h)
 	{
-		for (int cD = 0; cD < d; ++cD)
+		if (d < 0 || w < 0 || h < 0 || Math.max (d, Math.max (w, h)) >= (1 << DIM_BITS))
+			throw new IllegalArgumentException ("unsupported table dimensions " + d + " " + w + " " + h);
+		mDims = new long[INITIAL_CAPACITY];
+		mEntries = new Entry[INITIAL_CAPACITY];
+		mByDims = new HashMap<>();
+		mSize = 0;
+		
+		mPieces = new ArrayList<>();
+		mPieceIds = new IdentityHashMap<>();
+		mTurns = new ArrayList<>();
+		
+		mPending = new HashMap<>();
+		
+		mBudget = UNBOUNDED;
+		mPolicy = EvictionPolicy.LRU;
+		mByCost = new PriorityQueue<>(INITIAL_CAPACITY, new Comparator<Entry>()
 		{
-			ArrayList <ArrayList<Set<Entry>>> newD = new ArrayList<>();
-			for (int cW = 0; cW < w; ++cW)
-			{
-				ArrayList <Set<Entry>> newW = new ArrayList<>();
-				for (int cH = 0; cH < h; ++cH)
-				{
-					Set <Entry> newH = new Set<>();
-					newW.add(newH);
-				}
-				newD.add (newW);
-			}
-			add (newD);
+			public int compare (Entry e1, Entry e2) { return Double.compare (e1.mCost, e2.mCost); }
+		});
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param e entry to look up, only its available resources are considered
+	 * @return entry stored for d x w x h matching e or null
+	 */
+	public synchronized Entry get (int d, int w, int h, Entry e)
+	{
+		return touch (mEntries[findSlot (packIndices (d, w, h), e)]);
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param available resources available to the entry, looked up without constructing an entry
+	 * @return entry stored for d x w x h having available resources or null
+	 */
+	public Entry get (int d, int w, int h, Set<Resource> available)
+	{
+		Probe probe = PROBES.get();
+		probe.encode (available);
+		synchronized (this)
+		{
+			return touch (mEntries[findSlot (packIndices (d, w, h), probe.mKey, probe.mLength, probe.mHash)]);
 		}
 	}
 	
-	public Entry get (int d, int w, int h, Entry e)
+	/**
+	 * @param found entry looked up or null
+	 * @return found, marked as recently used
+	 */
+	private Entry touch (Entry found)
 	{
-		ArrayList<Integer> is = sortIndices (d, w, h);
-		return get (is.get (0)).get (is.get (1)).get (is.get (2)).getElement(e);
+		if (found != null && mPolicy == EvictionPolicy.LRU)
+		{
+			unlink (found);
+			linkNewest (found);
+		}
+		return found;
 	}
 	
 	
@@ -286,14 +588,14 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 	}*/
 	
 	
-	public Entry getEquivalent (int d, int w, int h, Entry e)
+	public synchronized Entry getEquivalent (int d, int w, int h, Entry e)
 	{
-		ArrayList<Integer> sDim = sortIndices(d, w, h);
-		ArrayList<Entry> entries = get (sDim.get (0)).get (sDim.get (1)).get (sDim.get (2)).getOrderedElements();
+		ArrayList<Entry> entries = mByDims.get (packIndices (d, w, h));
+		if (entries == null)
+			return null;
 		for (Entry comp : entries)
-		{			
+		{
 			if ((comp.isOptimal() || comp.hasSubsetAvailable (e)) && comp.containsAllUsed (e))
-		//	if (comp.hasSubsetAvailable (e) && comp.containsAllUsed (e))
 				return comp;
 		}
 		return null;
@@ -303,21 +605,473 @@ public class LookupTable extends ArrayList <ArrayList <ArrayList <Set <Entry>>>>
 	 * @param d depth index
 	 * @param w width index
 	 * @param h height index
-	 * @param s subset index
-	 * @return true if cell requested is no longer default initialized to null
+	 * @param e entry to look up, only its available resources are considered
+	 * @return true if an entry matching e is stored for d x w x h
+	 */
+	public synchronized boolean isSet (int d, int w, int h , Entry e)
+	{
+		return (mEntries[findSlot (packIndices (d, w, h), e)] != null);
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param available resources available to the entry, looked up without constructing an entry
+	 * @return true if an entry having available resources is stored for d x w x h
 	 */
-	public boolean isSet (int d, int w, int h , Entry e)
+	public boolean isSet (int d, int w, int h, Set<Resource> available)
 	{
-		ArrayList<Integer> is = sortIndices (d, w, h);
-		return (get (is.get (0)).get (is.get (1)).get (is.get (2)).hasElement (e));
+		Probe probe = PROBES.get();
+		probe.encode (available);
+		synchronized (this)
+		{
+			return (mEntries[findSlot (packIndices (d, w, h), probe.mKey, probe.mLength, probe.mHash)] != null);
+		}
 	}
 	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param e entry to store
+	 * @throws EntryExistsException if an entry matching e is stored already
+	 */
 	public void addEntry (int d, int w, int h, Entry e)
 	{
-		ArrayList<Integer> is = sortIndices (d, w, h);
-		get (is.get (0)).get (is.get (1)).get (is.get (2)).add (e);
+		addEntry (d, w, h, e, 0);
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param e entry to store, its container is replaced by the placements of its blocks
+	 * @param computeNanos time spent computing e, used by the cost aware eviction policy
+	 * @throws EntryExistsException if an entry matching e is stored already
+	 */
+	public void addEntry (int d, int w, int h, Entry e, long computeNanos)
+	{
+		e.compact();
+		synchronized (this)
+		{
+			store (d, w, h, e, computeNanos);
+		}
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param e entry to look up, only its available resources are considered
+	 * @param solver task computing the entry, executed in the calling thread
+	 * unless the entry is stored or another thread executes a solver for it already
+	 * @return entry stored for d x w x h matching e, computed by solver or by the solver of another thread
+	 * entries computed are added to this table. A solver may return null if it was interrupted,
+	 * then nothing is added and null is returned
+	 */
+	public Entry computeIfAbsent (int d, int w, int h, Entry e, ForkJoinTask<Entry> solver)
+	{
+		return computeIfAbsent (d, w, h, e.mKey, e.mKey.length, e.mHash, solver);
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param available resources available to the entry, looked up without constructing an entry
+	 * @param solver task computing the entry, see computeIfAbsent taking an entry
+	 * @return entry stored for d x w x h having available resources, computed by solver or by the solver of another thread
+	 */
+	public Entry computeIfAbsent (int d, int w, int h, Set<Resource> available, ForkJoinTask<Entry> solver)
+	{
+		Probe probe = PROBES.get();
+		probe.encode (available);
+		return computeIfAbsent (d, w, h, probe.mKey, probe.mLength, probe.mHash, solver);
+	}
+	
+	/**
+	 * @param key encoded available resources of the entry, the first length longs are used.
+	 * key may be altered once solver runs
+	 * @param keyHash hash of key
+	 */
+	private Entry computeIfAbsent (int d, int w, int h, long[] key, int length, long keyHash, ForkJoinTask<Entry> solver)
+	{
+		long dims = packIndices (d, w, h);
+		Key pendingKey;
+		ForkJoinTask<Entry> pending;
+		synchronized (this)
+		{
+			Entry found = touch (mEntries[findSlot (dims, key, length, keyHash)]);
+			if (found != null)
+				return found;
+			pendingKey = new Key (dims, key, length, keyHash);
+			pending = mPending.get (pendingKey);
+			if (pending == null)
+				mPending.put (pendingKey, solver);
+		}
+		if (pending != null)
+			return pending.join();
+		
+		try
+		{
+			long startTime = System.nanoTime();
+			Entry solved = solver.invoke();
+			if (solved != null)
+				addEntry (d, w, h, solved, System.nanoTime() - startTime);
+			return solved;
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				mPending.remove (pendingKey);
+			}
+		}
+	}
+	
+	/**
+	 * @param d depth index
+	 * @param w width index
+	 * @param h height index
+	 * @param e compacted entry to store
+	 * @param computeNanos time spent computing e
+	 * @throws EntryExistsException if an entry matching e is stored already
+	 */
+	private void store (int d, int w, int h, Entry e, long computeNanos)
+	{
+		long dims = packIndices (d, w, h);
+		int slot = findSlot (dims, e);
+		if (mEntries[slot] != null)
+			throw new EntryExistsException ("entry for " + d + " " + w + " " + h + " exists already");
+		e.mPackedDims = dims;
+		e.mCost = (double) d * w * h * computeNanos;
+		mDims[slot] = dims;
+		mEntries[slot] = e;
+		++mSize;
+		ArrayList<Entry> sameDims = mByDims.get (dims);
+		if (sameDims == null)
+		{
+			sameDims = new ArrayList<>();
+			mByDims.put (dims, sameDims);
+		}
+		//keep entries of equal dimensions in the order the former Set returned them
+		int pos = Collections.binarySearch (sameDims, e);
+		sameDims.add (pos < 0 ? -pos - 1 : pos, e);
+		
+		if (mPolicy == EvictionPolicy.LRU)
+			linkNewest (e);
+		else
+			mByCost.add (e);
+		mMemory += e.getMemoryEstimate();
 		
-	//	System.out.print ("added " + is.get(0) + " " + is.get(1) + " " + is.get(2));
-	//	System.out.println (" having " + e.mAvailable);
+		if (mSize * 4 > mEntries.length * 3)
+			grow();
+		evict (e);
 	}
+	
+	/**
+	 * @return number of entries stored
+	 */
+	public synchronized int getSize() { return mSize; }
+	
+	/**
+	 * @param bytes estimated number of bytes the entries may occupy, UNBOUNDED to never evict
+	 * entries exceeding the budget are evicted immediately
+	 */
+	public synchronized void setMemoryBudget (long bytes)
+	{
+		if (bytes < 0)
+			throw new IllegalArgumentException ("memory budget must not be negative");
+		mBudget = bytes;
+		evict (null);
+	}
+	
+	/**
+	 * @return estimated number of bytes the entries may occupy
+	 */
+	public long getMemoryBudget() { return mBudget; }
+	
+	/**
+	 * @return estimated number of bytes the entries occupy
+	 */
+	public synchronized long getMemoryUsed() { return mMemory; }
+	
+	/**
+	 * @param policy strategy to choose entries to evict
+	 * @throws IllegalStateException if the table holds entries
+	 */
+	public synchronized void setEvictionPolicy (EvictionPolicy policy)
+	{
+		if (mSize > 0)
+			throw new IllegalStateException ("cannot change eviction policy of a table holding entries");
+		mPolicy = policy;
+	}
+	
+	/**
+	 * @return strategy used to choose entries to evict
+	 */
+	public EvictionPolicy getEvictionPolicy() { return mPolicy; }
+	
+	/**
+	 * @return number of entries evicted so far
+	 */
+	public synchronized long getEvictions() { return mEvictions; }
+	
+	/**
+	 * @param keep entry which must not be evicted, may be null
+	 * evicts entries until the estimated memory used fits the budget
+	 * or keep is the only entry left
+	 */
+	private void evict (Entry keep)
+	{
+		while (mMemory > mBudget && mSize > (keep == null ? 0 : 1))
+		{
+			Entry victim;
+			if (mPolicy == EvictionPolicy.LRU)
+			{
+				victim = mOldest;
+				if (victim == keep)
+					victim = victim.mNewer;
+				unlink (victim);
+			}
+			else
+			{
+				victim = mByCost.poll();
+				if (victim == keep)
+				{
+					victim = mByCost.poll();
+					mByCost.add (keep);
+				}
+			}
+			remove (victim);
+			++mEvictions;
+		}
+	}
+	
+	/**
+	 * @param e entry to remove from hash table and dimension index
+	 */
+	private void remove (Entry e)
+	{
+		int mask = mEntries.length - 1;
+		int slot = findSlot (e.mPackedDims, e);
+		mEntries[slot] = null;
+		//shift following entries of the probe sequence back into the gap
+		int next = (slot + 1) & mask;
+		while (mEntries[next] != null)
+		{
+			int home = hash (mDims[next], mEntries[next].mHash) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask))
+			{
+				mDims[slot] = mDims[next];
+				mEntries[slot] = mEntries[next];
+				mEntries[next] = null;
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		--mSize;
+		mMemory -= e.getMemoryEstimate();
+		
+		ArrayList<Entry> sameDims = mByDims.get (e.mPackedDims);
+		sameDims.remove (e);
+		if (sameDims.isEmpty())
+			mByDims.remove (e.mPackedDims);
+	}
+	
+	/**
+	 * @param e entry to append to the recency list
+	 */
+	private void linkNewest (Entry e)
+	{
+		e.mOlder = mNewest;
+		e.mNewer = null;
+		if (mNewest != null)
+			mNewest.mNewer = e;
+		else
+			mOldest = e;
+		mNewest = e;
+	}
+	
+	/**
+	 * @param e entry to remove from the recency list
+	 */
+	private void unlink (Entry e)
+	{
+		if (e.mOlder != null)
+			e.mOlder.mNewer = e.mNewer;
+		else
+			mOldest = e.mNewer;
+		if (e.mNewer != null)
+			e.mNewer.mOlder = e.mOlder;
+		else
+			mNewest = e.mOlder;
+		e.mOlder = null;
+		e.mNewer = null;
+	}
+	
+	/**
+	 * @param rotations distinct orientations of a piece as shared by OrientationCache
+	 * @return id of the piece within this table
+	 */
+	private synchronized int getPieceId (List<Block> rotations)
+	{
+		Integer id = mPieceIds.get (rotations);
+		if (id == null)
+		{
+			id = mPieces.size();
+			mPieces.add (rotations);
+			mPieceIds.put (rotations, id);
+			int[] turns = new int[rotations.size() * Orientation.COUNT];
+			Arrays.fill (turns, -1);
+			mTurns.add (turns);
+		}
+		return id;
+	}
+	
+	/**
+	 * @param id id of piece
+	 * @return distinct orientations of the piece
+	 */
+	private synchronized List<Block> getPiece (int id) { return mPieces.get (id); }
+	
+	/**
+	 * @param id id of piece
+	 * @param rot index of orientation of piece
+	 * @param o orientation to rotate by
+	 * @return index of orientation of piece rotated by o
+	 */
+	private synchronized int getTurn (int id, int rot, Orientation o)
+	{
+		int[] turns = mTurns.get (id);
+		int index = rot * Orientation.COUNT + o.getIndex();
+		if (turns[index] < 0)
+		{
+			List<Block> rotations = mPieces.get (id);
+			Block turned = OrientationCache.getRotated (rotations.get (rot), o);
+			int cRot = 0;
+			while (rotations.get (cRot) != turned)
+				++cRot;
+			turns[index] = cRot;
+		}
+		return turns[index];
+	}
+	
+	/**
+	 * @param dims packed dimensions
+	 * @param e entry to find
+	 * @return slot holding the entry matching dims and e or the empty slot it would be stored in
+	 */
+	private int findSlot (long dims, Entry e)
+	{
+		return findSlot (dims, e.mKey, e.mKey.length, e.mHash);
+	}
+	
+	/**
+	 * @param dims packed dimensions
+	 * @param key encoded available resources of the entry to find, the first length longs are used
+	 * @param keyHash hash of key
+	 * @return slot holding the entry matching dims and key or the empty slot it would be stored in
+	 */
+	private int findSlot (long dims, long[] key, int length, long keyHash)
+	{
+		int mask = mEntries.length - 1;
+		int slot = hash (dims, keyHash) & mask;
+		while (mEntries[slot] != null)
+		{
+			long[] stored = mEntries[slot].mKey;
+			if (mDims[slot] == dims && Arrays.equals (stored, 0, stored.length, key, 0, length))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	/**
+	 * encodes the resources available in the order used by Entry.compareTo
+	 * each resource takes KEY_LONGS longs: volume, inventory and number of vertices, value
+	 * entries comparing equal have equal keys
+	 * @param available resources available to an entry
+	 * @param key receives the encoding, needs KEY_LONGS longs for every resource
+	 * @return hash of the encoding
+	 */
+	private static long encodeKey (Set<Resource> available, long[] key)
+	{
+		ArrayList<Resource> ordered = available.getOrderedElements();
+		long hash = ordered.size();
+		for (int cRes = 0; cRes < ordered.size(); ++cRes)
+		{
+			Resource res = ordered.get (cRes);
+			key[KEY_LONGS * cRes] = Double.doubleToLongBits (res.getVolume());
+			key[KEY_LONGS * cRes + 1] = ((long) res.getInventory() << 32) | (res.getNumberOfVertices() & 0xFFFFFFFFL);
+			key[KEY_LONGS * cRes + 2] = Double.doubleToLongBits (res.getValue());
+		}
+		for (int cKey = 0; cKey < KEY_LONGS * ordered.size(); ++cKey)
+			hash = hash * 31 + key[cKey];
+		return hash;
+	}
+	
+	/**
+	 * doubles the capacity and reinserts every entry
+	 */
+	private void grow()
+	{
+		long[] oldDims = mDims;
+		Entry[] oldEntries = mEntries;
+		mDims = new long[2 * oldDims.length];
+		mEntries = new Entry[2 * oldEntries.length];
+		for (int cSlot = 0; cSlot < oldEntries.length; ++cSlot)
+		{
+			if (oldEntries[cSlot] != null)
+			{
+				int slot = findSlot (oldDims[cSlot], oldEntries[cSlot]);
+				mDims[slot] = oldDims[cSlot];
+				mEntries[slot] = oldEntries[cSlot];
+			}
+		}
+	}
+	
+	/**
+	 * @param dims packed dimensions
+	 * @param keyHash hash of entry key
+	 * @return well mixed hash of both
+	 */
+	private static int hash (long dims, long keyHash)
+	{
+		long h = dims * 0x9E3779B97F4A7C15L + keyHash;
+		h ^= (h >>> 33);
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= (h >>> 33);
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= (h >>> 33);
+		return (int) h;
+	}
+	
+	private static final int DIM_BITS = 21;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int PLACEMENT_INTS = 5;
+	private static final int KEY_LONGS = 3;
+	private static final ThreadLocal<Probe> PROBES = new ThreadLocal<Probe>()
+	{
+		@Override
+		protected Probe initialValue() { return new Probe(); }
+	};
+	//rough sizes of an entry with its arrays and of one node of its subset of available resources
+	private static final long ENTRY_BYTES = 160, NODE_BYTES = 48;
+	
+	private long[] mDims;
+	private Entry[] mEntries;
+	private HashMap<Long, ArrayList<Entry>> mByDims;
+	private int mSize;
+	
+	private ArrayList<List<Block>> mPieces;
+	private IdentityHashMap<List<Block>, Integer> mPieceIds;
+	private ArrayList<int[]> mTurns;
+	private HashMap<Key, ForkJoinTask<Entry>> mPending;
+	
+	private long mBudget, mMemory, mEvictions;
+	private EvictionPolicy mPolicy;
+	private Entry mOldest, mNewest;
+	private PriorityQueue<Entry> mByCost;
 }
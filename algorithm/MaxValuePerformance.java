@@ -1,5 +1,6 @@
 package algorithm;
 
+import models.Block;
 import models.Container;
 
 public class MaxValuePerformance implements PerformanceMeasure 
@@ -9,5 +10,11 @@ public class MaxValuePerformance implements PerformanceMeasure
 	{
 		return (int)Math.round (c.getValue());
 	}
+	
+	@Override
+	public double getPerformance(Block b)
+	{
+		return b.getValue();
+	}
 
 }
@@ -1,5 +1,6 @@
 package algorithm;
 
+import models.Block;
 import models.Container;
 
 public class MaxVolumePerformance implements PerformanceMeasure 
@@ -10,5 +11,11 @@ public class MaxVolumePerformance implements PerformanceMeasure
 	{
 		return c.getVolumeUsed();
 	}
+	
+	@Override
+	public double getPerformance(Block b)
+	{
+		return b.getVolume();
+	}
 
 }
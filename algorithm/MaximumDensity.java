@@ -63,6 +63,7 @@ public class MaximumDensity implements EvaluationHeuristic{
 	
 	public Position freePos(Container truck)
 	{
+		reserve(truck.getDimensions(0), truck.getDimensions(1), truck.getDimensions(2));
 		for (int i=freeX; i<truck.getDimensions(0); i++)
 		{
 			for(int j=freeY;j<truck.getDimensions(1);j++)
@@ -156,34 +157,14 @@ public class MaximumDensity implements EvaluationHeuristic{
 		return true;
 	}
 	
+	/**
+	 * @return true if cell i, j, k was filled by a placed block
+	 */
 	public boolean containsPos(int i, int j, int k, Container truck)
 	{
-		boolean bool = false;
-		if (filled==null)
-		{
-			return false;
-		}
-		
-		
-		for (int m=filled.size();m>0;m--)
-		{
-			
-		}
-		
-		
-		for (int l=0; l<filled.size();l++)
-		{
-			int X = filled.get(l).get(0);
-			int Y = filled.get(l).get(1);
-			int Z = filled.get(l).get(2);
-
-			if (i==X&&j==Y&&k==Z)
-			{
-				return true;
-			}
-		}
-		return bool;	
+		return filled.isInside(i, j, k) && filled.isOccupied(i, j, k);
 	}
+	
 	public void fillFilled(Resource res, Position pos, int state)
 	{
 		Block block = res.getRot().get(state);
@@ -204,9 +185,7 @@ public class MaximumDensity implements EvaluationHeuristic{
 			{
 				for (int k=Pz;k<tempZ;k++)
 				{
-					ArrayList<Integer>Pos = new ArrayList<Integer>();
-					Pos.add(i);Pos.add(j);Pos.add(k);
-					filled.add(Pos);
+					fill(i, j, k);
 				}
 			}
 		}
@@ -216,13 +195,11 @@ public class MaximumDensity implements EvaluationHeuristic{
 		for (int i=0; i<5;i++)
 		{
 			
-			ArrayList<Integer> adjFilled = new ArrayList<Integer>();
 			int X = pos.getPosition(0);int Y = pos.getPosition(1);int Z = pos.getPosition(2);
 			int newX = res.getCells().get(state).get(i).get(0)+X; 
 			int newY = res.getCells().get(state).get(i).get(1)+Y;
 			int newZ = res.getCells().get(state).get(i).get(2)+Z;
-			adjFilled.add(newX);adjFilled.add(newY);adjFilled.add(newZ); 
-			filled.add(adjFilled);
+			fill(newX, newY, newZ);
 		}
 	}
 	
@@ -230,11 +207,47 @@ public class MaximumDensity implements EvaluationHeuristic{
 	{
 		freeZ++;
 	}
+	
+	/**
+	 * marks cell i, j, k as filled, growing the grid if the cell is beyond it
+	 * cells with negative coordinates are ignored
+	 */
+	private void fill(int i, int j, int k)
+	{
+		if (i < 0 || j < 0 || k < 0)
+			return;
+		reserve(i + 1, j + 1, k + 1);
+		filled.set(i, j, k, true);
+	}
+	
+	/**
+	 * grows the grid of filled cells such that it holds at least d x w x h cells
+	 */
+	private void reserve(int d, int w, int h)
+	{
+		if (d <= filled.getDimension(0) && w <= filled.getDimension(1) && h <= filled.getDimension(2))
+			return;
+		OccupancyGrid grown = new OccupancyGrid(Math.max(d, filled.getDimension(0)), 
+												Math.max(w, filled.getDimension(1)), 
+												Math.max(h, filled.getDimension(2)));
+		for (int i=0; i<filled.getDimension(0); i++)
+		{
+			for (int j=0; j<filled.getDimension(1); j++)
+			{
+				for (int k=0; k<filled.getDimension(2); k++)
+				{
+					if (filled.isOccupied(i, j, k))
+						grown.set(i, j, k, true);
+				}
+			}
+		}
+		filled = grown;
+	}
 
 	private int score=Integer.MAX_VALUE;
 	private int x, y, z;
 	private int freeX, freeY, freeZ;
 	private int prevX, prevY, prevZ;
-	private ArrayList<ArrayList<Integer>> filled = new ArrayList<ArrayList<Integer>>();
+	private OccupancyGrid filled = new OccupancyGrid(0, 0, 0);
 	
 }
@@ -1,8 +1,15 @@
 package algorithm;
 
+import models.Block;
 import models.Container;
 
 public interface PerformanceMeasure 
 {
 	public int getPerformance (Container c);
+	
+	/**
+	 * @param b a block
+	 * @return amount b adds to the performance of a container it is placed in
+	 */
+	public double getPerformance (Block b);
 }
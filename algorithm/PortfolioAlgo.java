@@ -0,0 +1,270 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.Resource;
+
+/**
+ * portfolio of algorithms running concurrently on the same setup
+ * every algorithm fills a clone of the container using copies of the pieces, each in a thread of its own.
+ * The algorithms share an incumbent: each offers every solution it publishes and bounding algorithms
+ * optimizing the same performance measure prune against it while running.
+ * Once the time budget expires or the portfolio is cancelled, algorithms still running are cancelled and terminate with the best solution they found.
+ * The best solution offered to the incumbent is published while the algorithms run.
+ * The best final solution of the terminated algorithms is placed into the container and the pieces used by it are deducted.
+ * Algorithms of the portfolio have to take their container and pieces from init
+ */
+public class PortfolioAlgo extends Algorithm
+{
+	public static final long DEFAULT_TIME_BUDGET = 60000;
+	public static final long POLL_INTERVAL = 50;
+	public static final int DEFAULT_RANDOM_RESTARTS = 3;
+
+	public PortfolioAlgo()
+	{
+		mOptimize = new MaxValuePerformance();
+		mTimeBudget = DEFAULT_TIME_BUDGET;
+		mAlgorithms = new ArrayList<>();
+		mFailures = new ArrayList<>();
+	}
+
+	/**
+	 * @param algo algorithm to run concurrently with the algorithms added before
+	 */
+	public void addAlgorithm (Algorithm algo)
+	{
+		checkNotRunning();
+		mAlgorithms.add (algo);
+	}
+
+	/**
+	 * adds random algorithms restarting the search independently of each other
+	 * @param restarts number of random algorithms added
+	 * @param seed seed of the first random algorithm, the following ones use the next seeds
+	 */
+	public void addRandomRestarts (int restarts, long seed)
+	{
+		for (int cRestart = 0; cRestart < restarts; ++cRestart)
+		{
+			RandomAlgo random = new RandomAlgo();
+			random.setSeed (seed + cRestart);
+			addAlgorithm (random);
+		}
+	}
+
+	/**
+	 * @return algorithms of the portfolio in the order they were added
+	 */
+	public ArrayList<Algorithm> getAlgorithms() { return mAlgorithms; }
+
+	/**
+	 * @param p performance measure ranking the solutions of the algorithms, default is value
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure p)
+	{
+		checkNotRunning();
+		mOptimize = p;
+	}
+
+	/**
+	 * @param millis time in milliseconds after which running algorithms are cancelled, default is DEFAULT_TIME_BUDGET
+	 */
+	public void setTimeBudget (long millis)
+	{
+		checkNotRunning();
+		if (millis < 1)
+			throw new IllegalArgumentException ("time budget has to be positive");
+		mTimeBudget = millis;
+	}
+
+	/**
+	 * @return algorithm whose solution was placed or null if none improved the container
+	 */
+	public Algorithm getWinner() { return mWinner; }
+
+	/**
+	 * @return number of algorithms cancelled because the time budget expired
+	 */
+	public int getCancelledCount() { return mCancelledCount; }
+
+	/**
+	 * @return exceptions thrown by algorithms of the portfolio, their solutions are discarded
+	 */
+	public ArrayList<RuntimeException> getFailures() { return mFailures; }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		Container c = getContainer();
+		ArrayList<Resource> pieces = getPieces();
+		Incumbent incumbent = new Incumbent (mOptimize);
+		incumbent.offer (getBestBlocksSoFar(), this);
+		double startPerformance = incumbent.getPerformance();
+		mWinner = null;
+		mCancelledCount = 0;
+		mFailures.clear();
+
+		ArrayList<ArrayList<Resource>> copies = new ArrayList<>();
+		Thread[] threads = new Thread[mAlgorithms.size()];
+		for (int cAlgo = 0; cAlgo < mAlgorithms.size(); ++cAlgo)
+		{
+			final Algorithm algo = mAlgorithms.get (cAlgo);
+			ArrayList<Resource> copy = copyPieces (pieces);
+			copies.add (copy);
+			algo.init (c.clone(), copy);
+			algo.setIncumbent (incumbent);
+			threads[cAlgo] = new Thread (new Runnable()
+			{
+				public void run()
+				{
+					try
+					{
+						algo.run();
+					}
+					catch (RuntimeException e)
+					{
+						addFailure (e);
+					}
+				}
+			}, "portfolio-" + cAlgo);
+			threads[cAlgo].start();
+		}
+
+		Progress.Share[] shares = getProgress().getRemainingShare().split (Math.max (1, threads.length));
+		long deadline = System.currentTimeMillis() + mTimeBudget;
+		boolean interrupted = false;
+		List<Block> published = incumbent.getBlocks();
+		for (int cAlgo = 0; cAlgo < threads.length; ++cAlgo)
+		{
+			long remaining = deadline - System.currentTimeMillis();
+			while (remaining > 0 && !interrupted && !isCancelled() && threads[cAlgo].isAlive())
+			{
+				interrupted = !join (threads[cAlgo], Math.min (remaining, POLL_INTERVAL));
+				published = publish (incumbent, published, c.getAmountOfBlocks());
+				remaining = deadline - System.currentTimeMillis();
+			}
+		}
+		for (int cAlgo = 0; cAlgo < threads.length; ++cAlgo)
+		{
+			if (threads[cAlgo].isAlive())
+			{
+				mAlgorithms.get (cAlgo).cancel();
+				++mCancelledCount;
+			}
+		}
+		for (int cAlgo = 0; cAlgo < threads.length; ++cAlgo)
+		{
+			while (threads[cAlgo].isAlive())
+				interrupted |= !join (threads[cAlgo], 0);
+			shares[cAlgo].complete();
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		//the incumbent may stem from a load an algorithm improved on or left afterwards,
+		//only final loads match the pieces deducted from the copies
+		int winner = -1;
+		double bestPerformance = startPerformance;
+		for (int cAlgo = 0; cAlgo < mAlgorithms.size(); ++cAlgo)
+		{
+			Algorithm algo = mAlgorithms.get (cAlgo);
+			if (!algo.isAlgoDone())
+				continue;
+			double performance = incumbent.measure (algo.getBestBlocksSoFar());
+			if (performance > bestPerformance)
+			{
+				winner = cAlgo;
+				bestPerformance = performance;
+			}
+		}
+		if (winner >= 0)
+		{
+			mWinner = mAlgorithms.get (winner);
+			List<Block> best = mWinner.getBestBlocksSoFar();
+			for (int cBlock = c.getAmountOfBlocks(); cBlock < best.size(); ++cBlock)
+				c.placeBlock (best.get (cBlock), best.get (cBlock).getGlue());
+			for (int cPiece = 0; cPiece < pieces.size(); ++cPiece)
+			{
+				Resource piece = pieces.get (cPiece);
+				for (int used = piece.getInventory() - copies.get (winner).get (cPiece).getInventory(); used > 0; --used)
+					piece.deduct();
+			}
+		}
+		setAlgoDone();
+	}
+
+	/**
+	 * publishes the load of the incumbent as best load so far if it changed
+	 * @param published load of the incumbent published last
+	 * @param start number of blocks in the container before the algorithms started
+	 * @return load of the incumbent
+	 */
+	private List<Block> publish (Incumbent incumbent, List<Block> published, int start)
+	{
+		List<Block> best = incumbent.getBlocks();
+		if (best != published)
+		{
+			ArrayList<Block> blocks = new ArrayList<>();
+			ArrayList<Glue> positions = new ArrayList<>();
+			for (int cBlock = start; cBlock < best.size(); ++cBlock)
+			{
+				blocks.add (best.get (cBlock));
+				positions.add (best.get (cBlock).getGlue());
+			}
+			publishSolution (blocks, positions);
+		}
+		return best;
+	}
+
+	/**
+	 * @return copies of pieces having the same inventory, rotations and type
+	 */
+	private static ArrayList<Resource> copyPieces (ArrayList<Resource> pieces)
+	{
+		ArrayList<Resource> copy = new ArrayList<>();
+		for (Resource res : pieces)
+			copy.add (new Resource (res.getBlock(), res.getInventory(), res.getVolume(), res.isInfinite(), res.getRot(), res.getType(), res.getCells(), res.rotatedPos()));
+		return copy;
+	}
+
+	/**
+	 * waits for t to terminate
+	 * @param millis maximum time to wait, 0 waits until t terminates
+	 * @return false if the waiting thread was interrupted
+	 */
+	private static boolean join (Thread t, long millis)
+	{
+		try
+		{
+			t.join (millis);
+			return true;
+		}
+		catch (InterruptedException e)
+		{
+			return false;
+		}
+	}
+
+	private synchronized void addFailure (RuntimeException e)
+	{
+		mFailures.add (e);
+	}
+
+	private void checkNotRunning()
+	{
+		if (isAlgoStarted())
+			throw new AlgorithmRunningException ("cannot change settings while algorithm is running");
+	}
+
+	private PerformanceMeasure mOptimize;
+	private long mTimeBudget;
+	private ArrayList<Algorithm> mAlgorithms;
+	private ArrayList<RuntimeException> mFailures;
+	private Algorithm mWinner;
+	private int mCancelledCount;
+}
@@ -1,15 +1,24 @@
 package algorithm;
 
-import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
 
 import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
 
 /**
  * class storing progress as double in [0, 1]
+ * progress may be increased by many threads at once, listeners are notified
+ * at most once per report interval by whichever thread increases progress first
  * @author martin
  */
-public class Progress 
+public class Progress
 {
 	/**
 	 * custom exception of progress class
@@ -23,73 +32,76 @@ public class Progress
 	}
 	
 	/**
-	 * class encapsulating amount of increase
-	 * can be split into even parts
-	 * if a split part was not used, its value is added to the progress automatically,
-	 * when unite is called, in order to reduce the amount of condition checking by the caller
-	 * @author martin
+	 * listener notified about changes of progress
 	 */
-	public class Increase implements Cloneable
+	public static interface Listener
 	{
 		/**
-		 * returns copy of this increase
-		 * having an empty parts stack
+		 * @param progress current progress in [0; 1]
 		 */
-		public Increase clone() { return new Increase (getAmount()); }
-		
+		public void progressChanged (double progress);
+	}
+	
+	/**
+	 * handle owning an amount of progress
+	 * splitting it creates child shares which may be completed by different threads.
+	 * completing a share adds the part of its amount not yet added by its descendants,
+	 * so unused parts are added automatically
+	 * children have to be completed before their parent
+	 */
+	public class Share
+	{
 		/**
-		 * @return amount of increase stored
+		 * @return amount of progress owned by this share
 		 */
 		public double getAmount() { return mAmount; }
 		
 		/**
 		 * @param parts number of parts to split amount into
+		 * @return parts child shares of equal amount
 		 */
-		public void split (int parts)
+		public Share[] split (int parts)
 		{
-			if (!mCompletedStack.isEmpty())
-				increasePerformed();
-			mAmount /= parts;
-			mPartStack.add (parts);
-			mCompletedStack.push (parts);
+			Share[] children = new Share[parts];
+			for (int cPart = 0; cPart < parts; ++cPart)
+				children[cPart] = new Share (mAmount / parts, this);
+			return children;
 		}
 		
 		/**
-		 * merge split branch
+		 * adds the remaining amount of this share to the progress
+		 * @throws ProgressException if this share was completed already
 		 */
-		public void unite()
+		public void complete()
 		{
-			if (mPartStack.isEmpty())
-				throw new IllegalStateException ("no previous split exists");
-			
-			int opsPending = mCompletedStack.peek();
-			for (int cPending = 0; cPending < opsPending; ++cPending)	
-				increase (this);
-			mCompletedStack.pop();
-			
-			int top = mPartStack.pop();
-			mAmount *= top;
+			if (!mCompleted.compareAndSet (false, true))
+				throw new ProgressException ("share completed already");
+			double remaining = mAmount - mCovered.sum();
+			if (remaining > 0)
+			{
+				for (Share ancestor = mParent; ancestor != null; ancestor = ancestor.mParent)
+					ancestor.mCovered.add (remaining);
+				add (remaining);
+			}
 		}
 		
-		private Increase (double init)
-		{
-			mAmount = init;
-			mPartStack = new Stack<>();
-			mCompletedStack = new Stack<>();
-			mCompletedStack.push (1);
-		}
+		/**
+		 * @return true if this share was completed
+		 */
+		public boolean isCompleted() { return mCompleted.get(); }
 		
-		private void increasePerformed()
+		private Share (double amount, Share parent)
 		{
-			int top = mCompletedStack.pop();
-			if (top <= 0)
-				throw new ProgressException ("number of parts exhausted");
-			mCompletedStack.push (--top);
+			mAmount = amount;
+			mParent = parent;
+			mCovered = new DoubleAdder();
+			mCompleted = new AtomicBoolean (false);
 		}
 		
-		private Stack<Integer> mPartStack;
-		private Stack<Integer> mCompletedStack;
-		private double mAmount;
+		private final double mAmount;
+		private final Share mParent;
+		private final DoubleAdder mCovered;
+		private final AtomicBoolean mCompleted;
 	}
 	
 	/**
@@ -104,57 +116,145 @@ public class Progress
 	
 	public static double EPSILON = 0.00001;
 	
+	/**
+	 * default minimum time between two notifications of listeners in milliseconds
+	 */
+	public static final long DEFAULT_REPORT_INTERVAL = 50;
+	
 	/**
 	 * initializes progress to start: 0.0
 	 */
 	public Progress()
 	{
-		mLock = false;
-		mProg = 0.0;
+		mProg = new DoubleAdder();
+		mListeners = new CopyOnWriteArrayList<>();
+		mStatistics = new ConcurrentHashMap<>();
+		mNextReport = new AtomicLong (System.nanoTime());
+		setReportInterval (DEFAULT_REPORT_INTERVAL);
 	}
 	
 	/**
-	 * @return increase object which would increase this progress to the maximum
+	 * @return share which would increase this progress to the maximum once completed
 	 */
-	public Increase getRemainingIncrease()
+	public Share getRemainingShare()
 	{
-		return new Increase (1 - mProg);
+		return new Share (1 - getProgress(), null);
 	}
 	
 	/**
 	 * @return progress in [0; 1]
 	 */
-	public double getProgress() { return mProg; }
+	public double getProgress() { return mProg.sum(); }
 	
 	/**
-	 * @param i increase to add to progress
+	 * @param name name of statistic
+	 * @param value value of statistic
+	 * sets a statistic describing the state of the algorithm, listeners may query it when notified
 	 */
-	public void increase (Increase i)
+	public void setStatistic (String name, double value)
 	{
-		/*if (!epsilonEquals (1.0, mProg + i.getAmount()) && mProg + i.getAmount() > 1.0)
-			throw new IllegalStateException ("progress above 1.0 is not permissible");*/
-		if (i.getAmount() == Double.NaN)
-			throw new IllegalArgumentException ("NaN increase not permissible");
-		
-		i.increasePerformed();
-		mProg += i.getAmount();
-		
-		double newBarVal = (mProgBar.getMaximum() - mProgBar.getMinimum()) * mProg;
-		mProgBar.setValue ((int) newBarVal);
+		mStatistics.put (name, value);
+	}
+	
+	/**
+	 * @param name name of statistic
+	 * @return value of statistic or NaN if it was never set
+	 */
+	public double getStatistic (String name)
+	{
+		Double value = mStatistics.get (name);
+		return (value == null ? Double.NaN : value);
+	}
+	
+	/**
+	 * @return copy of all statistics ordered by name
+	 */
+	public Map<String, Double> getStatistics()
+	{
+		return new TreeMap<String, Double> (mStatistics);
 	}
 	
 	/**
 	 * @param bar progress bar to set
-	 * sets progress bar to be updated
+	 * sets progress bar to be updated on the event dispatch thread, replacing the previous one
 	 */
-	public void setProgressBar (JProgressBar bar)
+	public void setProgressBar (final JProgressBar bar)
 	{
-		mProgBar = bar;
+		if (mBarListener != null)
+			removeListener (mBarListener);
+		mBarListener = new Listener()
+		{
+			public void progressChanged (final double progress)
+			{
+				SwingUtilities.invokeLater (new Runnable()
+				{
+					public void run()
+					{
+						double newBarVal = (bar.getMaximum() - bar.getMinimum()) * progress;
+						bar.setValue ((int) newBarVal);
+					}
+				});
+			}
+		};
+		addListener (mBarListener);
+	}
+	
+	/**
+	 * @param l listener to notify about changes of progress
+	 */
+	public void addListener (Listener l)
+	{
+		mListeners.add (l);
+	}
+	
+	/**
+	 * @param l listener to stop notifying
+	 */
+	public void removeListener (Listener l)
+	{
+		mListeners.remove (l);
 	}
 	
-	//enable for multi threading private ArrayList<Increase> mIncreaseOps;
-	private double mProg;
-	private boolean mLock;
+	/**
+	 * @param millis minimum time between two notifications of listeners
+	 */
+	public void setReportInterval (long millis)
+	{
+		if (millis < 0)
+			throw new IllegalArgumentException ("report interval must not be negative");
+		mReportInterval = TimeUnit.MILLISECONDS.toNanos (millis);
+	}
+	
+	/**
+	 * notifies listeners about the current progress, regardless of the report interval
+	 */
+	public void report()
+	{
+		double prog = getProgress();
+		for (Listener l : mListeners)
+			l.progressChanged (prog);
+	}
+	
+	/**
+	 * @param amount amount to add to progress
+	 * notifies listeners if the report interval elapsed since the last notification
+	 */
+	private void add (double amount)
+	{
+		if (Double.isNaN (amount))
+			throw new IllegalArgumentException ("NaN increase not permissible");
+		mProg.add (amount);
+		
+		long now = System.nanoTime();
+		long next = mNextReport.get();
+		if (now - next >= 0 && mNextReport.compareAndSet (next, now + mReportInterval))
+			report();
+	}
 	
-	private JProgressBar mProgBar;
+	private final DoubleAdder mProg;
+	private final CopyOnWriteArrayList<Listener> mListeners;
+	private final ConcurrentHashMap<String, Double> mStatistics;
+	private final AtomicLong mNextReport;
+	private volatile long mReportInterval;
+	private volatile Listener mBarListener;
 }
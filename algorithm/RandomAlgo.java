@@ -1,8 +1,11 @@
 package algorithm;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
+import models.Block;
+import models.OrientationCache;
 import models.Position;
 import models.Resource;
 
@@ -22,14 +25,14 @@ public class RandomAlgo extends Algorithm
 		ArrayList <Integer> indices = new ArrayList <Integer>(); 
 		for (int cIndex = 0; cIndex < maxIndex; ++cIndex)
 			indices.add (new Integer (cIndex));
-		Random rand = new Random (System.currentTimeMillis());
-		for (int cShuffle = 0; cShuffle < maxIndex; ++cShuffle)
+		//two distinct indices are needed to swap
+		for (int cShuffle = 0; maxIndex > 1 && cShuffle < maxIndex; ++cShuffle)
 		{
 			int iSwap1 = 0, iSwap2 = 0;
 			while (iSwap1 == iSwap2)
 			{
-				iSwap1 = rand.nextInt(indices.size()); 
-				iSwap2 = rand.nextInt(indices.size());
+				iSwap1 = mRandom.nextInt(indices.size()); 
+				iSwap2 = mRandom.nextInt(indices.size());
 			}
 			Integer temp = indices.get(iSwap1);
 			indices.set (iSwap1, indices.get(iSwap2));
@@ -38,6 +41,16 @@ public class RandomAlgo extends Algorithm
 		return indices;
 	}
 	
+	/**
+	 * @param seed seed of random choices, the current time by default
+	 */
+	public void setSeed (long seed)
+	{
+		if (isAlgoStarted())
+			throw new AlgorithmRunningException ("cannot set seed while algorithm is running");
+		mRandom = new Random (seed);
+	}
+	
 	@Override
 	/**
 	 * runs the algorithm
@@ -47,6 +60,11 @@ public class RandomAlgo extends Algorithm
 		super.run();
 		while (!isAlgoDone())
 		{
+			if (isCancelled())
+			{
+				setAlgoDone();
+				break;
+			}
 			ArrayList <Integer> shuffledVertices = getShuffledIndices(getContainer().getNumberOfVertices());
 			ArrayList<Integer> shuffledPieces = getShuffledIndices(getPieces().size());
 			doRandomPlacements(shuffledVertices, shuffledPieces);
@@ -68,15 +86,17 @@ public class RandomAlgo extends Algorithm
 			while (!placed && iBlock < blockList.size())
 			{
 				Resource res = getPieces().get(blockList.get(iBlock));
-				if (!res.isEmpty())
+				if (res.isInfinite() || res.getInventory() > 0)
 				{
-					//be careful about copying here
-					ArrayList<Position> relats = getContainer().getRelativePlacements(res.getBlock(), vertexList.get(iVertex));
-					for (Position relat : relats)
+					List<Block> rotations = OrientationCache.getRotations (res.getBlock());
+					Block rotated = rotations.get (mRandom.nextInt (rotations.size()));
+					ArrayList<Position> relats = getContainer().getRelativePlacements(rotated, vertexList.get(iVertex));
+					for (int cRelat = 0; !placed && cRelat < relats.size(); ++cRelat)
 					{
-						if (getContainer().checkPositionOverlap(res.getBlock(), relat))
+						if (getContainer().checkPositionOverlap(rotated, relats.get (cRelat)))
 						{
-							getContainer().placeBlock(res.getBlock(), relat);
+							getContainer().placeBlock(rotated, relats.get (cRelat));
+							res.deduct();
 							placed = true;
 						}
 					}
@@ -88,5 +108,9 @@ public class RandomAlgo extends Algorithm
 		
 		if (!placed)
 			setAlgoDone();
+		else
+			publishSolution();
 	}
+	
+	private Random mRandom = new Random();
 }
@@ -0,0 +1,248 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.OccupancyGrid;
+import models.OrientationCache;
+import models.Resource;
+
+/**
+ * decodes sequences of pieces into loads of a container
+ * every block available is an item, a sequence gives a piece and an orientation for every item.
+ * Items are placed in order at the first position they fit, scanning positions by depth, then width, then height
+ * (back, left, bottom first) with the first cell of the orientation on a free cell.
+ * The occupancy after every item is kept, so a sequence sharing a prefix with the sequence decoded last
+ * is decoded from the first index it differs at. Grids are allocated once, decoding does not allocate.
+ * A decoder is not thread safe, threads decode with copies sharing the pieces
+ */
+public class SequenceDecoder
+{
+	/**
+	 * @param c container to fill, cells already occupied stay occupied
+	 * @param pieces pieces available, orientations are taken from getRot() if present, otherwise from the orientation cache.
+	 * infinite pieces get as many items as fit into the free cells
+	 * @param p performance measure of loads
+	 */
+	public SequenceDecoder (Container c, ArrayList<Resource> pieces, PerformanceMeasure p)
+	{
+		int d = c.getDimensions (0), w = c.getDimensions (1), h = c.getDimensions (2);
+		OccupancyGrid start = c.copyOccupancy();
+		int free = d * w * h - start.getOccupiedCount();
+
+		mBlocks = new ArrayList<>();
+		mCells = new int[pieces.size()][][];
+		mExtent = new int[pieces.size()][][];
+		mPerformance = new double[pieces.size()];
+		double maxPerformance = 0.0;
+		ArrayList<Integer> items = new ArrayList<>();
+		for (int cPiece = 0; cPiece < pieces.size(); ++cPiece)
+		{
+			Resource res = pieces.get (cPiece);
+			List<Block> rotations = (res.getRot() != null ? res.getRot() : OrientationCache.getRotations (res.getBlock()));
+			mBlocks.add (rotations);
+			mCells[cPiece] = new int[rotations.size()][];
+			mExtent[cPiece] = new int[rotations.size()][];
+			for (int cRot = 0; cRot < rotations.size(); ++cRot)
+			{
+				mCells[cPiece][cRot] = rotations.get (cRot).getCells();
+				mExtent[cPiece][cRot] = getExtent (mCells[cPiece][cRot]);
+			}
+			mPerformance[cPiece] = p.getPerformance (res.getBlock());
+			maxPerformance = Math.max (maxPerformance, mPerformance[cPiece]);
+
+			int volume = mCells[cPiece][0].length / 3;
+			int copies = (res.isInfinite() ? (free + volume - 1) / volume : Math.max (0, res.getInventory()));
+			for (int cCopy = 0; cCopy < copies; ++cCopy)
+				items.add (cPiece);
+		}
+
+		mItems = new int[items.size()];
+		for (int cItem = 0; cItem < mItems.length; ++cItem)
+			mItems[cItem] = items.get (cItem);
+		mMaxPerformance = maxPerformance;
+		mStart = start;
+		mStartPerformance = p.getPerformance (c);
+		allocate();
+	}
+
+	/**
+	 * constructs decoder sharing the pieces of shared, having scratch space of its own
+	 */
+	public SequenceDecoder (SequenceDecoder shared)
+	{
+		mBlocks = shared.mBlocks;
+		mCells = shared.mCells;
+		mExtent = shared.mExtent;
+		mPerformance = shared.mPerformance;
+		mMaxPerformance = shared.mMaxPerformance;
+		mItems = shared.mItems;
+		mStart = shared.mStart;
+		mStartPerformance = shared.mStartPerformance;
+		allocate();
+	}
+
+	/**
+	 * @return number of items
+	 */
+	public int getLength() { return mItems.length; }
+
+	/**
+	 * @param item index of item
+	 * @return index of piece of item in the order items were created: pieces in order, copies of a piece in a row
+	 */
+	public int getItemPiece (int item) { return mItems[item]; }
+
+	/**
+	 * @param piece index of piece
+	 * @return number of orientations of piece
+	 */
+	public int getRotationCount (int piece) { return mCells[piece].length; }
+
+	/**
+	 * @return highest performance of a single block, 1 if no block has positive performance
+	 */
+	public double getMaxPerformance() { return (mMaxPerformance > 0 ? mMaxPerformance : 1.0); }
+
+	/**
+	 * @return number of items decoded by this decoder
+	 */
+	public long getDecodeCount() { return mDecoded; }
+
+	/**
+	 * @param pieces piece of every item
+	 * @param rotations orientation of every item
+	 * @param from first index at which the sequence differs from the sequence decoded last by this decoder, 0 if unknown
+	 * @return performance of the load decoded
+	 */
+	public double decode (int[] pieces, int[] rotations, int from)
+	{
+		for (int cItem = Math.max (0, from); cItem < mItems.length; ++cItem)
+		{
+			OccupancyGrid grid = mGrids[cItem + 1];
+			grid.copy (mGrids[cItem]);
+			int piece = pieces[cItem];
+			mAnchors[cItem] = place (grid, mCells[piece][rotations[cItem]], mExtent[piece][rotations[cItem]]);
+			mTotals[cItem + 1] = mTotals[cItem] + (mAnchors[cItem] >= 0 ? mPerformance[piece] : 0.0);
+			++mDecoded;
+		}
+		return mTotals[mItems.length];
+	}
+
+	/**
+	 * places the blocks of the sequence decoded last into c
+	 * @param pieces piece of every item
+	 * @param rotations orientation of every item
+	 * @return number of blocks placed of every piece
+	 */
+	public int[] placeDecoded (Container c, int[] pieces, int[] rotations)
+	{
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		int[] placed = getDecoded (c, pieces, rotations, blocks, positions);
+		for (int cBlock = 0; cBlock < blocks.size(); ++cBlock)
+			c.placeBlock (blocks.get (cBlock), positions.get (cBlock));
+		return placed;
+	}
+
+	/**
+	 * collects the blocks of the sequence decoded last without placing them
+	 * @param c container the sequence was decoded for
+	 * @param pieces piece of every item
+	 * @param rotations orientation of every item
+	 * @param blocks list the oriented blocks are appended to, blocks are shared and must not be modified
+	 * @param positions list the position of every block is appended to
+	 * @return number of blocks of every piece
+	 */
+	public int[] getDecoded (Container c, int[] pieces, int[] rotations, List<Block> blocks, List<Glue> positions)
+	{
+		int[] placed = new int[mCells.length];
+		int h = c.getDimensions (2), wh = c.getDimensions (1) * h;
+		for (int cItem = 0; cItem < mItems.length; ++cItem)
+		{
+			if (mAnchors[cItem] >= 0)
+			{
+				int anchor = mAnchors[cItem];
+				int[] first = mCells[pieces[cItem]][rotations[cItem]];
+				blocks.add (mBlocks.get (pieces[cItem]).get (rotations[cItem]));
+				positions.add (c.getCellPosition (anchor / wh - first[0], (anchor / h) % c.getDimensions (1) - first[1], anchor % h - first[2]));
+				++placed[pieces[cItem]];
+			}
+		}
+		return placed;
+	}
+
+	/**
+	 * allocates grids of every prefix of a sequence
+	 */
+	private void allocate()
+	{
+		mAnchors = new int[mItems.length];
+		mTotals = new double[mItems.length + 1];
+		mTotals[0] = mStartPerformance;
+		mGrids = new OccupancyGrid[mItems.length + 1];
+		mGrids[0] = mStart;
+		for (int cItem = 1; cItem <= mItems.length; ++cItem)
+			mGrids[cItem] = new OccupancyGrid (mStart.getDimension (0), mStart.getDimension (1), mStart.getDimension (2));
+	}
+
+	/**
+	 * occupies the cells of the first position in grid the orientation fits at
+	 * @param cells cells of orientation
+	 * @param extent offsets from the first cell to the minimum and maximum cell in every dimension
+	 * @return linear index of the cell covered by the first cell of the orientation, -1 if it does not fit
+	 */
+	private static int place (OccupancyGrid grid, int[] cells, int[] extent)
+	{
+		int d = grid.getDimension (0), w = grid.getDimension (1), h = grid.getDimension (2);
+		if (d * w * h - grid.getOccupiedCount() < cells.length / 3)
+			return -1;
+		for (int anchor = grid.getNextFree (0); anchor >= 0; anchor = grid.getNextFree (anchor + 1))
+		{
+			int x = anchor / (w * h), y = (anchor / h) % w, z = anchor % h;
+			if (x + extent[0] < 0 || x + extent[1] >= d || y + extent[2] < 0 || y + extent[3] >= w || z + extent[4] < 0 || z + extent[5] >= h)
+				continue;
+			if (grid.fits (cells, x - cells[0], y - cells[1], z - cells[2]))
+			{
+				grid.occupy (cells, x - cells[0], y - cells[1], z - cells[2]);
+				return anchor;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param cells cells of an orientation
+	 * @return minimum and maximum offset of cells from the first cell in every dimension
+	 */
+	private static int[] getExtent (int[] cells)
+	{
+		int[] extent = new int[6];
+		for (int cCell = 0; cCell < cells.length; cCell += 3)
+		{
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				int offset = cells[cCell + cDim] - cells[cDim];
+				extent[2 * cDim] = Math.min (extent[2 * cDim], offset);
+				extent[2 * cDim + 1] = Math.max (extent[2 * cDim + 1], offset);
+			}
+		}
+		return extent;
+	}
+
+	private final ArrayList<List<Block>> mBlocks;
+	private final int[][][] mCells, mExtent;
+	private final double[] mPerformance;
+	private final double mMaxPerformance;
+	private final int[] mItems;
+	private final OccupancyGrid mStart;
+	private final double mStartPerformance;
+
+	private int[] mAnchors;
+	private double[] mTotals;
+	private OccupancyGrid[] mGrids;
+	private long mDecoded;
+}
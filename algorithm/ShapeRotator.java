@@ -4,7 +4,6 @@ import java.util.*;
 
 
 import models.*;
-import models.BasicShape.RotationDir;
 
 /**
  * class computing rotations of a basic shape
@@ -37,36 +36,24 @@ public class ShapeRotator
 	}
 	
 	/**
-	 * @return every distince 90 degrees rotation of the shape stored
+	 * @return every distinct 90 degrees rotation of the shape stored
+	 * rotations are glued to the position of the shape stored
 	 */
 	public ArrayList<BasicShape> getRotations()
 	{
-		Matrix<Double> xRotation = BasicShape.rotationMatrix (90.0, 0, RotationDir.ONWARD);
-		Matrix<Double> yRotation = BasicShape.rotationMatrix (0, 90.0, RotationDir.ONWARD);
-		
 		ArrayList<BasicShape> rotations = new ArrayList<>();
-		
-		boolean xDifferent = true;
-		BasicShape xRotated = new BasicShape (mShape);
-		do
+		for (Orientation o : Orientation.getAll())
 		{
+			BasicShape rotated = new BasicShape (mShape);
+			rotated.rotate (o);
+			rotated.glue (mShape.getGlue());
 			
-			boolean yDifferent = true;
-			BasicShape yRotated = new BasicShape (xRotated);
-			do
-			{
-				rotations.add (new BasicShape (yRotated));
-				
-				yRotated.rotate (yRotation);
-				yRotated.glue (mShape.getGlue());
-				yDifferent = !compareVertices (xRotated, yRotated);
-			}while (yDifferent);
-			
-			xRotated.rotate (xRotation);
-			xRotated.glue (mShape.getGlue());
-			xDifferent = !compareVertices (mShape, xRotated);
-		}while (xDifferent);
-		
+			boolean different = true;
+			for (int cPrev = 0; cPrev < rotations.size() && different; ++cPrev)
+				different = !compareVertices (rotations.get (cPrev), rotated);
+			if (different)
+				rotations.add (rotated);
+		}
 		return rotations;
 	}
 	
@@ -0,0 +1,343 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+
+/**
+ * simulated annealing over sequences of pieces
+ * every block available is an item of the sequence having one of the orientations of its piece,
+ * sequences are decoded into loads by a sequence decoder.
+ * Neighbours swap two items, rotate one item or reinsert one item at another index.
+ * Worse neighbours are accepted with probability exp (delta / temperature), the temperature follows a cooling schedule
+ * over the fraction of the time or iteration limit used.
+ * A neighbour is decoded from the first index it changed
+ */
+public class SimulatedAnnealingAlgo extends Algorithm
+{
+	/**
+	 * temperature depending on the progress of the search
+	 */
+	public static interface CoolingSchedule
+	{
+		/**
+		 * @param fraction fraction of the search performed, between 0 and 1
+		 * @return temperature at fraction
+		 */
+		public double getTemperature (double fraction);
+	}
+
+	/**
+	 * temperature decreasing linearly from start to end
+	 */
+	public static class LinearCooling implements CoolingSchedule
+	{
+		public LinearCooling (double start, double end)
+		{
+			mStart = start;
+			mEnd = end;
+		}
+
+		public double getTemperature (double fraction) { return mStart + (mEnd - mStart) * fraction; }
+
+		private double mStart, mEnd;
+	}
+
+	/**
+	 * temperature decreasing geometrically from start to end
+	 */
+	public static class GeometricCooling implements CoolingSchedule
+	{
+		/**
+		 * Precondition: start and end are positive
+		 */
+		public GeometricCooling (double start, double end)
+		{
+			if (start <= 0 || end <= 0)
+				throw new IllegalArgumentException ("temperatures of geometric cooling have to be positive");
+			mStart = start;
+			mEnd = end;
+		}
+
+		public double getTemperature (double fraction) { return mStart * Math.pow (mEnd / mStart, fraction); }
+
+		private double mStart, mEnd;
+	}
+
+	/**
+	 * default time limit in milliseconds
+	 */
+	public static final long DEFAULT_TIME_LIMIT = 10000;
+
+	/**
+	 * ratio of start temperature of default schedule to highest performance of a block
+	 */
+	public static final double DEFAULT_START_RATIO = 1.0;
+
+	/**
+	 * ratio of end temperature of default schedule to highest performance of a block
+	 */
+	public static final double DEFAULT_END_RATIO = 0.001;
+
+	/**
+	 * number of iterations between checks of the time limit
+	 */
+	public static final int TIME_CHECK_INTERVAL = 256;
+
+	public SimulatedAnnealingAlgo()
+	{
+		mOptimize = new MaxValuePerformance();
+		mSchedule = null;
+		mTimeLimit = DEFAULT_TIME_LIMIT;
+		mIterationLimit = Long.MAX_VALUE;
+		mSeed = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param p performance measure to maximize, default is value
+	 */
+	public void setPerformanceMeasure (PerformanceMeasure p)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set performance measure while algorithm is running");
+		mOptimize = p;
+	}
+
+	/**
+	 * @param schedule cooling schedule, null for geometric cooling scaled by the highest performance of a block (default)
+	 */
+	public void setCoolingSchedule (CoolingSchedule schedule)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set cooling schedule while algorithm is running");
+		mSchedule = schedule;
+	}
+
+	/**
+	 * @param millis time to search in milliseconds, default is DEFAULT_TIME_LIMIT
+	 */
+	public void setTimeLimit (long millis)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set time limit while algorithm is running");
+		if (millis < 1)
+			throw new IllegalArgumentException ("time limit has to be positive");
+		mTimeLimit = millis;
+	}
+
+	/**
+	 * @param iterations number of neighbours to evaluate, unlimited by default
+	 * the search stops at whichever limit is reached first
+	 */
+	public void setIterationLimit (long iterations)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set iteration limit while algorithm is running");
+		if (iterations < 1)
+			throw new IllegalArgumentException ("iteration limit has to be positive");
+		mIterationLimit = iterations;
+	}
+
+	/**
+	 * @param seed seed of random moves, the current time by default
+	 */
+	public void setSeed (long seed)
+	{
+		if (isAlgoStarted())
+			throw new Algorithm.AlgorithmRunningException ("cannot set seed while algorithm is running");
+		mSeed = seed;
+	}
+
+	/**
+	 * @return number of neighbours evaluated
+	 */
+	public long getIterationCount() { return mIterations; }
+
+	/**
+	 * @return number of neighbours accepted
+	 */
+	public long getAcceptedCount() { return mAccepted; }
+
+	/**
+	 * @return number of items decoded, a measure of the work saved by decoding incrementally
+	 */
+	public long getDecodeCount() { return (mDecoder != null ? mDecoder.getDecodeCount() : 0); }
+
+	@Override
+	public void run()
+	{
+		super.run();
+		Container c = getContainer();
+		mDecoder = new SequenceDecoder (c, getPieces(), mOptimize);
+		mLength = mDecoder.getLength();
+		mPieces = new int[mLength];
+		mRotations = new int[mLength];
+		for (int cItem = 0; cItem < mLength; ++cItem)
+			mPieces[cItem] = mDecoder.getItemPiece (cItem);
+		Random rand = new Random (mSeed);
+		CoolingSchedule schedule = mSchedule;
+		if (schedule == null)
+			schedule = new GeometricCooling (DEFAULT_START_RATIO * mDecoder.getMaxPerformance(), DEFAULT_END_RATIO * mDecoder.getMaxPerformance());
+
+		mIterations = 0;
+		mAccepted = 0;
+		int valid = 0;
+		double current = mDecoder.decode (mPieces, mRotations, valid);
+		valid = mLength;
+		double best = current;
+		int[] bestPieces = mPieces.clone(), bestRotations = mRotations.clone();
+		boolean unpublished = true;
+
+		final int PROGRESS_PARTS = 100;
+		Progress.Share[] shares = getProgress().getRemainingShare().split (PROGRESS_PARTS);
+		int completed = 0;
+		long start = System.currentTimeMillis();
+		double fraction = 0.0;
+		while (mLength > 0 && fraction < 1.0 && !isCancelled())
+		{
+			int changed = move (rand);
+			double next = mDecoder.decode (mPieces, mRotations, Math.min (valid, changed));
+			valid = mLength;
+			++mIterations;
+			double delta = next - current;
+			if (delta >= 0 || rand.nextDouble() < Math.exp (delta / schedule.getTemperature (fraction)))
+			{
+				++mAccepted;
+				current = next;
+				if (current > best)
+				{
+					best = current;
+					System.arraycopy (mPieces, 0, bestPieces, 0, mLength);
+					System.arraycopy (mRotations, 0, bestRotations, 0, mLength);
+					unpublished = true;
+				}
+			}
+			else
+			{
+				undo();
+				valid = changed;
+			}
+
+			fraction = (double) mIterations / mIterationLimit;
+			if (mIterations % TIME_CHECK_INTERVAL == 0 || fraction >= 1.0)
+			{
+				fraction = Math.max (fraction, (double) (System.currentTimeMillis() - start) / mTimeLimit);
+				if (unpublished)
+				{
+					//decoding the best sequence invalidates the prefixes kept for the current one
+					mDecoder.decode (bestPieces, bestRotations, 0);
+					publishDecoded (c, bestPieces, bestRotations);
+					mDecoder.decode (mPieces, mRotations, 0);
+					valid = mLength;
+					unpublished = false;
+				}
+			}
+			for (; completed < PROGRESS_PARTS && completed < fraction * PROGRESS_PARTS; ++completed)
+				shares[completed].complete();
+		}
+
+		mDecoder.decode (bestPieces, bestRotations, 0);
+		int[] placed = mDecoder.placeDecoded (c, bestPieces, bestRotations);
+		for (int cPiece = 0; cPiece < placed.length; ++cPiece)
+		{
+			for (int cBlock = 0; cBlock < placed[cPiece]; ++cBlock)
+				getPieces().get (cPiece).deduct();
+		}
+		setAlgoDone();
+	}
+
+	/**
+	 * publishes the sequence decoded last as best load so far
+	 */
+	private void publishDecoded (Container c, int[] pieces, int[] rotations)
+	{
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		mDecoder.getDecoded (c, pieces, rotations, blocks, positions);
+		publishSolution (blocks, positions);
+	}
+
+	/**
+	 * changes the sequence by a random move, which can be reverted by undo
+	 * @return first index changed
+	 */
+	private int move (Random rand)
+	{
+		int i = rand.nextInt (mLength);
+		int j = rand.nextInt (mLength);
+		int kind = (mLength > 1 ? rand.nextInt (3) : 1);
+		mLastMove = kind;
+		mLastFirst = i;
+		mLastSecond = j;
+		switch (kind)
+		{
+		case 0:
+			swap (i, j);
+			return Math.min (i, j);
+		case 1:
+			mLastRotation = mRotations[i];
+			int count = mDecoder.getRotationCount (mPieces[i]);
+			if (count > 1)
+				mRotations[i] = (mRotations[i] + 1 + rand.nextInt (count - 1)) % count;
+			return i;
+		default:
+			reinsert (i, j);
+			return Math.min (i, j);
+		}
+	}
+
+	/**
+	 * reverts the last move
+	 */
+	private void undo()
+	{
+		switch (mLastMove)
+		{
+		case 0: swap (mLastFirst, mLastSecond); break;
+		case 1: mRotations[mLastFirst] = mLastRotation; break;
+		default: reinsert (mLastSecond, mLastFirst);
+		}
+	}
+
+	private void swap (int i, int j)
+	{
+		int piece = mPieces[i], rotation = mRotations[i];
+		mPieces[i] = mPieces[j];
+		mRotations[i] = mRotations[j];
+		mPieces[j] = piece;
+		mRotations[j] = rotation;
+	}
+
+	/**
+	 * moves item at index from to index to, shifting the items in between
+	 */
+	private void reinsert (int from, int to)
+	{
+		int piece = mPieces[from], rotation = mRotations[from];
+		if (from < to)
+		{
+			System.arraycopy (mPieces, from + 1, mPieces, from, to - from);
+			System.arraycopy (mRotations, from + 1, mRotations, from, to - from);
+		}
+		else if (from > to)
+		{
+			System.arraycopy (mPieces, to, mPieces, to + 1, from - to);
+			System.arraycopy (mRotations, to, mRotations, to + 1, from - to);
+		}
+		mPieces[to] = piece;
+		mRotations[to] = rotation;
+	}
+
+	private PerformanceMeasure mOptimize;
+	private CoolingSchedule mSchedule;
+	private long mTimeLimit, mIterationLimit, mSeed;
+	private long mIterations, mAccepted;
+
+	private SequenceDecoder mDecoder;
+	private int mLength;
+	private int[] mPieces, mRotations;
+	private int mLastMove, mLastFirst, mLastSecond, mLastRotation;
+}
@@ -2,7 +2,7 @@ package geometry;
 
 import java.util.ArrayList;
 
-import generic.QuickSort;
+import models.PrimitiveMatrix;
 import models.Matrix.*;
 
 
@@ -112,8 +112,8 @@ public class GaussElim implements Runnable
 	 */
 	public GaussElim (DoubleMatrix m)
 	{
-		mMat = m.clone();
-		mOrig = m.clone();
+		mMat = PrimitiveMatrix.DoubleMatrix.fromMatrix (m);
+		mOrig = mMat.clone();
 		mPivots = findmPivots();
 	}
 	
@@ -165,7 +165,7 @@ public class GaussElim implements Runnable
 			DoubleMatrix vec = new DoubleMatrix (mMat.getRows(), 1);
 			for (int cRow = 0; cRow < mMat.getRows(); ++cRow)
 			{
-				if (mPivots[cRow] < cCol && !mMat.getCell(cRow, cCol).equals(0))
+				if (mPivots[cRow] < cCol && mMat.getCell(cRow, cCol) != 0)
 				{
 					double coeff = mMat.getCell(cRow, cCol);
 					for (int cDim = 0; cDim < mMat.getRows(); ++cDim)
@@ -206,7 +206,7 @@ public class GaussElim implements Runnable
 	 */
 	public DoubleMatrix getMatrix()
 	{
-		return mMat.clone();
+		return mMat.toDoubleMatrix();
 	}
 	
 	/**
@@ -271,85 +271,22 @@ public class GaussElim implements Runnable
 	
 	/**
 	 * orders the rows of the matrix such that rows with low pivot indices are placed first
-	 * @param mPivots array of pivot indices
+	 * uses insertion sort on the rows in place since there are at most as many rows as dimensions
 	 */
 	public void order()
 	{
-		/**
-		 * wrapper class for row and pivot
-		 * @author martin
-		 */
-		class Row implements Comparable<Row>
+		for (int cRow = 1; cRow < mMat.getRows(); ++cRow)
 		{
-			/**
-			 * parametric constructor
-			 * @param data row to store
-			 * @param pivotIndex index of pivot in row
-			 */
-			public Row (Double[] data, int pivotIndex)
-			{
-				mData = data;
-				mPivotIndex = pivotIndex;
-			}
-			
-			/**
-			 * @return row stored
-			 */
-			public Double[] getRow() { return mData; }
-			
-			/**
-			 * @return pivot index stored
-			 */
-			public int getPivot() { return mPivotIndex; }
-			
-			/**
-			 * @param comp row object to compare this row object to
-			 * @return 	-1 if pivot index of this row < pivot index of comp
-			 * 			0 if pivot index of this row == pivot index of comp
-			 * 			1 if pivot index of this row > pivot index of comp
-			 */
-			public int compareTo (Row comp)
+			int cInsert = cRow;
+			while (cInsert > 0 && mPivots[cInsert - 1] > mPivots[cInsert])
 			{
-				if (this.mPivotIndex < comp.mPivotIndex)
-					return -1;
-				else if (this.mPivotIndex == comp.mPivotIndex)
-					return 0;
-				else
-					return 1;
+				mMat.swapRows (cInsert - 1, cInsert);
+				int temp = mPivots[cInsert - 1];
+				mPivots[cInsert - 1] = mPivots[cInsert];
+				mPivots[cInsert] = temp;
+				--cInsert;
 			}
-			
-			private Double[] mData;
-			private int mPivotIndex;
-		}
-		
-		QuickSort<Row> sorter = new QuickSort<>();
-		for (int cRow = 0; cRow < mMat.getRows(); ++cRow)
-			sorter.add (new Row (mMat.getRow (cRow).clone(), mPivots[cRow]));
-		
-		sorter.sort (0, sorter.size() - 1);
-
-		for (int cRow = 0; cRow < mMat.getRows(); ++cRow)
-		{
-			Double[] row = sorter.get (cRow).getRow();
-			mPivots[cRow] = sorter.get (cRow).getPivot();
-			for (int cCol = 0; cCol < mMat.getColumns(); ++cCol)
-				mMat.setCell(cRow, cCol, row[cCol]);
-		}
-		
-		int x = 2;
-		x = x + 1;
-		/* legacy
-		Double[][] rows = new Double[mMat.getRows()][mMat.getColumns()];
-		for (int cRow = 0; cRow < rows.length; ++cRow)
-			rows[cRow] = mMat.getRow(cRow).clone();
-		
-		quickSort (rows, mPivots, 0, rows.length - 1);
-		for (int cRow = 0; cRow < rows.length; ++cRow)
-		{
-			for (int cCol = 0; cCol < rows[cRow].length; ++cCol)
-				mMat.setCell(cRow, cCol, rows[cRow][cCol]);
 		}
-		*/
 	}
 	
 	/**
@@ -368,13 +305,12 @@ public class GaussElim implements Runnable
 				boolean beyondPivot = (mPivots[cRow] > mPivots[cRestRow]);
 				for (int cRestCol = mPivots[cRow]; cRestCol < mMat.getColumns(); ++cRestCol)
 				{
-					boolean nonZero = (!mMat.getCell (cRestRow, cRestCol).equals (0.0));
 					mMat.setCell (cRestRow, cRestCol, mMat.getCell(cRestRow, cRestCol) + c * mMat.getCell(cRow, cRestCol));
 					if (epsilonEquals (mMat.getCell (cRestRow, cRestCol), 0.0))
 						mMat.setCell (cRestRow, cRestCol, 0.0);
 					//if element is zero and not past pivot then set pivot to current column + 1
 					//set beyond pivot to true if current element is not zero
-					if (!beyondPivot && mMat.getCell (cRestRow, cRestCol).equals (0.0))
+					if (!beyondPivot && mMat.getCell (cRestRow, cRestCol) == 0.0)
 						mPivots[cRestRow] = cRestCol + 1;
 					else
 						beyondPivot = true;
@@ -425,6 +361,6 @@ public class GaussElim implements Runnable
 		}
 	}
 	
-	private DoubleMatrix mMat, mOrig;
+	private PrimitiveMatrix.DoubleMatrix mMat, mOrig;
 	private int[] mPivots;
 }
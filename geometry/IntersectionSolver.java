@@ -2,6 +2,7 @@ package geometry;
 
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import models.Position;
 import models.Matrix.*;
@@ -10,6 +11,8 @@ import models.Matrix.*;
 
 /**
  * performs intersection checking and stores results
+ * shapes whose vectors are all parallel to coordinate axes are solved in closed form,
+ * other shapes are solved by gaussian elimination
  * @author martin
  */
 public class IntersectionSolver 
@@ -28,6 +31,35 @@ public class IntersectionSolver
 		public IntersectionSolverException (String message) { super (message); }
 	}
 	
+	/**
+	 * @param fastPath true to solve axis aligned shapes in closed form (default), false to always use gaussian elimination
+	 */
+	public static void setAxisAlignedFastPath (boolean fastPath) { mFastPath = fastPath; }
+	
+	/**
+	 * @return true if axis aligned shapes are solved in closed form
+	 */
+	public static boolean isAxisAlignedFastPath() { return mFastPath; }
+	
+	/**
+	 * @return number of systems solved in closed form since the last reset
+	 */
+	public static long getFastPathCount() { return FAST_PATH_HITS.get(); }
+	
+	/**
+	 * @return number of systems solved by gaussian elimination since the last reset
+	 */
+	public static long getGaussFallbackCount() { return GAUSS_FALLBACKS.get(); }
+	
+	/**
+	 * resets counters of closed form and gaussian solutions
+	 */
+	public static void resetCounters()
+	{
+		FAST_PATH_HITS.set (0);
+		GAUSS_FALLBACKS.set (0);
+	}
+	
 	/**
 	 * @param s a given geometric shape
 	 * @param p a point represented as a double matrix
@@ -35,6 +67,15 @@ public class IntersectionSolver
 	 */
 	public static boolean solveWithin (GeoShape s, DoubleMatrix p)
 	{
+		ArrayList <DoubleMatrix> vecs = s.getVectors();
+		int[] axes = getAxes (vecs);
+		if (mFastPath && axes != null)
+		{
+			FAST_PATH_HITS.incrementAndGet();
+			return solveWithinAligned (s, vecs, axes, p);
+		}
+		GAUSS_FALLBACKS.incrementAndGet();
+		
 		int numVectors = s.getVectors().size();
 		double[] maxScalar = new double[numVectors];
 		//compute max scalar using first dimension
@@ -150,8 +191,126 @@ public class IntersectionSolver
 		return mOnline;
 	}
 	
+	/**
+	 * @param vecs list of vectors
+	 * @return for every vector the index of its only non zero coordinate,
+	 * null if some vector is not parallel to a coordinate axis
+	 */
+	private static int[] getAxes (ArrayList <DoubleMatrix> vecs)
+	{
+		int[] axes = new int[vecs.size()];
+		for (int cVec = 0; cVec < vecs.size(); ++cVec)
+		{
+			axes[cVec] = -1;
+			for (int cDim = 0; cDim < vecs.get (cVec).getRows(); ++cDim)
+			{
+				if (vecs.get (cVec).getCell (cDim, 0) != 0.0)
+				{
+					if (axes[cVec] != -1)
+						return null;
+					axes[cVec] = cDim;
+				}
+			}
+			if (axes[cVec] == -1)
+				return null;
+		}
+		return axes;
+	}
+	
+	/**
+	 * closed form of solveWithin for shapes whose vectors are parallel to distinct coordinate axes
+	 * @param s a given geometric shape
+	 * @param vecs vectors of s
+	 * @param axes axis of every vector
+	 * @param p a point represented as a double matrix
+	 * @return true if p is within s, true as well if p is not in the subspace of s
+	 */
+	private static boolean solveWithinAligned (GeoShape s, ArrayList <DoubleMatrix> vecs, int[] axes, DoubleMatrix p)
+	{
+		IntegerMatrix first = s.getFirst(), second = s.getSecond();
+		for (int cDim = 0; cDim < s.getDimension(); ++cDim)
+		{
+			boolean spanned = false;
+			for (int axis : axes)
+				spanned |= (axis == cDim);
+			if (!spanned && !GaussElim.epsilonEquals (p.getCell (cDim, 0) - first.getCell (cDim, 0), 0.0))
+				return true;
+		}
+		
+		for (int cVec = 0; cVec < vecs.size(); ++cVec)
+		{
+			int axis = axes[cVec];
+			double vecCoord = vecs.get (cVec).getCell (axis, 0);
+			double scalar = (p.getCell (axis, 0) - first.getCell (axis, 0)) / vecCoord;
+			double maxScalar = (second.getCell (axis, 0) - first.getCell (axis, 0)) / vecCoord;
+			if (s.isFirstIncluded() && !GaussElim.epsilonEquals (scalar, 0.0) && scalar < 0.0)
+				return false;
+			else if (!s.isFirstIncluded() && (scalar < 0.0 || GaussElim.epsilonEquals (scalar, 0.0)))
+				return false;
+			if (s.isSecondIncluded() && !GaussElim.epsilonEquals (scalar, maxScalar) && scalar > maxScalar)
+				return false;
+			else if (!s.isSecondIncluded() && (scalar > maxScalar || GaussElim.epsilonEquals (maxScalar, scalar)))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * solves first vectors * scalars - second vectors * scalars = second point - first point
+	 * in closed form if all vectors are parallel to coordinate axes
+	 * @return true if the system was solved
+	 */
+	private boolean solveAligned()
+	{
+		ArrayList <DoubleMatrix> vecs = mS1.getVectors();
+		vecs.addAll (mS2.getVectors());
+		int[] axes = getAxes (vecs);
+		if (axes == null || axes.length == 0)
+			return false;
+		FAST_PATH_HITS.incrementAndGet();
+		
+		IntegerMatrix first1 = mS1.getFirst(), first2 = mS2.getFirst();
+		int[] onAxis = new int[mS1.getDimension()];
+		for (int axis : axes)
+			++onAxis[axis];
+		boolean unique = true;
+		for (int cDim = 0; cDim < onAxis.length; ++cDim)
+		{
+			if (onAxis[cDim] == 0 && !GaussElim.epsilonEquals (first2.getCell (cDim, 0) - first1.getCell (cDim, 0), 0.0))
+			{
+				mSolutionType = Result.INCONSISTENT;
+				return true;
+			}
+			unique &= (onAxis[cDim] <= 1);
+		}
+		
+		if (unique)
+		{
+			mSolutionType = Result.ONE;
+			int firstVectors = mS1.getVectors().size();
+			for (int cVec = 0; cVec < vecs.size(); ++cVec)
+			{
+				int axis = axes[cVec];
+				double scalar = (first2.getCell (axis, 0) - first1.getCell (axis, 0)) / vecs.get (cVec).getCell (axis, 0);
+				mScalars.add (cVec < firstVectors ? scalar : -scalar);
+			}
+			DoubleMatrix inter = getIntersection();
+			mOnline = solveWithin (mS1, inter) && solveWithin (mS2, inter);
+		}
+		else
+		{
+			mSolutionType = Result.INFINITE;
+			mOnline = mS1.doesRangeOverlap(mS2) || mS2.doesRangeOverlap(mS1);
+		}
+		return true;
+	}
+	
 	private void solve()
 	{
+		if (mFastPath && solveAligned())
+			return;
+		GAUSS_FALLBACKS.incrementAndGet();
+		
 		DoubleMatrix eq = mS1.loadEquationMatrix(mS2);
 		GaussElim solver = new GaussElim(eq);
 		solver.run();
@@ -177,6 +336,9 @@ public class IntersectionSolver
 		mGelim = solver;
 	}
 	
+	private static volatile boolean mFastPath = true;
+	private static final AtomicLong FAST_PATH_HITS = new AtomicLong(), GAUSS_FALLBACKS = new AtomicLong();
+	
 	private GaussElim mGelim;
 	private GeoShape mS1, mS2;
 	private ArrayList <Double> mScalars;
@@ -0,0 +1,78 @@
+package gui;
+
+import algorithm.Algorithm;
+import algorithm.ExactCoverAlgo;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+
+@SuppressWarnings("serial")
+public class ExactCoverAlgorithmConfigurator extends AlgorithmConfigurator
+{
+	public ExactCoverAlgorithmConfigurator()
+	{
+		mAlgo = new ExactCoverAlgo();
+		
+		setSize (150, 150);
+		setLayout (new GridBagLayout ());
+		constructComponents();
+	}
+	
+	
+	public Algorithm getAlgorithm()
+	{
+		return mAlgo;
+	}
+	
+	public void constructComponents()
+	{
+		JCheckBox checkMaximize = new JCheckBox ("maximize value, allow empty cells");
+		JButton okayButton = new JButton ("okay");
+		
+		GridBagConstraints gbc = new GridBagConstraints();
+		gbc.gridx = 0;
+		gbc.gridy = 0;
+		gbc.weightx = 1;
+		gbc.weighty = 1;
+		
+		add (checkMaximize, gbc);
+		++gbc.gridy;
+		add (okayButton, gbc);
+		
+		checkMaximize.addItemListener (new MaximizeCheckListen (checkMaximize));
+		okayButton.addActionListener (new CloseButtonListen());
+		pack();
+	}
+	
+	
+	private class MaximizeCheckListen implements ItemListener
+	{
+		public MaximizeCheckListen (JCheckBox box) 
+		{
+			mBox = box;
+		}
+		
+		@Override
+		public void itemStateChanged(ItemEvent e) 
+		{
+			mAlgo.setMaximize (mBox.isSelected());	
+		}
+		
+		private JCheckBox mBox;
+	}
+	
+	private class CloseButtonListen implements ActionListener
+	{
+		public void actionPerformed (ActionEvent e)
+		{
+			setVisible (false);
+			dispose();
+		}
+	}
+	
+	private ExactCoverAlgo mAlgo;
+}
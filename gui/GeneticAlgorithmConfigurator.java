@@ -0,0 +1,135 @@
+package gui;
+
+import algorithm.Algorithm;
+import algorithm.GeneticAlgo;
+import algorithm.MaxValuePerformance;
+import algorithm.MaxVolumePerformance;
+import algorithm.PerformanceMeasure;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+@SuppressWarnings("serial")
+public class GeneticAlgorithmConfigurator extends AlgorithmConfigurator
+{
+	public static final String VALUE_BUTTON_TEXT = "value";
+	public static final String VOLUME_BUTTON_TEXT = "volume";
+	
+	public GeneticAlgorithmConfigurator()
+	{
+		mAlgo = new GeneticAlgo();
+		mAlgo.setParallelism (Runtime.getRuntime().availableProcessors());
+		
+		setSize (150, 150);
+		setLayout (new GridBagLayout ());
+		constructComponents();
+	}
+	
+	
+	public Algorithm getAlgorithm()
+	{
+		return mAlgo;
+	}
+	
+	public void constructComponents()
+	{
+		JLabel desOptimize = new JLabel ("optimize");
+		JRadioButton value = new JRadioButton (VALUE_BUTTON_TEXT);
+		JRadioButton volume = new JRadioButton (VOLUME_BUTTON_TEXT);
+		JLabel desTime = new JLabel ("time limit in seconds");
+		JSpinner spinTime = new JSpinner (new SpinnerNumberModel ((int) (GeneticAlgo.DEFAULT_TIME_LIMIT / 1000), 1, Integer.MAX_VALUE, 1));
+		JButton okayButton = new JButton ("okay");
+		
+		GridBagConstraints gbc = new GridBagConstraints();
+		gbc.gridx = 0;
+		gbc.gridy = 0;
+		gbc.weightx = 1;
+		gbc.weighty = 1;
+		
+		add (desOptimize, gbc);
+		++gbc.gridx;
+		add (value, gbc);
+		++gbc.gridx;
+		add (volume, gbc);
+		gbc.gridx = 0;
+		++gbc.gridy;
+		add (desTime, gbc);
+		++gbc.gridx;
+		add (spinTime, gbc);
+		gbc.gridx = 1;
+		++gbc.gridy;
+		add (okayButton, gbc);
+		
+		spinTime.addChangeListener (new TimeInputListener());
+		okayButton.addActionListener (new CloseButtonListen());
+		
+		value.addItemListener (new PMeasureListen (value, PerformanceMeasureType.VALUE));
+		volume.addItemListener (new PMeasureListen (volume, PerformanceMeasureType.VOLUME));
+		
+		ButtonGroup choosePMeasure = new ButtonGroup();
+		choosePMeasure.add (value);
+		choosePMeasure.add (volume);
+		value.setSelected (true);
+		pack();
+	}
+	
+	
+	
+	
+	private class TimeInputListener implements ChangeListener
+	{
+		@Override
+		public void stateChanged (ChangeEvent e) 
+		{
+			JSpinner src = (JSpinner) e.getSource();
+			mAlgo.setTimeLimit (1000L * (int) src.getValue());
+		}
+	}
+	
+	private class PMeasureListen implements ItemListener
+	{
+		public PMeasureListen (JRadioButton button, PerformanceMeasureType type)
+		{
+			mType = type;
+			mButton = button;
+		}
+		
+		public PerformanceMeasure construct()
+		{
+			switch (mType)
+			{
+			case VALUE: return new MaxValuePerformance();
+			case VOLUME: return new MaxVolumePerformance();
+			}
+			return null;
+		}
+		
+		public void itemStateChanged (ItemEvent e)
+		{
+			if (mButton.isSelected())
+			{
+				mAlgo.setPerformanceMeasure (construct());
+			}
+		}
+		
+		private PerformanceMeasureType mType;
+		private JRadioButton mButton;
+	}
+	
+	private class CloseButtonListen implements ActionListener
+	{
+		public void actionPerformed (ActionEvent e)
+		{
+			setVisible (false);
+			dispose();
+		}
+	}
+	
+	private GeneticAlgo mAlgo;
+}
@@ -153,6 +153,18 @@ public class MainMenu extends JFrame
 		{
 		case DYNAMIC: algoConfig = new DynamicAlgorithmConfigurator();
 		break;
+		case EXACT_COVER: algoConfig = new ExactCoverAlgorithmConfigurator();
+		break;
+		case BRANCH_AND_BOUND: algoConfig = new BranchAndBoundAlgorithmConfigurator();
+		break;
+		case BEAM_SEARCH: algoConfig = new BeamSearchAlgorithmConfigurator();
+		break;
+		case SIMULATED_ANNEALING: algoConfig = new SimulatedAnnealingAlgorithmConfigurator();
+		break;
+		case GENETIC: algoConfig = new GeneticAlgorithmConfigurator();
+		break;
+		case PORTFOLIO: algoConfig = new PortfolioAlgorithmConfigurator();
+		break;
 		default: showErrorDialog ("make another choise", "I cannot load this algorithm");
 		}
 		
@@ -0,0 +1,174 @@
+package gui;
+
+import algorithm.Algorithm;
+import algorithm.BranchAndBoundAlgo;
+import algorithm.DynamicAlgo;
+import algorithm.ExactCoverAlgo;
+import algorithm.GeneticAlgo;
+import algorithm.GreedyAlgorithm;
+import algorithm.HighestValueVolume;
+import algorithm.HillClimber;
+import algorithm.MaxValuePerformance;
+import algorithm.MaxVolumePerformance;
+import algorithm.MaximumDensity;
+import algorithm.PerformanceMeasure;
+import algorithm.PortfolioAlgo;
+import algorithm.SimulatedAnnealingAlgo;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+@SuppressWarnings("serial")
+public class PortfolioAlgorithmConfigurator extends AlgorithmConfigurator
+{
+	public static final String VALUE_BUTTON_TEXT = "value";
+	public static final String VOLUME_BUTTON_TEXT = "volume";
+	
+	public PortfolioAlgorithmConfigurator()
+	{
+		mExactCover = new ExactCoverAlgo();
+		mExactCover.setMaximize (true);
+		mBranchAndBound = new BranchAndBoundAlgo();
+		mAnnealing = new SimulatedAnnealingAlgo();
+		mAnnealing.setTimeLimit (PortfolioAlgo.DEFAULT_TIME_BUDGET);
+		mGenetic = new GeneticAlgo();
+		mGenetic.setTimeLimit (PortfolioAlgo.DEFAULT_TIME_BUDGET);
+		mClimber = new HillClimber (new HighestValueVolume(), new MaxValuePerformance());
+		mDynamic = new DynamicAlgo();
+		mAlgo = new PortfolioAlgo();
+		mAlgo.addAlgorithm (new GreedyAlgorithm (new MaximumDensity()));
+		mAlgo.addAlgorithm (mClimber);
+		mAlgo.addAlgorithm (mDynamic);
+		mAlgo.addRandomRestarts (PortfolioAlgo.DEFAULT_RANDOM_RESTARTS, System.currentTimeMillis());
+		mAlgo.addAlgorithm (mExactCover);
+		mAlgo.addAlgorithm (mBranchAndBound);
+		mAlgo.addAlgorithm (mAnnealing);
+		mAlgo.addAlgorithm (mGenetic);
+		
+		setSize (150, 150);
+		setLayout (new GridBagLayout ());
+		constructComponents();
+	}
+	
+	
+	public Algorithm getAlgorithm()
+	{
+		return mAlgo;
+	}
+	
+	public void constructComponents()
+	{
+		JLabel desOptimize = new JLabel ("optimize");
+		JRadioButton value = new JRadioButton (VALUE_BUTTON_TEXT);
+		JRadioButton volume = new JRadioButton (VOLUME_BUTTON_TEXT);
+		JLabel desTime = new JLabel ("time budget in seconds");
+		JSpinner spinTime = new JSpinner (new SpinnerNumberModel ((int) (PortfolioAlgo.DEFAULT_TIME_BUDGET / 1000), 1, Integer.MAX_VALUE, 1));
+		JButton okayButton = new JButton ("okay");
+		
+		GridBagConstraints gbc = new GridBagConstraints();
+		gbc.gridx = 0;
+		gbc.gridy = 0;
+		gbc.weightx = 1;
+		gbc.weighty = 1;
+		
+		add (desOptimize, gbc);
+		++gbc.gridx;
+		add (value, gbc);
+		++gbc.gridx;
+		add (volume, gbc);
+		gbc.gridx = 0;
+		++gbc.gridy;
+		add (desTime, gbc);
+		++gbc.gridx;
+		add (spinTime, gbc);
+		gbc.gridx = 1;
+		++gbc.gridy;
+		add (okayButton, gbc);
+		
+		spinTime.addChangeListener (new TimeInputListener());
+		okayButton.addActionListener (new CloseButtonListen());
+		
+		value.addItemListener (new PMeasureListen (value, PerformanceMeasureType.VALUE));
+		volume.addItemListener (new PMeasureListen (volume, PerformanceMeasureType.VOLUME));
+		
+		ButtonGroup choosePMeasure = new ButtonGroup();
+		choosePMeasure.add (value);
+		choosePMeasure.add (volume);
+		value.setSelected (true);
+		pack();
+	}
+	
+	
+	
+	
+	private class TimeInputListener implements ChangeListener
+	{
+		@Override
+		public void stateChanged (ChangeEvent e) 
+		{
+			JSpinner src = (JSpinner) e.getSource();
+			long millis = 1000L * (int) src.getValue();
+			mAlgo.setTimeBudget (millis);
+			mAnnealing.setTimeLimit (millis);
+			mGenetic.setTimeLimit (millis);
+		}
+	}
+	
+	private class PMeasureListen implements ItemListener
+	{
+		public PMeasureListen (JRadioButton button, PerformanceMeasureType type)
+		{
+			mType = type;
+			mButton = button;
+		}
+		
+		public PerformanceMeasure construct()
+		{
+			switch (mType)
+			{
+			case VALUE: return new MaxValuePerformance();
+			case VOLUME: return new MaxVolumePerformance();
+			}
+			return null;
+		}
+		
+		public void itemStateChanged (ItemEvent e)
+		{
+			if (mButton.isSelected())
+			{
+				mAlgo.setPerformanceMeasure (construct());
+				mClimber.setPerformanceMeasure (construct());
+				mDynamic.setPerformanceMeasure (construct());
+				mBranchAndBound.setPerformanceMeasure (construct());
+				mAnnealing.setPerformanceMeasure (construct());
+				mGenetic.setPerformanceMeasure (construct());
+			}
+		}
+		
+		private PerformanceMeasureType mType;
+		private JRadioButton mButton;
+	}
+	
+	private class CloseButtonListen implements ActionListener
+	{
+		public void actionPerformed (ActionEvent e)
+		{
+			setVisible (false);
+			dispose();
+		}
+	}
+	
+	private PortfolioAlgo mAlgo;
+	private HillClimber mClimber;
+	private DynamicAlgo mDynamic;
+	private ExactCoverAlgo mExactCover;
+	private BranchAndBoundAlgo mBranchAndBound;
+	private SimulatedAnnealingAlgo mAnnealing;
+	private GeneticAlgo mGenetic;
+}
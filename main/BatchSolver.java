@@ -0,0 +1,541 @@
+package main;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import algorithm.*;
+
+import models.Block;
+import models.Container;
+import models.ContainerExporter;
+import models.Resource;
+import models.ShapeParser;
+
+/**
+ * command line entry point solving packing jobs without graphical user interface
+ * solving a single job:
+ * BatchSolver <shape file> <depth> <width> <height> <algorithm> <inventory of every shape, inf for infinite> [options]
+ * options: -o <output file> -t <time limit in milliseconds> -m <value|volume>, exact cover only maximizes value
+ * solving every job file (*.job) of a directory in parallel:
+ * BatchSolver -batch <directory> [threads]
+ * a job file has the properties shapes, container, inventory, algorithm and optionally output, time and optimize
+ * with the same meaning as the arguments above, e.g.
+ * shapes = LPTPentominoes.txt
+ * container = 3 4 2
+ * inventory = 2 2 inf
+ * algorithm = BRANCH_AND_BOUND
+ * Paths in job files are relative to the directory of the job file, the output defaults to the job file with extension .out.
+ * Algorithms are named like the algorithm types.
+ * The solution is written by a container exporter, timing and density of every job are printed.
+ * A job failing, including a malformed job file, is reported as failed without stopping the other jobs
+ */
+public class BatchSolver
+{
+	public static final String JOB_EXTENSION = ".job";
+	public static final String OUTPUT_EXTENSION = ".out";
+	public static final String INFINITE_INVENTORY = "inf";
+
+	@SuppressWarnings("serial")
+	public static class JobException extends Exception
+	{
+		public JobException() {}
+
+		public JobException (String message) { super (message); }
+	}
+
+	/**
+	 * packing problem to solve
+	 */
+	public static class Job
+	{
+		/**
+		 * @param name name of job used in reports
+		 * @param shapes file of shapes in the format of the shape parser
+		 * @param dims depth, width and height of container
+		 * @param inventory number of blocks available of every shape in the order of the file, negative for infinite
+		 * @param type algorithm to use
+		 * @param output file to write the filled container to
+		 */
+		public Job (String name, File shapes, int[] dims, int[] inventory, AlgorithmType type, File output)
+		{
+			mName = name;
+			mShapes = shapes;
+			mDims = dims;
+			mInventory = inventory;
+			mType = type;
+			mOutput = output;
+			mOptimize = new MaxValuePerformance();
+			mTimeLimit = 0;
+		}
+
+		/**
+		 * @param p performance measure to maximize, default is value
+		 */
+		public void setPerformanceMeasure (PerformanceMeasure p) { mOptimize = p; }
+
+		/**
+		 * @param millis time in milliseconds the algorithm may run, 0 for the default of the algorithm
+		 */
+		public void setTimeLimit (long millis)
+		{
+			if (millis < 0)
+				throw new IllegalArgumentException ("time limit cannot be negative");
+			mTimeLimit = millis;
+		}
+
+		/**
+		 * @return name of job
+		 */
+		public String getName() { return mName; }
+
+		private String mName;
+		private File mShapes, mOutput;
+		private int[] mDims, mInventory;
+		private AlgorithmType mType;
+		private PerformanceMeasure mOptimize;
+		private long mTimeLimit;
+	}
+
+	/**
+	 * outcome of a job
+	 */
+	public static class Result
+	{
+		public Result (Job job, Container filled, long millis)
+		{
+			mJob = job;
+			mFilled = filled;
+			mMillis = millis;
+		}
+
+		/**
+		 * @return filled container
+		 */
+		public Container getContainer() { return mFilled; }
+
+		/**
+		 * @return time taken by the algorithm in milliseconds
+		 */
+		public long getTime() { return mMillis; }
+
+		/**
+		 * @return fraction of the volume of the container filled
+		 */
+		public double getDensity() { return (double) mFilled.getVolumeUsed() / mFilled.getVolume(); }
+
+		public String toString()
+		{
+			return mJob.getName() + " " + mJob.mType + " time " + mMillis + " ms density " + String.format ("%.4f", getDensity()) +
+					" value " + mFilled.getValue() + " blocks " + mFilled.getAmountOfBlocks();
+		}
+
+		private Job mJob;
+		private Container mFilled;
+		private long mMillis;
+	}
+
+	public static void main (String[] args)
+	{
+		System.setProperty ("java.awt.headless", "true");
+		try
+		{
+			if (args.length >= 2 && args[0].equals ("-batch"))
+			{
+				int threads = (args.length > 2 ? Integer.parseInt (args[2]) : Runtime.getRuntime().availableProcessors());
+				if (!solveAll (new File (args[1]), threads))
+					System.exit (1);
+			}
+			else if (args.length >= 6)
+			{
+				Result r = solve (parseArguments (args));
+				System.out.println (r);
+			}
+			else
+			{
+				printUsage();
+				System.exit (2);
+			}
+		}
+		catch (Exception e)
+		{
+			System.err.println ("failed: " + e.getMessage());
+			System.exit (1);
+		}
+	}
+
+	/**
+	 * solves every job file of dir in parallel and prints a report for every job in the order of file names
+	 * @param threads number of jobs solved at the same time
+	 * @return true if every job was solved
+	 */
+	public static boolean solveAll (File dir, int threads) throws JobException, InterruptedException
+	{
+		File[] files = dir.listFiles();
+		if (files == null)
+			throw new JobException ("cannot list job directory " + dir);
+		Arrays.sort (files);
+
+		ExecutorService pool = Executors.newFixedThreadPool (Math.max (1, threads));
+		ArrayList<String> names = new ArrayList<>(), malformed = new ArrayList<>();
+		ArrayList<Future<Result>> results = new ArrayList<>();
+		long start = System.currentTimeMillis();
+		try
+		{
+			for (File f : files)
+			{
+				if (!f.isFile() || !f.getName().endsWith (JOB_EXTENSION))
+					continue;
+				names.add (getJobName (f));
+				try
+				{
+					final Job job = parseJob (f);
+					results.add (pool.submit (new Callable<Result>()
+					{
+						public Result call() throws Exception { return solve (job); }
+					}));
+					malformed.add (null);
+				}
+				catch (JobException | IOException e)
+				{
+					results.add (null);
+					malformed.add (e.getMessage());
+				}
+			}
+
+			boolean solvedAll = true;
+			for (int cJob = 0; cJob < names.size(); ++cJob)
+			{
+				try
+				{
+					if (malformed.get (cJob) != null)
+					{
+						System.out.println (names.get (cJob) + " failed: " + malformed.get (cJob));
+						solvedAll = false;
+					}
+					else
+						System.out.println (results.get (cJob).get());
+				}
+				catch (ExecutionException e)
+				{
+					System.out.println (names.get (cJob) + " failed: " + e.getCause().getMessage());
+					solvedAll = false;
+				}
+			}
+			System.out.println (names.size() + " jobs in " + (System.currentTimeMillis() - start) + " ms using " + threads + " threads");
+			return solvedAll;
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * runs the algorithm of job in the calling thread and writes the filled container to the output of job
+	 * @return result of job
+	 */
+	public static Result solve (Job job) throws JobException, IOException
+	{
+		ArrayList<Block> shapes;
+		try
+		{
+			ShapeParser parser = new ShapeParser (job.mShapes);
+			parser.parse();
+			shapes = parser.getBlocks();
+		}
+		catch (ShapeParser.BadFileStructureException e)
+		{
+			throw new JobException ("bad shape file " + job.mShapes + ": " + e.getMessage());
+		}
+		if (shapes.size() != job.mInventory.length)
+			throw new JobException (shapes.size() + " shapes in " + job.mShapes + " but " + job.mInventory.length + " inventories given");
+
+		ArrayList<Resource> resources = new ArrayList<>();
+		for (int cShape = 0; cShape < shapes.size(); ++cShape)
+		{
+			Block b = shapes.get (cShape);
+			boolean infinite = (job.mInventory[cShape] < 0);
+			resources.add (new Resource (b, (infinite ? 0 : job.mInventory[cShape]), b.getVolume(), infinite));
+		}
+
+		Container c = new Container (job.mDims[0], job.mDims[1], job.mDims[2]);
+		Algorithm algo = createAlgorithm (job.mType, job.mOptimize, job.mTimeLimit);
+		algo.init (c, resources);
+		long start = System.currentTimeMillis();
+		algo.run();
+		Result r = new Result (job, c, System.currentTimeMillis() - start);
+
+		if (job.mOutput != null)
+		{
+			ContainerExporter export = new ContainerExporter (c);
+			export.setDescription (r.toString());
+			export.write (job.mOutput.getPath());
+		}
+		return r;
+	}
+
+	/**
+	 * @param type type of algorithm
+	 * @param p performance measure to maximize
+	 * @param millis time in milliseconds the algorithm may run, 0 for the default of the algorithm
+	 * @return new algorithm of type which does not need a graphical user interface
+	 */
+	public static Algorithm createAlgorithm (AlgorithmType type, PerformanceMeasure p, long millis) throws JobException
+	{
+		Algorithm algo = null;
+		switch (type)
+		{
+		case RANDOM: algo = new RandomAlgo();
+		break;
+		case GREEDY: algo = new GreedyAlgorithm (new MaximumDensity());
+		break;
+		case HILLCLMBER: algo = new HillClimber (new HighestValueVolume(), p);
+		break;
+		case DYNAMIC:
+			DynamicAlgo dynamic = new DynamicAlgo();
+			dynamic.setPerformanceMeasure (p);
+			algo = dynamic;
+		break;
+		case EXACT_COVER: algo = createExactCover (p);
+		break;
+		case BRANCH_AND_BOUND: algo = createBranchAndBound (p);
+		break;
+		case BEAM_SEARCH:
+			BeamSearchAlgo beam = new BeamSearchAlgo (EvaluationHeuristicType.MaxDensity);
+			beam.setPerformanceMeasure (p);
+			algo = beam;
+		break;
+		case SIMULATED_ANNEALING: algo = createSimulatedAnnealing (p, millis);
+		break;
+		case GENETIC: algo = createGenetic (p, millis);
+		break;
+		case PORTFOLIO:
+			PortfolioAlgo portfolio = new PortfolioAlgo();
+			portfolio.setPerformanceMeasure (p);
+			if (millis > 0)
+				portfolio.setTimeBudget (millis);
+			long childMillis = (millis > 0 ? millis : PortfolioAlgo.DEFAULT_TIME_BUDGET);
+			portfolio.addAlgorithm (createAlgorithm (AlgorithmType.GREEDY, p, 0));
+			portfolio.addAlgorithm (createAlgorithm (AlgorithmType.HILLCLMBER, p, 0));
+			portfolio.addAlgorithm (createAlgorithm (AlgorithmType.DYNAMIC, p, 0));
+			portfolio.addRandomRestarts (PortfolioAlgo.DEFAULT_RANDOM_RESTARTS, System.currentTimeMillis());
+			if (p instanceof MaxValuePerformance)
+				portfolio.addAlgorithm (createExactCover (p));
+			portfolio.addAlgorithm (createBranchAndBound (p));
+			portfolio.addAlgorithm (createSimulatedAnnealing (p, childMillis));
+			portfolio.addAlgorithm (createGenetic (p, childMillis));
+			algo = portfolio;
+		break;
+		default: throw new JobException ("algorithm " + type + " is not available on the command line");
+		}
+		if (millis > 0)
+			algo.setDeadline (millis);
+		return algo;
+	}
+
+	/**
+	 * @return exact cover algorithm maximizing value
+	 * @throws JobException if p does not measure value, which exact cover cannot optimize
+	 */
+	private static Algorithm createExactCover (PerformanceMeasure p) throws JobException
+	{
+		if (!(p instanceof MaxValuePerformance))
+			throw new JobException ("exact cover only maximizes value, choose another algorithm to optimize volume");
+		ExactCoverAlgo cover = new ExactCoverAlgo();
+		cover.setMaximize (true);
+		return cover;
+	}
+
+	private static Algorithm createBranchAndBound (PerformanceMeasure p)
+	{
+		BranchAndBoundAlgo bound = new BranchAndBoundAlgo();
+		bound.setPerformanceMeasure (p);
+		return bound;
+	}
+
+	private static Algorithm createSimulatedAnnealing (PerformanceMeasure p, long millis)
+	{
+		SimulatedAnnealingAlgo annealing = new SimulatedAnnealingAlgo();
+		annealing.setPerformanceMeasure (p);
+		if (millis > 0)
+			annealing.setTimeLimit (millis);
+		return annealing;
+	}
+
+	private static Algorithm createGenetic (PerformanceMeasure p, long millis)
+	{
+		GeneticAlgo genetic = new GeneticAlgo();
+		genetic.setPerformanceMeasure (p);
+		if (millis > 0)
+			genetic.setTimeLimit (millis);
+		return genetic;
+	}
+
+	/**
+	 * @param args shape file, depth, width, height, algorithm, inventories and options
+	 * @return job described by args
+	 */
+	public static Job parseArguments (String[] args) throws JobException
+	{
+		int first = 5;
+		int end = first;
+		while (end < args.length && !args[end].startsWith ("-"))
+			++end;
+
+		int[] dims = parseDimensions (args[1] + " " + args[2] + " " + args[3]);
+		Job job = new Job (new File (args[0]).getName(), new File (args[0]), dims,
+						parseInventory (Arrays.copyOfRange (args, first, end)), parseType (args[4]), null);
+		for (int cArg = end; cArg < args.length; cArg += 2)
+		{
+			if (cArg + 1 >= args.length)
+				throw new JobException ("missing value of option " + args[cArg]);
+			String value = args[cArg + 1];
+			switch (args[cArg])
+			{
+			case "-o": job.mOutput = new File (value);
+			break;
+			case "-t": job.setTimeLimit (parseNumber (value, "time limit"));
+			break;
+			case "-m": job.setPerformanceMeasure (parseMeasure (value));
+			break;
+			default: throw new JobException ("unknown option " + args[cArg]);
+			}
+		}
+		return job;
+	}
+
+	/**
+	 * @param f job file
+	 * @return job described by f, relative paths are resolved against the directory of f
+	 */
+	public static Job parseJob (File f) throws JobException, IOException
+	{
+		Properties props = new Properties();
+		Reader read = new FileReader (f);
+		try
+		{
+			props.load (read);
+		}
+		finally
+		{
+			read.close();
+		}
+
+		String name = getJobName (f);
+		File dir = f.getAbsoluteFile().getParentFile();
+		String output = props.getProperty ("output", name + OUTPUT_EXTENSION);
+
+		Job job = new Job (name, resolve (dir, getProperty (props, "shapes", f)), parseDimensions (getProperty (props, "container", f)),
+						parseInventory (getProperty (props, "inventory", f).trim().split ("\\s+")), parseType (getProperty (props, "algorithm", f)),
+						resolve (dir, output));
+		if (props.getProperty ("time") != null)
+			job.setTimeLimit (parseNumber (props.getProperty ("time"), "time limit"));
+		if (props.getProperty ("optimize") != null)
+			job.setPerformanceMeasure (parseMeasure (props.getProperty ("optimize")));
+		return job;
+	}
+
+	/**
+	 * @return name of job file f without extension
+	 */
+	private static String getJobName (File f)
+	{
+		String name = f.getName();
+		if (name.endsWith (JOB_EXTENSION))
+			name = name.substring (0, name.length() - JOB_EXTENSION.length());
+		return name;
+	}
+
+	private static String getProperty (Properties props, String key, File f) throws JobException
+	{
+		String value = props.getProperty (key);
+		if (value == null)
+			throw new JobException ("job file " + f + " misses property " + key);
+		return value;
+	}
+
+	private static File resolve (File dir, String path)
+	{
+		File f = new File (path);
+		return (f.isAbsolute() ? f : new File (dir, path));
+	}
+
+	private static int[] parseDimensions (String dims) throws JobException
+	{
+		String[] split = dims.trim().split ("\\s+");
+		if (split.length != 3)
+			throw new JobException ("container needs depth, width and height, got " + dims);
+		int[] parsed = new int[3];
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			parsed[cDim] = (int) parseNumber (split[cDim], "container dimension");
+			if (parsed[cDim] < 1)
+				throw new JobException ("container dimension has to be positive, got " + split[cDim]);
+		}
+		return parsed;
+	}
+
+	/**
+	 * @return inventory of every shape, -1 for infinite
+	 */
+	private static int[] parseInventory (String[] inventory) throws JobException
+	{
+		int[] parsed = new int[inventory.length];
+		for (int cShape = 0; cShape < inventory.length; ++cShape)
+			parsed[cShape] = (inventory[cShape].equals (INFINITE_INVENTORY) ? -1 : (int) parseNumber (inventory[cShape], "inventory"));
+		return parsed;
+	}
+
+	private static AlgorithmType parseType (String type) throws JobException
+	{
+		try
+		{
+			return AlgorithmType.valueOf (type.trim().toUpperCase());
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new JobException ("unknown algorithm " + type + ", choose one of " + Arrays.toString (AlgorithmType.values()));
+		}
+	}
+
+	private static PerformanceMeasure parseMeasure (String measure) throws JobException
+	{
+		switch (measure.trim())
+		{
+		case "value": return new MaxValuePerformance();
+		case "volume": return new MaxVolumePerformance();
+		}
+		throw new JobException ("unknown performance measure " + measure + ", choose value or volume");
+	}
+
+	private static long parseNumber (String number, String what) throws JobException
+	{
+		try
+		{
+			long parsed = Long.parseLong (number.trim());
+			if (parsed < 0)
+				throw new JobException (what + " cannot be negative, got " + number);
+			return parsed;
+		}
+		catch (NumberFormatException e)
+		{
+			throw new JobException (what + " has to be a number, got " + number);
+		}
+	}
+
+	private static void printUsage()
+	{
+		System.err.println ("usage: BatchSolver <shape file> <depth> <width> <height> <algorithm> <inventory of every shape or " + INFINITE_INVENTORY + "> [-o output] [-t millis] [-m value|volume]");
+		System.err.println ("       BatchSolver -batch <directory of " + JOB_EXTENSION + " files> [threads]");
+	}
+}
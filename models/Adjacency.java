@@ -0,0 +1,322 @@
+package models;
+
+import java.util.Arrays;
+
+import models.BasicShape.RelatPos;
+
+/**
+ * sparse adjacency of the vertices of a shape whose connections are parallel to the axes
+ * every vertex has one slot per relative position storing the index of the vertex connected in that direction.
+ * connections which do not fit into a free slot, i.e. a second connection in the same direction,
+ * are kept in a list of extra connections of the vertex, so no connection of a dense adjacency matrix is lost.
+ * Neighbours are read into buffers of getMaxDegree ints, so look ups do not allocate
+ */
+public class Adjacency implements Cloneable
+{
+	/**
+	 * number of slots per vertex
+	 */
+	public static final int DIRECTIONS = RelatPos.values().length;
+
+	/**
+	 * constructs adjacency of vertices without connections
+	 * @param vertices number of vertices
+	 */
+	public Adjacency (int vertices)
+	{
+		mSlots = new int[Math.max (1, vertices) * DIRECTIONS];
+		Arrays.fill (mSlots, NONE);
+		mVertices = vertices;
+		mExtra = new int[Math.max (1, vertices)][];
+		mExtraSize = new int[Math.max (1, vertices)];
+		mMaxExtra = 0;
+	}
+
+	/**
+	 * @return deep copy of this adjacency
+	 */
+	public Adjacency clone()
+	{
+		Adjacency clone = new Adjacency (mVertices);
+		System.arraycopy (mSlots, 0, clone.mSlots, 0, mVertices * DIRECTIONS);
+		for (int cVertex = 0; cVertex < mVertices; ++cVertex)
+		{
+			if (mExtraSize[cVertex] > 0)
+				clone.mExtra[cVertex] = Arrays.copyOf (mExtra[cVertex], mExtraSize[cVertex]);
+			clone.mExtraSize[cVertex] = mExtraSize[cVertex];
+		}
+		clone.mMaxExtra = mMaxExtra;
+		return clone;
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	public int getVertices() { return mVertices; }
+
+	/**
+	 * adds vertices without connections such that there are at least vertices vertices
+	 * @param vertices number of vertices
+	 */
+	public void ensureVertices (int vertices)
+	{
+		if (vertices <= mVertices)
+			return;
+		if (vertices * DIRECTIONS > mSlots.length)
+		{
+			int oldLength = mSlots.length;
+			mSlots = Arrays.copyOf (mSlots, Math.max (vertices * DIRECTIONS, 2 * oldLength));
+			Arrays.fill (mSlots, oldLength, mSlots.length, NONE);
+			mExtra = Arrays.copyOf (mExtra, mSlots.length / DIRECTIONS);
+			mExtraSize = Arrays.copyOf (mExtraSize, mSlots.length / DIRECTIONS);
+		}
+		mVertices = vertices;
+	}
+
+	/**
+	 * @param v index of vertex
+	 * @param dir relative position
+	 * @return index of vertex connected to v in direction dir or -1 if there is none
+	 */
+	public int getNeighbour (int v, RelatPos dir)
+	{
+		return mSlots[v * DIRECTIONS + dir.ordinal()];
+	}
+
+	/**
+	 * @param v index of vertex
+	 * @return number of vertices connected to v
+	 */
+	public int getDegree (int v)
+	{
+		int degree = mExtraSize[v] / EXTRA_STRIDE;
+		for (int cDir = 0; cDir < DIRECTIONS; ++cDir)
+		{
+			if (mSlots[v * DIRECTIONS + cDir] != NONE)
+				++degree;
+		}
+		return degree;
+	}
+
+	/**
+	 * @return number of ints a buffer passed to getNeighbours needs to hold the neighbours of any vertex
+	 */
+	public int getMaxDegree() { return DIRECTIONS + mMaxExtra; }
+
+	/**
+	 * @param v index of vertex
+	 * @return indices of vertices connected to v in ascending order
+	 */
+	public int[] getNeighbours (int v)
+	{
+		int[] neighbours = new int[getDegree (v)];
+		getNeighbours (v, neighbours);
+		return neighbours;
+	}
+
+	/**
+	 * @param v index of vertex
+	 * @param neighbours buffer receiving the indices of vertices connected to v in ascending order,
+	 * needs at least getDegree (v) ints
+	 * @return number of vertices connected to v
+	 */
+	public int getNeighbours (int v, int[] neighbours)
+	{
+		int count = 0;
+		for (int cDir = 0; cDir < DIRECTIONS; ++cDir)
+		{
+			int slot = mSlots[v * DIRECTIONS + cDir];
+			if (slot != NONE)
+				count = insertSorted (neighbours, count, slot);
+		}
+		for (int cExtra = 0; cExtra < mExtraSize[v]; cExtra += EXTRA_STRIDE)
+			count = insertSorted (neighbours, count, mExtra[v][cExtra]);
+		return count;
+	}
+
+	/**
+	 * @param v1 index of vertex
+	 * @param v2 index of vertex
+	 * @return true if v1 and v2 are connected
+	 */
+	public boolean isConnected (int v1, int v2)
+	{
+		for (int cDir = 0; cDir < DIRECTIONS; ++cDir)
+		{
+			if (mSlots[v1 * DIRECTIONS + cDir] == v2)
+				return true;
+		}
+		return findExtra (v1, v2) >= 0;
+	}
+
+	/**
+	 * connects v1 and v2 unless they are connected already
+	 * @param v1 index of vertex
+	 * @param v2 index of vertex
+	 * @param dir relative position of v2 seen from v1
+	 */
+	public void connect (int v1, int v2, RelatPos dir)
+	{
+		if (isConnected (v1, v2))
+			return;
+		setHalf (v1, v2, dir);
+		if (v1 != v2)
+			setHalf (v2, v1, BasicShape.getOpposite (dir));
+	}
+
+	/**
+	 * removes connection between v1 and v2 if it exists
+	 * @param v1 index of vertex
+	 * @param v2 index of vertex
+	 */
+	public void disconnect (int v1, int v2)
+	{
+		clearHalf (v1, v2);
+		if (v1 != v2)
+			clearHalf (v2, v1);
+	}
+
+	/**
+	 * @param cmp adjacency to compare this to
+	 * @return true if cmp has the same number of vertices and the same connections
+	 */
+	@Override
+	public boolean equals (Object cmp)
+	{
+		if (!(cmp instanceof Adjacency))
+			return false;
+		Adjacency comp = (Adjacency) cmp;
+		if (mVertices != comp.mVertices)
+			return false;
+		for (int cVertex = 0; cVertex < mVertices; ++cVertex)
+		{
+			if (getDegree (cVertex) != comp.getDegree (cVertex))
+				return false;
+		}
+		int[] neighbours = new int[getMaxDegree()], compNeighbours = new int[comp.getMaxDegree()];
+		for (int cVertex = 0; cVertex < mVertices; ++cVertex)
+		{
+			int count = getNeighbours (cVertex, neighbours);
+			comp.getNeighbours (cVertex, compNeighbours);
+			for (int cNeighbour = 0; cNeighbour < count; ++cNeighbour)
+			{
+				if (neighbours[cNeighbour] != compNeighbours[cNeighbour])
+					return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = mVertices;
+		int[] neighbours = new int[getMaxDegree()];
+		for (int cVertex = 0; cVertex < mVertices; ++cVertex)
+		{
+			int count = getNeighbours (cVertex, neighbours);
+			int vertexHash = 1;
+			for (int cNeighbour = 0; cNeighbour < count; ++cNeighbour)
+				vertexHash = vertexHash * 31 + neighbours[cNeighbour];
+			hash = hash * 31 + vertexHash;
+		}
+		return hash;
+	}
+
+	/**
+	 * @param sorted buffer whose first count ints are sorted ascending
+	 * @param count number of ints sorted
+	 * @param v int to insert
+	 * @return number of ints sorted after inserting v
+	 */
+	private static int insertSorted (int[] sorted, int count, int v)
+	{
+		int pos = count;
+		while (pos > 0 && sorted[pos - 1] > v)
+		{
+			sorted[pos] = sorted[pos - 1];
+			--pos;
+		}
+		sorted[pos] = v;
+		return count + 1;
+	}
+
+	/**
+	 * stores connection from v1 to v2 in the slot of dir or in the extra connections of v1 if the slot is taken
+	 */
+	private void setHalf (int v1, int v2, RelatPos dir)
+	{
+		int slot = v1 * DIRECTIONS + dir.ordinal();
+		if (mSlots[slot] == NONE)
+			mSlots[slot] = v2;
+		else
+		{
+			int[] extra = mExtra[v1];
+			if (extra == null || mExtraSize[v1] + EXTRA_STRIDE > extra.length)
+				mExtra[v1] = extra = Arrays.copyOf (extra == null ? new int[0] : extra, Math.max (2 * EXTRA_STRIDE, 2 * mExtraSize[v1]));
+			extra[mExtraSize[v1]++] = v2;
+			extra[mExtraSize[v1]++] = dir.ordinal();
+			mMaxExtra = Math.max (mMaxExtra, mExtraSize[v1] / EXTRA_STRIDE);
+		}
+	}
+
+	/**
+	 * removes connection from v1 to v2, extra connections in the same direction move into a freed slot
+	 */
+	private void clearHalf (int v1, int v2)
+	{
+		for (int cDir = 0; cDir < DIRECTIONS; ++cDir)
+		{
+			int slot = v1 * DIRECTIONS + cDir;
+			if (mSlots[slot] == v2)
+			{
+				mSlots[slot] = NONE;
+				for (int cExtra = 0; cExtra < mExtraSize[v1]; cExtra += EXTRA_STRIDE)
+				{
+					if (mExtra[v1][cExtra + 1] == cDir)
+					{
+						mSlots[slot] = mExtra[v1][cExtra];
+						removeExtra (v1, cExtra);
+						break;
+					}
+				}
+				return;
+			}
+		}
+		int extra = findExtra (v1, v2);
+		if (extra >= 0)
+			removeExtra (v1, extra);
+	}
+
+	/**
+	 * @return index of extra connection from v1 to v2 among the extra connections of v1 or -1 if there is none
+	 */
+	private int findExtra (int v1, int v2)
+	{
+		for (int cExtra = 0; cExtra < mExtraSize[v1]; cExtra += EXTRA_STRIDE)
+		{
+			if (mExtra[v1][cExtra] == v2)
+				return cExtra;
+		}
+		return -1;
+	}
+
+	private void removeExtra (int v, int index)
+	{
+		System.arraycopy (mExtra[v], index + EXTRA_STRIDE, mExtra[v], index, mExtraSize[v] - index - EXTRA_STRIDE);
+		mExtraSize[v] -= EXTRA_STRIDE;
+	}
+
+	private static final int NONE = -1;
+	/**
+	 * extra connections of a vertex are stored as pairs of connected vertex and direction
+	 */
+	private static final int EXTRA_STRIDE = 2;
+
+	private int[] mSlots;
+	private int mVertices;
+	private int[][] mExtra;
+	private int[] mExtraSize;
+	//most extra connections any vertex had, bounding the degree of every vertex
+	private int mMaxExtra;
+}
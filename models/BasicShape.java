@@ -1,60 +1,61 @@
 
-package models;
-
-import geometry.Cuboid;
-import geometry.GaussElim;
+package models;
+
+import geometry.Cuboid;
+import geometry.GaussElim;
 import geometry.GeoShape;
-import geometry.IntersectionSolver;
-import geometry.Line;
+import geometry.IntersectionSolver;
+import geometry.Line;
 import geometry.Point;
-import geometry.Rectangle;
-import geometry.IntersectionSolver.Result;
+import geometry.Rectangle;
+import geometry.IntersectionSolver.Result;
 import gui.PieceRenderPanel;
 import gui.PieceRenderPanel.ResizeListener;
 import gui.PieceRenderPanel.RotationListener;
 import gui.PieceRenderPanel.ZoomListener;
 import generic.Set;
-
+
 import java.awt.BorderLayout;
-import java.io.PrintStream;
+import java.io.PrintStream;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.ListIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.ListIterator;
 
 import javax.swing.JFrame;
-
-import models.Matrix.*;
-
-
-public class BasicShape
-{
+
+import models.Matrix.*;
+
+
+public class BasicShape
+{
 	public static enum RelatPos {FRONT, BACK, LEFT, RIGHT, ABOVE, BELOW};
 	
-	public static enum RotationDir {ONWARD, BACKWARD}
-	
-	@SuppressWarnings("serial")
-	public static class BadNumberOfRowsException extends IllegalArgumentException
-	{
-		public BadNumberOfRowsException() {super(); }
-		
-		public BadNumberOfRowsException (String message) { super (message); }
-	}
-	
-	@SuppressWarnings("serial")
-	public static class BadNumberOfCollumsException extends IllegalArgumentException
-	{
-		public BadNumberOfCollumsException() {super(); }
-		
-		public BadNumberOfCollumsException (String message) { super (message); }
-	}
-	
-	public static class NonExistingVertexException extends IllegalArgumentException
-	{
-		public NonExistingVertexException() {super(); }
-		
-		public NonExistingVertexException (String message) { super (message); }
+	public static enum RotationDir {ONWARD, BACKWARD}
+	
+	@SuppressWarnings("serial")
+	public static class BadNumberOfRowsException extends IllegalArgumentException
+	{
+		public BadNumberOfRowsException() {super(); }
+		
+		public BadNumberOfRowsException (String message) { super (message); }
+	}
+	
+	@SuppressWarnings("serial")
+	public static class BadNumberOfCollumsException extends IllegalArgumentException
+	{
+		public BadNumberOfCollumsException() {super(); }
+		
+		public BadNumberOfCollumsException (String message) { super (message); }
+	}
+	
+	public static class NonExistingVertexException extends IllegalArgumentException
+	{
+		public NonExistingVertexException() {super(); }
+		
+		public NonExistingVertexException (String message) { super (message); }
 	}
 	
 	public static class ComparableVertex extends Glue implements Comparable<ComparableVertex>
@@ -106,53 +107,53 @@ public class BasicShape
 		
 		
 		private int mIndex;
-	}
-	
-	/**
-	 * @param points list of points
-	 * @param connected 2d list of points connected to points
-	 * @return adjacency matrix containing connections in connected to points
-	 */
-	public static IntegerMatrix buildAdjacencyMatrix (ArrayList <IntegerMatrix> points, ArrayList <ArrayList <IntegerMatrix>> connected)
-	{
-		IntegerMatrix adj = new IntegerMatrix (points.size(), points.size());
-		for (int cPoint = 0; cPoint < points.size(); ++cPoint)
-		{
-			for (IntegerMatrix connect : connected.get(cPoint))
-			{
-				int cFindConnect = 0;
-				while (cFindConnect < points.size() && !points.get(cFindConnect).equals(connect))
-					++cFindConnect;
-				adj.setCell(cPoint, cFindConnect, 1);
-				adj.setCell(cFindConnect, cPoint, 1);
-			}
-		}
-		return adj;
-	}
-	
-	/** Creates a rotation matrix based on given angles of rotation
-	 * @param angle1 Desired amount of rotation in x2 axis (in degrees)
-	 * @param angle2 Desired amount of rotation in x3 axis (in degrees)
-	 * @return rotation matrix
-	 */
+	}
+	
+	/**
+	 * @param points list of points
+	 * @param connected 2d list of points connected to points
+	 * @return adjacency matrix containing connections in connected to points
+	 */
+	public static IntegerMatrix buildAdjacencyMatrix (ArrayList <IntegerMatrix> points, ArrayList <ArrayList <IntegerMatrix>> connected)
+	{
+		IntegerMatrix adj = new IntegerMatrix (points.size(), points.size());
+		for (int cPoint = 0; cPoint < points.size(); ++cPoint)
+		{
+			for (IntegerMatrix connect : connected.get(cPoint))
+			{
+				int cFindConnect = 0;
+				while (cFindConnect < points.size() && !points.get(cFindConnect).equals(connect))
+					++cFindConnect;
+				adj.setCell(cPoint, cFindConnect, 1);
+				adj.setCell(cFindConnect, cPoint, 1);
+			}
+		}
+		return adj;
+	}
+	
+	/** Creates a rotation matrix based on given angles of rotation
+	 * @param angle1 Desired amount of rotation in x2 axis (in degrees)
+	 * @param angle2 Desired amount of rotation in x3 axis (in degrees)
+	 * @return rotation matrix
+	 */
 	public static Matrix<Double> rotationMatrix (double angle1, double angle2, RotationDir d)
-	{
-		double radAngle1 = Math.toRadians (angle1);
-		double radAngle2 = Math.toRadians (angle2);
-		//rotation matrix for y axis
-		Matrix.DoubleMatrix rotationMatrix1 = new Matrix.DoubleMatrix (3, 3);
-		rotationMatrix1.setCell (0, 0, Math.cos (radAngle1));
-		rotationMatrix1.setCell (2, 0, -Math.sin (radAngle1));
-		rotationMatrix1.setCell (1, 1, 1.0);
-		rotationMatrix1.setCell (0, 2, Math.sin (radAngle1));
-		rotationMatrix1.setCell (2, 2, Math.cos (radAngle1));
-		//rotation matrix for z axis
-		Matrix.DoubleMatrix rotationMatrix2 = new Matrix.DoubleMatrix (3, 3);
-		rotationMatrix2.setCell (0, 0, Math.cos (radAngle2));
-		rotationMatrix2.setCell (1, 0, Math.sin (radAngle2));
-		rotationMatrix2.setCell (0, 1, -Math.sin (radAngle2));
-		rotationMatrix2.setCell (1, 1, Math.cos (radAngle2));
-		rotationMatrix2.setCell (2, 2, 1.0);
+	{
+		double radAngle1 = Math.toRadians (angle1);
+		double radAngle2 = Math.toRadians (angle2);
+		//rotation matrix for y axis
+		Matrix.DoubleMatrix rotationMatrix1 = new Matrix.DoubleMatrix (3, 3);
+		rotationMatrix1.setCell (0, 0, Math.cos (radAngle1));
+		rotationMatrix1.setCell (2, 0, -Math.sin (radAngle1));
+		rotationMatrix1.setCell (1, 1, 1.0);
+		rotationMatrix1.setCell (0, 2, Math.sin (radAngle1));
+		rotationMatrix1.setCell (2, 2, Math.cos (radAngle1));
+		//rotation matrix for z axis
+		Matrix.DoubleMatrix rotationMatrix2 = new Matrix.DoubleMatrix (3, 3);
+		rotationMatrix2.setCell (0, 0, Math.cos (radAngle2));
+		rotationMatrix2.setCell (1, 0, Math.sin (radAngle2));
+		rotationMatrix2.setCell (0, 1, -Math.sin (radAngle2));
+		rotationMatrix2.setCell (1, 1, Math.cos (radAngle2));
+		rotationMatrix2.setCell (2, 2, 1.0);
 		
 		if (angle1 == 0.0)
 			return rotationMatrix2;
@@ -162,55 +163,55 @@ public class BasicShape
 			return rotationMatrix1.multiply (rotationMatrix2, new Matrix.DoubleMatrix (3, 3));
 		else if (d == RotationDir.BACKWARD)
 			return rotationMatrix2.multiply (rotationMatrix1, new DoubleMatrix (3, 3));
-		throw new IllegalArgumentException ("uncaught case in rotation matrix creating method");
-	}
-	
-	/**
-	 * @param r relative position
-	 * @param dimension dimension of the vector
-	 * @return return vector to relative position in dimension
-	 */
-	public static IntegerMatrix getRelativePosVector (RelatPos r, int dimension)
-	{
-		IntegerMatrix v = new IntegerMatrix (dimension, 1);
-		switch (r)
-		{
-		case ABOVE:	v.setCell(2, 0, 1);
-			break;
-		case BACK:	v.setCell(0, 0, -1);
-			break;
-		case BELOW:	v.setCell(2, 0, -1);
-			break;
-		case FRONT:	v.setCell(0, 0, 1);
-			break;
-		case LEFT:	v.setCell(1, 0, -1);
-			break;
-		case RIGHT:	v.setCell(1, 0, 1);
-		}
-		return v;
-	}
-	
-	/**
-	 * @param p1 first point
-	 * @param p2 second point
-	 * @return relative position of p1 to p2
-	 * Precondition: dimension of p1, p2 is the same
-	 */
-	public static RelatPos getRelativePos (Glue p1, Glue p2)
-	{
-		if (p1.getPosition (0) < p2.getPosition (0))
-			return RelatPos.FRONT;
-		if (p1.getPosition (0) > p2.getPosition(0))
-			return RelatPos.BACK;
-		if (p1.getPosition (1) < p2.getPosition (1))
-			return RelatPos.RIGHT;
-		if (p1.getPosition (1) > p2.getPosition (1))
-			return RelatPos.LEFT;
-		if (p1.getPosition (2) < p2.getPosition (2))
-			return RelatPos.ABOVE;
-		if (p1.getPosition (2) > p2.getPosition (2))
-			return RelatPos.BELOW;
-		throw new IllegalArgumentException (p1 + " and " + p2 + " are identical");
+		throw new IllegalArgumentException ("uncaught case in rotation matrix creating method");
+	}
+	
+	/**
+	 * @param r relative position
+	 * @param dimension dimension of the vector
+	 * @return return vector to relative position in dimension
+	 */
+	public static IntegerMatrix getRelativePosVector (RelatPos r, int dimension)
+	{
+		IntegerMatrix v = new IntegerMatrix (dimension, 1);
+		switch (r)
+		{
+		case ABOVE:	v.setCell(2, 0, 1);
+			break;
+		case BACK:	v.setCell(0, 0, -1);
+			break;
+		case BELOW:	v.setCell(2, 0, -1);
+			break;
+		case FRONT:	v.setCell(0, 0, 1);
+			break;
+		case LEFT:	v.setCell(1, 0, -1);
+			break;
+		case RIGHT:	v.setCell(1, 0, 1);
+		}
+		return v;
+	}
+	
+	/**
+	 * @param p1 first point
+	 * @param p2 second point
+	 * @return relative position of p1 to p2
+	 * Precondition: dimension of p1, p2 is the same
+	 */
+	public static RelatPos getRelativePos (Glue p1, Glue p2)
+	{
+		if (p1.getPosition (0) < p2.getPosition (0))
+			return RelatPos.FRONT;
+		if (p1.getPosition (0) > p2.getPosition(0))
+			return RelatPos.BACK;
+		if (p1.getPosition (1) < p2.getPosition (1))
+			return RelatPos.RIGHT;
+		if (p1.getPosition (1) > p2.getPosition (1))
+			return RelatPos.LEFT;
+		if (p1.getPosition (2) < p2.getPosition (2))
+			return RelatPos.ABOVE;
+		if (p1.getPosition (2) > p2.getPosition (2))
+			return RelatPos.BELOW;
+		throw new IllegalArgumentException (p1 + " and " + p2 + " are identical");
 	}
 	
 	/**
@@ -229,151 +230,179 @@ public class BasicShape
 		case RIGHT: return RelatPos.LEFT;
 		default: throw new IllegalArgumentException ("invalid relat pos value, no opposite");
 		}
-	}
-	
-	/**
-	 * inner class containing intersection point and 
-	 * indices of the line the intersection is on
-	 * @author martin
-	 */
-	public class Intersection extends Glue
-	{
-		/**
-		 * @param vecInter vector to intersection
-		 * @param indV1 index corresponding to start of line on which intersection is located
-		 * @param indV2 index corresponding to end of line on which intersection is located
-		 */
-		public Intersection (IntegerMatrix vecInter, int indV1, int indV2)
-		{
-			super (vecInter);
-			mVec1 = getVertex (indV1);
-			mVec2 = getVertex (indV2);
-			mIndV1 = indV1;
-			mIndV2 = indV2;
-			mAreVertices = true;
-		}
-		
-		/**
-		 * @param vecInter vector to intersection
-		 * @param vec1 vector to start of line on which intersection is located
-		 * @param vec2 vector to end of line on which intersection is located
-		 */
-		public Intersection (IntegerMatrix vecInter, IntegerMatrix vec1, IntegerMatrix vec2)
-		{
-			super (vecInter);
-			mVec1 = vec1;
-			mVec2 = vec2;
-			updateVertexIndices();
-		}
-		
-		/**
-		 * @return get line start vector
-		 */
-		public IntegerMatrix getLineStart() { return mVec1; }
-		
-		/**
-		 * @return get line end vector
-		 */
-		public IntegerMatrix getLineEnd() { return mVec2; }
-		
-		/**
-		 * @return index of first vertex
-		 */
-		public int getLineStartIndex() { return mIndV1; }
-		
-		/**
-		 * @return index of second vertex
-		 */
-		public int getLineEndIndex() { return mIndV2; }
-		
-		/**
-		 * @return true if vectors stored refer to vertices of this shape
-		 */
-		public boolean areVertices() { return mAreVertices; }
-		
-		/**
-		 * updates indices of vectors and boolean flag storing whether vectors
-		 * refer to vertices
-		 */
-		public void updateVertexIndices()
-		{
-			mIndV1 = getVertexIndex (mVec1);
-			mIndV2 = getVertexIndex (mVec2);
-			if (mIndV1 < getNumberOfVertices() && mIndV2 < getNumberOfVertices())
-				mAreVertices = true;
-			else
-				mAreVertices = false;
-		}
-		
-		private IntegerMatrix mVec1, mVec2;
-		private int mIndV1, mIndV2;
-		private boolean mAreVertices;
-	}
-	
-	/**
-	 * constructs basic shape from parameters
-	 * @param vectors list of vectors
-	 * @param adjMatrix adjacency matrix
-	 */
-	@SuppressWarnings("unchecked")
-	public BasicShape(ArrayList <IntegerMatrix> vectors, IntegerMatrix adjMatrix)
-	{
-		//init vertices
+	}
+	
+	/**
+	 * @param vectors list of vectors
+	 * @param adjMatrix adjacency matrix of vectors
+	 * @return sparse adjacency containing the connections of adjMatrix between distinct vectors
+	 */
+	public static Adjacency toAdjacency (ArrayList <IntegerMatrix> vectors, IntegerMatrix adjMatrix)
+	{
+		Adjacency adjacency = new Adjacency (vectors.size());
+		for (int cVertex = 0; cVertex < vectors.size() && cVertex < adjMatrix.getRows(); ++cVertex)
+		{
+			for (int cConnect = cVertex + 1; cConnect < vectors.size() && cConnect < adjMatrix.getColumns(); ++cConnect)
+			{
+				if (adjMatrix.getCell (cVertex, cConnect).equals (1))
+					adjacency.connect (cVertex, cConnect, getRelativePos (new Glue (vectors.get (cVertex)), new Glue (vectors.get (cConnect))));
+			}
+		}
+		return adjacency;
+	}
+	
+	/**
+	 * inner class containing intersection point and 
+	 * indices of the line the intersection is on
+	 * @author martin
+	 */
+	public class Intersection extends Glue
+	{
+		/**
+		 * @param vecInter vector to intersection
+		 * @param indV1 index corresponding to start of line on which intersection is located
+		 * @param indV2 index corresponding to end of line on which intersection is located
+		 */
+		public Intersection (IntegerMatrix vecInter, int indV1, int indV2)
+		{
+			super (vecInter);
+			mVec1 = getVertex (indV1);
+			mVec2 = getVertex (indV2);
+			mIndV1 = indV1;
+			mIndV2 = indV2;
+			mAreVertices = true;
+		}
+		
+		/**
+		 * @param vecInter vector to intersection
+		 * @param vec1 vector to start of line on which intersection is located
+		 * @param vec2 vector to end of line on which intersection is located
+		 */
+		public Intersection (IntegerMatrix vecInter, IntegerMatrix vec1, IntegerMatrix vec2)
+		{
+			super (vecInter);
+			mVec1 = vec1;
+			mVec2 = vec2;
+			updateVertexIndices();
+		}
+		
+		/**
+		 * @return get line start vector
+		 */
+		public IntegerMatrix getLineStart() { return mVec1; }
+		
+		/**
+		 * @return get line end vector
+		 */
+		public IntegerMatrix getLineEnd() { return mVec2; }
+		
+		/**
+		 * @return index of first vertex
+		 */
+		public int getLineStartIndex() { return mIndV1; }
+		
+		/**
+		 * @return index of second vertex
+		 */
+		public int getLineEndIndex() { return mIndV2; }
+		
+		/**
+		 * @return true if vectors stored refer to vertices of this shape
+		 */
+		public boolean areVertices() { return mAreVertices; }
+		
+		/**
+		 * updates indices of vectors and boolean flag storing whether vectors
+		 * refer to vertices
+		 */
+		public void updateVertexIndices()
+		{
+			mIndV1 = getVertexIndex (mVec1);
+			mIndV2 = getVertexIndex (mVec2);
+			if (mIndV1 < getNumberOfVertices() && mIndV2 < getNumberOfVertices())
+				mAreVertices = true;
+			else
+				mAreVertices = false;
+		}
+		
+		private IntegerMatrix mVec1, mVec2;
+		private int mIndV1, mIndV2;
+		private boolean mAreVertices;
+	}
+	
+	/**
+	 * constructs basic shape from parameters
+	 * @param vectors list of vectors
+	 * @param adjMatrix adjacency matrix
+	 */
+	public BasicShape(ArrayList <IntegerMatrix> vectors, IntegerMatrix adjMatrix)
+	{
+		this (vectors, toAdjacency (vectors, adjMatrix));
+	}
+	
+	/**
+	 * constructs basic shape from parameters
+	 * @param vectors list of vectors
+	 * @param adjacency connections of vectors
+	 */
+	private BasicShape(ArrayList <IntegerMatrix> vectors, Adjacency adjacency)
+	{
+		//init vertices
 		this.vectors = new ArrayList<IntegerMatrix>();
-		//mOrderedVectors = new Set<>();
+		//mOrderedVectors = new Set<>();
 		for (IntegerMatrix vec : vectors)
 		{
-			IntegerMatrix ref = vec.clone();
+			IntegerMatrix ref = vec.clone();
 			this.vectors.add (ref);
 			//mOrderedVectors.add (new IndexVertex (ref, mOrderedVectors.getSize()));
-		}
-		if (!numberOfCols(vectors)) 
-			throw new BadNumberOfCollumsException ("The vectors introduced are not 3x1");
-		//compute dimensions
-		dimensions = new ArrayList<Integer>();
-		calcDim (vectors);
+		}
+		if (!numberOfCols(vectors)) 
+			throw new BadNumberOfCollumsException ("The vectors introduced are not 3x1");
+		//compute dimensions
+		dimensions = new ArrayList<Integer>();
+		calcDim (vectors);
 		//initialize offset position
 		updateMinPos();
-		updateMaxPos();
-		//create adjacency matrix
-		this.adjMatrix = adjMatrix.clone();
-		//set possible connections
-		mPossibleConnections = new ArrayList<ArrayList<RelatPos>>();
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
-			mPossibleConnections.add (getHypoPossibleConnections (getVertex (cVertex)));
-		//compute actual possible connections
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
-			resetConnections(cVertex);
-		mVolume = -1;
-	}
-	
-	/**
-	 * construct basic shape by copying clone
-	 * @param clone another basic shape
-	 */
-	public BasicShape (BasicShape clone)
-	{
-		this (clone.vectors, clone.adjMatrix);
-		mVolume = clone.mVolume;
-		this.glue (clone.getGlue());
-	}
-	
-	/**
-	 * @return list of line objects, containing a line for each connection
-	 */
-	public ArrayList <Line> getConnectingLines()
-	{
-		ArrayList <Line> lines = new ArrayList<Line>();
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
-		{
-			for (int cConnect = cVertex; cConnect < getNumberOfVertices(); ++cConnect)
-			{
-				if (adjMatrix.getCell(cVertex, cConnect).equals(new Integer (1)))
-					lines.add (new Line (new Glue (getVertex (cVertex)), new Glue (getVertex (cConnect))));
-			}
-				
-		}
-		return lines;
+		updateMaxPos();
+		//copy connections
+		mAdjacency = adjacency.clone();
+		mAdjacency.ensureVertices (this.vectors.size());
+		//set possible connections
+		mPossibleConnections = new ArrayList<ArrayList<RelatPos>>();
+		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+			mPossibleConnections.add (getHypoPossibleConnections (getVertex (cVertex)));
+		//compute actual possible connections
+		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+			resetConnections(cVertex);
+		mVolume = -1;
+		mCells = null;
+		invalidateTopology();
+	}
+	
+	/**
+	 * construct basic shape by copying clone
+	 * @param clone another basic shape
+	 */
+	public BasicShape (BasicShape clone)
+	{
+		this (clone.vectors, clone.mAdjacency);
+		mVolume = clone.mVolume;
+		mCells = clone.mCells;
+		mEdges = clone.mEdges;
+		mRectangles = clone.mRectangles;
+		mCuboids = clone.mCuboids;
+		this.glue (clone.getGlue());
+	}
+	
+	/**
+	 * @return list of line objects, containing a line for each connection
+	 */
+	public ArrayList <Line> getConnectingLines()
+	{
+		ArrayList <Line> lines = new ArrayList<Line>();
+		for (int[] edge : getEdges())
+			lines.add (new Line (new Glue (getVertex (edge[0])), new Glue (getVertex (edge[1]))));
+		return lines;
 	}
 	
 	/**
@@ -383,219 +412,254 @@ public class BasicShape
 	{
 		ArrayList <Line> lines = new ArrayList<Line>();
 		boolean[] inclusionFlags = new boolean[getNumberOfVertices()];
-		for (int cInit = 0; cInit < getNumberOfVertices(); ++cInit)
-			inclusionFlags[cInit] = false;
+		for (int[] edge : getEdges())
+		{
+			Line addLine = new Line (new Glue (getVertex (edge[0])), new Glue (getVertex (edge[1])));
+			boolean include1 = !inclusionFlags[edge[0]], include2 = !inclusionFlags[edge[1]];
+			inclusionFlags[edge[0]] = true;
+			inclusionFlags[edge[1]] = true;
+			addLine.setInclusion (include1, include2);
+			lines.add (addLine);
+		}
+		return lines;
+	}
+	
+	/**
+	 * @return list of the sides of the basic shape
+	 * Precondition: for each rectangle (= side) there need to be enough vertices
+	 * to form them
+	 */
+	public ArrayList <Rectangle> getRectangles()
+	{
+		if (mRectangles == null)
+		{
+			ArrayList <int[]> rects = new ArrayList<int[]>();
+			//number of connections with index above cVertex shared by cVertex and a vertex
+			int[] sharedConn = new int[getNumberOfVertices()];
+			int[] conns = new int[mAdjacency.getMaxDegree()], oppos = new int[mAdjacency.getMaxDegree()];
+			for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+			{
+				//opposite vertices are connections of connections
+				ArrayList <Integer> oppoVertices = new ArrayList<Integer>();
+				int nConns = mAdjacency.getNeighbours (cVertex, conns);
+				for (int cConn = 0; cConn < nConns; ++cConn)
+				{
+					int conn = conns[cConn];
+					if (conn <= cVertex)
+						continue;
+					int nOppos = mAdjacency.getNeighbours (conn, oppos);
+					for (int cOppo = 0; cOppo < nOppos; ++cOppo)
+					{
+						int oppo = oppos[cOppo];
+						if (oppo > cVertex && !mAdjacency.isConnected (cVertex, oppo) && sharedConn[oppo]++ == 0)
+							oppoVertices.add (oppo);
+					}
+				}
+				Collections.sort (oppoVertices);
+				for (int cOppoVertex : oppoVertices)
+				{
+					//@TODO dirty fix: there should be no case when #vectors != 0 if adjacency matrix is properly maintained
+					if (sharedConn[cOppoVertex] >= 2 && Rectangle.determineVectors (new Glue (getVertex (cVertex)), new Glue (getVertex (cOppoVertex))).size() == 2)
+						rects.add (new int[] {cVertex, cOppoVertex});
+					sharedConn[cOppoVertex] = 0;
+				}
+			}
+			mRectangles = rects.toArray (new int[rects.size()][]);
+		}
 		
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+		ArrayList <Rectangle> rects = new ArrayList<Rectangle>();
+		for (int[] rect : mRectangles)
+			rects.add (new Rectangle (new Glue (getVertex (rect[0])), new Glue (getVertex (rect[1]))));
+		return rects;
+	}
+	
+	/**
+	 * cuts the empty space into cuboids
+	 * @return list of these cuboids
+	 * Precondition: there need to be enough vertices for each cuboid
+	 */
+	public ArrayList <Cuboid> getCuboids()
+	{	
+		if (mCuboids == null)
 		{
-			for (int cConnect = cVertex; cConnect < getNumberOfVertices(); ++cConnect)
+			ArrayList <int[]> cuboids = new ArrayList<int[]>();
+			//condition: two points form a cuboid iff each of these points has 3 points which are connected to the other 3
+			//these two points must not be connected
+			
+			int nOfV = getNumberOfVertices();
+			//iterate through potential p1
+			for (int cVert1 = 0; cVert1 < nOfV - 1; ++cVert1)
 			{
-				if (adjMatrix.getCell(cVertex, cConnect).equals(new Integer (1)))
+				//iterate through potential p2
+				for (int cVert2 = cVert1 + 1; cVert2 < nOfV; ++cVert2)
 				{
-					Line addLine = new Line (new Glue (getVertex (cVertex)), new Glue (getVertex (cConnect)));
-					boolean include1 = true, include2 = true;
-					
-					if (!inclusionFlags[cVertex])
-						inclusionFlags[cVertex] = true;
-					else
-						include1 = false;
-					if (!inclusionFlags[cConnect])
-						inclusionFlags[cConnect] = true;
-					else
-						include2 = false;
-					addLine.setInclusion (include1, include2);
-					lines.add (addLine);
+					//is +1 correct???
+					if (getCuboid (cVert1, cVert2, cVert1 + 1, nOfV - 1, cVert1 + 1, nOfV - 1) != null)
+						cuboids.add (new int[] {cVert1, cVert2});
 				}
 			}
-				
+			mCuboids = cuboids.toArray (new int[cuboids.size()][]);
 		}
-		return lines;
-	}
-	
-	/**
-	 * @return list of the sides of the basic shape
-	 * Precondition: for each rectangle (= side) there need to be enough vertices
-	 * to form them
-	 */
-	public ArrayList <Rectangle> getRectangles()
-	{
-		ArrayList <Rectangle> rects = new ArrayList<Rectangle>();
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
-		{
-			for (int cOppoVertex = cVertex + 1; cOppoVertex < getNumberOfVertices(); ++cOppoVertex)
+		
+		ArrayList <Cuboid> cuboids = new ArrayList <Cuboid>();
+		for (int[] cuboid : mCuboids)
+			cuboids.add (new Cuboid (new Glue (getVertex (cuboid[0])), new Glue (getVertex (cuboid[1]))));
+		return cuboids;
+	}
+	
+	/**
+	 * @param indDirect point to be directly connected
+	 * @param indIndirect point to be indirectly connected
+	 * @return set of all vertices directly connected to indDirect and indirectly connected to indIndirect
+	 * !!! legacy !!!
+	 */
+	public ArrayList <Integer> findTriangleIndices (int indDirect, int indIndirect)
+	{
+		ArrayList <Integer> tPoints = new ArrayList <Integer>();
+		IntegerMatrix indirectAdjacency = getIndirectAdjacencyMatrix(indIndirect);
+		for (int cCol = 0; cCol < getNumberOfVertices(); ++cCol)
+		{
+			if (mAdjacency.isConnected (indDirect, cCol) && 
+				indirectAdjacency.getCell (indIndirect, cCol).equals(1))
+				tPoints.add (cCol);
+		}
+		return tPoints;
+	}
+	
+	/**
+	 * @param l2 line to search for intersection
+	 * @return list of intersection points, each intersection involving the line
+	 * intersecting with l2 in this object
+	 */
+	public ArrayList <Intersection> getLineIntersections (Line l2)
+	{
+		ArrayList <Intersection> intersections = new ArrayList<>();
+		int[] conns = new int[mAdjacency.getMaxDegree()];
+		
+		for (int cVert1 = 0; cVert1 < getNumberOfVertices() - 1; ++cVert1)
+		{
+			int nConns = mAdjacency.getNeighbours (cVert1, conns);
+			for (int cConn = 0; cConn < nConns; ++cConn)
 			{
-				if (adjMatrix.getCell (cVertex, cOppoVertex).equals (0))
-				{
-					int cConn = cVertex + 1, sharedConn = 0;
-					while (cConn < getNumberOfVertices() && sharedConn < 2)
-					{
-						if (adjMatrix.getCell(cVertex, cConn).equals(1) && 
-							adjMatrix.getCell(cOppoVertex, cConn).equals(1))
-							++sharedConn;
-						++cConn;
-					}
-					//@TODO dirty fix: there should be no case when #vectors != 0 if adjacency matrix is properly maintained
-					if (sharedConn == 2 && Rectangle.determineVectors (new Glue (getVertex (cVertex)), new Glue (getVertex (cOppoVertex))).size() == 2)
-						rects.add(new Rectangle (new Glue (getVertex (cVertex)), new Glue (getVertex (cOppoVertex))));
-				}
-			}
-		}
-		return rects;
-	}
-	
-	/**
-	 * cuts the empty space into cuboids
-	 * @return list of these cuboids
-	 * Precondition: there need to be enough vertices for each cuboid
-	 */
-	public ArrayList <Cuboid> getCuboids()
-	{	
-		ArrayList <Cuboid> cuboids = new ArrayList <Cuboid>();
-		//condition: two points form a cuboid iff each of these points has 3 points which are connected to the other 3
-		//these two points must not be connected
-		
-		int nOfV = getNumberOfVertices();
-		//iterate through potential p1
-		for (int cVert1 = 0; cVert1 < nOfV - 1; ++cVert1)
-		{
-			//iterate through potential p2
-			for (int cVert2 = cVert1 + 1; cVert2 < nOfV; ++cVert2)
-			{
-				//is +1 correct???
-				Cuboid cbd = getCuboid (cVert1, cVert2, cVert1 + 1, nOfV - 1, cVert1 + 1, nOfV - 1);
-				if (cbd != null)
-					cuboids.add (cbd);	
-			}
-		}
-		return cuboids;
-	}
-	
-	/**
-	 * @param indDirect point to be directly connected
-	 * @param indIndirect point to be indirectly connected
-	 * @return set of all vertices directly connected to indDirect and indirectly connected to indIndirect
-	 * !!! legacy !!!
-	 */
-	public ArrayList <Integer> findTriangleIndices (int indDirect, int indIndirect)
-	{
-		ArrayList <Integer> tPoints = new ArrayList <Integer>();
-		IntegerMatrix indirectAdjacency = getIndirectAdjacencyMatrix(indIndirect);
-		for (int cCol = 0; cCol < getNumberOfVertices(); ++cCol)
-		{
-			if (adjMatrix.getCell(indDirect, cCol).equals(1) && 
-				indirectAdjacency.getCell (indIndirect, cCol).equals(1))
-				tPoints.add (cCol);
-		}
-		return tPoints;
-	}
-	
-	/**
-	 * @param l2 line to search for intersection
-	 * @return list of intersection points, each intersection involving the line
-	 * intersecting with l2 in this object
-	 */
-	public ArrayList <Intersection> getLineIntersections (Line l2)
-	{
-		ArrayList <Intersection> intersections = new ArrayList<>();
-		
-		for (int cVert1 = 0; cVert1 < getNumberOfVertices() - 1; ++cVert1)
-		{
-			for (int cVert2 = cVert1 + 1; cVert2 < getNumberOfVertices(); ++cVert2)
-			{
-				if (adjMatrix.getCell (cVert1, cVert2).equals (1))
-				{
-					Line connection = new Line (new Glue (getVertex (cVert1)), new Glue (getVertex (cVert2)));
-					IntersectionSolver solver = new IntersectionSolver (connection, l2);
-					if (solver.getSolutionType() == IntersectionSolver.Result.ONE && solver.isWithinBounds())
-						intersections.add (new Intersection(solver.getIntersection().toIntegerMatrix(), cVert1, cVert2));
-				}
-			}
-		}
-		return intersections;
-	}
-	
-	/**
-	 * @param place basic shape to place
-	 * @param iVertex location to place place at
-	 * @return list of positions where place may be placed adjacently to vertex at iVertex
-	 */
-	public ArrayList <Position> getRelativePlacements (BasicShape place, int iVertex)
-	{
-		ArrayList <Position> places = new ArrayList<Position>();
-		places.add (new Position (getVertex (iVertex)));
-		for (RelatPos r : mPossibleConnections.get(iVertex))
-		{
-			IntegerMatrix pos = getVertex(iVertex);
-			switch (r)
-			{
-			case BACK:	pos.setCell (0, 0, pos.getCell (0, 0) - place.getDimensions(0));
-			break;
-			case FRONT:	pos.setCell (0, 0, pos.getCell (0, 0) + place.getDimensions(0));
-			break;
-			case LEFT:	pos.setCell (1, 0, pos.getCell (1, 0) - place.getDimensions(1));
-			break;
-			case RIGHT:	pos.setCell (1, 0, pos.getCell (1, 0) + place.getDimensions(1));
-			break;
-			case BELOW:	pos.setCell (2, 0, pos.getCell (2, 0) - place.getDimensions(2));
-			break;
-			case ABOVE:	pos.setCell (2, 0, pos.getCell (2, 0) + place.getDimensions(2));
-			}
-			places.add (new Position(pos));
-		}
-		return places;
-	}
-	
-	/**
-	 * @param index index to a vertex in this shape
-	 * @return free connections for vertex associated with index
-	 * @throws NonExistingVertexException if no vertex is associated with index
-	 */
-	public ArrayList <RelatPos> getFreeConnections (int index)
-	{
-		if (index < 0 || index >= getNumberOfVertices())
-			throw new NonExistingVertexException ("invalid index");
-		return (ArrayList <RelatPos>)mPossibleConnections.get (index).clone();
-	}
-	
-	/**
-	 * @param index index of point to look up connections for
-	 * @return array list containing vectors to points connected to point at index each as a clone of original
-	 */
-	public ArrayList <IntegerMatrix> lookUpConnections (int index)
-	{
-		ArrayList<IntegerMatrix> connections = new ArrayList<IntegerMatrix>();
-		for(int counter=0; counter<adjMatrix.getRows(); counter++){
-			if(adjMatrix.getCell(index,counter)!=0){
-					connections.add (vectors.get(counter).clone());
-			}
-		}
-		return connections;
-	}
-	
-	/**
-	 * @param vertex a given vertex within the container
-	 * @return hypothetically possible connections for vertex thus
-	 * excluding connections which could only exist if the connected point
-	 * was outside of the container
-	 */
-	public ArrayList <RelatPos> getHypoPossibleConnections (IntegerMatrix vertex)
-	{
-		int zInd = 0, xInd = 1, yInd = 2;
-		ArrayList <RelatPos> relats = new ArrayList<>();
-		IntegerMatrix maxPos = getMaxDimension().toVector();
-		if (!vertex.getCell (zInd, 0).equals (mGlue.getPosition(zInd)))
-			relats.add (RelatPos.BACK);
-		if (!vertex.getCell (zInd, 0).equals (maxPos.getCell (zInd, 0)))
-			relats.add (RelatPos.FRONT);
-		if (!vertex.getCell (xInd, 0).equals (mGlue.getPosition (xInd)))
-			relats.add (RelatPos.LEFT);
-		if (!vertex.getCell (xInd, 0).equals (maxPos.getCell (xInd, 0)))
-			relats.add (RelatPos.RIGHT);
-		if (!vertex.getCell (yInd, 0).equals (mGlue.getPosition (yInd)))
-			relats.add (RelatPos.BELOW);
-		if (!vertex.getCell (yInd, 0).equals (maxPos.getCell (yInd, 0)))
-			relats.add (RelatPos.ABOVE);
-		return relats;
+				int cVert2 = conns[cConn];
+				if (cVert2 > cVert1)
+				{
+					Line connection = new Line (new Glue (getVertex (cVert1)), new Glue (getVertex (cVert2)));
+					IntersectionSolver solver = new IntersectionSolver (connection, l2);
+					if (solver.getSolutionType() == IntersectionSolver.Result.ONE && solver.isWithinBounds())
+						intersections.add (new Intersection(solver.getIntersection().toIntegerMatrix(), cVert1, cVert2));
+				}
+			}
+		}
+		return intersections;
+	}
+	
+	/**
+	 * @param place basic shape to place
+	 * @param iVertex location to place place at
+	 * @return list of positions where place may be placed adjacently to vertex at iVertex
+	 */
+	public ArrayList <Position> getRelativePlacements (BasicShape place, int iVertex)
+	{
+		ArrayList <Position> places = new ArrayList<Position>();
+		places.add (new Position (getVertex (iVertex)));
+		for (RelatPos r : mPossibleConnections.get(iVertex))
+		{
+			IntegerMatrix pos = getVertex(iVertex);
+			switch (r)
+			{
+			case BACK:	pos.setCell (0, 0, pos.getCell (0, 0) - place.getDimensions(0));
+			break;
+			case FRONT:	pos.setCell (0, 0, pos.getCell (0, 0) + place.getDimensions(0));
+			break;
+			case LEFT:	pos.setCell (1, 0, pos.getCell (1, 0) - place.getDimensions(1));
+			break;
+			case RIGHT:	pos.setCell (1, 0, pos.getCell (1, 0) + place.getDimensions(1));
+			break;
+			case BELOW:	pos.setCell (2, 0, pos.getCell (2, 0) - place.getDimensions(2));
+			break;
+			case ABOVE:	pos.setCell (2, 0, pos.getCell (2, 0) + place.getDimensions(2));
+			}
+			places.add (new Position(pos));
+		}
+		return places;
+	}
+	
+	/**
+	 * @param index index to a vertex in this shape
+	 * @return free connections for vertex associated with index
+	 * @throws NonExistingVertexException if no vertex is associated with index
+	 */
+	public ArrayList <RelatPos> getFreeConnections (int index)
+	{
+		if (index < 0 || index >= getNumberOfVertices())
+			throw new NonExistingVertexException ("invalid index");
+		return (ArrayList <RelatPos>)mPossibleConnections.get (index).clone();
+	}
+	
+	/**
+	 * @param index index to a vertex in this shape
+	 * @return number of free connections for vertex associated with index, without copying them
+	 * @throws NonExistingVertexException if no vertex is associated with index
+	 */
+	public int getNumberOfFreeConnections (int index)
+	{
+		if (index < 0 || index >= getNumberOfVertices())
+			throw new NonExistingVertexException ("invalid index");
+		return mPossibleConnections.get (index).size();
+	}
+	
+	/**
+	 * @param index index to a vertex in this shape
+	 * @param dir relative position
+	 * @return true if dir is a free connection for vertex associated with index
+	 * @throws NonExistingVertexException if no vertex is associated with index
+	 */
+	public boolean hasFreeConnection (int index, RelatPos dir)
+	{
+		if (index < 0 || index >= getNumberOfVertices())
+			throw new NonExistingVertexException ("invalid index");
+		return mPossibleConnections.get (index).contains (dir);
+	}
+	
+	/**
+	 * @param index index of point to look up connections for
+	 * @return array list containing vectors to points connected to point at index each as a clone of original
+	 */
+	public ArrayList <IntegerMatrix> lookUpConnections (int index)
+	{
+		int[] conns = new int[mAdjacency.getDegree (index)];
+		mAdjacency.getNeighbours (index, conns);
+		ArrayList<IntegerMatrix> connections = new ArrayList<IntegerMatrix>(conns.length);
+		for (int conn : conns)
+			connections.add (vectors.get(conn).clone());
+		return connections;
+	}
+	
+	/**
+	 * @param vertex a given vertex within the container
+	 * @return hypothetically possible connections for vertex thus
+	 * excluding connections which could only exist if the connected point
+	 * was outside of the container
+	 */
+	public ArrayList <RelatPos> getHypoPossibleConnections (IntegerMatrix vertex)
+	{
+		int zInd = 0, xInd = 1, yInd = 2;
+		ArrayList <RelatPos> relats = new ArrayList<>();
+		IntegerMatrix maxPos = getMaxDimension().toVector();
+		if (!vertex.getCell (zInd, 0).equals (mGlue.getPosition(zInd)))
+			relats.add (RelatPos.BACK);
+		if (!vertex.getCell (zInd, 0).equals (maxPos.getCell (zInd, 0)))
+			relats.add (RelatPos.FRONT);
+		if (!vertex.getCell (xInd, 0).equals (mGlue.getPosition (xInd)))
+			relats.add (RelatPos.LEFT);
+		if (!vertex.getCell (xInd, 0).equals (maxPos.getCell (xInd, 0)))
+			relats.add (RelatPos.RIGHT);
+		if (!vertex.getCell (yInd, 0).equals (mGlue.getPosition (yInd)))
+			relats.add (RelatPos.BELOW);
+		if (!vertex.getCell (yInd, 0).equals (maxPos.getCell (yInd, 0)))
+			relats.add (RelatPos.ABOVE);
+		return relats;
 	}
 	
 	/**
@@ -608,78 +672,75 @@ public class BasicShape
 		for (int cDim = 0; cDim < mGlue.getDimension(); ++cDim)
 			dims.add (this.getDimensions (cDim));
 		return dims;
-	}
-	
-	/**
-	 * @param index index of vertex to search for common connections
-	 * @return square matrix containing a 1 for every other vertex that is a shared connection
-	 */
-	public IntegerMatrix getIndirectAdjacencyMatrix (int index)
-	{
-		IntegerMatrix indirectAdj = new IntegerMatrix (vectors.size(), vectors.size());
-		for (int cRow = 0; cRow < indirectAdj.getRows(); ++cRow)
-		{
-			for (int cCol = 0; cCol < indirectAdj.getColumns(); ++cCol)
-			{
-				if (cRow != index && adjMatrix.getCell(cRow, cCol).equals(1) && 
-					adjMatrix.getCell(index, cCol).equals(1))
-					indirectAdj.setCell(cRow, cCol, 1);
-			}
-		}
-		return indirectAdj;
-	}
-	
-	/**
-	 * @param indP1 index of first vertex
-	 * @param indP2 index of second vertex
-	 * @param minP1Conn offset index of indP1's connections (inclusive)
+	}
+	
+	/**
+	 * @param index index of vertex to search for common connections
+	 * @return square matrix containing a 1 for every other vertex that is a shared connection
+	 */
+	public IntegerMatrix getIndirectAdjacencyMatrix (int index)
+	{
+		IntegerMatrix indirectAdj = new IntegerMatrix (vectors.size(), vectors.size());
+		for (int cRow = 0; cRow < indirectAdj.getRows(); ++cRow)
+		{
+			for (int cCol = 0; cCol < indirectAdj.getColumns(); ++cCol)
+			{
+				if (cRow != index && mAdjacency.isConnected (cRow, cCol) && 
+					mAdjacency.isConnected (index, cCol))
+					indirectAdj.setCell(cRow, cCol, 1);
+			}
+		}
+		return indirectAdj;
+	}
+	
+	/**
+	 * @param indP1 index of first vertex
+	 * @param indP2 index of second vertex
+	 * @param minP1Conn offset index of indP1's connections (inclusive)
 	 * @param maxP1Conn max. index of indP1's connections (inclusive)
 	 * @param minP2Conn offset index of indP2's connections (inclusive)
-	 * @param maxP2Conn max. index of indP2's connections (inclusive)
-	 * @return a cuboid contained in this shape where the first and the second vertex are
-	 * diagonally opposite to each other, if such a cuboid exists. Otherwise this method
-	 * returns null
-	 */
-	public Cuboid getCuboid (int indP1, int indP2, int minP1Conn, int maxP1Conn, int minP2Conn, int maxP2Conn)
-	{
-		int connConnReq = 6;
-		//if p1, p2 are disconnected
-		if (adjMatrix.getCell (indP1, indP2).equals(0) && indP1 != indP2)
-		{
-			int cConnConnections = 0;
-			int cConn1 = minP1Conn;
-			//iterate through all connections of p1 starting at given offset
-			while (cConn1 <= maxP1Conn && cConnConnections < connConnReq)
-			{
-				if (adjMatrix.getCell (indP1, cConn1).equals (1))
-				{
-					int cConn2 = minP2Conn;
-					int connConnFound = 0, connConnPerConn = 2;
-					//iterate through all connections of p2 starting at given offset
-					//until connections of connections is found
-					while (cConn2 <= maxP2Conn && connConnFound < connConnPerConn)
+	 * @param maxP2Conn max. index of indP2's connections (inclusive)
+	 * @return a cuboid contained in this shape where the first and the second vertex are
+	 * diagonally opposite to each other, if such a cuboid exists. Otherwise this method
+	 * returns null
+	 */
+	public Cuboid getCuboid (int indP1, int indP2, int minP1Conn, int maxP1Conn, int minP2Conn, int maxP2Conn)
+	{
+		int connConnReq = 6;
+		//if p1, p2 are disconnected
+		if (!mAdjacency.isConnected (indP1, indP2) && indP1 != indP2)
+		{
+			int cConnConnections = 0;
+			int[] conns1 = new int[mAdjacency.getMaxDegree()], conns2 = new int[mAdjacency.getMaxDegree()];
+			int nConns1 = mAdjacency.getNeighbours (indP1, conns1), nConns2 = mAdjacency.getNeighbours (indP2, conns2);
+			//iterate through all connections of p1 starting at given offset
+			for (int cIndex1 = 0; cIndex1 < nConns1; ++cIndex1)
+			{
+				int cConn1 = conns1[cIndex1];
+				if (cConn1 < minP1Conn || cConn1 > maxP1Conn || cConnConnections >= connConnReq)
+					continue;
+				int connConnFound = 0, connConnPerConn = 2;
+				//iterate through all connections of p2 starting at given offset
+				//until connections of connections is found
+				for (int cIndex2 = 0; cIndex2 < nConns2; ++cIndex2)
+				{
+					int cConn2 = conns2[cIndex2];
+					if (cConn2 >= minP2Conn && cConn2 <= maxP2Conn && connConnFound < connConnPerConn &&
+						mAdjacency.isConnected (cConn1, cConn2))
 					{
-						
-						if (adjMatrix.getCell (indP2, cConn2).equals (1) &&
-							adjMatrix.getCell (cConn1, cConn2).equals (1))
-						{
-							//System.out.println ("mutual connection of connections " + new Glue (getVertex (cConn1)) + " to " + new Glue (getVertex (cConn2)));
-							++cConnConnections;
-							++connConnFound;
-						}
-						++cConn2;
-					}
-				}
-				++cConn1;
-			}
-			if (cConnConnections >= connConnReq)
-			{
-				Glue p1 = new Glue (getVertex (indP1));
-				Glue p2 = new Glue (getVertex (indP2));
-				return new Cuboid (p1, p2);
-			}
-		}
-		return null;
+						++cConnConnections;
+						++connConnFound;
+					}
+				}
+			}
+			if (cConnConnections >= connConnReq)
+			{
+				Glue p1 = new Glue (getVertex (indP1));
+				Glue p2 = new Glue (getVertex (indP2));
+				return new Cuboid (p1, p2);
+			}
+		}
+		return null;
 	}
 	
 	/**
@@ -692,194 +753,249 @@ public class BasicShape
 	 */
 	public Rectangle getRectangle (int nVertex, int nOppoVertex, int nMinConnection)
 	{
-		if (adjMatrix.getCell (nVertex, nOppoVertex).equals (0) && nVertex != nOppoVertex)
+		if (!mAdjacency.isConnected (nVertex, nOppoVertex) && nVertex != nOppoVertex)
 		{
-			int cConn = nMinConnection + 1, sharedConn = 0;
-			while (cConn < getNumberOfVertices() && sharedConn < 2)
+			int sharedConn = 0;
+			int[] conns = new int[mAdjacency.getMaxDegree()];
+			int nConns = mAdjacency.getNeighbours (nVertex, conns);
+			for (int cIndex = 0; cIndex < nConns; ++cIndex)
 			{
-				if (adjMatrix.getCell(nVertex, cConn).equals(1) && 
-					adjMatrix.getCell(nOppoVertex, cConn).equals(1))
+				if (conns[cIndex] > nMinConnection && mAdjacency.isConnected (nOppoVertex, conns[cIndex]))
 					++sharedConn;
-				++cConn;
 			}
-			if (sharedConn == 2)
+			if (sharedConn >= 2)
 				return new Rectangle (new Glue (getVertex (nVertex)), new Glue (getVertex (nOppoVertex)));
 		}
 		return null;
-	}
-	
-	/**
-	 * @param lineStart start point of line
-	 * @param dir direction of line
-	 * @return line from lineStart to end point touching side of range of this shape in dir
-	 * or null if such an end point not equal to lineStart would be outside of the range
-	 */
-	public Line getLineToBorder (Glue lineStart, RelatPos dir)
-	{
-		Glue maxPos = getMaxDimension();
-		IntegerMatrix lineEnd = getRelativePosVector(dir, lineStart.getDimension());
-		for (int cDim = 0; cDim < lineStart.getDimension(); ++cDim)
-		{
-			int dirCoord = lineEnd.getCell (cDim, 0);
-			if (dirCoord != 0)
-			{
-				int border = (dirCoord >= 0 ? maxPos.getPosition (cDim) : mGlue.getPosition(cDim));
-				//check whether distance to border is not 0 if direction is not zero
-				if (border == lineStart.getPosition (cDim))
-					return null;
-				lineEnd.setCell (cDim, 0, border);
-			}
-			else
-				lineEnd.setCell (cDim, 0, lineStart.getPosition (cDim));
-		}
-		return new Line (lineStart, new Glue (lineEnd));
-	}
-	
-	/**
-	 * @param index index of vertex
-	 * @return vertex at index translated by glued offset
-	 */
-	public IntegerMatrix getVertex (int index)
-	{
-		return vectors.get(index).clone();
-	}
-	
-	/**
-	 * @return the point within the container having the
-	 * largest coordinate values
-     */
-	public Glue getMaxDimension () 
-	{
-		return mMax;
-	}
-	
-	/**
-	 * @return position where shape is glued at
-	 */
-	public Glue getGlue()
-	{
-		return mGlue;
-	}
-	
-	/**
-	 * @return the volume of the basic shape
-	 */
-	public int getVolume()
-	{
-		if (mVolume < 0)
-		{
-			mVolume = 0;
-			BasicShape cut = new BasicShape (this);
-			cut.addMissingRectanglePoints();
-			ArrayList <Cuboid> cubes = cut.getCuboids();
-			for (Cuboid cube : cubes)
-			{
-				ArrayList <Integer> dims = cube.getDimensions();
-				int vol = 1;
-				for (int dim : dims)
-					vol *= dim;
-				mVolume += vol;
-			}
-		}
-		return mVolume;
-	}
-	
-	/** calculates the maximum vector value
-	* @param vector ArrayList containing all the vectors
-	* @param index The index of the vector in the Matrix Handler
-	* @return the maximum value.
-	*/
-	public int maximum(ArrayList <IntegerMatrix> vectors, int index){
-
-		int max = Integer.MIN_VALUE;
-    	for(Matrix<Integer> temp : vectors){
-       		if(temp.getCell (index, 0) > max){
-          		  max = temp.getCell (index, 0);
-       		}
-   		}
-    	return max;
-
-	}
-	/** calculates the minimum vector value
-	* @param vector ArrayList containing all the vectors
-	* @param index The index of the vector in the Matrix Handler
-	* @return the minimum value.
-	*/
-	public int minimum(ArrayList<IntegerMatrix> vectors, int index){
-
-		int min = Integer.MAX_VALUE;
-    	for(Matrix<Integer> temp: vectors){
-       		if(temp.getCell (index, 0) < min){
-          		  min= temp.getCell (index, 0);
-       		}
-   		}
-    	return min;
-	}
-	
-	/** compares that all the Matrix Handlers have the same number of rows
-	* @param vectors ArrayList containing all the vectors
-	* @return false if one Matrix Handler doesn't have the same number of rows
-	*/
-	public boolean numberOfMH(ArrayList<IntegerMatrix> vectors){
-
-		int numberOfRows=vectors.get(0).getRows();
-		for(Matrix<Integer> temp: vectors){
-			if(temp.getRows() != numberOfRows)
-				return false;
-		}
-		return true;
-	}
-	
-	/**
-	 * @param vectors set of vectors
-	 * @return true if all vectors have the same number of rows
-	 */
-	public boolean numberOfCols(ArrayList<IntegerMatrix> vectors){
-
-		int numberOfCols = 0;
-		for(Matrix<Integer> temp: vectors){
-			if (numberOfCols == 0)
-				numberOfCols = temp.getColumns();
-			else if(temp.getColumns() != numberOfCols)
-				return false;
-		}
-		return true;
-	}
-	
-	/** @return the dimensions of a shape given an index.
-	 */
-	public int getDimensions(int index){
-
-		return dimensions.get(index);
-	}
-	
-	/**
-	 * @return number of vertices defining the shape
-	 */
-	public int getNumberOfVertices()
-	{
-		return vectors.size();
-	}
-	
-	/**
-	 * @param vertex vertex to search index for
-	 * @return index of vertex or vectors.size() if vertex was not found
-	 */
-	public int getVertexIndex (IntegerMatrix vertex)
-	{
-		for (int cVertex = 0; cVertex < vectors.size(); ++cVertex)
-		{
-			if (vectors.get(cVertex).equals(vertex))
-				return cVertex;
-		}
-		return vectors.size();
-	}
-	
+	}
+	
+	/**
+	 * @param lineStart start point of line
+	 * @param dir direction of line
+	 * @return line from lineStart to end point touching side of range of this shape in dir
+	 * or null if such an end point not equal to lineStart would be outside of the range
+	 */
+	public Line getLineToBorder (Glue lineStart, RelatPos dir)
+	{
+		Glue maxPos = getMaxDimension();
+		IntegerMatrix lineEnd = getRelativePosVector(dir, lineStart.getDimension());
+		for (int cDim = 0; cDim < lineStart.getDimension(); ++cDim)
+		{
+			int dirCoord = lineEnd.getCell (cDim, 0);
+			if (dirCoord != 0)
+			{
+				int border = (dirCoord >= 0 ? maxPos.getPosition (cDim) : mGlue.getPosition(cDim));
+				//check whether distance to border is not 0 if direction is not zero
+				if (border == lineStart.getPosition (cDim))
+					return null;
+				lineEnd.setCell (cDim, 0, border);
+			}
+			else
+				lineEnd.setCell (cDim, 0, lineStart.getPosition (cDim));
+		}
+		return new Line (lineStart, new Glue (lineEnd));
+	}
+	
+	/**
+	 * @param index index of vertex
+	 * @return vertex at index translated by glued offset
+	 */
+	public IntegerMatrix getVertex (int index)
+	{
+		return vectors.get(index).clone();
+	}
+	
+	/**
+	 * @return the point within the container having the
+	 * largest coordinate values
+     */
+	public Glue getMaxDimension () 
+	{
+		return mMax;
+	}
+	
+	/**
+	 * @return position where shape is glued at
+	 */
+	public Glue getGlue()
+	{
+		return mGlue;
+	}
+	
+	/**
+	 * @return the volume of the basic shape
+	 */
+	public int getVolume()
+	{
+		if (mVolume < 0)
+		{
+			mVolume = 0;
+			BasicShape cut = new BasicShape (this);
+			cut.addMissingRectanglePoints();
+			ArrayList <Cuboid> cubes = cut.getCuboids();
+			for (Cuboid cube : cubes)
+			{
+				ArrayList <Integer> dims = cube.getDimensions();
+				int vol = 1;
+				for (int dim : dims)
+					vol *= dim;
+				mVolume += vol;
+			}
+		}
+		return mVolume;
+	}
+	
+	/**
+	 * @return unit cells occupied by this shape as packed triples (depth, width, height)
+	 * relative to the glue position. The array is shared between clones and must not be altered
+	 */
+	public int[] getCells()
+	{
+		if (mCells == null)
+		{
+			int d = getDimensions (0), w = getDimensions (1), h = getDimensions (2);
+			boolean[] inside = new boolean[d * w * h];
+			int cntInside = 0;
+			BasicShape cut = new BasicShape (this);
+			cut.addMissingRectanglePoints();
+			for (Cuboid cube : cut.getCuboids())
+			{
+				IntegerMatrix first = cube.getFirst(), second = cube.getSecond();
+				int[] min = new int[3], max = new int[3];
+				for (int cDim = 0; cDim < 3; ++cDim)
+				{
+					min[cDim] = Math.min (first.getCell (cDim, 0), second.getCell (cDim, 0)) - mGlue.getPosition (cDim);
+					max[cDim] = Math.max (first.getCell (cDim, 0), second.getCell (cDim, 0)) - mGlue.getPosition (cDim);
+				}
+				for (int cX = min[0]; cX < max[0]; ++cX)
+				{
+					for (int cY = min[1]; cY < max[1]; ++cY)
+					{
+						for (int cZ = min[2]; cZ < max[2]; ++cZ)
+						{
+							int index = (cX * w + cY) * h + cZ;
+							if (!inside[index])
+							{
+								inside[index] = true;
+								++cntInside;
+							}
+						}
+					}
+				}
+			}
+			
+			int[] cells = new int[3 * cntInside];
+			int cCell = 0;
+			for (int cIndex = 0; cIndex < inside.length; ++cIndex)
+			{
+				if (inside[cIndex])
+				{
+					cells[cCell++] = cIndex / (w * h);
+					cells[cCell++] = (cIndex / h) % w;
+					cells[cCell++] = cIndex % h;
+				}
+			}
+			mCells = cells;
+		}
+		return mCells;
+	}
+	
+	/** calculates the maximum vector value
+	* @param vector ArrayList containing all the vectors
+	* @param index The index of the vector in the Matrix Handler
+	* @return the maximum value.
+	*/
+	public int maximum(ArrayList <IntegerMatrix> vectors, int index){
+
+		int max = Integer.MIN_VALUE;
+    	for(Matrix<Integer> temp : vectors){
+       		if(temp.getCell (index, 0) > max){
+          		  max = temp.getCell (index, 0);
+       		}
+   		}
+    	return max;
+
+	}
+	/** calculates the minimum vector value
+	* @param vector ArrayList containing all the vectors
+	* @param index The index of the vector in the Matrix Handler
+	* @return the minimum value.
+	*/
+	public int minimum(ArrayList<IntegerMatrix> vectors, int index){
+
+		int min = Integer.MAX_VALUE;
+    	for(Matrix<Integer> temp: vectors){
+       		if(temp.getCell (index, 0) < min){
+          		  min= temp.getCell (index, 0);
+       		}
+   		}
+    	return min;
+	}
+	
+	/** compares that all the Matrix Handlers have the same number of rows
+	* @param vectors ArrayList containing all the vectors
+	* @return false if one Matrix Handler doesn't have the same number of rows
+	*/
+	public boolean numberOfMH(ArrayList<IntegerMatrix> vectors){
+
+		int numberOfRows=vectors.get(0).getRows();
+		for(Matrix<Integer> temp: vectors){
+			if(temp.getRows() != numberOfRows)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param vectors set of vectors
+	 * @return true if all vectors have the same number of rows
+	 */
+	public boolean numberOfCols(ArrayList<IntegerMatrix> vectors){
+
+		int numberOfCols = 0;
+		for(Matrix<Integer> temp: vectors){
+			if (numberOfCols == 0)
+				numberOfCols = temp.getColumns();
+			else if(temp.getColumns() != numberOfCols)
+				return false;
+		}
+		return true;
+	}
+	
+	/** @return the dimensions of a shape given an index.
+	 */
+	public int getDimensions(int index){
+
+		return dimensions.get(index);
+	}
+	
+	/**
+	 * @return number of vertices defining the shape
+	 */
+	public int getNumberOfVertices()
+	{
+		return vectors.size();
+	}
+	
+	/**
+	 * @param vertex vertex to search index for
+	 * @return index of vertex or vectors.size() if vertex was not found
+	 */
+	public int getVertexIndex (IntegerMatrix vertex)
+	{
+		for (int cVertex = 0; cVertex < vectors.size(); ++cVertex)
+		{
+			if (vectors.get(cVertex).equals(vertex))
+				return cVertex;
+		}
+		return vectors.size();
+	}
+	
 	/**
 	 * @param cmp basic shape to compare this to
 	 * @return true if volume, glue, adjacency matrix and vertices are equal
-	 */
-	public boolean equals (Object cmp)
+	 */
+	public boolean equals (Object cmp)
 	{
 		BasicShape comp = (BasicShape) cmp;
 		if (this.mVolume != comp.mVolume)
@@ -888,7 +1004,7 @@ public class BasicShape
 			return false;
 		if (!this.mGlue.equals (comp.mGlue))
 			return false;
-		if (!this.adjMatrix.equals (comp.adjMatrix))
+		if (!this.mAdjacency.equals (comp.mAdjacency))
 			return false;
 		
 		for (int cDim = 0; cDim < getGlue().getDimension(); ++cDim)
@@ -901,37 +1017,37 @@ public class BasicShape
 		{
 			if (!this.getVertex (cVec).equals (comp.getVertex (cVec)))
 				return false;
-		}
-			
-		return true;
-	}
-	
-	/**
-	 * @param vec1 a vertex
-	 * @param vec2 another vertex
-	 * @return true if vec1 and vec2 are connected, false otherwise
-	 * @throws NonExistingVertexException if vec1 or vec2 are not vertices of this object
-	 */
-	public boolean isConnected (IntegerMatrix vec1, IntegerMatrix vec2)
-	{
-		int ind1 = getVertexIndex (vec1);
-		int ind2 = getVertexIndex (vec2);
-		if (ind1 == getNumberOfVertices() || ind2 == getNumberOfVertices())
-			throw new NonExistingVertexException ("given vertices do not exist");
-		return (adjMatrix.getCell(ind1, ind2).equals (1));
-	}
-	
-	/**
-	 * @param ind1 a 0-based index referring to a vertex
-	 * @param ind2 another 0-based index referring to a vertex
-	 * @return true if referenced vertices are connected
-	 */
-	public boolean isConnected (int ind1, int ind2)
-	{
-		if (ind1 < 0 || ind1 >= adjMatrix.getRows() ||
-			ind2 < 0 || ind2 >= adjMatrix.getRows())
-			throw new NonExistingVertexException ("there are no vertices with corresponding indices");
-		return (adjMatrix.getCell (ind1, ind2).equals (1));
+		}
+			
+		return true;
+	}
+	
+	/**
+	 * @param vec1 a vertex
+	 * @param vec2 another vertex
+	 * @return true if vec1 and vec2 are connected, false otherwise
+	 * @throws NonExistingVertexException if vec1 or vec2 are not vertices of this object
+	 */
+	public boolean isConnected (IntegerMatrix vec1, IntegerMatrix vec2)
+	{
+		int ind1 = getVertexIndex (vec1);
+		int ind2 = getVertexIndex (vec2);
+		if (ind1 == getNumberOfVertices() || ind2 == getNumberOfVertices())
+			throw new NonExistingVertexException ("given vertices do not exist");
+		return mAdjacency.isConnected (ind1, ind2);
+	}
+	
+	/**
+	 * @param ind1 a 0-based index referring to a vertex
+	 * @param ind2 another 0-based index referring to a vertex
+	 * @return true if referenced vertices are connected
+	 */
+	public boolean isConnected (int ind1, int ind2)
+	{
+		if (ind1 < 0 || ind1 >= mAdjacency.getVertices() ||
+			ind2 < 0 || ind2 >= mAdjacency.getVertices())
+			throw new NonExistingVertexException ("there are no vertices with corresponding indices");
+		return mAdjacency.isConnected (ind1, ind2);
 	}
 	
 	/**
@@ -962,49 +1078,49 @@ public class BasicShape
 			}
 		}
 		return false;
-	}
-	
-	/**
-	 * @param b a given basic shape in the same space as this shape
-	 * @return true if b is within this
-	 */
-	public boolean isWithin (BasicShape b)
-	{
-		//check whether range of this encompasses b's range
-		Glue bOffs = b.getGlue(), bMax = b.getMaxDimension();
-		Glue tOffs = this.getGlue(), tMax = this.getMaxDimension();
-		for (int cDim = 0; cDim < tOffs.getDimension(); ++cDim)
-		{
-			if (bOffs.getPosition (cDim) < tOffs.getPosition (cDim) ||
-				bMax.getPosition (cDim) > tMax.getPosition (cDim))
-				return false;
+	}
+	
+	/**
+	 * @param b a given basic shape in the same space as this shape
+	 * @return true if b is within this
+	 */
+	public boolean isWithin (BasicShape b)
+	{
+		//check whether range of this encompasses b's range
+		Glue bOffs = b.getGlue(), bMax = b.getMaxDimension();
+		Glue tOffs = this.getGlue(), tMax = this.getMaxDimension();
+		for (int cDim = 0; cDim < tOffs.getDimension(); ++cDim)
+		{
+			if (bOffs.getPosition (cDim) < tOffs.getPosition (cDim) ||
+				bMax.getPosition (cDim) > tMax.getPosition (cDim))
+				return false;
 		}
 		
 		BasicShape dissected = new BasicShape (this);
-		dissected.addMissingRectanglePoints();
-		//do check for every vertex of b
-		for (int cVert = 0; cVert < b.getNumberOfVertices(); ++cVert)
-		{
-			if (!dissected.isWithin (new Glue (b.getVertex (cVert))))
-				return false;
-		}
-		return true;
-	}
-	
-	/**
-	 * @param p a given point in the same space as shape
+		dissected.addMissingRectanglePoints();
+		//do check for every vertex of b
+		for (int cVert = 0; cVert < b.getNumberOfVertices(); ++cVert)
+		{
+			if (!dissected.isWithin (new Glue (b.getVertex (cVert))))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param p a given point in the same space as shape
 	 * @return true if p is within this shape. 
 	 * Precondition: this shape needs to have enough vertices and connections
-	 * such that it can be considered as a set of cuboids.
-	 */
-	public boolean isWithin (Glue p)
+	 * such that it can be considered as a set of cuboids.
+	 */
+	public boolean isWithin (Glue p)
 	{
 		//use ray casting algorithm
 		IntegerMatrix outVec = mGlue.toVector();
 		outVec.setCell (0, 0, outVec.getCell (0, 0) - 1);
 		outVec.setCell (1, 0, outVec.getCell (1, 0) - 1);
 		outVec.setCell (2, 0, outVec.getCell (2, 0) - 1);
-		Line ray = new Line (new Glue (outVec), p);
+		Line ray = new Line (new Glue (outVec), p);
 		int inters = 0;
 		
 		ArrayList<GeoShape> linesAndSides = new ArrayList<>();
@@ -1014,48 +1130,48 @@ public class BasicShape
 			side.setInclusion (false, false);
 			linesAndSides.add (side);
 		}
-		
-		for (GeoShape g : linesAndSides)
-		{	
-			IntersectionSolver solver = new IntersectionSolver (ray, g);
-			if (solver.getSolutionType() == IntersectionSolver.Result.ONE && solver.isWithinBounds())
-				++inters;
-		}
-		
- 		return (inters % 2 == 1);
-	}
-	
-	/** Calculates the dimensions of a shape
-	** @param vectors ArrayList containing all the vectors
-	*/
+		
+		for (GeoShape g : linesAndSides)
+		{	
+			IntersectionSolver solver = new IntersectionSolver (ray, g);
+			if (solver.getSolutionType() == IntersectionSolver.Result.ONE && solver.isWithinBounds())
+				++inters;
+		}
+		
+ 		return (inters % 2 == 1);
+	}
+	
+	/** Calculates the dimensions of a shape
+	** @param vectors ArrayList containing all the vectors
+	*/
 	public void calcDim(ArrayList<IntegerMatrix> vectors) throws BadNumberOfRowsException
-	{
-		
-		if (!numberOfMH(vectors)) 
-			throw new BadNumberOfRowsException ("vectors don't have the same dimension");
+	{
+		
+		if (!numberOfMH(vectors)) 
+			throw new BadNumberOfRowsException ("vectors don't have the same dimension");
 		
-		dimensions.clear();
+		dimensions.clear();
 		for(int i=0; i<vectors.get(0).getRows(); i++)
-		{
-
-			int max = maximum (vectors,i);
-			int min = minimum (vectors,i);
-			dimensions.add(max-min);
-
-		}
-	}
-	
-	
-	/**
-	 * inserts new vertices into the shape such that it consists of
-	 * multiple adjacent cuboids
-	 * whenever a vertex has a free connection a new vertex will be inserted if 
-	 * a line from the first vertex intersects in one point with an existing line.
-	 * the intersection will be the new vertex
-	 * new vertices will be added at the end of the list of vertices thus having
-	 * higher number indices compared to the 'old' vertices
-	 */
-	public void addMissingRectanglePoints()
+		{
+
+			int max = maximum (vectors,i);
+			int min = minimum (vectors,i);
+			dimensions.add(max-min);
+
+		}
+	}
+	
+	
+	/**
+	 * inserts new vertices into the shape such that it consists of
+	 * multiple adjacent cuboids
+	 * whenever a vertex has a free connection a new vertex will be inserted if 
+	 * a line from the first vertex intersects in one point with an existing line.
+	 * the intersection will be the new vertex
+	 * new vertices will be added at the end of the list of vertices thus having
+	 * higher number indices compared to the 'old' vertices
+	 */
+	public void addMissingRectanglePoints()
 	{
 		
 		//store sides
@@ -1127,7 +1243,7 @@ public class BasicShape
 			LinkedList<Glue> vertices = new LinkedList<>();
 			for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
 			{
-				if (getFreeConnections (cVertex).size() > 0)
+				if (getNumberOfFreeConnections (cVertex) > 0)
 					vertices.add (new Glue (getVertex (cVertex)));
 			}
 			
@@ -1505,43 +1621,43 @@ public class BasicShape
 		*/
 		
 		
-		/*
-		//compute min and max point of cuboid encompassing entire shape
-		IntegerMatrix outerMax = new IntegerMatrix (mGlue.getDimension(), 1);	
-		for (int cDim = 0; cDim < mGlue.getDimension(); ++cDim)
-			outerMax.setCell(cDim, 0, mGlue.getPosition(cDim) + getDimensions(cDim));
-		
-		//get well defined sides S
-		LinkedList <Rectangle> sides = new LinkedList <> (getRectangles());
-		int cSides = 0;
-		//for each side s in S
-		while (cSides < sides.size())
-		{
-			//check: does it return first not second element?
-			Rectangle r = sides.get (cSides);
-			//for all vertices v
-			int cVertex = 0;
-			boolean foundFreeConnInter = false;
-			while (cVertex < getNumberOfVertices() && !foundFreeConnInter)
-			{
-				Glue vertex = new Glue (getVertex (cVertex));
-				//for all free connections c of v
-				int cFree = 0;
-				ArrayList <RelatPos> freeConns = getFreeConnections (cVertex);
-				while (cFree < freeConns.size() && !foundFreeConnInter)
-				{
-					RelatPos free = freeConns.get (cFree);
-					//if line from v in direction c intersects s:
-					Line dirLine = getLineToBorder (vertex, free);
-					if (dirLine != null)
-					{
-						dirLine.setInclusion (false, true);
-						IntersectionSolver solInter = new IntersectionSolver (dirLine, r);
-						if (solInter.getSolutionType() == IntersectionSolver.Result.ONE &&
-							solInter.isWithinBounds())
-						{
-							
-							Glue inter = solInter.getIntersection();
+		/*
+		//compute min and max point of cuboid encompassing entire shape
+		IntegerMatrix outerMax = new IntegerMatrix (mGlue.getDimension(), 1);	
+		for (int cDim = 0; cDim < mGlue.getDimension(); ++cDim)
+			outerMax.setCell(cDim, 0, mGlue.getPosition(cDim) + getDimensions(cDim));
+		
+		//get well defined sides S
+		LinkedList <Rectangle> sides = new LinkedList <> (getRectangles());
+		int cSides = 0;
+		//for each side s in S
+		while (cSides < sides.size())
+		{
+			//check: does it return first not second element?
+			Rectangle r = sides.get (cSides);
+			//for all vertices v
+			int cVertex = 0;
+			boolean foundFreeConnInter = false;
+			while (cVertex < getNumberOfVertices() && !foundFreeConnInter)
+			{
+				Glue vertex = new Glue (getVertex (cVertex));
+				//for all free connections c of v
+				int cFree = 0;
+				ArrayList <RelatPos> freeConns = getFreeConnections (cVertex);
+				while (cFree < freeConns.size() && !foundFreeConnInter)
+				{
+					RelatPos free = freeConns.get (cFree);
+					//if line from v in direction c intersects s:
+					Line dirLine = getLineToBorder (vertex, free);
+					if (dirLine != null)
+					{
+						dirLine.setInclusion (false, true);
+						IntersectionSolver solInter = new IntersectionSolver (dirLine, r);
+						if (solInter.getSolutionType() == IntersectionSolver.Result.ONE &&
+							solInter.isWithinBounds())
+						{
+							
+							Glue inter = solInter.getIntersection();
 							//if there is a split
 							if (!r.isVertex (inter))
 							{
@@ -1622,7 +1738,7 @@ public class BasicShape
 								int indInters = getVertexIndex (inter.toVector());
 								//if intersection has opposite free connection available
 								//applies if intersection already existed
-								if (getFreeConnections (indInters).contains (getOpposite (free)))
+								if (hasFreeConnection (indInters, getOpposite (free)))
 									modifyConnection (cVertex, indInters, true);
 								//if new intersection is between existing connection points one of which is the "intersection"
 								else
@@ -1644,52 +1760,84 @@ public class BasicShape
 										modifyConnection (indInters, cVertex, true);
 									}
 								}
-							}
-						}
-					}
-					++cFree;
-				}
-				++cVertex;
-			}
-			++cSides;
+							}
+						}
+					}
+					++cFree;
+				}
+				++cVertex;
+			}
+			++cSides;
 		}
-		*/
-	}
-	
-	/** Performs actual rotation
-	 * @param rotMatrix created from rotationMatrix()
-	 * @return matrix after rotation
-	 */
-	public void rotate (Matrix<Double> rotMatrix){
-
+		*/
+	}
+	
+	/** Performs actual rotation
+	 * axis aligned rotations are applied exactly using integer arithmetic
+	 * @param rotMatrix created from rotationMatrix()
+	 * @return matrix after rotation
+	 */
+	public void rotate (Matrix<Double> rotMatrix){
+
+		Orientation o = Orientation.fromMatrix (rotMatrix);
+		if (o != null)
+		{
+			rotate (o);
+			return;
+		}
+		PrimitiveMatrix.DoubleMatrix rot = PrimitiveMatrix.DoubleMatrix.fromMatrix (rotMatrix);
+		PrimitiveMatrix.DoubleMatrix vec = new PrimitiveMatrix.DoubleMatrix (3, 1);
+		PrimitiveMatrix.DoubleMatrix result = new PrimitiveMatrix.DoubleMatrix (3, 1);
 		for(int cCounter=0; cCounter<vectors.size();cCounter++)
-		{
-			Matrix.DoubleMatrix result = new Matrix.DoubleMatrix (3,1);
-			Matrix.DoubleMatrix vec = vectors.get(cCounter).toDoubleMatrix();
-			rotMatrix.multiply (vec, result);
-			vectors.set (cCounter, result.toIntegerMatrix());
+		{
+			IntegerMatrix vert = vectors.get (cCounter);
+			for (int cRow = 0; cRow < 3; ++cRow)
+				vec.setCell (cRow, 0, vert.getCell (cRow, 0));
+			rot.multiply (vec, result);
+			IntegerMatrix rotated = new IntegerMatrix (3, 1);
+			for (int cRow = 0; cRow < 3; ++cRow)
+				rotated.setCell (cRow, 0, (int) result.getCell (cRow, 0));
+			vectors.set (cCounter, rotated);
 		}
 		calcDim (vectors);
+		mCells = null;
+		invalidateTopology();
 		updateMinPos();
-		updateMaxPos();
-	}
-	
-	/**
-	 * Glues shape to g and translates all vertices
-	 * @param g position
-	 */
-	public void glue (Glue g)
-	{
-		//translate vectors (needs old glue)
-		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+		updateMaxPos();
+	}
+	
+	/**
+	 * rotates every vertex into orientation o
+	 * @param o axis aligned orientation
+	 */
+	public void rotate (Orientation o)
+	{
+		for (int cVert = 0; cVert < vectors.size(); ++cVert)
+			vectors.set (cVert, o.apply (vectors.get (cVert)));
+		calcDim (vectors);
+		mCells = null;
+		invalidateTopology();
+		updateMinPos();
+		updateMaxPos();
+	}
+	
+	/**
+	 * Glues shape to g and translates all vertices
+	 * edges, sides and cuboids refer to vertex indices and are kept
+	 * @param g position
+	 */
+	public void glue (Glue g)
+	{
+		//translate vectors (needs old glue)
+		for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
 			vectors.set(cVertex, g.translateMat(vectors.get(cVertex), mGlue));
-		//adapt glue
+		//adapt glue
 		mGlue = g.clone();
 		//adapt max pos
 		IntegerMatrix maxVec = new IntegerMatrix (mGlue.getDimension(), 1);
 		for (int cDim = 0; cDim < mGlue.getDimension(); ++cDim)
 			maxVec.setCell (cDim, 0, g.getPosition(cDim) + getDimensions (cDim));
-		mMax = new Glue (maxVec);
+		mMax = new Glue (maxVec);
 	}
 	
 	/**
@@ -1739,334 +1887,363 @@ public class BasicShape
 			}
 		}
 		mMax = new Glue (max);
-	}
-	
-	public void print(PrintStream p)
-	{
-		p.println ("Printing vertices of basic shape");
-		for (int cVec = 0; cVec < getNumberOfVertices(); ++cVec)
-		{
-			p.println ("vector " + cVec + " ");
-			vectors.get(cVec).print(System.out);
-			p.print("connections: ");
-			for (int cConnect = 0; cConnect < getNumberOfVertices(); ++cConnect)
-			{
-				if (adjMatrix.getCell (cVec, cConnect).equals(1))
-					p.print (cConnect + ", ");
-			}
-		}
-	}
-	
-	/**
-	 * Expands this shape by adding vectors of bs and connecting bs' vertices with existing ones
-	 * @param bs shape to add to this shape
-	 */
-	protected void addShape (Block b)
-	{
-		BasicShape bs = (BasicShape)b;
-		addVertices (bs.vectors, bs.adjMatrix);
-		mVolume += b.getVolume();
-	}
-	
-	/**
-	 * adds intersection points to the list of vectors and
-	 * manipulates connections such that the points the intersection is on
-	 * are now indirectly connected through the intersection
-	 * Precondition: the indices provided in the intersection objects 
-	 * refer to valid vertices of this object
-	 * @param inters list of intersections
-	 */
-	private void addVertices (ArrayList <Intersection> inters)
-	{
-		//structure: intersection, line start, line end => next intersection...
-		ArrayList <IntegerMatrix> newVertices = new ArrayList<>();
-		IntegerMatrix adj = new IntegerMatrix (3 * inters.size(), 3 * inters.size());
-		
-		int offset = 0;
-		for (int cInter = 0; cInter < inters.size(); ++cInter)
-		{
-			Intersection inter = inters.get (cInter);
-			//disconnect
-			if (inter.areVertices())
-				modifyConnection (inter.getLineStartIndex(), inter.getLineEndIndex(), false);
-			
-			newVertices.add (inter.toVector());
-			int startingOffset = offset;
-			++offset;
-			int interVertex = getVertexIndex (inter.toVector());
-			if (interVertex != inter.getLineStartIndex())
-			{
-				newVertices.add (getVertex (inter.getLineStartIndex()));
-				adj.setCell (startingOffset, offset, 1);
-				adj.setCell (offset, startingOffset, 1);
-				++offset;
-			}
-			if (interVertex != inter.getLineEndIndex())
-			{
-				newVertices.add (getVertex (inter.getLineEndIndex()));
-				adj.setCell (startingOffset, offset, 1);
-				adj.setCell (offset, startingOffset, 1);
-				++offset;
-			}
-		}
-		addVertices (newVertices, adj);
-	}
-	
-	/**
-	 * adds missing points in newVertices to list of vectors in their exact order
-	 * adds elements to mPossibleConnections
-	 * fills in connections in adjacent
-	 * @param newVertices vertices to add
-	 * @param adjacent adjacency matrix containing connections of vertices to add
-	 */
-	private void addVertices (ArrayList <IntegerMatrix> newVertices, IntegerMatrix adjacent)
+	}
+	
+	public void print(PrintStream p)
 	{
+		p.println ("Printing vertices of basic shape");
+		for (int cVec = 0; cVec < getNumberOfVertices(); ++cVec)
+		{
+			p.println ("vector " + cVec + " ");
+			vectors.get(cVec).print(System.out);
+			p.print("connections: ");
+			for (int cConnect : mAdjacency.getNeighbours (cVec))
+				p.print (cConnect + ", ");
+		}
+	}
+	
+	/**
+	 * Expands this shape by adding vectors of bs and connecting bs' vertices with existing ones
+	 * @param bs shape to add to this shape
+	 */
+	protected void addShape (Block b)
+	{
+		BasicShape bs = (BasicShape)b;
+		addVertices (bs.vectors, bs.mAdjacency);
+		mVolume += b.getVolume();
+		mCells = null;
+	}
+	
+	/**
+	 * adds intersection points to the list of vectors and
+	 * manipulates connections such that the points the intersection is on
+	 * are now indirectly connected through the intersection
+	 * Precondition: the indices provided in the intersection objects 
+	 * refer to valid vertices of this object
+	 * @param inters list of intersections
+	 */
+	private void addVertices (ArrayList <Intersection> inters)
+	{
+		//structure: intersection, line start, line end => next intersection...
+		ArrayList <IntegerMatrix> newVertices = new ArrayList<>();
+		Adjacency adj = new Adjacency (3 * inters.size());
+		
+		int offset = 0;
+		for (int cInter = 0; cInter < inters.size(); ++cInter)
+		{
+			Intersection inter = inters.get (cInter);
+			//disconnect
+			if (inter.areVertices())
+				modifyConnection (inter.getLineStartIndex(), inter.getLineEndIndex(), false);
+			
+			newVertices.add (inter.toVector());
+			int startingOffset = offset;
+			++offset;
+			int interVertex = getVertexIndex (inter.toVector());
+			if (interVertex != inter.getLineStartIndex())
+			{
+				newVertices.add (getVertex (inter.getLineStartIndex()));
+				adj.connect (startingOffset, offset, getRelativePos (inter, new Glue (getVertex (inter.getLineStartIndex()))));
+				++offset;
+			}
+			if (interVertex != inter.getLineEndIndex())
+			{
+				newVertices.add (getVertex (inter.getLineEndIndex()));
+				adj.connect (startingOffset, offset, getRelativePos (inter, new Glue (getVertex (inter.getLineEndIndex()))));
+				++offset;
+			}
+		}
+		addVertices (newVertices, adj);
+	}
+	
+	/**
+	 * adds missing points in newVertices to list of vectors in their exact order
+	 * adds elements to mPossibleConnections
+	 * fills in connections in adjacent
+	 * @param newVertices vertices to add
+	 * @param adjacent connections of vertices to add
+	 */
+	private void addVertices (ArrayList <IntegerMatrix> newVertices, Adjacency adjacent)
+	{
+		invalidateTopology();
 		int lastOldIndex = getNumberOfVertices() - 1;
-		//stores indices in list in this object of every element in newVertices
-		ArrayList <Integer> addedIndices = new ArrayList<Integer>();
-		//add vertices not yet contained to the end
-		for (int cNewVertex = 0; cNewVertex < newVertices.size(); ++cNewVertex)
-		{
-			int cVertex = getVertexIndex (newVertices.get(cNewVertex));
-			if (cVertex == vectors.size())
-			{
+		//stores indices in list in this object of every element in newVertices
+		ArrayList <Integer> addedIndices = new ArrayList<Integer>();
+		//add vertices not yet contained to the end
+		for (int cNewVertex = 0; cNewVertex < newVertices.size(); ++cNewVertex)
+		{
+			int cVertex = getVertexIndex (newVertices.get(cNewVertex));
+			if (cVertex == vectors.size())
+			{
 				vectors.add (newVertices.get(cNewVertex));
-				//mOrderedVectors.add (new IndexVertex (newVertices.get (cNewVertex), mOrderedVectors.getSize()));
-				mPossibleConnections.add (getHypoPossibleConnections (newVertices.get (cNewVertex)));
-			}
-			addedIndices.add (cVertex);
-		}
-		
-		//copy adjacency matrix into larger one if necessary
-		if (vectors.size() > adjMatrix.getRows())
-		{
-			IntegerMatrix oldAdjMat = adjMatrix;
-			adjMatrix = new IntegerMatrix (vectors.size(), vectors.size());
-			adjMatrix.copyValues(oldAdjMat, 0, 0, 0, 0, oldAdjMat.getRows(), oldAdjMat.getColumns());
-		}
-		
+				//mOrderedVectors.add (new IndexVertex (newVertices.get (cNewVertex), mOrderedVectors.getSize()));
+				mPossibleConnections.add (getHypoPossibleConnections (newVertices.get (cNewVertex)));
+			}
+			addedIndices.add (cVertex);
+		}
+		
+		//make room for connections of added vertices
+		mAdjacency.ensureVertices (vectors.size());
+		
 		//fill in connections in adjacent
-		/* legacy
-		for (int cNewVertex = 0; cNewVertex < newVertices.size(); ++cNewVertex)
-		{
-			int iVertex = addedIndices.get(cNewVertex);
-			for (int cAdj = 0; cAdj < adjacent.getColumns(); ++cAdj)
-			{
-				if (adjacent.getCell (cNewVertex, cAdj).equals(1))
-				{
-					int iAdj = getVertexIndex (newVertices.get(cAdj));
-					modifyConnection (iVertex, iAdj, true);
-				}
-			}
+		/* legacy
+		for (int cNewVertex = 0; cNewVertex < newVertices.size(); ++cNewVertex)
+		{
+			int iVertex = addedIndices.get(cNewVertex);
+			for (int cAdj = 0; cAdj < adjacent.getColumns(); ++cAdj)
+			{
+				if (adjacent.getCell (cNewVertex, cAdj).equals(1))
+				{
+					int iAdj = getVertexIndex (newVertices.get(cAdj));
+					modifyConnection (iVertex, iAdj, true);
+				}
+			}
 		}
 		*/
+		int[] adjs = new int[adjacent.getMaxDegree()];
 		for (int cNewVertex = newVertices.size() - 1; cNewVertex >= 0; --cNewVertex)
 		{
 			int iVertex = addedIndices.get (cNewVertex);
-			for (int cAdj = 0; cAdj < adjacent.getColumns(); ++cAdj)
+			int nAdjs = adjacent.getNeighbours (cNewVertex, adjs);
+			for (int cIndex = 0; cIndex < nAdjs; ++cIndex)
 			{
-				if (adjacent.getCell (cNewVertex, cAdj).equals (1))
+				int cAdj = adjs[cIndex];
+				int iAdj = getVertexIndex (newVertices.get (cAdj));
+				modifyConnection (iVertex, iAdj, true);
+				//if new connected to old
+				if (iAdj <= lastOldIndex || iVertex <= lastOldIndex)
 				{
-					int iAdj = getVertexIndex (newVertices.get (cAdj));
-					modifyConnection (iVertex, iAdj, true);
-					//if new connected to old
-					if (iAdj <= lastOldIndex || iVertex <= lastOldIndex)
+					//iterate through iAdj's connections
+					int cAdj2 = 0;
+					while (cAdj2 <= lastOldIndex)
 					{
-						//iterate through iAdj's connections
-						int cAdj2 = 0;
-						while (cAdj2 <= lastOldIndex)
+						if (isConnected (iAdj, cAdj2) && cAdj2 != iVertex)
 						{
-							if (isConnected (iAdj, cAdj2) && cAdj2 != iVertex)
+							Glue newP = new Glue (getVertex (iVertex));
+							Glue identical = new Glue (getVertex (iAdj));
+							Glue oldP = new Glue (getVertex (cAdj2));
+							IntersectionSolver checkOneLine = new IntersectionSolver (new Line (identical, oldP), new Point (newP));
+							//if oldP is connected to identical s.t. new, old, identical are on one line
+							if (checkOneLine.getSolutionType() == IntersectionSolver.Result.ONE && checkOneLine.getScalars().get(0) > 0)
 							{
-								Glue newP = new Glue (getVertex (iVertex));
-								Glue identical = new Glue (getVertex (iAdj));
-								Glue oldP = new Glue (getVertex (cAdj2));
-								IntersectionSolver checkOneLine = new IntersectionSolver (new Line (identical, oldP), new Point (newP));
-								//if oldP is connected to identical s.t. new, old, identical are on one line
-								if (checkOneLine.getSolutionType() == IntersectionSolver.Result.ONE && checkOneLine.getScalars().get(0) > 0)
+								//if newP is between oldP and identical
+								if (checkOneLine.isWithinBounds())
 								{
-									//if newP is between oldP and identical
-									if (checkOneLine.isWithinBounds())
-									{
-										modifyConnection (iAdj, cAdj2, false);
-										modifyConnection (iVertex, cAdj2, true);
-									}
-									else
-									{
-										modifyConnection (iAdj, iVertex, false);
-										modifyConnection (cAdj2, iVertex, true);
-									}
+									modifyConnection (iAdj, cAdj2, false);
+									modifyConnection (iVertex, cAdj2, true);
+								}
+								else
+								{
+									modifyConnection (iAdj, iVertex, false);
+									modifyConnection (cAdj2, iVertex, true);
 								}
 							}
-							++cAdj2;
 						}
+						++cAdj2;
 					}
-					else
+				}
+				else
+				{
+					//search for connection line both connected points are on
+					for (int cLine1 = 0; cLine1 < lastOldIndex; ++cLine1)
 					{
-						//search for connection line both connected points are on
-						for (int cLine1 = 0; cLine1 < lastOldIndex; ++cLine1)
+						for (int cLine2 = cLine1 + 1; cLine2 <= lastOldIndex; ++cLine2)
 						{
-							for (int cLine2 = cLine1 + 1; cLine2 <= lastOldIndex; ++cLine2)
+							Glue exist1, exist2, newP, newAdj;
+							exist1 = new Glue (getVertex (cLine1));
+							exist2 = new Glue (getVertex (cLine2));
+							newP = new Glue (getVertex (iVertex));
+							newAdj = new Glue (getVertex (iAdj));
+							
+							Line connExist = new Line (exist1, exist2);
+							Line connAdd = new Line (newP, newAdj);
+							
+							//if existing contains added
+							if (connExist.isInRange (newP) && connExist.isInRange (newAdj) || 
+								connAdd.isInRange (exist1) && connAdd.isInRange (exist2))
 							{
-								Glue exist1, exist2, newP, newAdj;
-								exist1 = new Glue (getVertex (cLine1));
-								exist2 = new Glue (getVertex (cLine2));
-								newP = new Glue (getVertex (iVertex));
-								newAdj = new Glue (getVertex (iAdj));
-								
-								Line connExist = new Line (exist1, exist2);
-								Line connAdd = new Line (newP, newAdj);
+								Line outer;
+								Glue in1, in2;
+								int iOut1, iOut2, iIn1, iIn2;
+								if (connExist.isInRange (newP) && connExist.isInRange (newAdj))
+								{
+									outer = connExist;
+									in1 = newP;
+									in2 = newAdj;
+									iOut1 = cLine1;
+									iOut2 = cLine2;
+									iIn1 = iVertex;
+									iIn2 = iAdj;
+								}
+								else
+								{
+									outer = connAdd;
+									in1 = exist1;
+									in2 = exist2;
+									iOut1 = iVertex;
+									iOut2 = iAdj;
+									iIn1 = cLine1;
+									iIn2 = cLine2;
+								}
 								
-								//if existing contains added
-								if (connExist.isInRange (newP) && connExist.isInRange (newAdj) || 
-									connAdd.isInRange (exist1) && connAdd.isInRange (exist2))
+								IntersectionSolver solve1 = new IntersectionSolver (outer, new Point (in1));
+								IntersectionSolver solve2 = new IntersectionSolver (outer, new Point (in2));
+								if (solve1.getSolutionType() == IntersectionSolver.Result.ONE && 
+									solve2.getSolutionType() == IntersectionSolver.Result.ONE &&
+									solve1.isWithinBounds() && solve2.isWithinBounds())
 								{
-									Line outer;
-									Glue in1, in2;
-									int iOut1, iOut2, iIn1, iIn2;
-									if (connExist.isInRange (newP) && connExist.isInRange (newAdj))
+									modifyConnection (iOut1, iOut2, false);
+									if (in1.getDistance (new Glue (outer.getFirst())) < in1.getDistance (new Glue (outer.getSecond())))
 									{
-										outer = connExist;
-										in1 = newP;
-										in2 = newAdj;
-										iOut1 = cLine1;
-										iOut2 = cLine2;
-										iIn1 = iVertex;
-										iIn2 = iAdj;
+										modifyConnection (iIn1, iOut1, true);
+										modifyConnection (iIn2, iOut2, true);
 									}
 									else
 									{
-										outer = connAdd;
-										in1 = exist1;
-										in2 = exist2;
-										iOut1 = iVertex;
-										iOut2 = iAdj;
-										iIn1 = cLine1;
-										iIn2 = cLine2;
-									}
-									
-									IntersectionSolver solve1 = new IntersectionSolver (outer, new Point (in1));
-									IntersectionSolver solve2 = new IntersectionSolver (outer, new Point (in2));
-									if (solve1.getSolutionType() == IntersectionSolver.Result.ONE && 
-										solve2.getSolutionType() == IntersectionSolver.Result.ONE &&
-										solve1.isWithinBounds() && solve2.isWithinBounds())
-									{
-										modifyConnection (iOut1, iOut2, false);
-										if (in1.getDistance (new Glue (outer.getFirst())) < in1.getDistance (new Glue (outer.getSecond())))
-										{
-											modifyConnection (iIn1, iOut1, true);
-											modifyConnection (iIn2, iOut2, true);
-										}
-										else
-										{
-											modifyConnection (iIn1, iOut2, true);
-											modifyConnection (iIn2, iOut1, true);
-										}
+										modifyConnection (iIn1, iOut2, true);
+										modifyConnection (iIn2, iOut1, true);
 									}
 								}
-								//if one each is contained within the other
-								else if ((connExist.isInRange (newP) || connExist.isInRange (newAdj)) && 
-										(connAdd.isInRange (exist1) || connAdd.isInRange (exist2)))
+							}
+							//if one each is contained within the other
+							else if ((connExist.isInRange (newP) || connExist.isInRange (newAdj)) && 
+									(connAdd.isInRange (exist1) || connAdd.isInRange (exist2)))
+							{
+								Glue in1, in2;
+								int iIn1, iIn2;
+								if (connExist.isInRange(newP))
 								{
-									Glue in1, in2;
-									int iIn1, iIn2;
-									if (connExist.isInRange(newP))
-									{
-										in1 = newP;
-										iIn1 = iVertex;
-									}
-									else
-									{
-										in1 = newAdj;
-										iIn1 = iAdj;
-									}
-									if (connAdd.isInRange (exist1))
-									{
-										in2 = exist1;
-										iIn2 = cLine1;
-									}
-									else
-									{
-										in2 = exist2;
-										iIn2 = cLine2;
-									}
-									IntersectionSolver solve1 = new IntersectionSolver (connExist, new Point (in1));
-									IntersectionSolver solve2 = new IntersectionSolver (connAdd, new Point (in2));
-									if (solve1.getSolutionType() == IntersectionSolver.Result.ONE && 
-										solve2.getSolutionType() == IntersectionSolver.Result.ONE &&
-										solve1.isWithinBounds() && solve2.isWithinBounds())
-									{
-										modifyConnection (cLine1, cLine2, false);
-										modifyConnection (iVertex, iAdj, false);
-										modifyConnection (cLine1, iIn1, true);
-										modifyConnection (cLine2, iIn1, true);
-										modifyConnection (iVertex, iIn2, true);
-										modifyConnection (iAdj, iIn2, true);
-									}
+									in1 = newP;
+									iIn1 = iVertex;
+								}
+								else
+								{
+									in1 = newAdj;
+									iIn1 = iAdj;
+								}
+								if (connAdd.isInRange (exist1))
+								{
+									in2 = exist1;
+									iIn2 = cLine1;
+								}
+								else
+								{
+									in2 = exist2;
+									iIn2 = cLine2;
+								}
+								IntersectionSolver solve1 = new IntersectionSolver (connExist, new Point (in1));
+								IntersectionSolver solve2 = new IntersectionSolver (connAdd, new Point (in2));
+								if (solve1.getSolutionType() == IntersectionSolver.Result.ONE && 
+									solve2.getSolutionType() == IntersectionSolver.Result.ONE &&
+									solve1.isWithinBounds() && solve2.isWithinBounds())
+								{
+									modifyConnection (cLine1, cLine2, false);
+									modifyConnection (iVertex, iAdj, false);
+									modifyConnection (cLine1, iIn1, true);
+									modifyConnection (cLine2, iIn1, true);
+									modifyConnection (iVertex, iIn2, true);
+									modifyConnection (iAdj, iIn2, true);
 								}
-								
 							}
+							
 						}
 					}
 				}
 			}
 			
-		}
-		
-		//compute remaining connections
-		for (int addedIndex : addedIndices)
-			resetConnections (addedIndex);
-	}
-	
-	/**
-	 * modifies a connection between vertices provided
-	 * @param iVert1 index of first vertex
-	 * @param iVert2 index of second vertex
-	 * @param connected true: establish connection, false delete connection
-	 * Precondition: iVert1, iVert2 are valid 0-based indices to vertices
-	 */
-	private void modifyConnection (int iVert1, int iVert2, boolean connected)
-	{
-		Glue p1 = new Glue (getVertex (iVert1)), p2 = new Glue (getVertex (iVert2));
-		if (connected)
-		{
-			adjMatrix.setCell (iVert1, iVert2, 1);
-			adjMatrix.setCell (iVert2, iVert1, 1);
-			mPossibleConnections.get (iVert1).remove (getRelativePos (p1, p2));
+		}
+		
+		//compute remaining connections
+		for (int addedIndex : addedIndices)
+			resetConnections (addedIndex);
+	}
+	
+	/**
+	 * modifies a connection between vertices provided
+	 * @param iVert1 index of first vertex
+	 * @param iVert2 index of second vertex
+	 * @param connected true: establish connection, false delete connection
+	 * Precondition: iVert1, iVert2 are valid 0-based indices to vertices
+	 */
+	private void modifyConnection (int iVert1, int iVert2, boolean connected)
+	{
+		invalidateTopology();
+		Glue p1 = new Glue (getVertex (iVert1)), p2 = new Glue (getVertex (iVert2));
+		if (connected)
+		{
+			mAdjacency.connect (iVert1, iVert2, getRelativePos (p1, p2));
+			mPossibleConnections.get (iVert1).remove (getRelativePos (p1, p2));
 			mPossibleConnections.get (iVert2).remove (getRelativePos (p2, p1));
 			
-			//System.out.print ("adding connection ");
-		}
-		else
-		{
-			adjMatrix.setCell (iVert1, iVert2, 0);
-			adjMatrix.setCell (iVert2, iVert1, 0);
-			mPossibleConnections.get (iVert1).add (getRelativePos (p1, p2));
+			//System.out.print ("adding connection ");
+		}
+		else
+		{
+			mAdjacency.disconnect (iVert1, iVert2);
+			mPossibleConnections.get (iVert1).add (getRelativePos (p1, p2));
 			mPossibleConnections.get (iVert2).add (getRelativePos (p2, p1));
-			//System.out.print ("removeing connection ");
+			//System.out.print ("removeing connection ");
 		}
-		//System.out.println (new Glue (getVertex (iVert1)) + " to " + new Glue (getVertex (iVert2)));
-		
-	}
-	
-	/**
-	 * Recalculates list of available connections for vertex at index iVertex
-	 * @param iVertex
-	 */
-	private void resetConnections (int iVertex)
-	{
-		ArrayList <IntegerMatrix> connections = lookUpConnections(iVertex);
-		Glue vertex = new Glue (getVertex(iVertex));
-		ArrayList <RelatPos> remain = mPossibleConnections.get(iVertex);
-		for (IntegerMatrix conn : connections)
-			remain.remove (getRelativePos (vertex, new Glue (conn)));
-	}
-	
+		//System.out.println (new Glue (getVertex (iVert1)) + " to " + new Glue (getVertex (iVert2)));
+		
+	}
+	
+	/**
+	 * Recalculates list of available connections for vertex at index iVertex
+	 * @param iVertex
+	 */
+	private void resetConnections (int iVertex)
+	{
+		Glue vertex = new Glue (getVertex(iVertex));
+		ArrayList <RelatPos> remain = mPossibleConnections.get(iVertex);
+		int[] conns = new int[mAdjacency.getMaxDegree()];
+		int nConns = mAdjacency.getNeighbours (iVertex, conns);
+		for (int cConn = 0; cConn < nConns; ++cConn)
+			remain.remove (getRelativePos (vertex, new Glue (vectors.get (conns[cConn]))));
+	}
+	
+	/**
+	 * @return pairs of indices of connected vertices, the first index being the lower one.
+	 * The array is shared and must not be altered
+	 */
+	private int[][] getEdges()
+	{
+		if (mEdges == null)
+		{
+			ArrayList <int[]> edges = new ArrayList<int[]>();
+			int[] conns = new int[mAdjacency.getMaxDegree()];
+			for (int cVertex = 0; cVertex < getNumberOfVertices(); ++cVertex)
+			{
+				int nConns = mAdjacency.getNeighbours (cVertex, conns);
+				for (int cConn = 0; cConn < nConns; ++cConn)
+				{
+					if (conns[cConn] >= cVertex)
+						edges.add (new int[] {cVertex, conns[cConn]});
+				}
+			}
+			mEdges = edges.toArray (new int[edges.size()][]);
+		}
+		return mEdges;
+	}
+	
+	/**
+	 * discards cached edges, sides and cuboids
+	 * call this method after vertices or connections were changed other than by translation
+	 */
+	private void invalidateTopology()
+	{
+		mEdges = null;
+		mRectangles = null;
+		mCuboids = null;
+	}
+	
 	private ArrayList<IntegerMatrix> vectors;
-	//private Set<IndexVertex> mOrderedVectors;
-	private ArrayList<Integer> dimensions;
-	private ArrayList <ArrayList <RelatPos>> mPossibleConnections;
-	private IntegerMatrix adjMatrix;
-	private Glue mGlue, mMax;
+	//private Set<IndexVertex> mOrderedVectors;
+	private ArrayList<Integer> dimensions;
+	private ArrayList <ArrayList <RelatPos>> mPossibleConnections;
+	private Adjacency mAdjacency;
+	private Glue mGlue, mMax;
 	private int mVolume;
+	private int[] mCells;
+	private int[][] mEdges, mRectangles, mCuboids;
 }
\ No newline at end of file
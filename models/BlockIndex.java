@@ -0,0 +1,158 @@
+package models;
+
+import java.util.ArrayList;
+
+/**
+ * uniform bucket grid over the bounding boxes of blocks in a cuboid space
+ * every bucket covers a cube of bucket size cells and lists the blocks whose bounding box reaches into it,
+ * so a query only visits blocks near the box queried.
+ * a box is stored as int[6] holding min x, y, z (inclusive) and max x, y, z (exclusive)
+ * relative to the minimum corner of the space, boxes reaching outside of the space are kept in the border buckets
+ */
+public class BlockIndex
+{
+	/**
+	 * default number of cells along every edge of a bucket
+	 */
+	public static final int DEFAULT_BUCKET_SIZE = 4;
+
+	/**
+	 * constructs empty index
+	 * @param d number of cells in depth
+	 * @param w number of cells in width
+	 * @param h number of cells in height
+	 * @param bucketSize number of cells along every edge of a bucket
+	 */
+	public BlockIndex (int d, int w, int h, int bucketSize)
+	{
+		if (bucketSize < 1)
+			throw new IllegalArgumentException ("bucket size has to be positive");
+		mBucketSize = bucketSize;
+		mBucketsD = Math.max (1, (d + bucketSize - 1) / bucketSize);
+		mBucketsW = Math.max (1, (w + bucketSize - 1) / bucketSize);
+		mBucketsH = Math.max (1, (h + bucketSize - 1) / bucketSize);
+		mBuckets = new ArrayList<>();
+		for (int cBucket = 0; cBucket < mBucketsD * mBucketsW * mBucketsH; ++cBucket)
+			mBuckets.add (new ArrayList<Integer>());
+		mBoxes = new ArrayList<>();
+		mVisited = new int[0];
+		mQuery = 0;
+	}
+
+	/**
+	 * @param id identifier of block, should be small since a lookup array of size id is kept
+	 * @param box bounding box of block
+	 */
+	public void add (int id, int[] box)
+	{
+		while (mBoxes.size() <= id)
+			mBoxes.add (null);
+		if (mBoxes.get (id) != null)
+			throw new IllegalArgumentException ("block " + id + " is indexed already");
+		mBoxes.set (id, box.clone());
+
+		int[] range = getBucketRange (box);
+		for (int cX = range[0]; cX <= range[3]; ++cX)
+			for (int cY = range[1]; cY <= range[4]; ++cY)
+				for (int cZ = range[2]; cZ <= range[5]; ++cZ)
+					mBuckets.get (getBucket (cX, cY, cZ)).add (id);
+	}
+
+	/**
+	 * @param id identifier of block to remove
+	 */
+	public void remove (int id)
+	{
+		if (id >= mBoxes.size() || mBoxes.get (id) == null)
+			throw new IllegalArgumentException ("block " + id + " is not indexed");
+		int[] range = getBucketRange (mBoxes.get (id));
+		for (int cX = range[0]; cX <= range[3]; ++cX)
+			for (int cY = range[1]; cY <= range[4]; ++cY)
+				for (int cZ = range[2]; cZ <= range[5]; ++cZ)
+					mBuckets.get (getBucket (cX, cY, cZ)).remove (Integer.valueOf (id));
+		mBoxes.set (id, null);
+	}
+
+	/**
+	 * @param box box to query
+	 * @return identifiers of blocks whose bounding box shares at least one cell with box, in no particular order
+	 * not thread safe
+	 */
+	public ArrayList<Integer> query (int[] box)
+	{
+		if (mVisited.length < mBoxes.size())
+			mVisited = new int[mBoxes.size()];
+		++mQuery;
+
+		ArrayList<Integer> found = new ArrayList<>();
+		int[] range = getBucketRange (box);
+		for (int cX = range[0]; cX <= range[3]; ++cX)
+		{
+			for (int cY = range[1]; cY <= range[4]; ++cY)
+			{
+				for (int cZ = range[2]; cZ <= range[5]; ++cZ)
+				{
+					for (int id : mBuckets.get (getBucket (cX, cY, cZ)))
+					{
+						if (mVisited[id] != mQuery && intersect (mBoxes.get (id), box))
+							found.add (id);
+						mVisited[id] = mQuery;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * @return true if b1 and b2 share at least one cell
+	 */
+	private static boolean intersect (int[] b1, int[] b2)
+	{
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			if (b1[cDim] >= b2[cDim + 3] || b2[cDim] >= b1[cDim + 3])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param box a box
+	 * @return indices of first and last bucket covered by box in every dimension, clamped to the grid
+	 */
+	private int[] getBucketRange (int[] box)
+	{
+		int[] limits = {mBucketsD, mBucketsW, mBucketsH};
+		int[] range = new int[6];
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			range[cDim] = clamp (Math.floorDiv (box[cDim], mBucketSize), limits[cDim]);
+			range[cDim + 3] = clamp (Math.floorDiv (box[cDim + 3] - 1, mBucketSize), limits[cDim]);
+		}
+		return range;
+	}
+
+	/**
+	 * @return index clamped to [0, limit - 1]
+	 */
+	private static int clamp (int index, int limit)
+	{
+		return Math.max (0, Math.min (limit - 1, index));
+	}
+
+	/**
+	 * @return linear index of bucket
+	 */
+	private int getBucket (int x, int y, int z)
+	{
+		return (x * mBucketsW + y) * mBucketsH + z;
+	}
+
+	private int mBucketSize;
+	private int mBucketsD, mBucketsW, mBucketsH;
+	private ArrayList<ArrayList<Integer>> mBuckets;
+	private ArrayList<int[]> mBoxes;
+	private int[] mVisited;
+	private int mQuery;
+}
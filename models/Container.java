@@ -1,9 +1,9 @@
 package models;
-import generic.Set;
 import geometry.*;
 import geometry.IntersectionSolver.Result;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map.Entry;
 
@@ -48,6 +48,43 @@ public class Container extends Block
 		}
 	}
 	
+	@SuppressWarnings("serial")
+	public static class OverlapCheckMismatchException extends IllegalStateException
+	{
+		public OverlapCheckMismatchException() {}
+		
+		public OverlapCheckMismatchException (String message, Glue posFail)
+		{
+			super (message + " " + posFail.toString());
+		}
+	}
+	
+	/**
+	 * strategies used to decide whether a block can be placed
+	 * GRID: masked test against the occupancy grid (default)
+	 * GEOMETRIC: intersection tests against every placed block
+	 * VERIFY: runs both and throws if they disagree
+	 */
+	public static enum OverlapCheck {GRID, GEOMETRIC, VERIFY}
+	
+	/**
+	 * entry of the undo log written by tentative placements
+	 * stores the free space as it was before the block was placed
+	 */
+	private static class Placement
+	{
+		public Placement (Block block, FreeSpace freeSpace, int freeSpaceBlocks)
+		{
+			mBlock = block;
+			mFreeSpace = freeSpace;
+			mFreeSpaceBlocks = freeSpaceBlocks;
+		}
+		
+		private Block mBlock;
+		private FreeSpace mFreeSpace;
+		private int mFreeSpaceBlocks;
+	}
+	
 	/**
 	 * @param d depth of container
 	 * @param w width of container
@@ -126,13 +163,25 @@ public class Container extends Block
 	{
 		super(constructInitShape (d, w, h), 0, "container");
 		mPlacedBlocks = new ArrayList <Block>();
+		mOccupancy = new OccupancyGrid (d, w, h);
+		mFreeSpace = new FreeSpace (d, w, h);
+		mBlockIndex = new BlockIndex (d, w, h, BlockIndex.DEFAULT_BUCKET_SIZE);
+		mUndoLog = new ArrayList <Placement>();
+		mOverlapCheck = OverlapCheck.GRID;
 	}
 	
-	
+	/**
+	 * @param b shape of the container
+	 * cells within the range of b which are not part of b are marked as occupied
+	 */
 	public Container (Block b)
 	{
 		super (b, 0, "container");
 		mPlacedBlocks = new ArrayList <Block>();
+		mInterior = new BasicShape (b);
+		mUndoLog = new ArrayList <Placement>();
+		mOverlapCheck = OverlapCheck.GRID;
+		rebuildOccupancy();
 	}
 	
 	
@@ -171,69 +220,72 @@ public class Container extends Block
 	*/
 	
 	/**
-	 * @TODO debug
-	 * @return list of cuboids which contain together the entire free space in this container
+	 * @return list of disjoint cuboids which contain together the entire free space in this container
+	 * cuboids are ordered by their first and second spanning point
 	 */
 	public ArrayList <Cuboid> getFreeCuboids()
 	{
-		BasicShape dissected = new BasicShape (this);
-		dissected.addMissingRectanglePoints();
-		
-		Set<OrderedCuboid> orderedCuboids = new Set<> ();
-		for (Cuboid c : dissected.getCuboids())
-			orderedCuboids.add (new OrderedCuboid (c.getMin (c.getVertices()), c.getMax(c.getVertices())));
-		
-		Set<OrderedCuboid> orderedBlockCuboids = new Set<>();
-		for (int cBlock = 0; cBlock < getAmountOfBlocks(); ++cBlock)
-		{
-			Block completedBlock = getBlock (cBlock).clone();
-			completedBlock.addMissingRectanglePoints();
-			for (Cuboid c : completedBlock.getCuboids())
-				orderedBlockCuboids.add (new OrderedCuboid (c.getMin (c.getVertices()), c.getMax(c.getVertices())));
-		}
-		
-		ArrayList <Cuboid> free = new ArrayList<>();
-		for (OrderedCuboid ordered : orderedCuboids.getDifference (orderedBlockCuboids).getOrderedElements())
-			free.add (ordered);
-		
-		
-		/* legacy
-		Container cloneCont = this.clone();
-		cloneCont.addMissingRectanglePoints();
-		
-		//new approach:
-		//iterate through new added vertices in reverse order
-		//iterate through all vertices until current new vertex in normal order
-		//search cuboid for current new vertex, rest vertex, exclude searched new vertices from connection look ups
-		for (int cNewVert = cloneCont.getNumberOfVertices() - 1; cNewVert >= this.getNumberOfVertices(); --cNewVert)
+		ArrayList <OrderedCuboid> ordered = toCuboids (getFreeSpace().getPartitionBoxes());
+		Collections.sort (ordered);
+		return new ArrayList <Cuboid> (ordered);
+	}
+	
+	/**
+	 * @return list of maximal empty cuboids in this container, cuboids may overlap
+	 * every free cell is part of at least one cuboid and no cuboid is contained in another one
+	 */
+	public ArrayList <Cuboid> getMaximalFreeCuboids()
+	{
+		return new ArrayList <Cuboid> (toCuboids (getFreeSpace().getMaximalBoxes()));
+	}
+	
+	/**
+	 * @return free space of this container, blocks placed since the last call are removed from it first
+	 * boxes of free space are relative to the glue of the container
+	 */
+	public FreeSpace getFreeSpace()
+	{
+		for (; mFreeSpaceBlocks < mPlacedBlocks.size(); ++mFreeSpaceBlocks)
 		{
-			for (int cOldVert = 0; cOldVert < cNewVert; ++cOldVert)
-			{
-				Cuboid c = cloneCont.getCuboid (cOldVert, cNewVert, 0, cNewVert, 0, cNewVert);
-				if (c != null)
-					free.add (c);
-			}
+			Block placed = mPlacedBlocks.get (mFreeSpaceBlocks);
+			mFreeSpace.occupy (placed.getCells(), 
+								placed.getGlue().getPosition (0) - getGlue().getPosition (0), 
+								placed.getGlue().getPosition (1) - getGlue().getPosition (1), 
+								placed.getGlue().getPosition (2) - getGlue().getPosition (2));
 		}
-		*/
-		
-		return free;
+		return mFreeSpace;
 	}
 	
 	/**
 	 * @return deep copy of this by placing the cloned blocks
 	 * at the same positions in the cloned container
+	 * tentatively placed blocks are placed permanently in the clone
 	 */
 	public Container clone()
 	{
-		Container clone = new Container (getDimensions(0), getDimensions(1), getDimensions(2));
-		clone.glue (this.getGlue());
-		
+		Container clone = cloneEmpty();
 		for (Block b : mPlacedBlocks)
 			clone.placeBlock (b, b.getGlue());
 		
 		return clone;
 	}
 	
+	/**
+	 * @return container having the shape, position and overlap check of this, but no blocks placed
+	 */
+	public Container cloneEmpty()
+	{
+		Container clone = new Container (getDimensions(0), getDimensions(1), getDimensions(2));
+		clone.glue (this.getGlue());
+		clone.mOverlapCheck = mOverlapCheck;
+		if (mInterior != null)
+		{
+			clone.mInterior = new BasicShape (mInterior);
+			clone.rebuildOccupancy();
+		}
+		return clone;
+	}
+	
 	/**
 	 * @param index index of block in container
 	 * @return the block at index
@@ -292,13 +344,133 @@ public class Container extends Block
 		Precondition: block is placeable at position
 		Postcondition: Container will contain block at pos if pos does not refer to another block already placed
 		The position refers to the uppermost top-left corner of the smallest possible cuboid containing the block
+		Blocks placed tentatively before are placed permanently as well
 	**/
 	public void placeBlock (Block block, Glue pos)
 	{
+		for (Placement tentative : mUndoLog)
+		{
+			mTentativeValue -= tentative.mBlock.getValue();
+			addShape (tentative.mBlock);
+		}
+		mUndoLog.clear();
+		
 		Block cloneBlock = block.clone();
 		cloneBlock.glue (pos);
 		mPlacedBlocks.add (cloneBlock);
 		addShape (cloneBlock);
+		occupy (cloneBlock);
+		mBlockIndex.add (mPlacedBlocks.size() - 1, getBounds (cloneBlock));
+	}
+	
+	/**
+	 * places a block such that it can be removed again by undoPlacement
+	 * the block counts towards blocks, value, occupancy and free space of this container,
+	 * but is not merged into the shape of the container until placeBlock is called.
+	 * placing and undoing costs O(block size), no matter how many blocks were placed before
+	 * @param block the block object to place
+	 * @param pos the position to place block
+	 */
+	public void placeTentatively (Block block, Glue pos)
+	{
+		Block cloneBlock = block.clone();
+		cloneBlock.glue (pos);
+		mUndoLog.add (new Placement (cloneBlock, mFreeSpace.clone(), mFreeSpaceBlocks));
+		mPlacedBlocks.add (cloneBlock);
+		mTentativeValue += cloneBlock.getValue();
+		occupy (cloneBlock);
+		mBlockIndex.add (mPlacedBlocks.size() - 1, getBounds (cloneBlock));
+	}
+	
+	/**
+	 * removes the block placed last by placeTentatively
+	 * @throws BlockNotFoundException if there is no tentatively placed block
+	 */
+	public void undoPlacement()
+	{
+		if (mUndoLog.isEmpty())
+			throw new BlockNotFoundException ("no tentative placement to undo");
+		Placement last = mUndoLog.remove (mUndoLog.size() - 1);
+		mPlacedBlocks.remove (mPlacedBlocks.size() - 1);
+		mBlockIndex.remove (mPlacedBlocks.size());
+		mTentativeValue -= last.mBlock.getValue();
+		mOccupancy.release (last.mBlock.getCells(), 
+							last.mBlock.getGlue().getPosition (0) - getGlue().getPosition (0), 
+							last.mBlock.getGlue().getPosition (1) - getGlue().getPosition (1), 
+							last.mBlock.getGlue().getPosition (2) - getGlue().getPosition (2));
+		if (mFreeSpaceBlocks > mPlacedBlocks.size())
+		{
+			if (last.mFreeSpace != null)
+			{
+				mFreeSpace = last.mFreeSpace;
+				mFreeSpaceBlocks = last.mFreeSpaceBlocks;
+			}
+			else
+			{
+				mFreeSpace = new FreeSpace (mOccupancy);
+				mFreeSpaceBlocks = mPlacedBlocks.size();
+			}
+		}
+	}
+	
+	/**
+	 * @return number of tentatively placed blocks which can be undone
+	 */
+	public int getTentativePlacements() { return mUndoLog.size(); }
+	
+	/**
+	 * @return sum of the values of all blocks placed, including tentatively placed blocks
+	 */
+	public double getValue()
+	{
+		return super.getValue() + mTentativeValue;
+	}
+	
+	/**
+	 * @param check strategy to use for overlap checks
+	 */
+	public void setOverlapCheck (OverlapCheck check)
+	{
+		mOverlapCheck = check;
+	}
+	
+	/**
+	 * @return strategy used for overlap checks
+	 */
+	public OverlapCheck getOverlapCheck() { return mOverlapCheck; }
+	
+	/**
+	 * @param x depth coordinate relative to the glue of the container
+	 * @param y width coordinate relative to the glue of the container
+	 * @param z height coordinate relative to the glue of the container
+	 * @return true if unit cell is occupied by a placed block or outside of the container
+	 */
+	public boolean isCellOccupied (int x, int y, int z)
+	{
+		return mOccupancy.isOccupied (x, y, z);
+	}
+	
+	/**
+	 * @return copy of the grid of unit cells occupied by placed blocks, relative to the glue of the container
+	 */
+	public OccupancyGrid copyOccupancy()
+	{
+		return mOccupancy.clone();
+	}
+	
+	/**
+	 * @param x depth coordinate relative to the glue of the container
+	 * @param y width coordinate relative to the glue of the container
+	 * @param z height coordinate relative to the glue of the container
+	 * @return position of unit cell x, y, z
+	 */
+	public Glue getCellPosition (int x, int y, int z)
+	{
+		IntegerMatrix vec = new IntegerMatrix (3, 1);
+		vec.setCell (0, 0, getGlue().getPosition (0) + x);
+		vec.setCell (1, 0, getGlue().getPosition (1) + y);
+		vec.setCell (2, 0, getGlue().getPosition (2) + z);
+		return new Glue (vec);
 	}
 	
 	/**
@@ -312,20 +484,22 @@ public class Container extends Block
 		{
 			Glue prev = getGlue();
 			//compute difference
-			IntegerMatrix diff = new IntegerMatrix (prev.getDimension(), 1);
-			for (int cDim = 0; cDim < diff.getRows(); ++cDim)
-				diff.setCell (cDim, 0, pos.getPosition (cDim) - prev.getPosition (cDim));
+			int[] diff = new int[prev.getDimension()];
+			for (int cDim = 0; cDim < diff.length; ++cDim)
+				diff[cDim] = pos.getPosition (cDim) - prev.getPosition (cDim);
 			//glue placed blocks
 			for (Block placed : mPlacedBlocks)
 			{
 				Glue placedPrev = placed.getGlue();
 				IntegerMatrix blockGlue = new IntegerMatrix (placedPrev.getDimension(), 1);
 				for (int cDim = 0; cDim < blockGlue.getRows(); ++cDim)
-					blockGlue.setCell (cDim, 0, placedPrev.getPosition (cDim) + diff.getCell (cDim, 0));
+					blockGlue.setCell (cDim, 0, placedPrev.getPosition (cDim) + diff[cDim]);
 				placed.glue (new Glue (blockGlue));
 			}
 		}
 		super.glue (pos);
+		if (mInterior != null)
+			mInterior.glue (pos);
 	}
 	
 	/**
@@ -334,9 +508,37 @@ public class Container extends Block
 	 */
 	public void rotate (Matrix<Double> rotMat)
 	{
+		Orientation o = Orientation.fromMatrix (rotMat);
+		if (o != null)
+		{
+			rotate (o);
+			return;
+		}
 		for (Block placed : mPlacedBlocks)
 			placed.rotate (rotMat);
+		if (mInterior != null)
+			mInterior.rotate (rotMat);
 		super.rotate (rotMat);
+		if (mInterior != null)
+			mInterior.glue (getGlue());
+		rebuildOccupancy();
+	}
+	
+	/**
+	 * rotates the container into orientation o
+	 * rotates all blocks placed within
+	 * @param o axis aligned orientation
+	 */
+	public void rotate (Orientation o)
+	{
+		for (Block placed : mPlacedBlocks)
+			placed.rotate (o);
+		if (mInterior != null)
+			mInterior.rotate (o);
+		super.rotate (o);
+		if (mInterior != null)
+			mInterior.glue (getGlue());
+		rebuildOccupancy();
 	}
 	
 	/** @param pos Position queried block is at
@@ -376,7 +578,43 @@ public class Container extends Block
 		The position refers to the top-left corner of the smallest possible rectangle containig the block
 	**/
 	public boolean checkPositionOverlap (Block block, Glue pos)
-	{	
+	{
+		switch (mOverlapCheck)
+		{
+		case GEOMETRIC: return checkGeometricOverlap (block, pos);
+		case VERIFY:
+			boolean gridResult = checkGridOverlap (block, pos);
+			if (gridResult != checkGeometricOverlap (block, pos))
+				throw new OverlapCheckMismatchException ("grid and geometric overlap check disagree (grid: " + gridResult + ") at", pos);
+			return gridResult;
+		default: return checkGridOverlap (block, pos);
+		}
+	}
+	
+	/**
+	 * @param block the block object to place
+	 * @param pos the position to place block
+	 * @return true if every cell of block placed at pos is inside the container and free
+	 */
+	public boolean checkGridOverlap (Block block, Glue pos)
+	{
+		return mOccupancy.fits (block.getCells(), 
+								pos.getPosition (0) - getGlue().getPosition (0), 
+								pos.getPosition (1) - getGlue().getPosition (1), 
+								pos.getPosition (2) - getGlue().getPosition (2));
+	}
+	
+	/**
+	 * geometric overlap check, dissecting block and every placed block near it into cuboids
+	 * and testing whether any two of these cuboids share volume
+	 * @param block the block object to place
+	 * @param pos the position to place block
+	 * @return true if block placed at pos does not cause any overlapping with previously placed blocks
+	 */
+	public boolean checkGeometricOverlap (Block block, Glue pos)
+	{
+		block = block.clone();
+		block.glue (pos);
 		for (int cDim = 0; cDim < getGlue().getDimension(); ++cDim)
 		{
 			if (block.getGlue().getPosition (cDim) < this.getGlue().getPosition (cDim))
@@ -391,23 +629,60 @@ public class Container extends Block
 		BasicShape completed = new BasicShape (block);
 		completed.glue (block.getGlue());
 		completed.addMissingRectanglePoints();
-		//@TODO optimize
-		//for every placed block: check whether block intersects with place or
-		//whether place intersects block
-		for (Block bPlaced : mPlacedBlocks)
+		ArrayList <Cuboid> cuboids = completed.getCuboids();
+		//for every placed block whose bounding box shares a cell with the one of block:
+		//check whether a cuboid of its dissection shares volume with a cuboid of block.
+		//Intersecting sides and lines misses blocks sharing sides or lying within each other
+		for (Block bPlaced : getBlocksNear (getBounds (block)))
 		{
 			BasicShape placedCompleted = new BasicShape (bPlaced);
 			placedCompleted.addMissingRectanglePoints();
-			if (placedCompleted.intersect (completed, false) || 
-				completed.intersect (placedCompleted, false))
-				return false;
-			
-			if (bPlaced.isWithin (block) || block.isWithin (bPlaced))
+			for (Cuboid placed : placedCompleted.getCuboids())
+			{
+				for (Cuboid cube : cuboids)
+				{
+					if (shareVolume (placed, cube))
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return true if the interiors of a and b intersect
+	 */
+	private static boolean shareVolume (Cuboid a, Cuboid b)
+	{
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			int aMin = Math.min (a.getFirst().getCell (cDim, 0), a.getSecond().getCell (cDim, 0));
+			int aMax = Math.max (a.getFirst().getCell (cDim, 0), a.getSecond().getCell (cDim, 0));
+			int bMin = Math.min (b.getFirst().getCell (cDim, 0), b.getSecond().getCell (cDim, 0));
+			int bMax = Math.max (b.getFirst().getCell (cDim, 0), b.getSecond().getCell (cDim, 0));
+			if (aMax <= bMin || bMax <= aMin)
 				return false;
 		}
 		return true;
 	}
 	
+	/**
+	 * looks up placed blocks in a bucket grid instead of testing every block
+	 * @param min minimum corner of a box
+	 * @param max maximum corner of a box
+	 * @return placed blocks whose bounding box shares at least one cell with the box spanned
+	 */
+	public ArrayList <Block> getBlocksNear (Glue min, Glue max)
+	{
+		int[] box = new int[6];
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			box[cDim] = min.getPosition (cDim) - getGlue().getPosition (cDim);
+			box[cDim + 3] = max.getPosition (cDim) - getGlue().getPosition (cDim);
+		}
+		return getBlocksNear (box);
+	}
+	
 	/**
 	 * @param mStartingPosition position to check
 	 * @return true if position is within the container
@@ -430,6 +705,111 @@ public class Container extends Block
 		return mPlacedBlocks.size();
 	}
 	
+	/**
+	 * marks cells of placed as occupied
+	 * @param placed block glued at its position within this container
+	 */
+	private void occupy (Block placed)
+	{
+		mOccupancy.occupy (placed.getCells(), 
+							placed.getGlue().getPosition (0) - getGlue().getPosition (0), 
+							placed.getGlue().getPosition (1) - getGlue().getPosition (1), 
+							placed.getGlue().getPosition (2) - getGlue().getPosition (2));
+	}
+	
+	/**
+	 * @param box box relative to the glue of this container
+	 * @return placed blocks whose bounding box shares at least one cell with box
+	 */
+	private ArrayList <Block> getBlocksNear (int[] box)
+	{
+		ArrayList <Block> near = new ArrayList<>();
+		for (int id : mBlockIndex.query (box))
+			near.add (mPlacedBlocks.get (id));
+		return near;
+	}
+	
+	/**
+	 * @param placed block glued at its position within this container
+	 * @return bounding box of placed relative to the glue of this container
+	 */
+	private int[] getBounds (Block placed)
+	{
+		int[] box = new int[6];
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			box[cDim] = placed.getGlue().getPosition (cDim) - getGlue().getPosition (cDim);
+			box[cDim + 3] = box[cDim] + placed.getDimensions (cDim);
+		}
+		return box;
+	}
+	
+	/**
+	 * @param boxes boxes relative to the glue of this container
+	 * @return cuboids spanned by boxes in the coordinates of this container
+	 */
+	private ArrayList <OrderedCuboid> toCuboids (ArrayList <int[]> boxes)
+	{
+		ArrayList <OrderedCuboid> cuboids = new ArrayList<>();
+		for (int[] box : boxes)
+		{
+			IntegerMatrix min = new IntegerMatrix (3, 1), max = new IntegerMatrix (3, 1);
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				min.setCell (cDim, 0, box[cDim] + getGlue().getPosition (cDim));
+				max.setCell (cDim, 0, box[cDim + 3] + getGlue().getPosition (cDim));
+			}
+			cuboids.add (new OrderedCuboid (new Glue (min), new Glue (max)));
+		}
+		return cuboids;
+	}
+	
+	/**
+	 * recomputes occupancy grid, block index and free space from interior shape and placed blocks
+	 * call this method after the dimensions of the container changed
+	 */
+	private void rebuildOccupancy()
+	{
+		mOccupancy = new OccupancyGrid (getDimensions (0), getDimensions (1), getDimensions (2));
+		if (mInterior != null)
+		{
+			for (int cX = 0; cX < getDimensions (0); ++cX)
+			{
+				for (int cY = 0; cY < getDimensions (1); ++cY)
+				{
+					for (int cZ = 0; cZ < getDimensions (2); ++cZ)
+						mOccupancy.set (cX, cY, cZ, true);
+				}
+			}
+			mOccupancy.release (mInterior.getCells(), 
+								mInterior.getGlue().getPosition (0) - getGlue().getPosition (0), 
+								mInterior.getGlue().getPosition (1) - getGlue().getPosition (1), 
+								mInterior.getGlue().getPosition (2) - getGlue().getPosition (2));
+		}
+		mBlockIndex = new BlockIndex (getDimensions (0), getDimensions (1), getDimensions (2), BlockIndex.DEFAULT_BUCKET_SIZE);
+		for (int cBlock = 0; cBlock < mPlacedBlocks.size(); ++cBlock)
+		{
+			occupy (mPlacedBlocks.get (cBlock));
+			mBlockIndex.add (cBlock, getBounds (mPlacedBlocks.get (cBlock)));
+		}
+		mFreeSpace = new FreeSpace (mOccupancy);
+		mFreeSpaceBlocks = mPlacedBlocks.size();
+		//free space stored for undoing belongs to the previous orientation
+		if (mUndoLog != null)
+		{
+			for (Placement tentative : mUndoLog)
+				tentative.mFreeSpace = null;
+		}
+	}
+	
 	//private HashMap <Glue, Block> mGluedBlocks;
 	private ArrayList <Block> mPlacedBlocks;
+	private OccupancyGrid mOccupancy;
+	private FreeSpace mFreeSpace;
+	private int mFreeSpaceBlocks;
+	private BlockIndex mBlockIndex;
+	private ArrayList <Placement> mUndoLog;
+	private double mTentativeValue;
+	private BasicShape mInterior;
+	private OverlapCheck mOverlapCheck;
 }
@@ -0,0 +1,324 @@
+package models;
+
+import java.util.ArrayList;
+
+/**
+ * free space of a cuboid space maintained incrementally while cells are occupied
+ * keeps two views of the free space as boxes relative to the minimum corner of the space:
+ * the maximal empty boxes, which may overlap, and a partition of the free space into disjoint boxes.
+ * a box is stored as int[6] holding min x, y, z (inclusive) and max x, y, z (exclusive)
+ */
+public class FreeSpace implements Cloneable
+{
+	/**
+	 * @param cells packed cell triples
+	 * @return disjoint boxes covering exactly the cells given
+	 * boxes are grown greedily along height, width and depth
+	 */
+	public static ArrayList<int[]> toBoxes (int[] cells)
+	{
+		ArrayList<int[]> boxes = new ArrayList<>();
+		if (cells.length == 0)
+			return boxes;
+
+		int[] min = {cells[0], cells[1], cells[2]}, max = {cells[0], cells[1], cells[2]};
+		for (int cCell = 0; cCell < cells.length; cCell += 3)
+		{
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				min[cDim] = Math.min (min[cDim], cells[cCell + cDim]);
+				max[cDim] = Math.max (max[cDim], cells[cCell + cDim] + 1);
+			}
+		}
+		OccupancyGrid todo = new OccupancyGrid (max[0] - min[0], max[1] - min[1], max[2] - min[2]);
+		todo.occupy (cells, -min[0], -min[1], -min[2]);
+
+		for (int cX = 0; cX < todo.getDimension (0); ++cX)
+		{
+			for (int cY = 0; cY < todo.getDimension (1); ++cY)
+			{
+				for (int cZ = 0; cZ < todo.getDimension (2); ++cZ)
+				{
+					if (todo.isOccupied (cX, cY, cZ))
+					{
+						int[] box = {cX, cY, cZ, cX + 1, cY + 1, cZ + 1};
+						while (isFilled (todo, box[0], box[1], box[5], box[3], box[4], box[5] + 1))
+							++box[5];
+						while (isFilled (todo, box[0], box[4], box[2], box[3], box[4] + 1, box[5]))
+							++box[4];
+						while (isFilled (todo, box[3], box[1], box[2], box[3] + 1, box[4], box[5]))
+							++box[3];
+
+						for (int cBoxX = box[0]; cBoxX < box[3]; ++cBoxX)
+						{
+							for (int cBoxY = box[1]; cBoxY < box[4]; ++cBoxY)
+							{
+								for (int cBoxZ = box[2]; cBoxZ < box[5]; ++cBoxZ)
+									todo.set (cBoxX, cBoxY, cBoxZ, false);
+							}
+						}
+						boxes.add (new int[] {box[0] + min[0], box[1] + min[1], box[2] + min[2],
+											box[3] + min[0], box[4] + min[1], box[5] + min[2]});
+					}
+				}
+			}
+		}
+		return boxes;
+	}
+
+	/**
+	 * constructs free space where every cell is free
+	 * @param d number of cells in depth
+	 * @param w number of cells in width
+	 * @param h number of cells in height
+	 */
+	public FreeSpace (int d, int w, int h)
+	{
+		mMaximal = new ArrayList<>();
+		mPartition = new ArrayList<>();
+		if (d > 0 && w > 0 && h > 0)
+		{
+			mMaximal.add (new int[] {0, 0, 0, d, w, h});
+			mPartition.add (new int[] {0, 0, 0, d, w, h});
+		}
+	}
+
+	/**
+	 * constructs free space of the cells not occupied in grid
+	 * @param grid occupancy grid
+	 */
+	public FreeSpace (OccupancyGrid grid)
+	{
+		this (grid.getDimension (0), grid.getDimension (1), grid.getDimension (2));
+		if (grid.getOccupiedCount() > 0)
+		{
+			int[] occupied = new int[grid.getOccupiedCount() * 3];
+			int cOccupied = 0;
+			for (int cX = 0; cX < grid.getDimension (0); ++cX)
+			{
+				for (int cY = 0; cY < grid.getDimension (1); ++cY)
+				{
+					for (int cZ = 0; cZ < grid.getDimension (2); ++cZ)
+					{
+						if (grid.isOccupied (cX, cY, cZ))
+						{
+							occupied[cOccupied++] = cX;
+							occupied[cOccupied++] = cY;
+							occupied[cOccupied++] = cZ;
+						}
+					}
+				}
+			}
+			occupy (occupied, 0, 0, 0);
+		}
+	}
+
+	/**
+	 * @return copy of this free space in O(1)
+	 * boxes and lists of boxes are replaced instead of modified, so both copies share them
+	 */
+	public FreeSpace clone()
+	{
+		FreeSpace clone = new FreeSpace (0, 0, 0);
+		clone.mMaximal = mMaximal;
+		clone.mPartition = mPartition;
+		return clone;
+	}
+
+	/**
+	 * removes every cell translated by offset from the free space
+	 * @param cells packed cell triples relative to the shape's glue
+	 * @param x depth offset
+	 * @param y width offset
+	 * @param z height offset
+	 */
+	public void occupy (int[] cells, int x, int y, int z)
+	{
+		for (int[] box : toBoxes (cells))
+		{
+			box[0] += x;
+			box[1] += y;
+			box[2] += z;
+			box[3] += x;
+			box[4] += y;
+			box[5] += z;
+			subtractMaximal (box);
+			subtractPartition (box);
+		}
+	}
+
+	/**
+	 * @return maximal empty boxes, no box is contained in another one
+	 * the boxes returned must not be modified
+	 */
+	public ArrayList<int[]> getMaximalBoxes() { return mMaximal; }
+
+	/**
+	 * @return disjoint boxes whose union is the free space
+	 * the boxes returned must not be modified
+	 */
+	public ArrayList<int[]> getPartitionBoxes() { return mPartition; }
+
+	/**
+	 * @return number of free cells
+	 */
+	public int getFreeVolume()
+	{
+		int vol = 0;
+		for (int[] box : mPartition)
+			vol += getVolume (box);
+		return vol;
+	}
+
+	/**
+	 * @param box a box
+	 * @return number of cells in box
+	 */
+	public static int getVolume (int[] box)
+	{
+		return (box[3] - box[0]) * (box[4] - box[1]) * (box[5] - box[2]);
+	}
+
+	/**
+	 * @param grid occupancy grid
+	 * @return true if every cell of the box spanned is inside grid and occupied
+	 */
+	private static boolean isFilled (OccupancyGrid grid, int x0, int y0, int z0, int x1, int y1, int z1)
+	{
+		for (int cX = x0; cX < x1; ++cX)
+		{
+			for (int cY = y0; cY < y1; ++cY)
+			{
+				for (int cZ = z0; cZ < z1; ++cZ)
+				{
+					if (!grid.isInside (cX, cY, cZ) || !grid.isOccupied (cX, cY, cZ))
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if b1 and b2 share at least one cell
+	 */
+	private static boolean intersect (int[] b1, int[] b2)
+	{
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			if (b1[cDim] >= b2[cDim + 3] || b2[cDim] >= b1[cDim + 3])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if every cell of inner is within outer
+	 */
+	private static boolean contains (int[] outer, int[] inner)
+	{
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			if (inner[cDim] < outer[cDim] || inner[cDim + 3] > outer[cDim + 3])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * splits every maximal box intersecting occupied into the up to six maximal boxes
+	 * bordering occupied, then drops boxes contained in other boxes
+	 * @param occupied box to remove from the free space
+	 */
+	private void subtractMaximal (int[] occupied)
+	{
+		ArrayList<int[]> kept = new ArrayList<>(), split = new ArrayList<>();
+		for (int[] box : mMaximal)
+		{
+			if (!intersect (box, occupied))
+			{
+				kept.add (box);
+				continue;
+			}
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				if (occupied[cDim] > box[cDim])
+				{
+					int[] below = box.clone();
+					below[cDim + 3] = occupied[cDim];
+					split.add (below);
+				}
+				if (occupied[cDim + 3] < box[cDim + 3])
+				{
+					int[] above = box.clone();
+					above[cDim] = occupied[cDim + 3];
+					split.add (above);
+				}
+			}
+		}
+		if (split.isEmpty() && kept.size() == mMaximal.size())
+			return;
+
+		//split boxes can only be contained in other split boxes or untouched boxes
+		ArrayList<int[]> maximal = new ArrayList<>(kept);
+		for (int cSplit = 0; cSplit < split.size(); ++cSplit)
+		{
+			int[] box = split.get (cSplit);
+			boolean contained = false;
+			for (int cOther = 0; cOther < split.size() && !contained; ++cOther)
+			{
+				if (cOther != cSplit && contains (split.get (cOther), box) &&
+					(cOther < cSplit || !contains (box, split.get (cOther))))
+					contained = true;
+			}
+			for (int cKept = 0; cKept < kept.size() && !contained; ++cKept)
+			{
+				if (contains (kept.get (cKept), box))
+					contained = true;
+			}
+			if (!contained)
+				maximal.add (box);
+		}
+		mMaximal = maximal;
+	}
+
+	/**
+	 * replaces every partition box intersecting occupied by the disjoint boxes
+	 * left after cutting occupied out of it: slabs in depth, then in width, then in height
+	 * @param occupied box to remove from the free space
+	 */
+	private void subtractPartition (int[] occupied)
+	{
+		ArrayList<int[]> partition = new ArrayList<>();
+		for (int[] box : mPartition)
+		{
+			if (!intersect (box, occupied))
+			{
+				partition.add (box);
+				continue;
+			}
+			int[] rest = box.clone();
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				if (occupied[cDim] > rest[cDim])
+				{
+					int[] below = rest.clone();
+					below[cDim + 3] = occupied[cDim];
+					partition.add (below);
+					rest[cDim] = occupied[cDim];
+				}
+				if (occupied[cDim + 3] < rest[cDim + 3])
+				{
+					int[] above = rest.clone();
+					above[cDim] = occupied[cDim + 3];
+					partition.add (above);
+					rest[cDim + 3] = occupied[cDim + 3];
+				}
+			}
+		}
+		mPartition = partition;
+	}
+
+	private ArrayList<int[]> mMaximal;
+	private ArrayList<int[]> mPartition;
+}
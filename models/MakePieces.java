@@ -6,22 +6,48 @@ import models.BasicShape.RotationDir;
 
 public class MakePieces {
 	
+	/**
+	 * @param b block to rotate
+	 * @param rotations rotations applied in order
+	 * @return cached block equal to b rotated by every rotation in order
+	 */
+	private static Block getRotated(Block b, Orientation... rotations)
+	{
+		Orientation o = Orientation.getIdentity();
+		for (Orientation r : rotations)
+			o = r.compose(o);
+		return OrientationCache.getRotated(b, o);
+	}
+	
+	/**
+	 * @param b block to rotate
+	 * @return b rotated 0 to 3 times around y, each followed by 0 to 3 rotations around z
+	 */
+	private static ArrayList<Block> getYZRotations(Block b)
+	{
+		ArrayList<Block> list = new ArrayList<Block>();
+		Orientation y = Orientation.getIdentity();
+		for (int cY = 0; cY < 4; ++cY)
+		{
+			Orientation yz = y;
+			for (int cZ = 0; cZ < 4; ++cZ)
+			{
+				list.add(OrientationCache.getRotated(b, yz));
+				yz = ROT_Z.compose(yz);
+			}
+			y = ROT_Y.compose(y);
+		}
+		return list;
+	}
+	
 	public static ArrayList<Block> getA()
 	{
 		ArrayList<Block> listA = new ArrayList<Block>();
 		BasicShape a = Container.constructInitShape(2, 2, 4);
-		Block A = new Block (a, 1); 
+		Block A = new Block (a, 1, "A"); 
 		listA.add(A);
-		Matrix<Double> rotY = BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD);
-		Matrix<Double> rotZ = BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD);
-		
-		Block A1 = A.clone(); A1.rotate(rotY);
-		Block A2 = A.clone(); A2.rotate(rotZ); A2.rotate(rotY);A2.rotate(rotZ);
-		
-		BasicShape aa1 = Container.constructInitShape(A1.getDimensions(0), A1.getDimensions(1), A1.getDimensions(2));
-		BasicShape aa2 = Container.constructInitShape(A2.getDimensions(0), A2.getDimensions(1), A2.getDimensions(2));
-		Block AA1 = new Block(aa1,1); listA.add(AA1);
-		Block AA2 = new Block(aa2,1); listA.add(AA2);
+		listA.add(getRotated(A, ROT_Y));
+		listA.add(getRotated(A, ROT_Z, ROT_Y, ROT_Z));
 		
 		return listA;
 	}
@@ -30,18 +56,10 @@ public class MakePieces {
 	{
 		ArrayList<Block> listB = new ArrayList<Block>();
 		BasicShape b = Container.constructInitShape(2, 3, 4);
-		Block B = new Block (b, 1); 
+		Block B = new Block (b, 1, "B"); 
 		listB.add(B);
-		Matrix<Double> rotY = BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD);
-		Matrix<Double> rotZ = BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD);
-		Block B1 = B.clone(); B1.rotate(rotY);
-		Block B2 = B.clone(); B2.rotate(rotZ); B2.rotate(rotY);B2.rotate(rotZ);
-		
-		BasicShape bb1 = Container.constructInitShape(B1.getDimensions(0), B1.getDimensions(1), B1.getDimensions(2));
-		BasicShape bb2 = Container.constructInitShape(B2.getDimensions(0), B2.getDimensions(1), B2.getDimensions(2));
-		Block BB1 = new Block(bb1,1); listB.add(BB1);
-		Block BB2 = new Block(bb2,1); listB.add(BB2);
-		
+		listB.add(getRotated(B, ROT_Y));
+		listB.add(getRotated(B, ROT_Z, ROT_Y, ROT_Z));
 		
 		return listB;
 	}
@@ -50,35 +68,14 @@ public class MakePieces {
 	{
 		ArrayList<Block> listC = new ArrayList<Block>();
 		BasicShape c = Container.constructInitShape(3, 3, 3);
-		Block C = new Block (c, 1); 
+		Block C = new Block (c, 1, "C"); 
 		listC.add(C);
 		return listC;
 	}
 	
 	public static ArrayList<Block> getL()
 	{
-		Matrix<Double> rotY = BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD);
-		Matrix<Double> rotZ = BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD);
-		ArrayList<Block> listL = new ArrayList<Block>();
-		
-		Block L1 = Pieces.createLBlock(); listL.add(L1);
-		Block L2 = L1.clone(); L2.rotate(rotZ);listL.add(L2);
-		Block L3 = L2.clone(); L3.rotate(rotZ);listL.add(L3);
-		Block L4 = L3.clone(); L4.rotate(rotZ);listL.add(L4);
-		Block L5 = L1.clone(); L5.rotate(rotY);listL.add(L5);
-		Block L6 = L5.clone(); L6.rotate(rotZ);listL.add(L6);
-		Block L7 = L6.clone(); L7.rotate(rotZ);listL.add(L7);
-		Block L8 = L7.clone(); L8.rotate(rotZ);listL.add(L8);
-		Block L9 = L5.clone(); L9.rotate(rotY);listL.add(L9);
-		Block L10 = L9.clone(); L10.rotate(rotZ);listL.add(L10);
-		Block L11 = L10.clone(); L11.rotate(rotZ);listL.add(L11);
-		Block L12 = L11.clone(); L12.rotate(rotZ);listL.add(L12);
-		Block L13 = L9.clone(); L13.rotate(rotY);listL.add(L13);
-		Block L14 = L13.clone(); L14.rotate(rotZ);listL.add(L14);
-		Block L15 = L14.clone(); L15.rotate(rotZ);listL.add(L15);
-		Block L16 = L15.clone(); L16.rotate(rotZ);listL.add(L16);
-		
-		return listL;
+		return getYZRotations(Pieces.createLBlock());
 	}
 	
 	public static ArrayList<Position> getLPos()
@@ -105,28 +102,7 @@ public class MakePieces {
 	
 	public static ArrayList<Block> getP()
 	{
-		Matrix<Double> rotY = BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD);
-		Matrix<Double> rotZ = BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD);
-		ArrayList<Block> listP = new ArrayList<Block>();
-		
-		Block P1 = Pieces.createPBlock(); listP.add(P1);
-		Block P2 = P1.clone(); P2.rotate(rotZ);listP.add(P2);
-		Block P3 = P2.clone(); P3.rotate(rotZ);listP.add(P3);
-		Block P4 = P3.clone(); P4.rotate(rotZ);listP.add(P4);
-		Block P5 = P1.clone(); P5.rotate(rotY);listP.add(P5);
-		Block P6 = P5.clone(); P6.rotate(rotZ);listP.add(P6);
-		Block P7 = P6.clone(); P7.rotate(rotZ);listP.add(P7);
-		Block P8 = P7.clone(); P8.rotate(rotZ);listP.add(P8);
-		Block P9 = P5.clone(); P9.rotate(rotY);listP.add(P9);
-		Block P10 = P9.clone(); P10.rotate(rotZ);listP.add(P10);
-		Block P11 = P10.clone(); P11.rotate(rotZ);listP.add(P11);
-		Block P12 = P11.clone(); P12.rotate(rotZ);listP.add(P12);
-		Block P13 = P9.clone(); P13.rotate(rotY);listP.add(P13);
-		Block P14 = P13.clone(); P14.rotate(rotZ);listP.add(P14);
-		Block P15 = P14.clone(); P15.rotate(rotZ);listP.add(P15);
-		Block P16 = P15.clone(); P16.rotate(rotZ);listP.add(P16);
-		
-		return listP;
+		return getYZRotations(Pieces.createPBlock());
 	}
 	
 	
@@ -154,21 +130,20 @@ public class MakePieces {
 	
 	public static ArrayList<Block> getT()
 	{
-		Matrix<Double> rotY = BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD);
-		Matrix<Double> rotZ = BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD);
 		ArrayList<Block> listT = new ArrayList<Block>();
-		Block T1 = Pieces.createTBlock(); listT.add(T1);
-		Block T2 = T1.clone(); T2.rotate(rotZ);listT.add(T2);
-		Block T3 = T2.clone(); T3.rotate(rotZ);listT.add(T3);
-		Block T4 = T3.clone(); T4.rotate(rotZ);listT.add(T4);
-		Block T5 = T1.clone(); T5.rotate(rotY);listT.add(T5);
-		Block T6 = T5.clone(); T6.rotate(rotZ);listT.add(T6);
-		Block T7 = T6.clone(); T7.rotate(rotZ);listT.add(T7);
-		Block T8 = T7.clone(); T8.rotate(rotZ);listT.add(T8);
-		Block T9 = T1.clone(); T9.rotate(rotY);T9.rotate(rotZ);	T9.rotate(rotY);T9.rotate(rotZ);listT.add(T9);
-		Block T10 = T9.clone(); T10.rotate(rotZ);listT.add(T10);
-		Block T11 = T10.clone(); T11.rotate(rotZ);T11.rotate(rotY);T11.rotate(rotY);listT.add(T11);
-		Block T12 = T11.clone(); T12.rotate(rotZ);listT.add(T12);
+		Block T = Pieces.createTBlock();
+		listT.add(getRotated(T));
+		listT.add(getRotated(T, ROT_Z));
+		listT.add(getRotated(T, ROT_Z, ROT_Z));
+		listT.add(getRotated(T, ROT_Z, ROT_Z, ROT_Z));
+		listT.add(getRotated(T, ROT_Y));
+		listT.add(getRotated(T, ROT_Y, ROT_Z));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Z));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Z, ROT_Z));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Y, ROT_Z));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Y, ROT_Z, ROT_Z));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Y, ROT_Z, ROT_Z, ROT_Z, ROT_Y, ROT_Y));
+		listT.add(getRotated(T, ROT_Y, ROT_Z, ROT_Y, ROT_Z, ROT_Z, ROT_Z, ROT_Y, ROT_Y, ROT_Z));
 		
 		return listT;
 	}
@@ -526,4 +501,6 @@ public class MakePieces {
 		return list;
 	}
 	
+	private static final Orientation ROT_Y = Orientation.fromMatrix(BasicShape.rotationMatrix(90, 0, RotationDir.ONWARD));
+	private static final Orientation ROT_Z = Orientation.fromMatrix(BasicShape.rotationMatrix(0, 90, RotationDir.ONWARD));
 }
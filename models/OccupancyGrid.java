@@ -0,0 +1,235 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * bit packed 3d grid storing one bit per unit cell of a cuboid space
+ * a set bit marks the corresponding cell as occupied
+ * cells are addressed relative to the minimum corner of the space
+ */
+public class OccupancyGrid implements Cloneable
+{
+	/**
+	 * constructs grid where every cell is free
+	 * @param d number of cells in depth
+	 * @param w number of cells in width
+	 * @param h number of cells in height
+	 */
+	public OccupancyGrid (int d, int w, int h)
+	{
+		if (d < 0 || w < 0 || h < 0)
+			throw new IllegalArgumentException ("negative grid dimension not permissible");
+		mD = d;
+		mW = w;
+		mH = h;
+		mBits = new long[(d * w * h + WORD_BITS - 1) / WORD_BITS];
+		mOccupied = 0;
+	}
+
+	/**
+	 * @return deep copy of this grid
+	 */
+	public OccupancyGrid clone()
+	{
+		OccupancyGrid clone = new OccupancyGrid (mD, mW, mH);
+		System.arraycopy (mBits, 0, clone.mBits, 0, mBits.length);
+		clone.mOccupied = mOccupied;
+		return clone;
+	}
+
+	/**
+	 * overwrites the cells of this grid by the cells of src without allocating
+	 * @param src grid of the same dimensions
+	 */
+	public void copy (OccupancyGrid src)
+	{
+		if (mD != src.mD || mW != src.mW || mH != src.mH)
+			throw new IllegalArgumentException ("grids differ in dimensions");
+		System.arraycopy (src.mBits, 0, mBits, 0, mBits.length);
+		mOccupied = src.mOccupied;
+	}
+
+	/**
+	 * @param obj another object
+	 * @return true if obj is a grid of the same dimensions having the same cells occupied
+	 */
+	@Override
+	public boolean equals (Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (!(obj instanceof OccupancyGrid))
+			return false;
+		OccupancyGrid grid = (OccupancyGrid) obj;
+		return (mD == grid.mD && mW == grid.mW && mH == grid.mH && mOccupied == grid.mOccupied && Arrays.equals (mBits, grid.mBits));
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode (mBits) * 31 + mOccupied;
+	}
+
+	/**
+	 * @param index index of dimension
+	 * @return number of cells in dimension index
+	 */
+	public int getDimension (int index)
+	{
+		switch (index)
+		{
+		case 0: return mD;
+		case 1: return mW;
+		case 2: return mH;
+		default: throw new IllegalArgumentException ("grid has no dimension " + index);
+		}
+	}
+
+	/**
+	 * @return number of occupied cells
+	 */
+	public int getOccupiedCount() { return mOccupied; }
+
+	/**
+	 * @param index linear index of cell, cells are ordered by depth, then width, then height
+	 * @return linear index of first free cell at or after index, -1 if there is none
+	 */
+	public int getNextFree (int index)
+	{
+		int cells = mD * mW * mH;
+		if (index < 0)
+			index = 0;
+		if (index >= cells)
+			return -1;
+		int word = index >>> WORD_SHIFT;
+		long free = ~mBits[word] & (-1L << index);
+		while (free == 0)
+		{
+			if (++word == mBits.length)
+				return -1;
+			free = ~mBits[word];
+		}
+		int next = (word << WORD_SHIFT) + Long.numberOfTrailingZeros (free);
+		return (next < cells ? next : -1);
+	}
+
+	/**
+	 * @param x depth coordinate
+	 * @param y width coordinate
+	 * @param z height coordinate
+	 * @return true if cell is within the grid
+	 */
+	public boolean isInside (int x, int y, int z)
+	{
+		return (x >= 0 && x < mD && y >= 0 && y < mW && z >= 0 && z < mH);
+	}
+
+	/**
+	 * @param x depth coordinate
+	 * @param y width coordinate
+	 * @param z height coordinate
+	 * @return true if cell is occupied or outside of the grid
+	 */
+	public boolean isOccupied (int x, int y, int z)
+	{
+		if (!isInside (x, y, z))
+			return true;
+		int index = getIndex (x, y, z);
+		return (mBits[index >>> WORD_SHIFT] & (1L << index)) != 0;
+	}
+
+	/**
+	 * @param cells packed cell triples relative to the shape's glue
+	 * @param x depth offset
+	 * @param y width offset
+	 * @param z height offset
+	 * @return true if every cell translated by offset is inside and free
+	 */
+	public boolean fits (int[] cells, int x, int y, int z)
+	{
+		for (int cCell = 0; cCell < cells.length; cCell += 3)
+		{
+			if (isOccupied (cells[cCell] + x, cells[cCell + 1] + y, cells[cCell + 2] + z))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * marks every cell translated by offset as occupied
+	 * @param cells packed cell triples relative to the shape's glue
+	 * @param x depth offset
+	 * @param y width offset
+	 * @param z height offset
+	 * cells outside of the grid are ignored
+	 */
+	public void occupy (int[] cells, int x, int y, int z)
+	{
+		for (int cCell = 0; cCell < cells.length; cCell += 3)
+		{
+			if (isInside (cells[cCell] + x, cells[cCell + 1] + y, cells[cCell + 2] + z))
+				set (cells[cCell] + x, cells[cCell + 1] + y, cells[cCell + 2] + z, true);
+		}
+	}
+
+	/**
+	 * marks every cell translated by offset as free
+	 * @param cells packed cell triples relative to the shape's glue
+	 * @param x depth offset
+	 * @param y width offset
+	 * @param z height offset
+	 * cells outside of the grid are ignored
+	 */
+	public void release (int[] cells, int x, int y, int z)
+	{
+		for (int cCell = 0; cCell < cells.length; cCell += 3)
+		{
+			if (isInside (cells[cCell] + x, cells[cCell + 1] + y, cells[cCell + 2] + z))
+				set (cells[cCell] + x, cells[cCell + 1] + y, cells[cCell + 2] + z, false);
+		}
+	}
+
+	/**
+	 * @param x depth coordinate
+	 * @param y width coordinate
+	 * @param z height coordinate
+	 * @param occupied true to occupy cell, false to free it
+	 * Precondition: cell is inside the grid
+	 */
+	public void set (int x, int y, int z, boolean occupied)
+	{
+		if (!isInside (x, y, z))
+			throw new IllegalArgumentException ("cell " + x + " " + y + " " + z + " is outside of grid");
+		int index = getIndex (x, y, z);
+		long mask = 1L << index;
+		long word = mBits[index >>> WORD_SHIFT];
+		if (occupied && (word & mask) == 0)
+		{
+			mBits[index >>> WORD_SHIFT] = word | mask;
+			++mOccupied;
+		}
+		else if (!occupied && (word & mask) != 0)
+		{
+			mBits[index >>> WORD_SHIFT] = word & ~mask;
+			--mOccupied;
+		}
+	}
+
+	/**
+	 * @param x depth coordinate
+	 * @param y width coordinate
+	 * @param z height coordinate
+	 * @return linear index of cell
+	 */
+	private int getIndex (int x, int y, int z)
+	{
+		return (x * mW + y) * mH + z;
+	}
+
+	private static final int WORD_BITS = 64;
+	private static final int WORD_SHIFT = 6;
+
+	private long[] mBits;
+	private int mD, mW, mH;
+	private int mOccupied;
+}
@@ -0,0 +1,285 @@
+package models;
+
+import java.util.ArrayList;
+
+/**
+ * class representing one of the 24 axis aligned orientations in 3d space
+ * every orientation is a signed permutation of the axes with determinant 1
+ * applying an orientation only uses integer arithmetic
+ * orientations are immutable and shared through a precomputed table
+ */
+public class Orientation
+{
+	/**
+	 * number of distinct axis aligned orientations
+	 */
+	public static final int COUNT = 24;
+
+	/**
+	 * @return all orientations, the identity first
+	 */
+	public static ArrayList<Orientation> getAll()
+	{
+		ArrayList<Orientation> all = new ArrayList<Orientation>();
+		for (Orientation o : TABLE)
+			all.add (o);
+		return all;
+	}
+
+	/**
+	 * @param index index of orientation in table
+	 * @return orientation at index
+	 */
+	public static Orientation get (int index)
+	{
+		if (index < 0 || index >= COUNT)
+			throw new IllegalArgumentException ("there is no orientation " + index);
+		return TABLE[index];
+	}
+
+	/**
+	 * @return orientation leaving every vector unchanged
+	 */
+	public static Orientation getIdentity() { return TABLE[0]; }
+
+	/**
+	 * @param perm perm[i] is the axis mapped onto axis i
+	 * @return the orientation permuting the axes like perm, or null if perm is not a permutation
+	 * if several orientations permute the axes this way, the one with the least negated axes is returned
+	 */
+	public static Orientation fromPermutation (int[] perm)
+	{
+		for (Orientation o : TABLE)
+		{
+			if (o.mPerm[0] == perm[0] && o.mPerm[1] == perm[1] && o.mPerm[2] == perm[2])
+				return o;
+		}
+		return null;
+	}
+
+	/**
+	 * @param rotMat 3x3 matrix
+	 * @return orientation equal to rotMat or null if rotMat is not an axis aligned rotation
+	 */
+	public static Orientation fromMatrix (Matrix<Double> rotMat)
+	{
+		if (rotMat.getRows() != 3 || rotMat.getColumns() != 3)
+			return null;
+		int[] perm = new int[3];
+		int[] sign = new int[3];
+		for (int cRow = 0; cRow < 3; ++cRow)
+		{
+			int nonZero = 0;
+			for (int cCol = 0; cCol < 3; ++cCol)
+			{
+				double val = rotMat.getCell (cRow, cCol);
+				if (Math.abs (val) < EPSILON)
+					continue;
+				if (Math.abs (Math.abs (val) - 1.0) >= EPSILON)
+					return null;
+				perm[cRow] = cCol;
+				sign[cRow] = (val > 0 ? 1 : -1);
+				++nonZero;
+			}
+			if (nonZero != 1)
+				return null;
+		}
+		return find (perm, sign);
+	}
+
+	/**
+	 * @return index of this in the orientation table
+	 */
+	public int getIndex() { return mIndex; }
+
+	/**
+	 * @param axis target axis
+	 * @return axis mapped onto axis
+	 */
+	public int getSourceAxis (int axis) { return mPerm[axis]; }
+
+	/**
+	 * @param axis target axis
+	 * @return -1 if the source axis is negated, 1 otherwise
+	 */
+	public int getSign (int axis) { return mSign[axis]; }
+
+	/**
+	 * @param v 3x1 vector
+	 * @return new vector holding v in this orientation
+	 */
+	public Matrix.IntegerMatrix apply (Matrix<Integer> v)
+	{
+		Matrix.IntegerMatrix rotated = new Matrix.IntegerMatrix (3, 1);
+		for (int cRow = 0; cRow < 3; ++cRow)
+			rotated.setCell (cRow, 0, mSign[cRow] * v.getCell (mPerm[cRow], 0));
+		return rotated;
+	}
+
+	/**
+	 * @param coords coordinates stored as consecutive triples
+	 * @param result array to store rotated triples in, may be coords
+	 * @return result
+	 */
+	public int[] apply (int[] coords, int[] result)
+	{
+		for (int cTriple = 0; cTriple < coords.length; cTriple += 3)
+		{
+			int x = coords[cTriple], y = coords[cTriple + 1], z = coords[cTriple + 2];
+			for (int cAxis = 0; cAxis < 3; ++cAxis)
+			{
+				int src = mPerm[cAxis];
+				int val = (src == 0 ? x : (src == 1 ? y : z));
+				result[cTriple + cAxis] = mSign[cAxis] * val;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param dims dimensions of a cuboid
+	 * @return dimensions of the cuboid in this orientation
+	 */
+	public int[] applyToDimensions (int[] dims)
+	{
+		int[] rotated = new int[3];
+		for (int cAxis = 0; cAxis < 3; ++cAxis)
+			rotated[cAxis] = dims[mPerm[cAxis]];
+		return rotated;
+	}
+
+	/**
+	 * @param first orientation applied first
+	 * @return orientation equal to applying first, then this
+	 */
+	public Orientation compose (Orientation first)
+	{
+		return TABLE[COMPOSITION[mIndex * COUNT + first.mIndex]];
+	}
+
+	/**
+	 * @return orientation undoing this
+	 */
+	public Orientation inverse()
+	{
+		int[] perm = new int[3];
+		int[] sign = new int[3];
+		for (int cAxis = 0; cAxis < 3; ++cAxis)
+		{
+			perm[mPerm[cAxis]] = cAxis;
+			sign[mPerm[cAxis]] = mSign[cAxis];
+		}
+		return find (perm, sign);
+	}
+
+	/**
+	 * @return 3x3 rotation matrix equal to this
+	 */
+	public Matrix.DoubleMatrix toMatrix()
+	{
+		Matrix.DoubleMatrix m = new Matrix.DoubleMatrix (3, 3);
+		for (int cRow = 0; cRow < 3; ++cRow)
+			m.setCell (cRow, mPerm[cRow], (double) mSign[cRow]);
+		return m;
+	}
+
+	public String toString()
+	{
+		String s = "orientation " + mIndex + " [";
+		for (int cAxis = 0; cAxis < 3; ++cAxis)
+			s += (mSign[cAxis] < 0 ? " -" : " +") + "xyz".charAt (mPerm[cAxis]);
+		return s + " ]";
+	}
+
+	/**
+	 * @param perm axis permutation
+	 * @param sign axis signs
+	 * @return orientation in table or null if there is none
+	 */
+	private static Orientation find (int[] perm, int[] sign)
+	{
+		for (Orientation o : TABLE)
+		{
+			boolean equal = true;
+			for (int cAxis = 0; cAxis < 3 && equal; ++cAxis)
+				equal = (o.mPerm[cAxis] == perm[cAxis] && o.mSign[cAxis] == sign[cAxis]);
+			if (equal)
+				return o;
+		}
+		return null;
+	}
+
+	/**
+	 * @return table of all signed permutations with determinant 1
+	 */
+	private static Orientation[] createTable()
+	{
+		int[][] perms = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+		int[] parity = {1, -1, -1, 1, 1, -1};
+		Orientation[] table = new Orientation[COUNT];
+		int index = 0;
+		for (int cPerm = 0; cPerm < perms.length; ++cPerm)
+		{
+			//sign patterns ordered by number of negated axes
+			for (int cNegated = 0; cNegated <= 3; ++cNegated)
+			{
+				for (int cSigns = 0; cSigns < 8; ++cSigns)
+				{
+					if (Integer.bitCount (cSigns) != cNegated)
+						continue;
+					int[] sign = new int[3];
+					int det = parity[cPerm];
+					for (int cAxis = 0; cAxis < 3; ++cAxis)
+					{
+						sign[cAxis] = ((cSigns >> cAxis) & 1) == 1 ? -1 : 1;
+						det *= sign[cAxis];
+					}
+					if (det == 1)
+					{
+						table[index] = new Orientation (index, perms[cPerm].clone(), sign);
+						++index;
+					}
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * @return composition table, entry i * COUNT + j is the index of TABLE[i] after TABLE[j]
+	 */
+	private static int[] createComposition()
+	{
+		int[] comp = new int[COUNT * COUNT];
+		for (int cOuter = 0; cOuter < COUNT; ++cOuter)
+		{
+			for (int cInner = 0; cInner < COUNT; ++cInner)
+			{
+				Orientation outer = TABLE[cOuter], inner = TABLE[cInner];
+				int[] perm = new int[3];
+				int[] sign = new int[3];
+				for (int cAxis = 0; cAxis < 3; ++cAxis)
+				{
+					perm[cAxis] = inner.mPerm[outer.mPerm[cAxis]];
+					sign[cAxis] = outer.mSign[cAxis] * inner.mSign[outer.mPerm[cAxis]];
+				}
+				comp[cOuter * COUNT + cInner] = find (perm, sign).mIndex;
+			}
+		}
+		return comp;
+	}
+
+	private Orientation (int index, int[] perm, int[] sign)
+	{
+		mIndex = index;
+		mPerm = perm;
+		mSign = sign;
+	}
+
+	private static final double EPSILON = 1e-4;
+	private static final Orientation[] TABLE = createTable();
+	private static final int[] COMPOSITION = createComposition();
+
+	private final int mIndex;
+	private final int[] mPerm, mSign;
+}
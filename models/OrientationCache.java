@@ -0,0 +1,246 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import models.Matrix.IntegerMatrix;
+
+/**
+ * process wide cache of the distinct orientations of blocks
+ * blocks are keyed by a signature of their unit cells which does not depend on
+ * their position or orientation, so every rotation of a piece shares one entry
+ * cached blocks are glued to the origin and cannot be rotated or glued again,
+ * clones of them are ordinary blocks
+ */
+public class OrientationCache
+{
+	@SuppressWarnings("serial")
+	public static class FrozenBlockException extends IllegalStateException
+	{
+		public FrozenBlockException() {}
+
+		public FrozenBlockException (String message) { super (message); }
+	}
+
+	/**
+	 * block shared by the cache which refuses to be rotated or glued
+	 */
+	public static class FrozenBlock extends Block
+	{
+		/**
+		 * @param shape shape to copy
+		 * @param value value of block
+		 * @param name name of block
+		 */
+		private FrozenBlock (BasicShape shape, double value, String name)
+		{
+			super (shape, value, name);
+			getCells();
+			mFrozen = true;
+		}
+
+		@Override
+		public void rotate (Matrix<Double> rotMatrix)
+		{
+			throw new FrozenBlockException ("cached block cannot be rotated, rotate a clone instead");
+		}
+
+		@Override
+		public void rotate (Orientation o)
+		{
+			throw new FrozenBlockException ("cached block cannot be rotated, rotate a clone instead");
+		}
+
+		@Override
+		public void glue (Glue g)
+		{
+			if (mFrozen)
+				throw new FrozenBlockException ("cached block cannot be glued, glue a clone instead");
+			super.glue (g);
+		}
+
+		private boolean mFrozen;
+	}
+
+	/**
+	 * @param b a block
+	 * @return every distinct orientation of b glued to the origin
+	 * the returned list is shared and must not be modified,
+	 * its blocks can be passed to Container.placeBlock, which places a copy
+	 */
+	public static List<Block> getRotations (Block b)
+	{
+		return getEntry (b, new int[1]).mRotations;
+	}
+
+	/**
+	 * @param b a block
+	 * @param o orientation to rotate b into
+	 * @return cached block equal to b rotated by o and glued to the origin
+	 */
+	public static Block getRotated (Block b, Orientation o)
+	{
+		int[] canonical = new int[1];
+		Entry e = getEntry (b, canonical);
+		//b equals the canonical shape rotated by the inverse of the canonical orientation
+		Orientation fromCanonical = o.compose (Orientation.get (canonical[0]).inverse());
+		return e.mRotations.get (e.mRotationIndex[fromCanonical.getIndex()]);
+	}
+
+	/**
+	 * @return number of distinct pieces cached
+	 */
+	public static int size() { return CACHE.size(); }
+
+	/**
+	 * @return number of lookups served from the cache
+	 */
+	public static long getHits() { return HITS.get(); }
+
+	/**
+	 * @return number of lookups which computed a new entry
+	 */
+	public static long getMisses() { return MISSES.get(); }
+
+	/**
+	 * removes every entry and resets the statistics
+	 */
+	public static void clear()
+	{
+		CACHE.clear();
+		HITS.set (0);
+		MISSES.set (0);
+	}
+
+	/**
+	 * cached orientations of one piece
+	 */
+	private static class Entry
+	{
+		/**
+		 * @param rotations distinct orientations of the canonical shape
+		 * @param rotationIndex index into rotations for every orientation in the table
+		 */
+		public Entry (List<Block> rotations, int[] rotationIndex)
+		{
+			mRotations = rotations;
+			mRotationIndex = rotationIndex;
+		}
+
+		public final List<Block> mRotations;
+		public final int[] mRotationIndex;
+	}
+
+	/**
+	 * @param b a block
+	 * @param canonical array to store index of orientation taking b to its canonical shape in
+	 * @return entry of b, computed if not yet present
+	 */
+	private static Entry getEntry (Block b, int[] canonical)
+	{
+		int[][] signatures = getSignatures (b);
+		canonical[0] = 0;
+		for (int cOrient = 1; cOrient < Orientation.COUNT; ++cOrient)
+		{
+			if (compare (signatures[cOrient], signatures[canonical[0]]) < 0)
+				canonical[0] = cOrient;
+		}
+		String key = Arrays.toString (signatures[canonical[0]]) + "|" + b.getValue() + "|" + b.getName();
+
+		Entry e = CACHE.get (key);
+		if (e != null)
+		{
+			HITS.incrementAndGet();
+			return e;
+		}
+		MISSES.incrementAndGet();
+		e = createEntry (b, Orientation.get (canonical[0]));
+		Entry prev = CACHE.putIfAbsent (key, e);
+		return (prev == null ? e : prev);
+	}
+
+	/**
+	 * @param b a block
+	 * @param toCanonical orientation taking b to its canonical shape
+	 * @return entry holding every distinct orientation of the canonical shape
+	 */
+	private static Entry createEntry (Block b, Orientation toCanonical)
+	{
+		BasicShape canonical = new BasicShape (b);
+		canonical.rotate (toCanonical);
+		canonical.glue (new Glue (new IntegerMatrix (3, 1)));
+		int[][] signatures = getSignatures (canonical);
+
+		ArrayList<Block> rotations = new ArrayList<Block>();
+		ArrayList<int[]> distinct = new ArrayList<int[]>();
+		int[] rotationIndex = new int[Orientation.COUNT];
+		for (int cOrient = 0; cOrient < Orientation.COUNT; ++cOrient)
+		{
+			int found = 0;
+			while (found < distinct.size() && !Arrays.equals (distinct.get (found), signatures[cOrient]))
+				++found;
+			if (found == distinct.size())
+			{
+				BasicShape rotated = new BasicShape (canonical);
+				rotated.rotate (Orientation.get (cOrient));
+				rotated.glue (new Glue (new IntegerMatrix (3, 1)));
+				rotations.add (new FrozenBlock (rotated, b.getValue(), b.getName()));
+				distinct.add (signatures[cOrient]);
+			}
+			rotationIndex[cOrient] = found;
+		}
+		return new Entry (Collections.unmodifiableList (rotations), rotationIndex);
+	}
+
+	/**
+	 * @param shape a shape
+	 * @return for every orientation in the table the sorted, translation normalized cells of shape rotated by it
+	 * cells are encoded as single integers using the largest dimension of shape as base
+	 */
+	private static int[][] getSignatures (BasicShape shape)
+	{
+		int[] cells = shape.getCells();
+		int base = Math.max (shape.getDimensions (0), Math.max (shape.getDimensions (1), shape.getDimensions (2))) + 1;
+		int[] rotated = new int[cells.length];
+		int[][] signatures = new int[Orientation.COUNT][];
+		for (int cOrient = 0; cOrient < Orientation.COUNT; ++cOrient)
+		{
+			Orientation.get (cOrient).apply (cells, rotated);
+			int[] min = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+			for (int cCell = 0; cCell < rotated.length; ++cCell)
+				min[cCell % 3] = Math.min (min[cCell % 3], rotated[cCell]);
+
+			int[] sig = new int[cells.length / 3];
+			for (int cCell = 0; cCell < sig.length; ++cCell)
+			{
+				sig[cCell] = ((rotated[3 * cCell] - min[0]) * base + rotated[3 * cCell + 1] - min[1]) * base
+						+ rotated[3 * cCell + 2] - min[2];
+			}
+			Arrays.sort (sig);
+			signatures[cOrient] = sig;
+		}
+		return signatures;
+	}
+
+	/**
+	 * @param s1 a signature
+	 * @param s2 another signature of the same length
+	 * @return negative, zero or positive number if s1 is lexicographically less, equal or greater than s2
+	 */
+	private static int compare (int[] s1, int[] s2)
+	{
+		for (int cEntry = 0; cEntry < s1.length; ++cEntry)
+		{
+			if (s1[cEntry] != s2[cEntry])
+				return (s1[cEntry] < s2[cEntry] ? -1 : 1);
+		}
+		return 0;
+	}
+
+	private static final ConcurrentHashMap<String, Entry> CACHE = new ConcurrentHashMap<String, Entry>();
+	private static final AtomicLong HITS = new AtomicLong(), MISSES = new AtomicLong();
+}
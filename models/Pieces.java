@@ -12,7 +12,7 @@ public class Pieces {
 		ArrayList<IntegerMatrix> T = createTPent();
 		ArrayList<ArrayList<IntegerMatrix>> cT = getConnectedT();
 		IntegerMatrix iT = BasicShape.buildAdjacencyMatrix(T, cT);
-		Block blockT = new Block(T, iT, 1);
+		Block blockT = new Block(T, iT, 1, "T");
 		
 		return blockT;
 		
@@ -23,7 +23,7 @@ public class Pieces {
 		ArrayList<IntegerMatrix> P = createPPent();
 		ArrayList<ArrayList<IntegerMatrix>> cP = getConnectedP();
 		IntegerMatrix iP = BasicShape.buildAdjacencyMatrix(P, cP);
-		Block blockP = new Block(P, iP, 1);
+		Block blockP = new Block(P, iP, 1, "P");
 		
 		return blockP;
 	}
@@ -33,7 +33,7 @@ public class Pieces {
 		ArrayList<IntegerMatrix> L = createLPent();
 		ArrayList<ArrayList<IntegerMatrix>> cL = getConnectedL();
 		IntegerMatrix iL = BasicShape.buildAdjacencyMatrix(L, cL);
-		Block blockL = new Block(L, iL, 1);
+		Block blockL = new Block(L, iL, 1, "L");
 		
 		return blockL;
 	}
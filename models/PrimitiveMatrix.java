@@ -0,0 +1,516 @@
+package models;
+
+import java.io.PrintStream;
+
+import models.Matrix.MatrixDimensionMismatchException;
+import models.Matrix.MatrixOutOfBoundsException;
+
+/**
+ * Class modeling a matrix whose cells are stored in a flat primitive array in row major order
+ * counterpart of Matrix avoiding boxing of cells on every access
+ */
+public abstract class PrimitiveMatrix implements Cloneable
+{
+	/**
+	 * Extension of primitive matrix: models matrix whose entries are ints
+	 */
+	public static class IntMatrix extends PrimitiveMatrix
+	{
+		/**
+		 * @param m boxed integer matrix
+		 * @return primitive copy of m
+		 */
+		public static IntMatrix fromMatrix (Matrix<Integer> m)
+		{
+			IntMatrix im = new IntMatrix (m.getRows(), m.getColumns());
+			for (int cRow = 0; cRow < im.getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < im.getColumns(); ++cCol)
+					im.mStore[cRow * im.getColumns() + cCol] = m.getCell (cRow, cCol);
+			}
+			return im;
+		}
+
+		/** Constructs matrix whose cells are initialized to 0
+			@param rows number of rows
+			@param cols number of columns
+		**/
+		public IntMatrix (int rows, int cols)
+		{
+			super (rows, cols);
+			mStore = new int[rows * cols];
+		}
+
+		/**
+		 * cloning method
+		 * @return a clone of this
+		 */
+		public IntMatrix clone()
+		{
+			IntMatrix clone = new IntMatrix (getRows(), getColumns());
+			System.arraycopy (mStore, 0, clone.mStore, 0, mStore.length);
+			return clone;
+		}
+
+		/**
+		 * conversion method from primitive to boxed integer matrix
+		 * @return newly constructed integer matrix containing the entries
+		 */
+		public Matrix.IntegerMatrix toIntegerMatrix()
+		{
+			Matrix.IntegerMatrix im = new Matrix.IntegerMatrix (getRows(), getColumns());
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < getColumns(); ++cCol)
+					im.setCell (cRow, cCol, getCell (cRow, cCol));
+			}
+			return im;
+		}
+
+		/**
+		 * conversion method from int to double matrix
+		 * @return newly constructed double matrix containing converted entries
+		 */
+		public DoubleMatrix toDoubleMatrix()
+		{
+			DoubleMatrix dm = new DoubleMatrix (getRows(), getColumns());
+			for (int cEntry = 0; cEntry < mStore.length; ++cEntry)
+				dm.setCell (cEntry / getColumns(), cEntry % getColumns(), mStore[cEntry]);
+			return dm;
+		}
+
+		/** @param row row index
+		 * 	@param col column index
+		 * 	@return cell at specified index
+		 * 	@throws MatrixOutOfBoundsException
+		 */
+		public int getCell (int row, int col)
+		{
+			return mStore[getIndex (row, col)];
+		}
+
+		/**
+		 * Writes value to the given cell
+		 * @param row row of the cell to write to
+		 * @param col column of the cell to write to
+		 * @param value value to write
+		 */
+		public void setCell (int row, int col, int value)
+		{
+			mStore[getIndex (row, col)] = value;
+		}
+
+		/**
+		 * @param row row index
+		 * @return copy of elements of row
+		 */
+		public int[] getRow (int row)
+		{
+			if (row < 0 || row >= getRows())
+				throw new MatrixOutOfBoundsException ("Could not get row with index " + row);
+			int[] arr = new int[getColumns()];
+			System.arraycopy (mStore, row * getColumns(), arr, 0, getColumns());
+			return arr;
+		}
+
+		/**
+		 * @param col column index
+		 * @return copy of elements of column
+		 */
+		public int[] getColumn (int col)
+		{
+			if (col < 0 || col >= getColumns())
+				throw new MatrixOutOfBoundsException ("Could not get column with index " + col);
+			int[] arr = new int[getRows()];
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+				arr[cRow] = mStore[cRow * getColumns() + col];
+			return arr;
+		}
+
+		/**
+		 * Multiplies this with multiplier
+		 * uses unrolled products for 3x3 times 3x1
+		 * @param multiplier multiplier matrix
+		 * @param result matrix to store result in, must not be this or multiplier
+		 * @return result
+		 */
+		public IntMatrix multiply (IntMatrix multiplier, IntMatrix result)
+		{
+			if (this.getColumns() != multiplier.getRows() ||
+				result.getRows() != this.getRows() || result.getColumns() != multiplier.getColumns())
+				throw new MatrixDimensionMismatchException ("Couldn't multiply " + getRows() + "x" + getColumns() + " with " + multiplier.getRows() + "x" + multiplier.getColumns());
+
+			int[] a = this.mStore, b = multiplier.mStore, r = result.mStore;
+			if (isRotationShape() && multiplier.isVectorShape())
+			{
+				r[0] = a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+				r[1] = a[3] * b[0] + a[4] * b[1] + a[5] * b[2];
+				r[2] = a[6] * b[0] + a[7] * b[1] + a[8] * b[2];
+				return result;
+			}
+
+			int n = getColumns(), m = multiplier.getColumns();
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < m; ++cCol)
+				{
+					int sum = 0;
+					for (int cEntry = 0; cEntry < n; ++cEntry)
+						sum += a[cRow * n + cEntry] * b[cEntry * m + cCol];
+					r[cRow * m + cCol] = sum;
+				}
+			}
+			return result;
+		}
+
+		/**Copies values from source to this matrix starting from startRow|startCol
+		 * @param source matrix containing values to be copied
+		 * @param startRow row in this to start copying at
+		 * @param startCol column in this to start copying at
+		 * @param srcStartRow row in source to start copying at
+		 * @param srcStartCol column in source to start copying at
+		 * @param copyRows number of rows to copy
+		 * @param copyCols number of columns to copy
+		 */
+		public void copyValues (IntMatrix source, int startRow, int startCol, int srcStartRow, int srcStartCol, int copyRows, int copyCols)
+		{
+			for (int cRow = 0; cRow < copyRows; ++cRow)
+			{
+				System.arraycopy (source.mStore, source.getIndex (cRow + srcStartRow, srcStartCol),
+								this.mStore, this.getIndex (cRow + startRow, startCol), copyCols);
+			}
+		}
+
+		/**
+		 * @param compare matrix to compare this to
+		 * @return true if both matrices have the same dimensions and entries for each cell
+		 */
+		public boolean equals (IntMatrix compare)
+		{
+			if (!dimensionEquals (compare))
+				return false;
+			for (int cEntry = 0; cEntry < mStore.length; ++cEntry)
+			{
+				if (this.mStore[cEntry] != compare.mStore[cEntry])
+					return false;
+			}
+			return true;
+		}
+
+		protected String getCellString (int row, int col) { return Integer.toString (getCell (row, col)); }
+
+		private int[] mStore;
+	}
+
+	/**
+	 * Extension of primitive matrix: models matrix whose entries are doubles
+	 * values are rounded to Matrix.PRECISION digits when written, like Matrix.DoubleMatrix
+	 */
+	public static class DoubleMatrix extends PrimitiveMatrix
+	{
+		/**
+		 * @param m boxed double matrix
+		 * @return primitive copy of m
+		 */
+		public static DoubleMatrix fromMatrix (Matrix<Double> m)
+		{
+			DoubleMatrix dm = new DoubleMatrix (m.getRows(), m.getColumns());
+			for (int cRow = 0; cRow < dm.getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < dm.getColumns(); ++cCol)
+					dm.mStore[cRow * dm.getColumns() + cCol] = m.getCell (cRow, cCol);
+			}
+			return dm;
+		}
+
+		/** Constructs matrix whose cells are initialized to 0
+			@param rows number of rows
+			@param cols number of columns
+		**/
+		public DoubleMatrix (int rows, int cols)
+		{
+			super (rows, cols);
+			mStore = new double[rows * cols];
+		}
+
+		/**
+		 * cloning method
+		 * @return a clone
+		 */
+		public DoubleMatrix clone()
+		{
+			DoubleMatrix clone = new DoubleMatrix (getRows(), getColumns());
+			System.arraycopy (mStore, 0, clone.mStore, 0, mStore.length);
+			return clone;
+		}
+
+		/**
+		 * conversion method from primitive to boxed double matrix
+		 * @return newly constructed double matrix containing the entries
+		 */
+		public Matrix.DoubleMatrix toDoubleMatrix()
+		{
+			Matrix.DoubleMatrix dm = new Matrix.DoubleMatrix (getRows(), getColumns());
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < getColumns(); ++cCol)
+					dm.setCell (cRow, cCol, getCell (cRow, cCol));
+			}
+			return dm;
+		}
+
+		/**
+		 * conversion method from double to int matrix, truncating entries
+		 * @return newly constructed int matrix containing converted entries
+		 */
+		public IntMatrix toIntMatrix()
+		{
+			IntMatrix im = new IntMatrix (getRows(), getColumns());
+			for (int cEntry = 0; cEntry < mStore.length; ++cEntry)
+				im.setCell (cEntry / getColumns(), cEntry % getColumns(), (int) mStore[cEntry]);
+			return im;
+		}
+
+		/** @param row row index
+		 * 	@param col column index
+		 * 	@return cell at specified index
+		 * 	@throws MatrixOutOfBoundsException
+		 */
+		public double getCell (int row, int col)
+		{
+			return mStore[getIndex (row, col)];
+		}
+
+		/**
+		 * Writes value rounded to Matrix.PRECISION digits to the given cell
+		 * @param row row of the cell to write to
+		 * @param col column of the cell to write to
+		 * @param value value to write
+		 */
+		public void setCell (int row, int col, double value)
+		{
+			mStore[getIndex (row, col)] = round (value);
+		}
+
+		/**
+		 * @param row row index
+		 * @return copy of elements of row
+		 */
+		public double[] getRow (int row)
+		{
+			if (row < 0 || row >= getRows())
+				throw new MatrixOutOfBoundsException ("Could not get row with index " + row);
+			double[] arr = new double[getColumns()];
+			System.arraycopy (mStore, row * getColumns(), arr, 0, getColumns());
+			return arr;
+		}
+
+		/**
+		 * @param col column index
+		 * @return copy of elements of column
+		 */
+		public double[] getColumn (int col)
+		{
+			if (col < 0 || col >= getColumns())
+				throw new MatrixOutOfBoundsException ("Could not get column with index " + col);
+			double[] arr = new double[getRows()];
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+				arr[cRow] = mStore[cRow * getColumns() + col];
+			return arr;
+		}
+
+		/**
+		 * Multiplies this with multiplier
+		 * uses unrolled products for 3x3 times 3x1
+		 * products are not rounded, like Matrix.multiply
+		 * @param multiplier multiplier matrix
+		 * @param result matrix to store result in, must not be this or multiplier
+		 * @return result
+		 */
+		public DoubleMatrix multiply (DoubleMatrix multiplier, DoubleMatrix result)
+		{
+			if (this.getColumns() != multiplier.getRows() ||
+				result.getRows() != this.getRows() || result.getColumns() != multiplier.getColumns())
+				throw new MatrixDimensionMismatchException ("Couldn't multiply " + getRows() + "x" + getColumns() + " with " + multiplier.getRows() + "x" + multiplier.getColumns());
+
+			double[] a = this.mStore, b = multiplier.mStore, r = result.mStore;
+			if (isRotationShape() && multiplier.isVectorShape())
+			{
+				r[0] = a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+				r[1] = a[3] * b[0] + a[4] * b[1] + a[5] * b[2];
+				r[2] = a[6] * b[0] + a[7] * b[1] + a[8] * b[2];
+				return result;
+			}
+
+			int n = getColumns(), m = multiplier.getColumns();
+			for (int cRow = 0; cRow < getRows(); ++cRow)
+			{
+				for (int cCol = 0; cCol < m; ++cCol)
+				{
+					double sum = 0;
+					for (int cEntry = 0; cEntry < n; ++cEntry)
+						sum += a[cRow * n + cEntry] * b[cEntry * m + cCol];
+					r[cRow * m + cCol] = sum;
+				}
+			}
+			return result;
+		}
+
+		/**Copies values from source to this matrix starting from startRow|startCol
+		 * @param source matrix containing values to be copied
+		 * @param startRow row in this to start copying at
+		 * @param startCol column in this to start copying at
+		 * @param srcStartRow row in source to start copying at
+		 * @param srcStartCol column in source to start copying at
+		 * @param copyRows number of rows to copy
+		 * @param copyCols number of columns to copy
+		 */
+		public void copyValues (DoubleMatrix source, int startRow, int startCol, int srcStartRow, int srcStartCol, int copyRows, int copyCols)
+		{
+			for (int cRow = 0; cRow < copyRows; ++cRow)
+			{
+				System.arraycopy (source.mStore, source.getIndex (cRow + srcStartRow, srcStartCol),
+								this.mStore, this.getIndex (cRow + startRow, startCol), copyCols);
+			}
+		}
+
+		/**
+		 * swaps two rows without rounding their values
+		 * @param row1 index of first row
+		 * @param row2 index of second row
+		 */
+		public void swapRows (int row1, int row2)
+		{
+			int i1 = getIndex (row1, 0), i2 = getIndex (row2, 0);
+			for (int cCol = 0; cCol < getColumns(); ++cCol)
+			{
+				double temp = mStore[i1 + cCol];
+				mStore[i1 + cCol] = mStore[i2 + cCol];
+				mStore[i2 + cCol] = temp;
+			}
+		}
+
+		/**
+		 * @param comp matrix to compare this to
+		 * @return true if both matrices have the same dimensions and entries differ by at most Matrix.DoubleMatrix.epsilon
+		 */
+		public boolean equals (DoubleMatrix comp)
+		{
+			if (!dimensionEquals (comp))
+				return false;
+			for (int cEntry = 0; cEntry < mStore.length; ++cEntry)
+			{
+				double diff = this.mStore[cEntry] - comp.mStore[cEntry];
+				if (diff < -Matrix.DoubleMatrix.epsilon || diff > Matrix.DoubleMatrix.epsilon)
+					return false;
+			}
+			return true;
+		}
+
+		protected String getCellString (int row, int col) { return Double.toString (getCell (row, col)); }
+
+		/**
+		 * @param val value to round
+		 * @return val truncated to Matrix.PRECISION digits
+		 */
+		private static double round (double val)
+		{
+			int roundScaled = (int) (val * SCALE);
+			return roundScaled / SCALE;
+		}
+
+		private static final double SCALE = Math.pow (10, Matrix.PRECISION);
+
+		private double[] mStore;
+	}
+
+	/**
+	 * @param rows rows of matrix
+	 * @param cols columns of matrix
+	 */
+	public PrimitiveMatrix (int rows, int cols)
+	{
+		if (rows < 0 || cols < 0)
+			throw new MatrixDimensionMismatchException ("negative matrix size " + rows + "x" + cols);
+		mRows = rows;
+		mCols = cols;
+	}
+
+	public abstract PrimitiveMatrix clone();
+
+	/** @return number of rows **/
+	public int getRows() { return mRows; }
+
+	/** @return number of columns **/
+	public int getColumns() { return mCols; }
+
+	/**
+	 * @param compare matrix to compare dimension to
+	 * @return true if dimensions are the same
+	 */
+	public boolean dimensionEquals (PrimitiveMatrix compare)
+	{
+		return (this.getRows() == compare.getRows() &&
+				this.getColumns() == compare.getColumns());
+	}
+
+	/**
+	 * @return true if this is a 3x3 matrix
+	 */
+	public boolean isRotationShape() { return (mRows == 3 && mCols == 3); }
+
+	/**
+	 * @return true if this is a 3x1 vector
+	 */
+	public boolean isVectorShape() { return (mRows == 3 && mCols == 1); }
+
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder (getRows() + "x" + getColumns() + " matrix\n[\t");
+		for (int cRow = 0; cRow < getRows(); ++cRow)
+		{
+			for (int cCol = 0; cCol < getColumns(); ++cCol)
+				s.append (getCellString (cRow, cCol)).append (" ");
+			if (cRow < getRows() - 1)
+				s.append ("\n\t");
+			else
+				s.append ("]");
+		}
+		return s.toString();
+	}
+
+	/**
+	 * Prints the entries of the matrix using writer
+	 * @param out stream to write to
+	 */
+	public void print (PrintStream out)
+	{
+		for (int cRows = 0; cRows < getRows(); cRows++) {
+			for (int cCols = 0; cCols < getColumns(); cCols++)
+				out.print(" " + getCellString (cRows, cCols) + " ");
+			out.println("");
+		}
+	}
+
+	/**
+	 * @param row row index
+	 * @param col column index
+	 * @return cell rendered as string
+	 */
+	protected abstract String getCellString (int row, int col);
+
+	/**
+	 * @param row row index
+	 * @param col column index
+	 * @return index of cell in flat storage
+	 * @throws MatrixOutOfBoundsException
+	 */
+	protected int getIndex (int row, int col)
+	{
+		if (row < 0 || row >= mRows || col < 0 || col >= mCols)
+			throw new MatrixOutOfBoundsException (row + "|" + col + " out of bounds in " + getRows() + "x" + getColumns() + " matrix");
+		return row * mCols + col;
+	}
+
+	private int mRows, mCols;
+}
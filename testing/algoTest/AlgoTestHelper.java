@@ -0,0 +1,58 @@
+package testing.algoTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import models.Block;
+import models.Container;
+import models.Resource;
+
+/**
+ * resources and checks of loads shared by the algorithm tests
+ */
+public class AlgoTestHelper
+{
+	/**
+	 * @param pieces pieces parsed from a shape file
+	 * @param quants number of pieces available of every piece
+	 * @return finite resources of pieces, piece i has value i + 3
+	 */
+	public static ArrayList<Resource> getResources (ArrayList<? extends Block> pieces, int[] quants)
+	{
+		ArrayList<Resource> res = new ArrayList<>();
+		for (int cPiece = 0; cPiece < pieces.size(); ++cPiece)
+		{
+			Block b = new Block (pieces.get (cPiece), cPiece + 3, "piece");
+			res.add (new Resource (b, quants[cPiece], b.getVolume(), false));
+		}
+		return res;
+	}
+
+	/**
+	 * @return true if no cell of c is occupied by more than one block
+	 */
+	public static boolean isOverlapFree (Container c)
+	{
+		ArrayList<Block> blocks = new ArrayList<>();
+		for (int cBlock = 0; cBlock < c.getAmountOfBlocks(); ++cBlock)
+			blocks.add (c.getBlock (cBlock));
+		return isOverlapFree (blocks);
+	}
+
+	/**
+	 * @return true if no cell is occupied by more than one of blocks glued at their positions
+	 */
+	public static boolean isOverlapFree (List<Block> blocks)
+	{
+		HashSet<String> cells = new HashSet<>();
+		int total = 0;
+		for (Block b : blocks)
+		{
+			int[] bCells = b.getCells();
+			for (int cCell = 0; cCell < bCells.length; cCell += 3, ++total)
+				cells.add ((bCells[cCell] + b.getGlue().getPosition (0)) + "|" + (bCells[cCell + 1] + b.getGlue().getPosition (1)) + "|" + (bCells[cCell + 2] + b.getGlue().getPosition (2)));
+		}
+		return cells.size() == total;
+	}
+}
@@ -0,0 +1,152 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import algorithm.Algorithm;
+import algorithm.BranchAndBoundAlgo;
+import algorithm.DynamicAlgo;
+import algorithm.SimulatedAnnealingAlgo;
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.ShapeParser;
+import models.Matrix.IntegerMatrix;
+
+/**
+ * test class for deadlines, cancellation and reading the best load while algorithms run
+ */
+public class AnytimeAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		AnytimeAlgoTest test = new AnytimeAlgoTest ("LPTPentominoes.txt");
+		test.deadlineTest (6, 5, 4, new int[] {8, 8, 8});
+		test.cancelTest (6, 5, 4, new int[] {8, 8, 8});
+		test.terminatedTest (3, 4, 2, new int[] {2, 2, 2});
+		test.dynamicTest (5, 6, 4, new int[] {3, 3, 3}, 1);
+		test.dynamicTest (5, 6, 4, new int[] {3, 3, 3}, 4);
+	}
+
+	public AnytimeAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * branch and bound without node limit stops at its deadline, its best load can be read before
+	 */
+	public void deadlineTest (int d, int w, int h, int[] quants) throws InterruptedException
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo algo = new BranchAndBoundAlgo();
+		algo.setNodeLimit (Long.MAX_VALUE);
+		algo.setDeadline (DEADLINE);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		Thread t = new Thread (algo);
+		t.start();
+		Thread.sleep (DEADLINE / 2);
+		List<Block> running = algo.getBestBlocksSoFar();
+		t.join();
+		System.out.println (d + "x" + w + "x" + h + " deadline " + DEADLINE + " ms value while running positive " + (getValue (running) > 0) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (running) + " (expected true)");
+		System.out.println (" cancelled " + algo.isCancelled() + " (expected true) exhaustive " + algo.isExhaustive() + " (expected false) " + compare (algo, c));
+	}
+
+	/**
+	 * simulated annealing without time limit stops once cancelled from another thread
+	 */
+	public void cancelTest (int d, int w, int h, int[] quants) throws InterruptedException
+	{
+		Container c = new Container (d, w, h);
+		SimulatedAnnealingAlgo algo = new SimulatedAnnealingAlgo();
+		algo.setSeed (SEED);
+		algo.setTimeLimit (Long.MAX_VALUE / 2);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		Thread t = new Thread (algo);
+		t.start();
+		Thread.sleep (DEADLINE);
+		List<Block> running = algo.getBestBlocksSoFar();
+		algo.cancel();
+		t.join (STOP_TIMEOUT);
+		System.out.println (d + "x" + w + "x" + h + " cancelled stopped " + !t.isAlive() + " (expected true) value while running positive " + (getValue (running) > 0) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (running) + " (expected true)");
+		t.join();
+		System.out.println (" iterations " + algo.getIterationCount() + " " + compare (algo, c));
+	}
+
+	/**
+	 * an algorithm terminating before its deadline stays uncancelled once the deadline passed,
+	 * its published blocks stay in place when the container is moved
+	 */
+	public void terminatedTest (int d, int w, int h, int[] quants) throws InterruptedException
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo algo = new BranchAndBoundAlgo();
+		algo.setDeadline (SHORT_DEADLINE);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		boolean exhaustive = algo.isExhaustive();
+		Thread.sleep (2 * SHORT_DEADLINE);
+		System.out.println (d + "x" + w + "x" + h + " terminated exhaustive " + exhaustive + " (expected true) after deadline " + algo.isExhaustive() + " (expected true) cancelled " + algo.isCancelled() + " (expected false)");
+
+		List<Block> published = algo.getBestBlocksSoFar();
+		int before = published.get (0).getGlue().getPosition (0);
+		IntegerMatrix moved = new IntegerMatrix (3, 1);
+		moved.setCell (0, 0, 10);
+		c.glue (new Glue (moved));
+		System.out.println (" container moved " + c.getBlock (0).getGlue().getPosition (0) + " (expected " + (before + 10) + ") published block at " + published.get (0).getGlue().getPosition (0) + " (expected " + before + ")");
+	}
+
+	/**
+	 * the dynamic algorithm stops at a deadline passing while it splits and stores its sub problems
+	 * @param threads parallelism of the dynamic algorithm
+	 */
+	public void dynamicTest (int d, int w, int h, int[] quants, int threads) throws InterruptedException
+	{
+		Container c = new Container (d, w, h);
+		DynamicAlgo algo = new DynamicAlgo();
+		algo.setParallelism (threads);
+		algo.setDeadline (1);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		Thread t = new Thread (algo);
+		final Throwable[] failure = new Throwable[1];
+		t.setUncaughtExceptionHandler (new Thread.UncaughtExceptionHandler()
+		{
+			public void uncaughtException (Thread thread, Throwable e) { failure[0] = e; }
+		});
+		t.start();
+		t.join (STOP_TIMEOUT);
+		System.out.println (d + "x" + w + "x" + h + " dynamic " + threads + " threads stopped " + !t.isAlive() + " (expected true) failure " + failure[0] + " (expected null)");
+		System.out.println (" done " + algo.isAlgoDone() + " (expected true) cancelled " + algo.isCancelled() + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+		t.join();
+	}
+
+	/**
+	 * @return sum of the values of blocks
+	 */
+	private static double getValue (List<Block> blocks)
+	{
+		double value = 0.0;
+		for (Block b : blocks)
+			value += b.getValue();
+		return value;
+	}
+
+	/**
+	 * @return description comparing the best load of the terminated algo with the filled container c
+	 */
+	private String compare (Algorithm algo, Container c)
+	{
+		Container best = algo.getBestSoFar();
+		return "final load value " + best.getValue() + " blocks " + best.getAmountOfBlocks() + " (expected " + c.getValue() + " blocks " + c.getAmountOfBlocks() + ")";
+	}
+
+	private static final long SEED = 17;
+	private static final long DEADLINE = 3000;
+	private static final long SHORT_DEADLINE = 500;
+	private static final long STOP_TIMEOUT = 30000;
+
+	private ArrayList<? extends Block> mPieces;
+}
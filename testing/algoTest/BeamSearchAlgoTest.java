@@ -0,0 +1,98 @@
+package testing.algoTest;
+
+import java.util.ArrayList;
+
+import algorithm.BeamSearchAlgo;
+import algorithm.EvaluationHeuristicType;
+import algorithm.GreedyAlgorithm;
+import algorithm.MaximumDensity;
+import models.Block;
+import models.Container;
+import models.OrientationCache;
+import models.Resource;
+
+/**
+ * test class for the beam search algorithm
+ * compares beam search with the greedy algorithm on the parcels of the greedy test
+ */
+public class BeamSearchAlgoTest
+{
+	public static void main (String[] args)
+	{
+		BeamSearchAlgoTest test = new BeamSearchAlgoTest();
+		test.greedyTest (10, 6, 6);
+		test.widthTest (5, 4, 4, 1);
+		test.widthTest (5, 4, 4, 16);
+		test.parallelTest (8, 5, 5);
+	}
+
+	/**
+	 * beam search ranks by value, so it should at least match the greedy algorithm
+	 */
+	public void greedyTest (int d, int w, int h)
+	{
+		Container greedyCont = new Container (d, w, h);
+		ArrayList<Resource> greedyRes = getResources();
+		GreedyAlgorithm greedy = new GreedyAlgorithm (new MaximumDensity(), greedyRes);
+		greedy.init (greedyCont, greedyRes);
+		greedy.run();
+
+		Container beamCont = new Container (d, w, h);
+		BeamSearchAlgo beam = new BeamSearchAlgo (EvaluationHeuristicType.MaxDensity);
+		beam.init (beamCont, getResources());
+		beam.run();
+		System.out.println (d + "x" + w + "x" + h + " beam value " + beamCont.getValue() + " greedy value " + greedyCont.getValue() + " at least greedy " + (beamCont.getValue() >= greedyCont.getValue()) + " (expected true)");
+		System.out.println (" overlap free " + AlgoTestHelper.isOverlapFree (beamCont) + " (expected true) states merged " + (beam.getMergeCount() > 0) + " (expected true)");
+	}
+
+	/**
+	 * @param width beam width
+	 */
+	public void widthTest (int d, int w, int h, int width)
+	{
+		Container c = new Container (d, w, h);
+		BeamSearchAlgo beam = new BeamSearchAlgo (EvaluationHeuristicType.MaxDensity);
+		beam.setBeamWidth (width);
+		beam.init (c, getResources());
+		beam.run();
+		System.out.println (d + "x" + w + "x" + h + " width " + width + " value " + c.getValue() + " steps " + beam.getStepCount() + " overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * parallel expansion merges children in the same order, so the result does not depend on the number of threads
+	 */
+	public void parallelTest (int d, int w, int h)
+	{
+		Container sequential = new Container (d, w, h);
+		BeamSearchAlgo beam = new BeamSearchAlgo (EvaluationHeuristicType.MaxDensity);
+		beam.init (sequential, getResources());
+		beam.run();
+
+		Container parallel = new Container (d, w, h);
+		beam = new BeamSearchAlgo (EvaluationHeuristicType.MaxDensity);
+		beam.setParallelism (4);
+		beam.init (parallel, getResources());
+		beam.run();
+		System.out.println (d + "x" + w + "x" + h + " parallel value " + parallel.getValue() + " sequential value " + sequential.getValue() + " equal " + (parallel.getValue() == sequential.getValue() && parallel.getAmountOfBlocks() == sequential.getAmountOfBlocks()) + " (expected true)");
+	}
+
+	/**
+	 * @return parcels of 3x3x3, 2x2x4 and 2x3x4 with their rotations
+	 */
+	private ArrayList<Resource> getResources()
+	{
+		ArrayList<Resource> res = new ArrayList<>();
+		res.add (getParcel (3, 3, 3, 3, 4));
+		res.add (getParcel (2, 2, 4, 4, 4));
+		res.add (getParcel (2, 3, 4, 5, 2));
+		return res;
+	}
+
+	private Resource getParcel (int d, int w, int h, double value, int inventory)
+	{
+		Block b = new Block (Container.constructInitShape (d, w, h), value, "parcel");
+		ArrayList<Block> rotations = new ArrayList<> (OrientationCache.getRotations (b));
+		return new Resource (b, inventory, b.getVolume(), false, rotations, Resource.BlockType.PARCEL);
+	}
+
+}
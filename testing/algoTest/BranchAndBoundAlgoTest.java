@@ -0,0 +1,86 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import algorithm.BranchAndBoundAlgo;
+import algorithm.ExactCoverAlgo;
+import algorithm.MaxVolumePerformance;
+import algorithm.Progress;
+import models.Block;
+import models.Container;
+import models.ShapeParser;
+
+/**
+ * test class for the branch and bound algorithm
+ */
+public class BranchAndBoundAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		BranchAndBoundAlgoTest test = new BranchAndBoundAlgoTest ("LPTPentominoes.txt");
+		test.valueTest (2, 5, 1, new int[] {0, 2, 0});
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2});
+		test.volumeTest (3, 5, 1, new int[] {1, 1, 1});
+		test.limitTest (4, 5, 3, new int[] {12, 12, 12});
+	}
+
+	public BranchAndBoundAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * compares the maximum value with the one found by the exact cover algorithm
+	 * @param quants number of pieces available of every piece in the file
+	 */
+	public void valueTest (int d, int w, int h, int[] quants)
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo algo = new BranchAndBoundAlgo();
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		//progress is not accessible after termination
+		Progress prog = algo.getProgress();
+		algo.run();
+
+		Container cover = new Container (d, w, h);
+		ExactCoverAlgo coverAlgo = new ExactCoverAlgo();
+		coverAlgo.setMaximize (true);
+		coverAlgo.init (cover, AlgoTestHelper.getResources (mPieces, quants));
+		coverAlgo.run();
+		System.out.println (d + "x" + w + "x" + h + " value " + c.getValue() + " (expected " + cover.getValue() + ") gap " + algo.getGap() + " (expected 0.0) nodes " + algo.getNodeCount() + " pruned " + algo.getPruneCount());
+		System.out.println (" overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true) nodes published " + (prog.getStatistic (BranchAndBoundAlgo.NODES_STATISTIC) == algo.getNodeCount()) + " (expected true)");
+	}
+
+	/**
+	 * at most two of the three pieces fit into 3x5x1, so the maximum volume is 10
+	 * @param quants number of pieces available of every piece in the file
+	 */
+	public void volumeTest (int d, int w, int h, int[] quants)
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo algo = new BranchAndBoundAlgo();
+		algo.setPerformanceMeasure (new MaxVolumePerformance());
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " volume used " + c.getVolumeUsed() + " (expected 10) exhaustive " + algo.isExhaustive() + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * stops search after few nodes, the placement found is still valid and the gap is reported
+	 * @param quants number of pieces available of every piece in the file
+	 */
+	public void limitTest (int d, int w, int h, int[] quants)
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo algo = new BranchAndBoundAlgo();
+		algo.setNodeLimit (50);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " exhaustive " + algo.isExhaustive() + " (expected false) gap positive " + (algo.getGap() > 0) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	private ArrayList<? extends Block> mPieces;
+}
@@ -0,0 +1,107 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import algorithm.DancingLinks;
+import algorithm.ExactCoverAlgo;
+import models.Block;
+import models.Container;
+import models.ShapeParser;
+
+/**
+ * test class for the exact cover algorithm using dancing links
+ */
+public class ExactCoverAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		ExactCoverAlgoTest test = new ExactCoverAlgoTest ("LPTPentominoes.txt");
+		test.linksTest();
+		test.fillTest (2, 5, 1, new int[] {0, 2, 0}, true);
+		test.fillTest (2, 5, 1, new int[] {2, 1, 2}, false);
+		test.fillTest (3, 5, 2, new int[] {6, 6, 6}, true);
+		test.maximizeTest (3, 4, 2, new int[] {2, 2, 2});
+		test.fillTest (4, 5, 3, new int[] {12, 12, 12}, true);
+	}
+
+	public ExactCoverAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * solves the example of Knuth's paper on dancing links, the only cover consists of rows 0, 3 and 4
+	 */
+	public void linksTest()
+	{
+		DancingLinks links = new DancingLinks (7);
+		links.addRow (new int[] {2, 4, 5});
+		links.addRow (new int[] {0, 3, 6});
+		links.addRow (new int[] {1, 2, 5});
+		links.addRow (new int[] {0, 3});
+		links.addRow (new int[] {1, 6});
+		links.addRow (new int[] {3, 4, 6});
+		ArrayList<Integer> chosen = new ArrayList<>();
+		boolean found = solve (links, chosen);
+		Collections.sort (chosen);
+		System.out.println ("cover found " + found + " (expected true) rows " + chosen + " (expected [0, 3, 4])");
+		System.out.println ("matrix restored " + (links.getUncoveredColumns() == 7 && links.getColumnSize (3) == 3) + " (expected true)");
+	}
+
+	/**
+	 * @param quants number of pieces available of every piece in the file
+	 * @param expectFill true if the container can be filled completely
+	 */
+	public void fillTest (int d, int w, int h, int[] quants, boolean expectFill)
+	{
+		Container c = new Container (d, w, h);
+		ExactCoverAlgo algo = new ExactCoverAlgo();
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " filled " + algo.isFilledCompletely() + " (expected " + expectFill + ")");
+		System.out.println (" volume used " + c.getVolumeUsed() + " (expected " + (expectFill ? d * w * h : 0) + ") overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * @param quants number of pieces available of every piece in the file
+	 */
+	public void maximizeTest (int d, int w, int h, int[] quants)
+	{
+		Container c = new Container (d, w, h);
+		ExactCoverAlgo algo = new ExactCoverAlgo();
+		algo.setMaximize (true);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " maximum value " + c.getValue() + " (expected 18.0) exhaustive " + algo.isExhaustive() + " (expected true) nodes " + algo.getNodeCount());
+		System.out.println (" overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * algorithm X choosing the column with fewest rows
+	 */
+	private boolean solve (DancingLinks links, ArrayList<Integer> chosen)
+	{
+		int column = links.chooseColumn();
+		if (column < 0)
+			return true;
+		boolean found = false;
+		links.cover (column);
+		for (int node = links.getFirstNode (column); node >= 0 && !found; node = links.getNextNode (node))
+		{
+			chosen.add (links.getRow (node));
+			links.select (node);
+			found = solve (links, chosen);
+			links.deselect (node);
+			if (!found)
+				chosen.remove (chosen.size() - 1);
+		}
+		links.uncover (column);
+		return found;
+	}
+
+	private ArrayList<? extends Block> mPieces;
+}
@@ -0,0 +1,78 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import algorithm.GeneticAlgo;
+import models.Block;
+import models.Container;
+import models.ShapeParser;
+
+/**
+ * test class for the genetic algorithm
+ * the optima are the ones found by the exact cover algorithm
+ */
+public class GeneticAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		GeneticAlgoTest test = new GeneticAlgoTest ("LPTPentominoes.txt");
+		test.valueTest (2, 5, 1, new int[] {0, 2, 0}, 1, 8.0);
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2}, 1, 18.0);
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2}, 4, 18.0);
+		test.parallelTest (6, 5, 4, new int[] {8, 8, 8});
+	}
+
+	public GeneticAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * @param quants number of pieces available of every piece in the file
+	 * @param islands number of islands
+	 * @param expected maximum value
+	 */
+	public void valueTest (int d, int w, int h, int[] quants, int islands, double expected)
+	{
+		Container c = new Container (d, w, h);
+		GeneticAlgo algo = new GeneticAlgo();
+		algo.setSeed (SEED);
+		algo.setIslands (islands);
+		algo.setGenerationLimit (GENERATIONS);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " islands " + islands + " value " + c.getValue() + " (expected " + expected + ") overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+		System.out.println (" generations " + algo.getGenerationCount() + " (expected " + GENERATIONS + ") evaluations " + algo.getEvaluationCount());
+	}
+
+	/**
+	 * evaluation in parallel does not change random choices, so the result equals the sequential one
+	 */
+	public void parallelTest (int d, int w, int h, int[] quants)
+	{
+		Container sequential = new Container (d, w, h);
+		GeneticAlgo algo = new GeneticAlgo();
+		algo.setSeed (SEED);
+		algo.setGenerationLimit (GENERATIONS);
+		algo.init (sequential, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+
+		Container parallel = new Container (d, w, h);
+		algo = new GeneticAlgo();
+		algo.setSeed (SEED);
+		algo.setGenerationLimit (GENERATIONS);
+		algo.setParallelism (4);
+		algo.init (parallel, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " parallel value " + parallel.getValue() + " sequential value " + sequential.getValue() + " equal " + (parallel.getValue() == sequential.getValue() && parallel.getAmountOfBlocks() == sequential.getAmountOfBlocks()) + " (expected true)");
+		System.out.println (" overlap free " + AlgoTestHelper.isOverlapFree (parallel) + " (expected true)");
+	}
+
+	private static final long SEED = 17;
+	private static final int GENERATIONS = 50;
+
+	private ArrayList<? extends Block> mPieces;
+}
@@ -23,11 +23,11 @@ public class GreedyAlgoTest
 		
 		//Parcels
 		BasicShape b1 = Container.constructInitShape(3, 3, 3);
-		mResources.add(new Resource(new Block (b1, 1), 0, 27, false, MakePieces.getC(), Resource.BlockType.PARCEL));
+		mResources.add(new Resource(new Block (b1, 1, "C"), 0, 27, false, MakePieces.getC(), Resource.BlockType.PARCEL));
 		BasicShape b2 = Container.constructInitShape(2, 2, 4);
-		mResources.add(new Resource(new Block (b2, 1), 0, 16, false, MakePieces.getA(),Resource.BlockType.PARCEL));
+		mResources.add(new Resource(new Block (b2, 1, "A"), 0, 16, false, MakePieces.getA(),Resource.BlockType.PARCEL));
 		BasicShape b3 = Container.constructInitShape(2, 3, 4);
-		mResources.add(new Resource(new Block (b3, 1), 1, 16, true, MakePieces.getB(),Resource.BlockType.PARCEL));
+		mResources.add(new Resource(new Block (b3, 1, "B"), 1, 16, true, MakePieces.getB(),Resource.BlockType.PARCEL));
 		
 		//Pents
 		//Block T = Pieces.createTBlock();
@@ -0,0 +1,60 @@
+package testing.algoTest;
+
+import java.util.ArrayList;
+
+import algorithm.HighestValueVolume;
+import algorithm.HillClimber;
+import algorithm.MaxValuePerformance;
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.Resource;
+import models.Matrix.IntegerMatrix;
+
+/**
+ * test class for the hill climber, which scores candidates by placing them tentatively
+ */
+public class HillClimberTest
+{
+	public static void main (String[] args)
+	{
+		HillClimberTest test = new HillClimberTest();
+		test.climbTest (4, 4, 2);
+		test.climbTest (6, 5, 4);
+	}
+
+	/**
+	 * fills a container of d x w x h with boxes starting at its corner
+	 */
+	public void climbTest (int d, int w, int h)
+	{
+		ArrayList<Resource> res = new ArrayList<>();
+		Block small = new Block (Container.constructInitShape (2, 2, 1), 2, "small");
+		Block bar = new Block (Container.constructInitShape (3, 1, 1), 1, "bar");
+		res.add (new Resource (small, 6, small.getVolume(), false));
+		res.add (new Resource (bar, 4, bar.getVolume(), false));
+
+		Container c = new Container (d, w, h);
+		HillClimber climber = new HillClimber (new HighestValueVolume(), new MaxValuePerformance());
+		climber.init (c, res);
+		climber.setStartingPosition (new Glue (new IntegerMatrix (3, 1)));
+		climber.run();
+
+		int occupied = 0;
+		for (int cX = 0; cX < d; ++cX)
+		{
+			for (int cY = 0; cY < w; ++cY)
+			{
+				for (int cZ = 0; cZ < h; ++cZ)
+					occupied += (c.isCellOccupied (cX, cY, cZ) ? 1 : 0);
+			}
+		}
+		double value = 0.0;
+		for (int cBlock = 0; cBlock < c.getAmountOfBlocks(); ++cBlock)
+			value += c.getBlock (cBlock).getValue();
+		System.out.println (d + "x" + w + "x" + h + " done " + climber.isAlgoDone() + " (expected true) blocks placed " + (c.getAmountOfBlocks() > 0) + " (expected true)");
+		//cells of tentative placements are released again, so only the blocks placed occupy cells
+		System.out.println (" cells occupied " + occupied + " (expected " + c.getVolumeUsed() + ") value " + c.getValue() + " (expected " + value + ")");
+		System.out.println (" blocks within inventory " + (c.getAmountOfBlocks() <= 10) + " (expected true)");
+	}
+}
@@ -0,0 +1,198 @@
+package testing.algoTest;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.Orientation;
+import models.Matrix.IntegerMatrix;
+import algorithm.DynamicAlgo.Resource;
+import algorithm.DynamicAlgo.Subset;
+import algorithm.LookupTable;
+import algorithm.LookupTable.Entry;
+
+/**
+ * test class for the hashed lookup table used by the dynamic algorithm
+ */
+public class LookupTableTest
+{
+	public static void main (String[] args)
+	{
+		LookupTableTest test = new LookupTableTest();
+		test.lookupTest();
+		test.growTest();
+		test.compactTest();
+		test.evictionTest (LookupTable.EvictionPolicy.LRU);
+		test.evictionTest (LookupTable.EvictionPolicy.COST);
+		test.computeIfAbsentTest();
+	}
+
+	/**
+	 * @param inventories inventory of each resource
+	 * @return subset holding 1x1xi, 1x2x2 blocks with the inventories given
+	 */
+	public Subset getSubset (int... inventories)
+	{
+		Subset s = new Subset();
+		for (int cRes = 0; cRes < inventories.length; ++cRes)
+		{
+			Block b = new Block (Container.constructInitShape (1, 1 + cRes, 2), 1 + cRes, "");
+			s.add (new Resource (b, inventories[cRes]));
+		}
+		return s;
+	}
+
+	public void lookupTest()
+	{
+		LookupTable table = new LookupTable (5, 5, 5);
+		Entry e = table.new Entry (new Container (3, 2, 1), getSubset (2, 1));
+		table.addEntry (3, 2, 1, e);
+
+		System.out.println ("set for same dims " + table.isSet (3, 2, 1, table.new Entry (getSubset (2, 1))) + " (expected true)");
+		System.out.println ("set for permuted dims " + table.isSet (1, 3, 2, table.new Entry (getSubset (2, 1))) + " (expected true)");
+		System.out.println ("lookup returns stored " + (table.get (2, 1, 3, table.new Entry (getSubset (2, 1))) == e) + " (expected true)");
+		System.out.println ("set for other inventory " + table.isSet (3, 2, 1, table.new Entry (getSubset (1, 1))) + " (expected false)");
+		System.out.println ("set for other dims " + table.isSet (3, 3, 1, table.new Entry (getSubset (2, 1))) + " (expected false)");
+		System.out.println ("subset lookup returns stored " + (table.get (1, 2, 3, getSubset (2, 1)) == e) + " (expected true) set for other inventory " + table.isSet (3, 2, 1, getSubset (2, 2)) +
+						" (expected false) set for more resources " + table.isSet (3, 2, 1, getSubset (2, 1, 1)) + " (expected false)");
+
+		boolean thrown = false;
+		try
+		{
+			table.addEntry (1, 2, 3, table.new Entry (getSubset (2, 1)));
+		}
+		catch (LookupTable.EntryExistsException ex)
+		{
+			thrown = true;
+		}
+		System.out.println ("duplicate rejected " + thrown + " (expected true)");
+	}
+
+	public void growTest()
+	{
+		LookupTable table = new LookupTable (10, 10, 10);
+		for (int cD = 1; cD < 10; ++cD)
+		{
+			for (int cInv = 1; cInv < 20; ++cInv)
+				table.addEntry (cD, 2, 1, table.new Entry (getSubset (cInv, 1)));
+		}
+		boolean allSet = true;
+		for (int cD = 1; cD < 10; ++cD)
+		{
+			for (int cInv = 1; cInv < 20; ++cInv)
+				allSet &= table.isSet (2, cD, 1, table.new Entry (getSubset (cInv, 1)));
+		}
+		System.out.println ("entries " + table.getSize() + " (expected 171)");
+		System.out.println ("all found after growing " + allSet + " (expected true)");
+	}
+
+	public void compactTest()
+	{
+		LookupTable table = new LookupTable (5, 5, 5);
+		Block b = new Block (Container.constructInitShape (2, 1, 1), 3, "bar");
+		Container c = new Container (3, 2, 1);
+		c.placeBlock (b, getPos (1, 1, 0));
+		Entry e = table.new Entry (c, getSubset (2, 1));
+		table.addEntry (3, 2, 1, e);
+
+		Container rebuilt = e.getContainer();
+		System.out.println ("rebuilt is new container " + (rebuilt != c) + " (expected true)");
+		System.out.println ("rebuilt value " + rebuilt.getValue() + " (expected 3.0)");
+		System.out.println ("rebuilt block at " + rebuilt.getBlock (0).getGlue() + " (expected 1 1 0)");
+
+		//rotate 3x2x1 such that it fits 2x3x1, block 2x1x1 at (1, 1, 0) ends up as 1x2x1 at (0, 1, 0)
+		Orientation fit = Orientation.fromPermutation (new int[] {1, 0, 2});
+		Container stump = new Container (2, 3, 1);
+		e.placeInto (stump, fit, getPos (0, 0, 0));
+		System.out.println ("placed dimensions " + stump.getBlock (0).getDimensions() + " (expected [1, 2, 1])");
+		System.out.println ("placed at " + stump.getBlock (0).getGlue() + " (expected 0 1 0)");
+		System.out.println ("placed value " + stump.getValue() + " (expected 3.0)");
+	}
+
+	public void evictionTest (LookupTable.EvictionPolicy policy)
+	{
+		LookupTable table = new LookupTable (10, 10, 10);
+		table.setEvictionPolicy (policy);
+		Entry probe = table.new Entry (getSubset (1, 1));
+		table.addEntry (1, 1, 1, table.new Entry (new Container (1, 1, 1), getSubset (1, 1)), 1000);
+		long budget = 10 * table.getMemoryUsed();
+		table.setMemoryBudget (budget);
+		for (int cInv = 2; cInv < 30; ++cInv)
+		{
+			table.get (1, 1, 1, probe);
+			table.addEntry (2, 2, 2, table.new Entry (new Container (2, 2, 2), getSubset (cInv, 1)), 1);
+		}
+		System.out.println (policy + " memory within budget " + (table.getMemoryUsed() <= budget) + " (expected true)");
+		System.out.println (policy + " entries evicted " + (table.getEvictions() > 0) + " (expected true)");
+		System.out.println (policy + " newest kept " + table.isSet (2, 2, 2, table.new Entry (getSubset (29, 1))) + " (expected true)");
+		System.out.println (policy + " expensive or recent kept " + table.isSet (1, 1, 1, probe) + " (expected true)");
+		System.out.println (policy + " oldest cheap evicted " + !table.isSet (2, 2, 2, table.new Entry (getSubset (2, 1))) + " (expected true)");
+	}
+
+	public void computeIfAbsentTest()
+	{
+		final LookupTable table = new LookupTable (5, 5, 5);
+		final AtomicInteger solved = new AtomicInteger();
+		final Entry[] results = new Entry[4];
+		Thread[] threads = new Thread[results.length];
+		for (int cThread = 0; cThread < threads.length; ++cThread)
+		{
+			final int index = cThread;
+			threads[cThread] = new Thread()
+			{
+				public void run()
+				{
+					results[index] = table.computeIfAbsent (3, 2, 1, table.new Entry (getSubset (2, 1)), new RecursiveTask<Entry>()
+					{
+						protected Entry compute()
+						{
+							solved.incrementAndGet();
+							try
+							{
+								Thread.sleep (100);
+							}
+							catch (InterruptedException e) {}
+							return table.new Entry (new Container (3, 2, 1), getSubset (2, 1));
+						}
+					});
+				}
+			};
+			threads[cThread].start();
+		}
+
+		boolean same = true;
+		for (int cThread = 0; cThread < threads.length; ++cThread)
+		{
+			try
+			{
+				threads[cThread].join();
+			}
+			catch (InterruptedException e) {}
+			same &= (results[cThread] == results[0]);
+		}
+		System.out.println ("solved once " + solved.get() + " (expected 1)");
+		System.out.println ("same entry returned " + same + " (expected true)");
+		System.out.println ("entry stored " + table.isSet (1, 2, 3, table.new Entry (getSubset (2, 1))) + " (expected true)");
+
+		//interrupted solvers return null, nothing is stored
+		Entry interrupted = table.computeIfAbsent (2, 2, 1, table.new Entry (getSubset (2, 1)), new RecursiveTask<Entry>()
+		{
+			protected Entry compute() { return null; }
+		});
+		System.out.println ("interrupted entry " + interrupted + " (expected null) stored " + table.isSet (2, 2, 1, table.new Entry (getSubset (2, 1))) + " (expected false)");
+	}
+
+	/**
+	 * @return glue at x, y, z
+	 */
+	public Glue getPos (int x, int y, int z)
+	{
+		IntegerMatrix pos = new IntegerMatrix (3, 1);
+		pos.setCell (0, 0, x);
+		pos.setCell (1, 0, y);
+		pos.setCell (2, 0, z);
+		return new Glue (pos);
+	}
+}
@@ -0,0 +1,152 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import algorithm.Algorithm;
+import algorithm.BranchAndBoundAlgo;
+import algorithm.DynamicAlgo;
+import algorithm.GeneticAlgo;
+import algorithm.GreedyAlgorithm;
+import algorithm.HighestValueVolume;
+import algorithm.HillClimber;
+import algorithm.Incumbent;
+import algorithm.MaxValuePerformance;
+import algorithm.MaximumDensity;
+import algorithm.PortfolioAlgo;
+import algorithm.RandomAlgo;
+import algorithm.SimulatedAnnealingAlgo;
+import models.Block;
+import models.Container;
+import models.Resource;
+import models.ShapeParser;
+
+/**
+ * test class for the portfolio of algorithms
+ * the optimum is the one found by the exact cover algorithm
+ */
+public class PortfolioAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		PortfolioAlgoTest test = new PortfolioAlgoTest ("LPTPentominoes.txt");
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2}, 18.0);
+		test.heuristicTest (3, 4, 2, new int[] {2, 2, 2}, 18.0);
+		test.budgetTest (6, 5, 4, new int[] {8, 8, 8});
+		test.sharingTest (6, 5, 4, new int[] {8, 8, 8});
+	}
+
+	public PortfolioAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * all algorithms terminate within the budget, the best solution is placed and its pieces are deducted
+	 * @param quants number of pieces available of every piece in the file
+	 * @param expected maximum value
+	 */
+	public void valueTest (int d, int w, int h, int[] quants, double expected)
+	{
+		Container c = new Container (d, w, h);
+		ArrayList<Resource> res = AlgoTestHelper.getResources (mPieces, quants);
+		SimulatedAnnealingAlgo annealing = new SimulatedAnnealingAlgo();
+		annealing.setSeed (SEED);
+		annealing.setTimeLimit (1000);
+		GeneticAlgo genetic = new GeneticAlgo();
+		genetic.setSeed (SEED);
+		genetic.setGenerationLimit (50);
+		PortfolioAlgo algo = new PortfolioAlgo();
+		algo.addAlgorithm (new BranchAndBoundAlgo());
+		algo.addAlgorithm (annealing);
+		algo.addAlgorithm (genetic);
+		algo.init (c, res);
+		algo.run();
+
+		int used = 0;
+		for (int cPiece = 0; cPiece < quants.length; ++cPiece)
+			used += quants[cPiece] - res.get (cPiece).getInventory();
+		System.out.println (d + "x" + w + "x" + h + " value " + c.getValue() + " (expected " + expected + ") overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+		System.out.println (" pieces deducted " + used + " blocks placed " + c.getAmountOfBlocks() + " (expected equal) cancelled " + algo.getCancelledCount() + " (expected 0) failures " + algo.getFailures().size() + " (expected 0) winner found " + (algo.getWinner() != null) + " (expected true)");
+	}
+
+	/**
+	 * greedy, hill climber, dynamic programming and random restarts run on pieces without rotation tables
+	 * @param optimum maximum value, which the heuristics do not necessarily reach
+	 */
+	public void heuristicTest (int d, int w, int h, int[] quants, double optimum)
+	{
+		Container c = new Container (d, w, h);
+		ArrayList<Resource> res = AlgoTestHelper.getResources (mPieces, quants);
+		DynamicAlgo dynamic = new DynamicAlgo();
+		dynamic.setPerformanceMeasure (new MaxValuePerformance());
+		PortfolioAlgo algo = new PortfolioAlgo();
+		algo.addAlgorithm (new GreedyAlgorithm (new MaximumDensity()));
+		algo.addAlgorithm (new HillClimber (new HighestValueVolume(), new MaxValuePerformance()));
+		algo.addAlgorithm (dynamic);
+		algo.addRandomRestarts (PortfolioAlgo.DEFAULT_RANDOM_RESTARTS, SEED);
+		algo.init (c, res);
+		algo.run();
+
+		int used = 0, randoms = 0;
+		for (int cPiece = 0; cPiece < quants.length; ++cPiece)
+			used += quants[cPiece] - res.get (cPiece).getInventory();
+		for (Algorithm child : algo.getAlgorithms())
+			randoms += (child instanceof RandomAlgo && child.isAlgoDone() ? 1 : 0);
+		System.out.println (d + "x" + w + "x" + h + " heuristics value " + c.getValue() + " within optimum " + (c.getValue() > 0 && c.getValue() <= optimum) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true) random restarts done " + randoms + " (expected " + PortfolioAlgo.DEFAULT_RANDOM_RESTARTS + ")");
+		System.out.println (" pieces deducted " + used + " blocks placed " + c.getAmountOfBlocks() + " (expected equal) failures " + algo.getFailures().size() + " (expected 0) all done " + (algo.getAlgorithms().size() - algo.getCancelledCount()) + " (expected " + algo.getAlgorithms().size() + ")");
+		for (RuntimeException e : algo.getFailures())
+			e.printStackTrace();
+	}
+
+	/**
+	 * algorithms exceeding the budget are cancelled and contribute the best solution found so far
+	 */
+	public void budgetTest (int d, int w, int h, int[] quants)
+	{
+		Container c = new Container (d, w, h);
+		BranchAndBoundAlgo bound = new BranchAndBoundAlgo();
+		bound.setNodeLimit (Long.MAX_VALUE);
+		SimulatedAnnealingAlgo annealing = new SimulatedAnnealingAlgo();
+		annealing.setSeed (SEED);
+		annealing.setTimeLimit (Long.MAX_VALUE / 2);
+		PortfolioAlgo algo = new PortfolioAlgo();
+		algo.setTimeBudget (BUDGET);
+		algo.addAlgorithm (bound);
+		algo.addAlgorithm (annealing);
+		algo.addAlgorithm (new DynamicAlgo());
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " budget " + BUDGET + " ms cancelled " + algo.getCancelledCount() + " (expected 3) exhaustive " + bound.isExhaustive() + " (expected false) failures " + algo.getFailures().size() + " (expected 0)");
+		System.out.println (" value " + c.getValue() + " positive " + (c.getValue() > 0) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * branch and bound offers its improvements to the incumbent while it is still running
+	 */
+	public void sharingTest (int d, int w, int h, int[] quants) throws InterruptedException
+	{
+		final BranchAndBoundAlgo bound = new BranchAndBoundAlgo();
+		bound.setNodeLimit (Long.MAX_VALUE);
+		bound.setDeadline (BUDGET);
+		Incumbent incumbent = new Incumbent (new MaxValuePerformance());
+		bound.setIncumbent (incumbent);
+		bound.init (new Container (d, w, h), AlgoTestHelper.getResources (mPieces, quants));
+		Thread t = new Thread (bound);
+		t.start();
+		boolean offeredRunning = false;
+		while (t.isAlive())
+		{
+			offeredRunning |= incumbent.getSource() == bound && !bound.isAlgoDone();
+			t.join (5);
+		}
+		System.out.println (d + "x" + w + "x" + h + " offered while running " + offeredRunning + " (expected true) incumbent value positive " + (incumbent.getPerformance() > 0) + " (expected true) overlap free " + AlgoTestHelper.isOverlapFree (incumbent.getBlocks()) + " (expected true)");
+	}
+
+	private static final long SEED = 17;
+	private static final long BUDGET = 500;
+
+	private ArrayList<? extends Block> mPieces;
+}
@@ -0,0 +1,103 @@
+package testing.algoTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import algorithm.Progress;
+
+/**
+ * test class for progress shares and listener notification
+ */
+public class ProgressTest
+{
+	public static void main (String[] args) throws InterruptedException
+	{
+		ProgressTest test = new ProgressTest();
+		test.shareTest();
+		test.concurrentTest (4, 1000);
+		test.reportTest();
+	}
+
+	public void shareTest()
+	{
+		Progress p = new Progress();
+		Progress.Share root = p.getRemainingShare();
+		Progress.Share[] children = root.split (3);
+		Progress.Share[] grandChildren = children[1].split (2);
+
+		grandChildren[0].complete();
+		System.out.println ("after one grand child " + p.getProgress() + " (expected " + (1.0 / 6) + ")");
+		children[1].complete();
+		System.out.println ("after its parent " + p.getProgress() + " (expected " + (1.0 / 3) + ")");
+		root.complete();
+		System.out.println ("after root " + p.getProgress() + " (expected 1.0)");
+
+		try
+		{
+			root.complete();
+			System.out.println ("completing twice succeeded (expected exception)");
+		}
+		catch (Progress.ProgressException e)
+		{
+			System.out.println ("completing twice threw " + e.getMessage() + " (expected exception)");
+		}
+	}
+
+	/**
+	 * @param threads number of threads completing shares
+	 * @param parts number of shares to split the root into
+	 */
+	public void concurrentTest (int threads, final int parts) throws InterruptedException
+	{
+		Progress p = new Progress();
+		Progress.Share root = p.getRemainingShare();
+		final Progress.Share[] children = root.split (parts);
+
+		Thread[] workers = new Thread[threads];
+		for (int cThread = 0; cThread < threads; ++cThread)
+		{
+			final int first = cThread, step = threads;
+			workers[cThread] = new Thread()
+			{
+				public void run()
+				{
+					for (int cPart = first; cPart < parts; cPart += step)
+					{
+						Progress.Share[] leaves = children[cPart].split (3);
+						leaves[0].complete();
+						leaves[2].complete();
+						children[cPart].complete();
+					}
+				}
+			};
+			workers[cThread].start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+
+		System.out.println ("concurrent progress before root " + Progress.epsilonEquals (p.getProgress(), 1.0) + " (expected true)");
+		root.complete();
+		System.out.println ("concurrent progress after root " + Progress.epsilonEquals (p.getProgress(), 1.0) + " (expected true)");
+	}
+
+	public void reportTest()
+	{
+		Progress p = new Progress();
+		final AtomicInteger notifications = new AtomicInteger (0);
+		p.addListener (new Progress.Listener()
+		{
+			public void progressChanged (double progress)
+			{
+				notifications.incrementAndGet();
+			}
+		});
+
+		p.setReportInterval (60000);
+		Progress.Share[] parts = p.getRemainingShare().split (1000);
+		for (Progress.Share part : parts)
+			part.complete();
+		System.out.println ("notifications within interval " + notifications.get() + " (expected at most 1)");
+
+		p.report();
+		System.out.println ("notifications after explicit report " + notifications.get() + " (expected one more)");
+	}
+}
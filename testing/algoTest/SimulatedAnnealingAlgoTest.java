@@ -0,0 +1,92 @@
+package testing.algoTest;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import algorithm.MaxVolumePerformance;
+import algorithm.SimulatedAnnealingAlgo;
+import models.Block;
+import models.Container;
+import models.ShapeParser;
+
+/**
+ * test class for simulated annealing over sequences of pieces
+ * the optima are the ones found by the exact cover algorithm
+ */
+public class SimulatedAnnealingAlgoTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		SimulatedAnnealingAlgoTest test = new SimulatedAnnealingAlgoTest ("LPTPentominoes.txt");
+		test.valueTest (2, 5, 1, new int[] {0, 2, 0}, null, 8.0);
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2}, null, 18.0);
+		test.valueTest (3, 4, 2, new int[] {2, 2, 2}, new SimulatedAnnealingAlgo.LinearCooling (5.0, 0.0), 18.0);
+		test.volumeTest (3, 5, 1, new int[] {1, 1, 1}, 10);
+		test.timeTest (6, 5, 4, new int[] {8, 8, 8}, 500);
+	}
+
+	public SimulatedAnnealingAlgoTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = parseShape.getBlocks();
+	}
+
+	/**
+	 * @param quants number of pieces available of every piece in the file
+	 * @param schedule cooling schedule or null for the default one
+	 * @param expected maximum value
+	 */
+	public void valueTest (int d, int w, int h, int[] quants, SimulatedAnnealingAlgo.CoolingSchedule schedule, double expected)
+	{
+		Container c = new Container (d, w, h);
+		SimulatedAnnealingAlgo algo = new SimulatedAnnealingAlgo();
+		algo.setSeed (SEED);
+		algo.setIterationLimit (ITERATIONS);
+		algo.setCoolingSchedule (schedule);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		int items = 0;
+		for (int quant : quants)
+			items += quant;
+		System.out.println (d + "x" + w + "x" + h + " value " + c.getValue() + " (expected " + expected + ") overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+		System.out.println (" iterations " + algo.getIterationCount() + " (expected " + ITERATIONS + ") decoded incrementally " + (algo.getDecodeCount() < algo.getIterationCount() * items) + " (expected true)");
+	}
+
+	/**
+	 * @param quants number of pieces available of every piece in the file
+	 * @param expected maximum volume
+	 */
+	public void volumeTest (int d, int w, int h, int[] quants, int expected)
+	{
+		Container c = new Container (d, w, h);
+		SimulatedAnnealingAlgo algo = new SimulatedAnnealingAlgo();
+		algo.setSeed (SEED);
+		algo.setIterationLimit (ITERATIONS);
+		algo.setPerformanceMeasure (new MaxVolumePerformance());
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		algo.run();
+		System.out.println (d + "x" + w + "x" + h + " volume used " + c.getVolumeUsed() + " (expected " + expected + ") overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	/**
+	 * searches without iteration limit until millis passed
+	 * @param millis time limit
+	 */
+	public void timeTest (int d, int w, int h, int[] quants, long millis)
+	{
+		Container c = new Container (d, w, h);
+		SimulatedAnnealingAlgo algo = new SimulatedAnnealingAlgo();
+		algo.setTimeLimit (millis);
+		algo.init (c, AlgoTestHelper.getResources (mPieces, quants));
+		long start = System.currentTimeMillis();
+		algo.run();
+		long searched = System.currentTimeMillis() - start;
+		System.out.println (d + "x" + w + "x" + h + " time limit reached " + (searched >= millis) + " (expected true) iterations " + algo.getIterationCount() + " value " + c.getValue() + " overlap free " + AlgoTestHelper.isOverlapFree (c) + " (expected true)");
+	}
+
+	private static final long SEED = 17;
+	private static final long ITERATIONS = 20000;
+
+	private ArrayList<? extends Block> mPieces;
+}
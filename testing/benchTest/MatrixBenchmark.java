@@ -0,0 +1,121 @@
+package testing.benchTest;
+
+import models.Matrix;
+import models.PrimitiveMatrix;
+
+/**
+ * compares boxed matrices with primitive matrices on the geometry hot paths:
+ * rotating a vertex, multiplying rotations and copying values
+ */
+public class MatrixBenchmark
+{
+	public static void main (String[] args)
+	{
+		int warmup = 200000, measure = 1000000;
+		if (args.length >= 2)
+		{
+			warmup = Integer.parseInt (args[0]);
+			measure = Integer.parseInt (args[1]);
+		}
+		MatrixBenchmark bench = new MatrixBenchmark();
+		MicroBenchmark runner = new MicroBenchmark (warmup, measure);
+		bench.register (runner);
+		runner.run();
+	}
+
+	public MatrixBenchmark()
+	{
+		mBoxedRot = new Matrix.DoubleMatrix (3, 3);
+		mBoxedIntVec = new Matrix.IntegerMatrix (3, 1);
+		double angle = Math.toRadians (90);
+		mBoxedRot.setCell (0, 0, 1.0);
+		mBoxedRot.setCell (1, 1, Math.cos (angle));
+		mBoxedRot.setCell (1, 2, -Math.sin (angle));
+		mBoxedRot.setCell (2, 1, Math.sin (angle));
+		mBoxedRot.setCell (2, 2, Math.cos (angle));
+		mBoxedRot.setCell (0, 1, 0.0);
+		mBoxedRot.setCell (0, 2, 0.0);
+		mBoxedRot.setCell (1, 0, 0.0);
+		mBoxedRot.setCell (2, 0, 0.0);
+		for (int cRow = 0; cRow < 3; ++cRow)
+			mBoxedIntVec.setCell (cRow, 0, cRow + 1);
+		mPrimRot = PrimitiveMatrix.DoubleMatrix.fromMatrix (mBoxedRot);
+		mPrimIntVec = PrimitiveMatrix.IntMatrix.fromMatrix (mBoxedIntVec);
+		mPrimIntRot = mPrimRot.toIntMatrix();
+	}
+
+	/**
+	 * @param runner harness cases are added to
+	 */
+	public void register (MicroBenchmark runner)
+	{
+		final Matrix.DoubleMatrix boxedResult = new Matrix.DoubleMatrix (3, 1);
+		final Matrix.DoubleMatrix boxedRotResult = new Matrix.DoubleMatrix (3, 3);
+		final PrimitiveMatrix.DoubleMatrix primVec = new PrimitiveMatrix.DoubleMatrix (3, 1);
+		final PrimitiveMatrix.DoubleMatrix primResult = new PrimitiveMatrix.DoubleMatrix (3, 1);
+		final PrimitiveMatrix.DoubleMatrix primRotResult = new PrimitiveMatrix.DoubleMatrix (3, 3);
+		final PrimitiveMatrix.IntMatrix primIntResult = new PrimitiveMatrix.IntMatrix (3, 1);
+
+		runner.add ("boxed rotate vertex", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				mBoxedRot.multiply (mBoxedIntVec.toDoubleMatrix(), boxedResult);
+				return boxedResult.toIntegerMatrix().getCell (2, 0);
+			}
+		});
+		runner.add ("primitive rotate vertex", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				for (int cRow = 0; cRow < 3; ++cRow)
+					primVec.setCell (cRow, 0, mPrimIntVec.getCell (cRow, 0));
+				mPrimRot.multiply (primVec, primResult);
+				return (int) primResult.getCell (2, 0);
+			}
+		});
+		runner.add ("primitive int rotate vertex", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				mPrimIntRot.multiply (mPrimIntVec, primIntResult);
+				return primIntResult.getCell (2, 0);
+			}
+		});
+		runner.add ("boxed multiply 3x3", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				mBoxedRot.multiply (mBoxedRot, boxedRotResult);
+				return boxedRotResult.getCell (1, 2).longValue();
+			}
+		});
+		runner.add ("primitive multiply 3x3", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				mPrimRot.multiply (mPrimRot, primRotResult);
+				return (long) primRotResult.getCell (1, 2);
+			}
+		});
+		runner.add ("boxed clone 3x3", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				return mBoxedRot.clone().getRows();
+			}
+		});
+		runner.add ("primitive clone 3x3", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				return mPrimRot.clone().getRows();
+			}
+		});
+	}
+
+	private Matrix.DoubleMatrix mBoxedRot;
+	private Matrix.IntegerMatrix mBoxedIntVec;
+	private PrimitiveMatrix.DoubleMatrix mPrimRot;
+	private PrimitiveMatrix.IntMatrix mPrimIntVec, mPrimIntRot;
+}
@@ -0,0 +1,160 @@
+package testing.benchTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * minimal micro benchmark harness
+ * runs each registered case for a number of warmup and measured iterations
+ * and reports average time and allocated bytes per operation
+ * cases consuming their input are prepared before every operation, preparing is not measured
+ */
+public class MicroBenchmark
+{
+	/**
+	 * single operation to measure
+	 */
+	public interface Case
+	{
+		/**
+		 * performs the operation once
+		 * @return value depending on the result to keep the jit from removing the operation
+		 */
+		public long run();
+	}
+
+	/**
+	 * operation consuming its input, which is prepared anew before every operation
+	 */
+	public interface PreparedCase extends Case
+	{
+		/**
+		 * prepares the input of the next operation
+		 */
+		public void prepare();
+	}
+
+	/**
+	 * @param warmup number of operations executed before measuring
+	 * @param measure number of operations measured
+	 */
+	public MicroBenchmark (int warmup, int measure)
+	{
+		if (warmup < 0 || measure <= 0)
+			throw new IllegalArgumentException ("invalid iteration counts " + warmup + " " + measure);
+		mWarmup = warmup;
+		mMeasure = measure;
+		mNames = new ArrayList<String>();
+		mCases = new ArrayList<Case>();
+		mWarmups = new ArrayList<Integer>();
+		mMeasures = new ArrayList<Integer>();
+	}
+
+	/**
+	 * @param regex pattern of names of cases to run, other cases are skipped
+	 */
+	public void setFilter (String regex)
+	{
+		mFilter = Pattern.compile (regex);
+	}
+
+	/**
+	 * @param name name of case displayed in report
+	 * @param c case to measure
+	 */
+	public void add (String name, Case c)
+	{
+		add (name, c, mWarmup, mMeasure);
+	}
+
+	/**
+	 * @param name name of case displayed in report
+	 * @param c case to measure
+	 * @param warmup number of operations executed before measuring c instead of the default
+	 * @param measure number of operations of c measured instead of the default
+	 */
+	public void add (String name, Case c, int warmup, int measure)
+	{
+		if (warmup < 0 || measure <= 0)
+			throw new IllegalArgumentException ("invalid iteration counts " + warmup + " " + measure);
+		mNames.add (name);
+		mCases.add (c);
+		mWarmups.add (warmup);
+		mMeasures.add (measure);
+	}
+
+	/**
+	 * runs every case and prints one line per case
+	 */
+	public void run()
+	{
+		for (int cCase = 0; cCase < mCases.size(); ++cCase)
+		{
+			if (mFilter != null && !mFilter.matcher (mNames.get (cCase)).find())
+				continue;
+			Case c = mCases.get (cCase);
+			int measure = mMeasures.get (cCase);
+			for (int cIter = 0; cIter < mWarmups.get (cCase); ++cIter)
+			{
+				if (c instanceof PreparedCase)
+					((PreparedCase) c).prepare();
+				mSink += c.run();
+			}
+
+			long elapsed = 0, bytes = 0, bytesBefore = 0;
+			if (c instanceof PreparedCase)
+			{
+				for (int cIter = 0; cIter < measure; ++cIter)
+				{
+					((PreparedCase) c).prepare();
+					long before = getAllocatedBytes();
+					long start = System.nanoTime();
+					mSink += c.run();
+					elapsed += System.nanoTime() - start;
+					bytes += getAllocatedBytes() - before;
+					bytesBefore = Math.min (bytesBefore, before);
+				}
+			}
+			else
+			{
+				bytesBefore = getAllocatedBytes();
+				long start = System.nanoTime();
+				for (int cIter = 0; cIter < measure; ++cIter)
+					mSink += c.run();
+				elapsed = System.nanoTime() - start;
+				bytes = getAllocatedBytes() - bytesBefore;
+			}
+
+			String alloc = (bytesBefore < 0 ? "n/a" : String.format ("%.1f", (double) bytes / measure));
+			System.out.println (String.format ("%-52s %12.1f ns/op %10s B/op", mNames.get (cCase), (double) elapsed / measure, alloc));
+		}
+	}
+
+	/**
+	 * @return bytes allocated by the current thread so far or -1 if not supported
+	 */
+	private static long getAllocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled())
+				return sunBean.getThreadAllocatedBytes (Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * @return accumulated results of all runs
+	 */
+	public long getSink() { return mSink; }
+
+	private int mWarmup, mMeasure;
+	private ArrayList<String> mNames;
+	private ArrayList<Case> mCases;
+	private ArrayList<Integer> mWarmups, mMeasures;
+	private Pattern mFilter;
+	private long mSink;
+}
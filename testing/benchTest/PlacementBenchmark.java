@@ -0,0 +1,296 @@
+package testing.benchTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import algorithm.DynamicAlgo;
+import algorithm.LookupTable;
+import algorithm.MaxVolumePerformance;
+import algorithm.SequenceDecoder;
+import algorithm.ShapeRotator;
+import geometry.IntersectionSolver;
+import geometry.Line;
+import geometry.Rectangle;
+import models.BasicShape;
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.Resource;
+import models.ShapeParser;
+
+/**
+ * benchmarks the geometry and placement hot paths on containers filled from parcels.txt and LPTPentominoes.txt
+ * fixtures are filled to several levels by placing shuffled blocks at the first position they fit, seeded for reproducible runs.
+ * Fast cases run the iterations given, slow cases a fixed small number of iterations,
+ * cases consuming their fixture get a copy prepared before every operation.
+ * Arguments: [warmup measure] [regex of case names] [depth width height]
+ */
+public class PlacementBenchmark
+{
+	public static final String[] SHAPE_FILES = {"parcels.txt", "LPTPentominoes.txt"};
+	public static final int[] FILL_LEVELS = {25, 50, 75};
+	public static final int MEDIUM_WARMUP = 10, MEDIUM_MEASURE = 50;
+	public static final int SLOW_WARMUP = 1, SLOW_MEASURE = 3;
+	public static final long SEED = 1;
+
+	public static void main (String[] args) throws Exception
+	{
+		int warmup = 2000, measure = 10000;
+		int[] dims = {6, 5, 4};
+		if (args.length >= 2)
+		{
+			warmup = Integer.parseInt (args[0]);
+			measure = Integer.parseInt (args[1]);
+		}
+		MicroBenchmark runner = new MicroBenchmark (warmup, measure);
+		if (args.length >= 3)
+			runner.setFilter (args[2]);
+		if (args.length >= 6)
+		{
+			for (int cDim = 0; cDim < 3; ++cDim)
+				dims[cDim] = Integer.parseInt (args[3 + cDim]);
+		}
+
+		PlacementBenchmark bench = new PlacementBenchmark (dims);
+		for (String file : SHAPE_FILES)
+			bench.register (runner, file);
+		runner.run();
+	}
+
+	/**
+	 * container filled with blocks of a shape file up to a level
+	 */
+	private static class Fixture
+	{
+		private Container mFilled;
+		private Block mFirst, mNext;
+		private Glue mFirstPos, mNextPos;
+		private ArrayList<Line> mLines;
+		private ArrayList<Rectangle> mSides;
+	}
+
+	/**
+	 * @param dims dimensions of the containers filled
+	 */
+	public PlacementBenchmark (int[] dims)
+	{
+		mDims = dims;
+	}
+
+	/**
+	 * adds the cases of the shapes in file to runner
+	 */
+	public void register (MicroBenchmark runner, String file) throws Exception
+	{
+		ShapeParser parser = new ShapeParser (new File (file));
+		parser.parse();
+		final ArrayList<Block> shapes = parser.getBlocks();
+
+		for (int level : FILL_LEVELS)
+		{
+			final Fixture f = fill (shapes, level);
+			String name = file + " " + level + "% ";
+			System.out.println (name + "fixture " + f.mFilled.getAmountOfBlocks() + " blocks " + f.mFilled.getVolumeUsed() + "/" + f.mFilled.getVolume() + " cells");
+
+			if (f.mNext != null)
+			{
+				runner.add (name + "checkPositionOverlap free", new MicroBenchmark.Case()
+				{
+					public long run() { return (f.mFilled.checkPositionOverlap (f.mNext, f.mNextPos) ? 1 : 0); }
+				});
+				runner.add (name + "placeBlock", new MicroBenchmark.PreparedCase()
+				{
+					public void prepare() { mTarget = f.mFilled.clone(); }
+
+					public long run()
+					{
+						mTarget.placeBlock (f.mNext, f.mNextPos);
+						return mTarget.getAmountOfBlocks();
+					}
+
+					private Container mTarget;
+				}, SLOW_WARMUP, SLOW_MEASURE);
+			}
+			if (f.mFirst != null)
+			{
+				runner.add (name + "checkPositionOverlap hit", new MicroBenchmark.Case()
+				{
+					public long run() { return (f.mFilled.checkPositionOverlap (f.mFirst, f.mFirstPos) ? 1 : 0); }
+				});
+			}
+			runner.add (name + "clone", new MicroBenchmark.Case()
+			{
+				public long run() { return f.mFilled.clone().getAmountOfBlocks(); }
+			}, SLOW_WARMUP, SLOW_MEASURE);
+			runner.add (name + "getFreeCuboids", new MicroBenchmark.Case()
+			{
+				public long run() { return f.mFilled.getFreeCuboids().size(); }
+			}, MEDIUM_WARMUP, MEDIUM_MEASURE);
+			runner.add (name + "addMissingRectanglePoints", new MicroBenchmark.PreparedCase()
+			{
+				public void prepare() { mShape = new BasicShape (f.mFilled); }
+
+				public long run()
+				{
+					mShape.addMissingRectanglePoints();
+					return mShape.getNumberOfVertices();
+				}
+
+				private BasicShape mShape;
+			}, SLOW_WARMUP, SLOW_MEASURE);
+			if (!f.mLines.isEmpty() && !f.mSides.isEmpty())
+			{
+				runner.add (name + "IntersectionSolver line side", new MicroBenchmark.Case()
+				{
+					public long run()
+					{
+						Line l = f.mLines.get (mPair % f.mLines.size());
+						Rectangle r = f.mSides.get ((mPair / f.mLines.size()) % f.mSides.size());
+						++mPair;
+						return new IntersectionSolver (l, r).getSolutionType().ordinal();
+					}
+
+					private int mPair;
+				});
+			}
+		}
+
+		runner.add (file + " ShapeRotator.getRotations", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				BasicShape shape = shapes.get (mShape++ % shapes.size());
+				return new ShapeRotator (shape).getRotations().size();
+			}
+
+			private int mShape;
+		}, MEDIUM_WARMUP, MEDIUM_MEASURE);
+
+		registerLookups (runner, file, shapes);
+	}
+
+	/**
+	 * adds cases looking up entries for every container fitting into the dimensions and every inventory up to LOOKUP_INVENTORY
+	 */
+	private void registerLookups (MicroBenchmark runner, String file, ArrayList<Block> shapes)
+	{
+		final LookupTable table = new LookupTable (mDims[0], mDims[1], mDims[2]);
+		HashSet<Long> stored = new HashSet<>();
+		int subsets = (int) Math.pow (LOOKUP_INVENTORY + 1, shapes.size());
+		for (int cD = 1; cD <= mDims[0]; ++cD)
+			for (int cW = 1; cW <= mDims[1]; ++cW)
+				for (int cH = 1; cH <= mDims[2]; ++cH)
+				{
+					ArrayList<Integer> sorted = LookupTable.sortIndices (cD, cW, cH);
+					if (!stored.add (LookupTable.packIndices (sorted.get (0), sorted.get (1), sorted.get (2))))
+						continue;
+					for (int cSubset = 0; cSubset < subsets; ++cSubset)
+						table.addEntry (cD, cW, cH, table.new Entry (new Container (cD, cW, cH), getSubset (shapes, cSubset, 0)));
+				}
+
+		Random rand = new Random (SEED);
+		final int[][] dims = new int[LOOKUP_PROBES][];
+		final LookupTable.Entry[] hits = new LookupTable.Entry[LOOKUP_PROBES], misses = new LookupTable.Entry[LOOKUP_PROBES];
+		for (int cProbe = 0; cProbe < LOOKUP_PROBES; ++cProbe)
+		{
+			dims[cProbe] = new int[] {1 + rand.nextInt (mDims[0]), 1 + rand.nextInt (mDims[1]), 1 + rand.nextInt (mDims[2])};
+			int subset = rand.nextInt (subsets);
+			hits[cProbe] = table.new Entry (getSubset (shapes, subset, 0));
+			misses[cProbe] = table.new Entry (getSubset (shapes, subset, LOOKUP_INVENTORY + 1));
+		}
+
+		System.out.println (file + " lookup table " + table.getSize() + " entries");
+		runner.add (file + " LookupTable.get hit", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				int probe = mProbe++ % LOOKUP_PROBES;
+				return (table.get (dims[probe][0], dims[probe][1], dims[probe][2], hits[probe]) != null ? 1 : 0);
+			}
+
+			private int mProbe;
+		});
+		runner.add (file + " LookupTable.get miss", new MicroBenchmark.Case()
+		{
+			public long run()
+			{
+				int probe = mProbe++ % LOOKUP_PROBES;
+				return (table.get (dims[probe][0], dims[probe][1], dims[probe][2], misses[probe]) != null ? 1 : 0);
+			}
+
+			private int mProbe;
+		});
+	}
+
+	/**
+	 * @param index index of subset, digit i in base LOOKUP_INVENTORY + 1 is the inventory of shape i
+	 * @param extra inventory added to the first shape
+	 * @return subset of shapes with the inventories encoded by index
+	 */
+	private static DynamicAlgo.Subset getSubset (ArrayList<Block> shapes, int index, int extra)
+	{
+		DynamicAlgo.Subset s = new DynamicAlgo.Subset();
+		for (int cShape = 0; cShape < shapes.size(); ++cShape, index /= LOOKUP_INVENTORY + 1)
+			s.add (new DynamicAlgo.Resource (shapes.get (cShape), index % (LOOKUP_INVENTORY + 1) + (cShape == 0 ? extra : 0)));
+		return s;
+	}
+
+	/**
+	 * @param level percentage of the volume of the container to fill at least
+	 * @return container filled with shuffled blocks of shapes in shuffled orientations at the first position they fit
+	 */
+	private Fixture fill (ArrayList<Block> shapes, int level)
+	{
+		ArrayList<Resource> infinite = new ArrayList<>();
+		for (Block b : shapes)
+			infinite.add (new Resource (b, 0, b.getVolume(), true));
+		Container c = new Container (mDims[0], mDims[1], mDims[2]);
+		SequenceDecoder decoder = new SequenceDecoder (c, infinite, new MaxVolumePerformance());
+
+		Random rand = new Random (SEED);
+		int[] pieces = new int[decoder.getLength()], rotations = new int[decoder.getLength()];
+		for (int cItem = 0; cItem < pieces.length; ++cItem)
+			pieces[cItem] = decoder.getItemPiece (cItem);
+		for (int cItem = pieces.length - 1; cItem > 0; --cItem)
+		{
+			int swap = rand.nextInt (cItem + 1), piece = pieces[cItem];
+			pieces[cItem] = pieces[swap];
+			pieces[swap] = piece;
+		}
+		for (int cItem = 0; cItem < pieces.length; ++cItem)
+			rotations[cItem] = rand.nextInt (decoder.getRotationCount (pieces[cItem]));
+		decoder.decode (pieces, rotations, 0);
+		ArrayList<Block> blocks = new ArrayList<>();
+		ArrayList<Glue> positions = new ArrayList<>();
+		decoder.getDecoded (c, pieces, rotations, blocks, positions);
+
+		Fixture f = new Fixture();
+		int placed = 0;
+		while (placed < blocks.size() && c.getVolumeUsed() * 100 < level * c.getVolume())
+		{
+			c.placeBlock (blocks.get (placed), positions.get (placed));
+			++placed;
+		}
+		f.mFilled = c;
+		if (placed > 0)
+		{
+			f.mFirst = blocks.get (0);
+			f.mFirstPos = positions.get (0);
+		}
+		if (placed < blocks.size())
+		{
+			f.mNext = blocks.get (placed);
+			f.mNextPos = positions.get (placed);
+		}
+		f.mLines = c.getSingleConnectingLines();
+		f.mSides = c.getRectangles();
+		return f;
+	}
+
+	private static final int LOOKUP_INVENTORY = 2;
+	private static final int LOOKUP_PROBES = 1024;
+
+	private int[] mDims;
+}
@@ -0,0 +1,123 @@
+package testing.geomTest;
+
+import java.util.Random;
+
+import geometry.Cuboid;
+import geometry.GeoShape;
+import geometry.IntersectionSolver;
+import geometry.Line;
+import geometry.Point;
+import geometry.Rectangle;
+import models.Glue;
+import models.Matrix.IntegerMatrix;
+
+/**
+ * test class for the closed form intersection of axis aligned shapes
+ * compares the closed form to gaussian elimination for random shapes
+ */
+public class IntersectionSolverTest
+{
+	public static void main (String[] args)
+	{
+		IntersectionSolverTest test = new IntersectionSolverTest();
+		test.compareTest (5000, 1);
+		test.fallbackTest();
+	}
+
+	/**
+	 * @param pairs number of pairs of random shapes to intersect
+	 * @param seed seed of random shapes
+	 */
+	public void compareTest (int pairs, long seed)
+	{
+		Random r = new Random (seed);
+		IntersectionSolver.resetCounters();
+		boolean same = true;
+		int ones = 0;
+		for (int cPair = 0; cPair < pairs; ++cPair)
+		{
+			GeoShape s1 = getRandomShape (r), s2 = getRandomShape (r);
+			IntersectionSolver.setAxisAlignedFastPath (true);
+			IntersectionSolver fast = new IntersectionSolver (s1, s2);
+			String fastResult = toString (fast);
+			IntersectionSolver.setAxisAlignedFastPath (false);
+			IntersectionSolver gauss = new IntersectionSolver (s1, s2);
+			same &= fastResult.equals (toString (gauss));
+			if (fast.getSolutionType() == IntersectionSolver.Result.ONE)
+				++ones;
+		}
+		IntersectionSolver.setAxisAlignedFastPath (true);
+		System.out.println ("unique intersections " + ones + ", closed form same as gaussian elimination " + same + " (expected true)");
+		System.out.println ("closed form solutions " + (IntersectionSolver.getFastPathCount() > 0) + " (expected true)");
+	}
+
+	/**
+	 * the system and the bounds of the diagonal line need gaussian elimination
+	 */
+	public void fallbackTest()
+	{
+		IntersectionSolver.resetCounters();
+		Line diagonal = new Line (getPosition (0, 0, 0), getPosition (2, 2, 2));
+		Line axis = new Line (getPosition (1, 1, 0), getPosition (1, 1, 4));
+		IntersectionSolver solver = new IntersectionSolver (diagonal, axis);
+		System.out.println ("diagonal intersects " + solver.getSolutionType() + " (expected ONE) within " + solver.isWithinBounds() + " (expected true)");
+		System.out.println ("gaussian fallbacks " + IntersectionSolver.getGaussFallbackCount() + " (expected 2)");
+	}
+
+	/**
+	 * @return random point, line, rectangle or cuboid whose sides are parallel to the coordinate axes
+	 */
+	private GeoShape getRandomShape (Random r)
+	{
+		int type = r.nextInt (4);
+		int[] p1 = {r.nextInt (5) - 1, r.nextInt (5) - 1, r.nextInt (5) - 1};
+		int[] p2 = p1.clone();
+		int fixed = r.nextInt (3);
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			boolean spanned = (type == 1 && cDim == fixed) || (type == 2 && cDim != fixed) || type == 3;
+			if (spanned)
+				p2[cDim] += (r.nextBoolean() ? 1 : -1) * (1 + r.nextInt (3));
+		}
+		Glue g1 = getPosition (p1[0], p1[1], p1[2]), g2 = getPosition (p2[0], p2[1], p2[2]);
+		GeoShape s;
+		if (type == 0)
+			s = new Point (g1);
+		else if (type == 1)
+			s = new Line (g1, g2);
+		else if (type == 2)
+			s = new Rectangle (g1, g2);
+		else
+			s = new Cuboid (g1, g2);
+		s.setInclusion (r.nextBoolean(), r.nextBoolean());
+		return s;
+	}
+
+	/**
+	 * @return solution type, rounded scalars and whether the solution is within both shapes
+	 */
+	private String toString (IntersectionSolver solver)
+	{
+		String s = solver.getSolutionType().toString();
+		if (solver.getSolutionType() == IntersectionSolver.Result.ONE)
+		{
+			for (double scalar : solver.getScalars())
+				s += " " + Math.round (scalar * 1000);
+		}
+		if (solver.getSolutionType() != IntersectionSolver.Result.INCONSISTENT)
+			s += " " + solver.isWithinBounds();
+		return s;
+	}
+
+	/**
+	 * @return glue position of d, w, h coordinates
+	 */
+	public Glue getPosition (int d, int w, int h)
+	{
+		IntegerMatrix vec = new IntegerMatrix (3, 1);
+		vec.setCell (0, 0, d);
+		vec.setCell (1, 0, w);
+		vec.setCell (2, 0, h);
+		return new Glue (vec);
+	}
+}
@@ -0,0 +1,100 @@
+package testing.mainTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+
+import main.BatchSolver;
+import models.Container;
+
+/**
+ * test class for the command line solver
+ * the optimum is the one found by the exact cover algorithm
+ */
+public class BatchSolverTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		BatchSolverTest test = new BatchSolverTest (new File ("LPTPentominoes.txt"));
+		test.argumentTest();
+		test.batchTest();
+	}
+
+	public BatchSolverTest (File shapes)
+	{
+		mShapes = shapes.getAbsoluteFile();
+	}
+
+	public void argumentTest() throws Exception
+	{
+		File out = File.createTempFile ("solution", BatchSolver.OUTPUT_EXTENSION);
+		String[] args = {mShapes.getPath(), "3", "4", "2", "branch_and_bound", "2", "2", "2", "-o", out.getPath(), "-t", "5000"};
+		BatchSolver.Result r = BatchSolver.solve (BatchSolver.parseArguments (args));
+		Container c = r.getContainer();
+		System.out.println ("3x4x2 value " + c.getValue() + " (expected 18.0) density " + r.getDensity() + " (expected 0.8333333333333334) written " + (out.length() > 0) + " (expected true)");
+		out.delete();
+
+		for (String heuristic : new String[] {"greedy", "hillclmber"})
+		{
+			String[] solvable = {mShapes.getPath(), "3", "4", "2", heuristic, "2", "2", "2"};
+			c = BatchSolver.solve (BatchSolver.parseArguments (solvable)).getContainer();
+			System.out.println (heuristic + " 3x4x2 value positive " + (c.getValue() > 0) + " (expected true) within optimum " + (c.getValue() <= 18.0) + " (expected true)");
+		}
+
+		String[] bad = {mShapes.getPath(), "3", "4", "2", "annealing", "2", "2", "2"};
+		try
+		{
+			BatchSolver.solve (BatchSolver.parseArguments (bad));
+			System.out.println ("unknown algorithm rejected false (expected true)");
+		}
+		catch (BatchSolver.JobException e)
+		{
+			System.out.println ("unknown algorithm rejected true (expected true)");
+		}
+
+		String[] volume = {mShapes.getPath(), "3", "4", "2", "exact_cover", "2", "2", "2", "-m", "volume"};
+		try
+		{
+			BatchSolver.solve (BatchSolver.parseArguments (volume));
+			System.out.println ("exact cover of volume rejected false (expected true)");
+		}
+		catch (BatchSolver.JobException e)
+		{
+			System.out.println ("exact cover of volume rejected true (expected true)");
+		}
+	}
+
+	/**
+	 * solves a directory of jobs in parallel, one of which cannot be solved and one of which is malformed
+	 */
+	public void batchTest() throws Exception
+	{
+		File dir = Files.createTempDirectory ("jobs").toFile();
+		writeJob (new File (dir, "a" + BatchSolver.JOB_EXTENSION), "EXACT_COVER", "2 2 2");
+		writeJob (new File (dir, "b" + BatchSolver.JOB_EXTENSION), "genetic", "2 2 2");
+		writeJob (new File (dir, "c" + BatchSolver.JOB_EXTENSION), "SIMULATED_ANNEALING", "2 2");
+		writeJob (new File (dir, "d" + BatchSolver.JOB_EXTENSION), "no algorithm", "2 2 2");
+		boolean solvedAll = BatchSolver.solveAll (dir, 2);
+		System.out.println ("solved all " + solvedAll + " (expected false) outputs " + new File (dir, "a" + BatchSolver.OUTPUT_EXTENSION).exists() + " " +
+						new File (dir, "b" + BatchSolver.OUTPUT_EXTENSION).exists() + " " + new File (dir, "c" + BatchSolver.OUTPUT_EXTENSION).exists() + " " +
+						new File (dir, "d" + BatchSolver.OUTPUT_EXTENSION).exists() + " (expected true true false false)");
+		for (File f : dir.listFiles())
+			f.delete();
+		dir.delete();
+	}
+
+	private void writeJob (File job, String algorithm, String inventory) throws IOException
+	{
+		PrintWriter write = new PrintWriter (job);
+		write.println ("# job of the command line solver test");
+		write.println ("shapes = " + mShapes.getPath().replace ("\\", "/"));
+		write.println ("container = 3 4 2");
+		write.println ("inventory = " + inventory);
+		write.println ("algorithm = " + algorithm);
+		write.println ("time = 2000");
+		write.close();
+	}
+
+	private File mShapes;
+}
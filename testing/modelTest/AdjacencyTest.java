@@ -0,0 +1,70 @@
+package testing.modelTest;
+
+import java.util.Arrays;
+
+import models.Adjacency;
+import models.BasicShape.RelatPos;
+
+/**
+ * test class for the sparse adjacency of vertices
+ */
+public class AdjacencyTest
+{
+	public static void main (String[] args)
+	{
+		AdjacencyTest test = new AdjacencyTest();
+		test.slotTest();
+		test.extraTest();
+		test.bufferTest();
+	}
+
+	public void slotTest()
+	{
+		Adjacency adj = new Adjacency (3);
+		adj.connect (0, 1, RelatPos.FRONT);
+		adj.connect (0, 2, RelatPos.RIGHT);
+		System.out.println ("front of 0 " + adj.getNeighbour (0, RelatPos.FRONT) + " (expected 1) back of 1 " + adj.getNeighbour (1, RelatPos.BACK) + " (expected 0)");
+		System.out.println ("neighbours of 0 " + Arrays.toString (adj.getNeighbours (0)) + " (expected [1, 2])");
+		adj.disconnect (1, 0);
+		System.out.println ("0 connected to 1 " + adj.isConnected (0, 1) + " (expected false) 2 connected to 0 " + adj.isConnected (2, 0) + " (expected true)");
+		adj.ensureVertices (10);
+		adj.connect (9, 0, RelatPos.BELOW);
+		System.out.println ("neighbours of 0 " + Arrays.toString (adj.getNeighbours (0)) + " (expected [2, 9])");
+	}
+
+	/**
+	 * a second connection in the same direction is kept until the first one is removed
+	 */
+	public void extraTest()
+	{
+		Adjacency adj = new Adjacency (3);
+		adj.connect (0, 2, RelatPos.ABOVE);
+		adj.connect (0, 1, RelatPos.ABOVE);
+		System.out.println ("neighbours of 0 " + Arrays.toString (adj.getNeighbours (0)) + " (expected [1, 2])");
+		Adjacency clone = adj.clone();
+		adj.disconnect (0, 2);
+		System.out.println ("above 0 " + adj.getNeighbour (0, RelatPos.ABOVE) + " (expected 1) below 2 " + adj.getNeighbour (2, RelatPos.BELOW) + " (expected -1)");
+		System.out.println ("clone unchanged " + clone.isConnected (2, 0) + " (expected true) equal " + clone.equals (adj) + " (expected false)");
+		//the connection moved from the extra connections into its slot equals one connected directly
+		Adjacency same = new Adjacency (3);
+		same.connect (0, 1, RelatPos.ABOVE);
+		System.out.println ("equal " + same.equals (adj) + " (expected true) hash equal " + (same.hashCode() == adj.hashCode()) + " (expected true)");
+	}
+
+	/**
+	 * neighbours read into a buffer of the maximum degree include extra connections in ascending order
+	 */
+	public void bufferTest()
+	{
+		Adjacency adj = new Adjacency (5);
+		adj.connect (0, 4, RelatPos.LEFT);
+		adj.connect (0, 3, RelatPos.LEFT);
+		adj.connect (0, 1, RelatPos.LEFT);
+		adj.connect (0, 2, RelatPos.FRONT);
+		int[] neighbours = new int[adj.getMaxDegree()];
+		int count = adj.getNeighbours (0, neighbours);
+		System.out.println ("degree of 0 " + adj.getDegree (0) + " (expected 4) buffer holds " + (neighbours.length >= count) + " (expected true) neighbours of 0 " + Arrays.toString (Arrays.copyOf (neighbours, count)) + " (expected [1, 2, 3, 4])");
+		count = adj.getNeighbours (3, neighbours);
+		System.out.println ("neighbours of 3 " + Arrays.toString (Arrays.copyOf (neighbours, count)) + " (expected [0]) degree of 3 " + adj.getDegree (3) + " (expected 1)");
+	}
+}
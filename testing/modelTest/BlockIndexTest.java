@@ -0,0 +1,83 @@
+package testing.modelTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import models.BlockIndex;
+
+/**
+ * test class for the bucket grid over bounding boxes of placed blocks
+ * compares queries to testing every box
+ */
+public class BlockIndexTest
+{
+	public static void main (String[] args)
+	{
+		BlockIndexTest test = new BlockIndexTest();
+		test.queryTest (new BlockIndex (20, 12, 9, 4), 300, 1);
+		test.queryTest (new BlockIndex (5, 5, 5, 1), 100, 2);
+	}
+
+	/**
+	 * indexes random boxes, removes some of them and queries random boxes
+	 * @param index empty index of a 20 x 12 x 9 space or smaller
+	 * @param boxes number of boxes to index
+	 * @param seed seed of random boxes
+	 */
+	public void queryTest (BlockIndex index, int boxes, long seed)
+	{
+		Random r = new Random (seed);
+		ArrayList<int[]> indexed = new ArrayList<>();
+		for (int cBox = 0; cBox < boxes; ++cBox)
+		{
+			int[] box = getRandomBox (r);
+			indexed.add (box);
+			index.add (cBox, box);
+		}
+		for (int cBox = 0; cBox < boxes; cBox += 3)
+		{
+			index.remove (cBox);
+			indexed.set (cBox, null);
+		}
+
+		boolean same = true;
+		int found = 0;
+		for (int cQuery = 0; cQuery < 200; ++cQuery)
+		{
+			int[] query = getRandomBox (r);
+			ArrayList<Integer> expected = new ArrayList<>();
+			for (int cBox = 0; cBox < indexed.size(); ++cBox)
+			{
+				if (indexed.get (cBox) != null && intersect (indexed.get (cBox), query))
+					expected.add (cBox);
+			}
+			ArrayList<Integer> actual = index.query (query);
+			Collections.sort (actual);
+			same &= actual.equals (expected);
+			found += actual.size();
+		}
+		System.out.println ("queries found " + found + " boxes, same as testing every box " + same + " (expected true)");
+	}
+
+	/**
+	 * @return box of up to 5 cells along every edge, possibly reaching outside of a 20 x 12 x 9 space
+	 */
+	private int[] getRandomBox (Random r)
+	{
+		int[] box = {r.nextInt (22) - 1, r.nextInt (14) - 1, r.nextInt (11) - 1, 0, 0, 0};
+		for (int cDim = 0; cDim < 3; ++cDim)
+			box[cDim + 3] = box[cDim] + 1 + r.nextInt (5);
+		return box;
+	}
+
+	private boolean intersect (int[] b1, int[] b2)
+	{
+		for (int cDim = 0; cDim < 3; ++cDim)
+		{
+			if (b1[cDim] >= b2[cDim + 3] || b2[cDim] >= b1[cDim + 3])
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,98 @@
+package testing.modelTest;
+
+import java.util.ArrayList;
+
+import geometry.Cuboid;
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.Matrix.IntegerMatrix;
+
+/**
+ * test class for tentative placements which are undone afterwards
+ */
+public class ContainerUndoTest
+{
+	public static void main (String[] args)
+	{
+		ContainerUndoTest test = new ContainerUndoTest();
+		test.undoTest();
+		test.commitTest();
+	}
+
+	/**
+	 * @return glue position of d, w, h coordinates
+	 */
+	public Glue getPosition (int d, int w, int h)
+	{
+		IntegerMatrix vec = new IntegerMatrix (3, 1);
+		vec.setCell (0, 0, d);
+		vec.setCell (1, 0, w);
+		vec.setCell (2, 0, h);
+		return new Glue (vec);
+	}
+
+	/**
+	 * @return cuboid block of size d x w x h with value
+	 */
+	public Block getCube (int d, int w, int h, double value)
+	{
+		ArrayList<IntegerMatrix> verts = Container.computeInitDimVectors (d, w, h);
+		IntegerMatrix adjMat = Container.computeInitAdjacencyMatrix (verts);
+		return new Block (verts, adjMat, value, "");
+	}
+
+	public void undoTest()
+	{
+		Container c = new Container (4, 4, 4);
+		c.placeBlock (getCube (2, 2, 2, 3), getPosition (0, 0, 0));
+		String freeBefore = toString (c.getFreeCuboids());
+		int verticesBefore = c.getNumberOfVertices();
+
+		c.placeTentatively (getCube (2, 4, 4, 5), getPosition (2, 0, 0));
+		System.out.println ("tentative blocks " + c.getAmountOfBlocks() + " (expected 2) value " + c.getValue() + " (expected 8.0)");
+		System.out.println ("cell 3|3|3 occupied " + c.isCellOccupied (3, 3, 3) + " (expected true)");
+		System.out.println ("free volume " + c.getFreeSpace().getFreeVolume() + " (expected 24)");
+		c.placeTentatively (getCube (2, 2, 2, 1), getPosition (0, 2, 2));
+		System.out.println ("overlap possible " + c.checkPositionOverlap (getCube (1, 1, 1, 0), getPosition (1, 3, 3)) + " (expected false)");
+
+		c.undoPlacement();
+		c.undoPlacement();
+		System.out.println ("blocks after undo " + c.getAmountOfBlocks() + " (expected 1) value " + c.getValue() + " (expected 3.0)");
+		System.out.println ("cell 3|3|3 occupied " + c.isCellOccupied (3, 3, 3) + " (expected false)");
+		System.out.println ("free cuboids restored " + toString (c.getFreeCuboids()).equals (freeBefore) + " (expected true)");
+		System.out.println ("shape untouched " + (c.getNumberOfVertices() == verticesBefore) + " (expected true)");
+
+		try
+		{
+			c.undoPlacement();
+			System.out.println ("undo without tentative placement succeeded (expected exception)");
+		}
+		catch (Container.BlockNotFoundException e)
+		{
+			System.out.println ("undo without tentative placement threw (expected exception)");
+		}
+	}
+
+	public void commitTest()
+	{
+		Container c = new Container (4, 4, 4);
+		c.placeTentatively (getCube (2, 2, 2, 3), getPosition (0, 0, 0));
+		c.placeBlock (getCube (2, 2, 2, 2), getPosition (2, 2, 2));
+		System.out.println ("committed blocks " + c.getAmountOfBlocks() + " (expected 2) value " + c.getValue() + " (expected 5.0)");
+		System.out.println ("tentative placements " + c.getTentativePlacements() + " (expected 0)");
+		System.out.println ("clone value " + c.clone().getValue() + " (expected 5.0)");
+	}
+
+	/**
+	 * @param cuboids list of cuboids
+	 * @return spanning points of every cuboid
+	 */
+	private String toString (ArrayList<Cuboid> cuboids)
+	{
+		String s = "";
+		for (Cuboid c : cuboids)
+			s += new Glue (c.getFirst()) + " " + new Glue (c.getSecond()) + "; ";
+		return s;
+	}
+}
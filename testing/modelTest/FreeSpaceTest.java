@@ -0,0 +1,167 @@
+package testing.modelTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import models.BasicShape;
+import models.Block;
+import models.Container;
+import models.FreeSpace;
+import models.Glue;
+import models.OrientationCache;
+import models.ShapeParser;
+import models.Matrix.IntegerMatrix;
+
+/**
+ * test class for the incrementally maintained free space of a container
+ * places random pentominoes and compares the free space to the occupancy of the container
+ */
+public class FreeSpaceTest
+{
+	public static void main (String[] args) throws Exception
+	{
+		FreeSpaceTest test = new FreeSpaceTest ("LPTPentominoes.txt");
+		test.boxTest();
+		test.placementTest (new Container (5, 4, 6), 400, 1);
+		test.placementTest (new Container (3, 3, 3), 200, 2);
+	}
+
+	public FreeSpaceTest (String file) throws Exception
+	{
+		ShapeParser parseShape = new ShapeParser (new File (file));
+		parseShape.parse();
+		mPieces = new ArrayList<>();
+		for (BasicShape shape : parseShape.getBlocks())
+			mPieces.add (new Block (shape, 1, "piece"));
+	}
+
+	public void boxTest()
+	{
+		int[] cells = {0, 0, 0, 0, 0, 1, 0, 1, 0, 0, 1, 1, 1, 0, 0};
+		ArrayList<int[]> boxes = FreeSpace.toBoxes (cells);
+		int vol = 0;
+		for (int[] box : boxes)
+			vol += FreeSpace.getVolume (box);
+		System.out.println ("boxes " + boxes.size() + " (expected 2) volume " + vol + " (expected 5)");
+
+		FreeSpace free = new FreeSpace (2, 2, 2);
+		free.occupy (cells, 0, 0, 0);
+		System.out.println ("free volume " + free.getFreeVolume() + " (expected 3)");
+		System.out.println ("maximal boxes " + free.getMaximalBoxes().size() + " (expected 2)");
+	}
+
+	/**
+	 * @param c container to place pieces in
+	 * @param attempts number of random placements to try
+	 * @param seed seed of random placements
+	 */
+	public void placementTest (Container c, int attempts, long seed)
+	{
+		Random r = new Random (seed);
+		int placed = 0;
+		boolean consistent = true;
+		for (int cAttempt = 0; cAttempt < attempts; ++cAttempt)
+		{
+			List<Block> rotations = OrientationCache.getRotations (mPieces.get (r.nextInt (mPieces.size())));
+			Block piece = rotations.get (r.nextInt (rotations.size()));
+			Glue pos = getPosition (r.nextInt (c.getDimensions (0)), r.nextInt (c.getDimensions (1)), r.nextInt (c.getDimensions (2)));
+			if (c.checkPositionOverlap (piece, pos))
+			{
+				c.placeBlock (piece, pos);
+				++placed;
+				consistent &= isConsistent (c);
+			}
+		}
+		System.out.println ("placed " + placed + " pieces, free space consistent " + consistent + " (expected true)");
+		System.out.println ("free volume " + c.getFreeSpace().getFreeVolume() + " (expected " + c.getVolumeRemaining() + ")");
+	}
+
+	/**
+	 * @param c container
+	 * @return true if partition boxes cover every free cell exactly once and
+	 * maximal boxes are free, cover every free cell and can not be extended
+	 */
+	public boolean isConsistent (Container c)
+	{
+		int d = c.getDimensions (0), w = c.getDimensions (1), h = c.getDimensions (2);
+		int[][][] partCover = new int[d][w][h];
+		for (int[] box : c.getFreeSpace().getPartitionBoxes())
+		{
+			for (int cX = box[0]; cX < box[3]; ++cX)
+				for (int cY = box[1]; cY < box[4]; ++cY)
+					for (int cZ = box[2]; cZ < box[5]; ++cZ)
+						++partCover[cX][cY][cZ];
+		}
+		boolean[][][] maxCover = new boolean[d][w][h];
+		for (int[] box : c.getFreeSpace().getMaximalBoxes())
+		{
+			for (int cX = box[0]; cX < box[3]; ++cX)
+			{
+				for (int cY = box[1]; cY < box[4]; ++cY)
+				{
+					for (int cZ = box[2]; cZ < box[5]; ++cZ)
+					{
+						if (c.isCellOccupied (cX, cY, cZ))
+							return false;
+						maxCover[cX][cY][cZ] = true;
+					}
+				}
+			}
+			for (int cDim = 0; cDim < 6; ++cDim)
+			{
+				if (isExtensible (c, box, cDim))
+					return false;
+			}
+		}
+		for (int cX = 0; cX < d; ++cX)
+		{
+			for (int cY = 0; cY < w; ++cY)
+			{
+				for (int cZ = 0; cZ < h; ++cZ)
+				{
+					boolean free = !c.isCellOccupied (cX, cY, cZ);
+					if (partCover[cX][cY][cZ] != (free ? 1 : 0) || maxCover[cX][cY][cZ] != free)
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param c container
+	 * @param box maximal box
+	 * @param face index of bound to move outwards by one cell
+	 * @return true if the box moved outwards only contains free cells
+	 */
+	private boolean isExtensible (Container c, int[] box, int face)
+	{
+		int[] grown = box.clone();
+		if (face < 3)
+			--grown[face];
+		else
+			++grown[face];
+		for (int cX = grown[0]; cX < grown[3]; ++cX)
+			for (int cY = grown[1]; cY < grown[4]; ++cY)
+				for (int cZ = grown[2]; cZ < grown[5]; ++cZ)
+					if (c.isCellOccupied (cX, cY, cZ))
+						return false;
+		return true;
+	}
+
+	/**
+	 * @return glue position of d, w, h coordinates
+	 */
+	public Glue getPosition (int d, int w, int h)
+	{
+		IntegerMatrix vec = new IntegerMatrix (3, 1);
+		vec.setCell (0, 0, d);
+		vec.setCell (1, 0, w);
+		vec.setCell (2, 0, h);
+		return new Glue (vec);
+	}
+
+	private ArrayList<Block> mPieces;
+}
@@ -0,0 +1,104 @@
+package testing.modelTest;
+
+import java.util.ArrayList;
+
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.OccupancyGrid;
+import models.Matrix.*;
+
+/**
+ * test class for occupancy grid backed overlap checks
+ * compares grid and geometric overlap checks on a small load
+ */
+public class OccupancyGridTest
+{
+	public static void main (String[] args)
+	{
+		OccupancyGridTest test = new OccupancyGridTest();
+		test.gridTest();
+		test.containerTest();
+	}
+
+	/**
+	 * @param d depth coordinate
+	 * @param w width coordinate
+	 * @param h height coordinate
+	 * @return glue position of d, w, h coordinates
+	 */
+	public Glue getPosition (int d, int w, int h)
+	{
+		IntegerMatrix vec = new IntegerMatrix(3, 1);
+		vec.setCell (0, 0, d);
+		vec.setCell (1, 0, w);
+		vec.setCell (2, 0, h);
+		return new Glue (vec);
+	}
+
+	/**
+	 * @param d depth
+	 * @param w width
+	 * @param h height
+	 * @return cuboid block of size d x w x h
+	 */
+	public Block getCube (int d, int w, int h)
+	{
+		ArrayList<IntegerMatrix> verts = Container.computeInitDimVectors (d, w, h);
+		IntegerMatrix adjMat = Container.computeInitAdjacencyMatrix (verts);
+		return new Block (verts, adjMat, 1, "");
+	}
+
+	public void gridTest()
+	{
+		OccupancyGrid grid = new OccupancyGrid (33, 8, 5);
+		int[] cells = getCube (2, 2, 2).getCells();
+		System.out.println ("cube has " + cells.length / 3 + " cells (expected 8)");
+		System.out.println ("fits at 0|0|0 " + grid.fits (cells, 0, 0, 0) + " (expected true)");
+		grid.occupy (cells, 0, 0, 0);
+		System.out.println ("fits at 1|1|1 " + grid.fits (cells, 1, 1, 1) + " (expected false)");
+		System.out.println ("fits at 2|0|0 " + grid.fits (cells, 2, 0, 0) + " (expected true)");
+		System.out.println ("fits at 32|0|0 " + grid.fits (cells, 32, 0, 0) + " (expected false)");
+		System.out.println ("occupied " + grid.getOccupiedCount() + " (expected 8)");
+		//cube covers heights 0 and 1, cell 0|0|2 has index 2 and cell 0|1|2 has index 7
+		System.out.println ("next free of 0 " + grid.getNextFree (0) + " (expected 2) of 5 " + grid.getNextFree (5) + " (expected 7) of 1319 " + grid.getNextFree (1319) + " (expected 1319)");
+		OccupancyGrid copy = new OccupancyGrid (33, 8, 5);
+		copy.copy (grid);
+		System.out.println ("copy equal " + copy.equals (grid) + " (expected true) hash equal " + (copy.hashCode() == grid.hashCode()) + " (expected true)");
+	}
+
+	public void containerTest()
+	{
+		Container c = new Container (8, 8, 8);
+		Block[] s = {getCube (3, 3, 3), getCube (4, 3, 2), getCube (4, 2, 3), getCube (2, 2, 2)};
+		Glue[] p = {getPosition (0, 0, 0), getPosition (3, 3, 3), getPosition (3, 3, 3), getPosition (1, 1, 1)};
+		boolean[] expected = {true, true, false, false};
+
+		for (int cCheck = 0; cCheck < s.length; ++cCheck)
+		{
+			boolean possible = c.checkPositionOverlap (s[cCheck], p[cCheck]);
+			System.out.print ("placement " + cCheck + " possible " + possible + " (expected " + expected[cCheck] + ")");
+			System.out.println (" geometric " + c.checkGeometricOverlap (s[cCheck], p[cCheck]) + " (expected " + expected[cCheck] + ")");
+			if (possible)
+				c.placeBlock (s[cCheck], p[cCheck]);
+		}
+
+		Container verified = new Container (8, 8, 8);
+		verified.setOverlapCheck (Container.OverlapCheck.VERIFY);
+		int agreed = 0;
+		for (int cCheck = 0; cCheck < s.length; ++cCheck)
+		{
+			try
+			{
+				if (verified.checkPositionOverlap (s[cCheck], p[cCheck]))
+					verified.placeBlock (s[cCheck], p[cCheck]);
+				++agreed;
+			}
+			catch (Container.OverlapCheckMismatchException e)
+			{
+				System.out.println (e.getMessage());
+			}
+		}
+		System.out.println ("verified checks agreeing " + agreed + " (expected " + s.length + ")");
+	}
+}
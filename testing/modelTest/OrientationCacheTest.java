@@ -0,0 +1,130 @@
+package testing.modelTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import algorithm.ShapeRotator;
+import models.BasicShape;
+import models.Block;
+import models.Container;
+import models.Glue;
+import models.MakePieces;
+import models.Matrix;
+import models.OrientationCache;
+import models.Pieces;
+import models.BasicShape.RotationDir;
+import models.Matrix.*;
+
+/**
+ * test class for the process wide orientation cache
+ */
+public class OrientationCacheTest
+{
+	public static void main (String[] args)
+	{
+		OrientationCacheTest test = new OrientationCacheTest();
+		test.dedupTest();
+		test.sharingTest();
+		test.tableTest();
+	}
+
+	/**
+	 * @param d depth
+	 * @param w width
+	 * @param h height
+	 * @return cuboid block of size d x w x h
+	 */
+	public Block getCube (int d, int w, int h)
+	{
+		ArrayList<IntegerMatrix> verts = Container.computeInitDimVectors (d, w, h);
+		IntegerMatrix adjMat = Container.computeInitAdjacencyMatrix (verts);
+		return new Block (verts, adjMat, 1, "");
+	}
+
+	public void dedupTest()
+	{
+		OrientationCache.clear();
+		System.out.println ("cube rotations " + OrientationCache.getRotations (getCube (2, 2, 2)).size() + " (expected 1)");
+		System.out.println ("box rotations " + OrientationCache.getRotations (getCube (2, 3, 4)).size() + " (expected 6)");
+		System.out.println ("L rotations " + OrientationCache.getRotations (Pieces.createLBlock()).size() + " (expected 24)");
+		System.out.println ("T rotations " + OrientationCache.getRotations (Pieces.createTBlock()).size() + " (expected 12)");
+	}
+
+	public void sharingTest()
+	{
+		OrientationCache.clear();
+		Block box = getCube (2, 3, 4);
+		List<Block> first = OrientationCache.getRotations (box);
+		box.rotate (BasicShape.rotationMatrix (90, 0, RotationDir.ONWARD));
+		box.glue (new Glue (new IntegerMatrix (3, 1)));
+		List<Block> second = OrientationCache.getRotations (box);
+		System.out.println ("rotated piece shares entry " + (first == second) + " (expected true)");
+		System.out.println ("entries " + OrientationCache.size() + " hits " + OrientationCache.getHits() + " misses " + OrientationCache.getMisses() + " (expected 1 1 1)");
+
+		boolean frozen = false;
+		try
+		{
+			first.get (0).glue (new Glue (new IntegerMatrix (3, 1)));
+		}
+		catch (OrientationCache.FrozenBlockException e)
+		{
+			frozen = true;
+		}
+		System.out.println ("cached block frozen " + frozen + " (expected true)");
+		Block copy = first.get (0).clone();
+		copy.glue (new Glue (new IntegerMatrix (3, 1)));
+		System.out.println ("clone can be glued true (expected true)");
+	}
+
+	public void tableTest()
+	{
+		Matrix<Double> rotY = BasicShape.rotationMatrix (90, 0, RotationDir.ONWARD);
+		Matrix<Double> rotZ = BasicShape.rotationMatrix (0, 90, RotationDir.ONWARD);
+		Block l = Pieces.createLBlock();
+		ArrayList<Block> cached = MakePieces.getL();
+		boolean equal = true;
+		for (int cY = 0; cY < 4; ++cY)
+		{
+			for (int cZ = 0; cZ < 4; ++cZ)
+			{
+				Block rotated = l.clone();
+				for (int cRot = 0; cRot < cY; ++cRot)
+					rotated.rotate (rotY);
+				for (int cRot = 0; cRot < cZ; ++cRot)
+					rotated.rotate (rotZ);
+				rotated.glue (new Glue (new IntegerMatrix (3, 1)));
+				equal &= ShapeRotator.compareVertices (rotated, cached.get (4 * cY + cZ));
+			}
+		}
+		System.out.println ("L table matches sequential rotation " + equal + " (expected true)");
+		System.out.println ("T table size " + MakePieces.getT().size() + " (expected 12)");
+		Block t = Pieces.createTBlock();
+		boolean[] aroundY = {true, false, true, false, false, false, true, true, false};
+		for (boolean y : aroundY)
+			t.rotate (y ? rotY : rotZ);
+		t.glue (new Glue (new IntegerMatrix (3, 1)));
+		System.out.println ("last T matches sequential rotation " + ShapeRotator.compareVertices (t, MakePieces.getT().get (11)) + " (expected true)");
+
+		//box tables hold the box rotated around y and rotated around z, y and z
+		boolean boxesEqual = true;
+		ArrayList<Block> a = MakePieces.getA(), b = MakePieces.getB();
+		Block[] boxes = {a.get (0), b.get (0)};
+		ArrayList<ArrayList<Block>> tables = new ArrayList<>();
+		tables.add (a);
+		tables.add (b);
+		for (int cBox = 0; cBox < boxes.length; ++cBox)
+		{
+			Block first = boxes[cBox].clone(), second = boxes[cBox].clone();
+			first.rotate (rotY);
+			second.rotate (rotZ);
+			second.rotate (rotY);
+			second.rotate (rotZ);
+			for (int cDim = 0; cDim < 3; ++cDim)
+			{
+				boxesEqual &= (first.getDimensions (cDim) == tables.get (cBox).get (1).getDimensions (cDim));
+				boxesEqual &= (second.getDimensions (cDim) == tables.get (cBox).get (2).getDimensions (cDim));
+			}
+		}
+		System.out.println ("box tables match sequential rotation " + boxesEqual + " (expected true)");
+	}
+}
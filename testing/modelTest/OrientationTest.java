@@ -0,0 +1,76 @@
+package testing.modelTest;
+
+import java.util.ArrayList;
+
+import algorithm.ShapeRotator;
+import models.BasicShape;
+import models.Container;
+import models.Orientation;
+import models.BasicShape.RotationDir;
+import models.Matrix.*;
+
+/**
+ * test class for the table of axis aligned orientations
+ */
+public class OrientationTest
+{
+	public static void main (String[] args)
+	{
+		OrientationTest test = new OrientationTest();
+		test.tableTest();
+		test.matrixTest();
+		test.rotatorTest();
+	}
+
+	/**
+	 * @param d depth
+	 * @param w width
+	 * @param h height
+	 * @return cuboid shape of size d x w x h
+	 */
+	public BasicShape getCube (int d, int w, int h)
+	{
+		ArrayList<IntegerMatrix> verts = Container.computeInitDimVectors (d, w, h);
+		IntegerMatrix adjMat = Container.computeInitAdjacencyMatrix (verts);
+		return new BasicShape (verts, adjMat);
+	}
+
+	public void tableTest()
+	{
+		ArrayList<Orientation> all = Orientation.getAll();
+		boolean inverses = true, closed = true;
+		for (Orientation o : all)
+		{
+			inverses &= (o.compose (o.inverse()) == Orientation.getIdentity());
+			for (Orientation o2 : all)
+				closed &= (o.compose (o2) != null);
+		}
+		System.out.println ("orientations " + all.size() + " (expected 24)");
+		DoubleMatrix identity = (DoubleMatrix) BasicShape.rotationMatrix (0, 0, RotationDir.ONWARD);
+		System.out.println ("identity first " + all.get (0).toMatrix().equals (identity) + " (expected true)");
+		System.out.println ("inverses " + inverses + " (expected true)");
+		System.out.println ("closed " + closed + " (expected true)");
+	}
+
+	public void matrixTest()
+	{
+		double[][] angles = {{90, 0}, {0, 90}, {90, 90}, {-90, 90}, {180, 0}};
+		for (double[] angle : angles)
+		{
+			Orientation o = Orientation.fromMatrix (BasicShape.rotationMatrix (angle[0], angle[1], RotationDir.ONWARD));
+			System.out.println ("rotation " + angle[0] + " " + angle[1] + " is " + o);
+		}
+		System.out.println ("45 degrees is " + Orientation.fromMatrix (BasicShape.rotationMatrix (45, 0, RotationDir.ONWARD)) + " (expected null)");
+
+		BasicShape box = getCube (1, 2, 3);
+		box.rotate (BasicShape.rotationMatrix (90, 0, RotationDir.ONWARD));
+		System.out.println ("rotated box dimensions " + box.getDimensions() + " (expected [3, 2, 1])");
+	}
+
+	public void rotatorTest()
+	{
+		System.out.println ("cube rotations " + new ShapeRotator (getCube (2, 2, 2)).getRotations().size() + " (expected 1)");
+		System.out.println ("square rod rotations " + new ShapeRotator (getCube (1, 1, 3)).getRotations().size() + " (expected 3)");
+		System.out.println ("box rotations " + new ShapeRotator (getCube (1, 2, 3)).getRotations().size() + " (expected 6)");
+	}
+}